@@ -0,0 +1,55 @@
+package com.selimhorri.app.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.selimhorri.app.domain.Cart;
+import com.selimhorri.app.domain.Order;
+import com.selimhorri.app.domain.enums.OrderStatus;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.helper.OrderMappingHelper;
+
+final class BenchmarkFixtures {
+	
+	private BenchmarkFixtures() {
+	}
+	
+	static List<Cart> carts(final int size) {
+		return IntStream.rangeClosed(1, size)
+				.mapToObj(i -> Cart.builder()
+						.cartId(i)
+						.userId(i % 1_000 + 1)
+						.isActive(true)
+						.build())
+				.collect(Collectors.toList());
+	}
+	
+	static List<Order> orders(final int size) {
+		final LocalDateTime now = LocalDateTime.of(2024, 1, 1, 12, 0);
+		final OrderStatus[] statuses = OrderStatus.values();
+		return IntStream.rangeClosed(1, size)
+				.mapToObj(i -> Order.builder()
+						.orderId(i)
+						.orderDate(now.plusMinutes(i))
+						.orderDesc("order #" + i)
+						.orderFee(10.0 + i % 500)
+						.status(statuses[i % statuses.length])
+						.isActive(true)
+						.cart(Cart.builder()
+								.cartId(i % 250 + 1)
+								.userId(i % 1_000 + 1)
+								.isActive(true)
+								.build())
+						.build())
+				.collect(Collectors.toList());
+	}
+	
+	static List<OrderDto> orderDtos(final int size) {
+		return orders(size).stream()
+				.map(OrderMappingHelper::map)
+				.collect(Collectors.toList());
+	}
+	
+}
@@ -0,0 +1,83 @@
+package com.selimhorri.app.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.selimhorri.app.config.mapper.MapperConfig;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+
+/**
+ * Cost of each negotiable encoding on a large order listing. Encoded sizes are printed once per
+ * trial since JMH only reports time and allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EncodingBenchmark {
+	
+	private static final TypeReference<DtoCollectionResponse<OrderDto>> ORDER_COLLECTION_TYPE =
+			new TypeReference<DtoCollectionResponse<OrderDto>>() {};
+	
+	@Param({ "100", "10000" })
+	public int size;
+	
+	@Param({ "json-indented", "json", "smile", "cbor" })
+	public String encoding;
+	
+	private ObjectMapper objectMapper;
+	private DtoCollectionResponse<OrderDto> collectionResponse;
+	private byte[] encoded;
+	
+	@Setup
+	public void setUp() throws JsonProcessingException {
+		this.objectMapper = mapper(this.encoding);
+		this.collectionResponse = new DtoCollectionResponse<>(BenchmarkFixtures.orderDtos(this.size));
+		this.encoded = this.objectMapper.writeValueAsBytes(this.collectionResponse);
+		System.out.printf("%n[%s, size=%d] payload: %d bytes%n", this.encoding, this.size, this.encoded.length);
+	}
+	
+	@Benchmark
+	public byte[] encodeCollection() throws JsonProcessingException {
+		return this.objectMapper.writeValueAsBytes(this.collectionResponse);
+	}
+	
+	@Benchmark
+	public DtoCollectionResponse<OrderDto> decodeCollection() throws Exception {
+		return this.objectMapper.readValue(this.encoded, ORDER_COLLECTION_TYPE);
+	}
+	
+	private static ObjectMapper mapper(final String encoding) {
+		switch (encoding) {
+			case "json-indented":
+				return new MapperConfig().objectMapperBean().enable(SerializationFeature.INDENT_OUTPUT);
+			case "json":
+				return new MapperConfig().objectMapperBean();
+			case "smile":
+				return MapperConfig.smileMapper();
+			case "cbor":
+				return MapperConfig.cborMapper();
+			default:
+				throw new IllegalArgumentException("Unknown encoding: " + encoding);
+		}
+	}
+	
+}
@@ -0,0 +1,69 @@
+package com.selimhorri.app.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.selimhorri.app.domain.Cart;
+import com.selimhorri.app.domain.Order;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.helper.CartMappingHelper;
+import com.selimhorri.app.helper.OrderMappingHelper;
+
+/**
+ * Per-collection cost of the entity/DTO mapping helpers. Run with {@code -prof gc} and read
+ * {@code gc.alloc.rate.norm} for bytes allocated per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark {
+	
+	@Param({ "1", "100", "10000" })
+	public int size;
+	
+	private List<Order> orders;
+	private List<Cart> carts;
+	private List<OrderDto> orderDtos;
+	
+	@Setup
+	public void setUp() {
+		this.orders = BenchmarkFixtures.orders(this.size);
+		this.carts = BenchmarkFixtures.carts(this.size);
+		this.orderDtos = BenchmarkFixtures.orderDtos(this.size);
+	}
+	
+	@Benchmark
+	public void orderToDto(final Blackhole blackhole) {
+		for (final Order order : this.orders)
+			blackhole.consume(OrderMappingHelper.map(order));
+	}
+	
+	@Benchmark
+	public void orderDtoToEntityForCreation(final Blackhole blackhole) {
+		for (final OrderDto orderDto : this.orderDtos)
+			blackhole.consume(OrderMappingHelper.mapForCreationOrder(orderDto));
+	}
+	
+	@Benchmark
+	public void cartToDto(final Blackhole blackhole) {
+		for (final Cart cart : this.carts)
+			blackhole.consume(CartMappingHelper.map(cart));
+	}
+	
+}
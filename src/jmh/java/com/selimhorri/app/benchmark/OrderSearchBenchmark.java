@@ -0,0 +1,134 @@
+package com.selimhorri.app.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * First page of the order search shapes over a multi-million row orders table, on H2 in MySQL
+ * mode with the Flyway schema, with and without the V12 search indexes. The SQL is what
+ * OrderRepository#searchActiveViews issues for each shape.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class OrderSearchBenchmark {
+
+	private static final String ORDER_VIEW_COLUMNS =
+			"SELECT order_id, order_date, order_desc, order_fee, status, cart_id, version FROM orders ";
+	private static final int PAGE = 51;
+	private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+	@Param({ "2000000" })
+	public int rows;
+
+	@Param({ "true", "false" })
+	public boolean searchIndexes;
+
+	private Connection connection;
+	private PreparedStatement byStatusAndDate;
+	private PreparedStatement byFeeRange;
+	private PreparedStatement byCart;
+
+	@Setup
+	public void setUp() throws SQLException {
+		final String url = "jdbc:h2:mem:order_search_" + this.searchIndexes + ";MODE=MySQL;DB_CLOSE_DELAY=-1";
+		Flyway.configure()
+				.dataSource(url, "sa", "")
+				.load()
+				.migrate();
+		this.connection = DriverManager.getConnection(url, "sa", "");
+		try (Statement statement = this.connection.createStatement()) {
+			// One order a minute over the last years, 20 orders per cart, fees 0-999, 1 in 10 inactive
+			statement.execute("INSERT INTO carts (user_id, is_active) "
+					+ "SELECT MOD(X, 10000), TRUE FROM SYSTEM_RANGE(1, " + this.rows / 20 + ")");
+			statement.execute("INSERT INTO orders (cart_id, order_date, order_desc, order_fee, is_active, status) "
+					+ "SELECT MOD(X, " + this.rows / 20 + ") + 1, DATEADD('MINUTE', -X, TIMESTAMP '2024-01-01 00:00:00'), "
+					+ "'seed', MOD(X * 7919, 1000), MOD(X, 10) <> 0, "
+					+ "CASE MOD(X, 3) WHEN 0 THEN 'CREATED' WHEN 1 THEN 'ORDERED' ELSE 'IN_PAYMENT' END "
+					+ "FROM SYSTEM_RANGE(1, " + this.rows + ")");
+			if (!this.searchIndexes) {
+				statement.execute("DROP INDEX idx_orders_active_status_date");
+				statement.execute("DROP INDEX idx_orders_active_fee");
+				statement.execute("DROP INDEX idx_orders_cart_active_date");
+			}
+			statement.execute("ANALYZE");
+		}
+
+		this.byStatusAndDate = this.connection.prepareStatement(ORDER_VIEW_COLUMNS
+				+ "WHERE is_active = TRUE AND status = ? AND order_date >= ? AND order_date < ? "
+				+ "ORDER BY order_date DESC, order_id ASC LIMIT ? OFFSET 0");
+		this.byStatusAndDate.setString(1, "ORDERED");
+		this.byStatusAndDate.setTimestamp(2, Timestamp.valueOf(NOW.minusDays(30)));
+		this.byStatusAndDate.setTimestamp(3, Timestamp.valueOf(NOW));
+		this.byStatusAndDate.setInt(4, PAGE);
+
+		this.byFeeRange = this.connection.prepareStatement(ORDER_VIEW_COLUMNS
+				+ "WHERE is_active = TRUE AND order_fee >= ? AND order_fee <= ? "
+				+ "ORDER BY order_fee DESC, order_id ASC LIMIT ? OFFSET 0");
+		this.byFeeRange.setDouble(1, 100.0);
+		this.byFeeRange.setDouble(2, 110.0);
+		this.byFeeRange.setInt(3, PAGE);
+
+		this.byCart = this.connection.prepareStatement(ORDER_VIEW_COLUMNS
+				+ "WHERE is_active = TRUE AND cart_id = ? "
+				+ "ORDER BY order_date DESC, order_id ASC LIMIT ? OFFSET 0");
+		this.byCart.setInt(1, 4242);
+		this.byCart.setInt(2, PAGE);
+	}
+
+	@TearDown
+	public void tearDown() throws SQLException {
+		try (Statement statement = this.connection.createStatement()) {
+			statement.execute("DROP ALL OBJECTS");
+		}
+		this.connection.close();
+	}
+
+	@Benchmark
+	public void statusAndDateRangeByDate(final Blackhole blackhole) throws SQLException {
+		consume(this.byStatusAndDate, blackhole);
+	}
+
+	@Benchmark
+	public void feeRangeByFee(final Blackhole blackhole) throws SQLException {
+		consume(this.byFeeRange, blackhole);
+	}
+
+	@Benchmark
+	public void cartByDate(final Blackhole blackhole) throws SQLException {
+		consume(this.byCart, blackhole);
+	}
+
+	private static void consume(final PreparedStatement statement, final Blackhole blackhole) throws SQLException {
+		try (ResultSet resultSet = statement.executeQuery()) {
+			while (resultSet.next())
+				blackhole.consume(resultSet.getInt(1));
+		}
+	}
+
+}
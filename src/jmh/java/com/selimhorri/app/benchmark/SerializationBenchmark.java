@@ -0,0 +1,68 @@
+package com.selimhorri.app.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.selimhorri.app.config.mapper.MapperConfig;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+
+/**
+ * Jackson cost of the order payloads with the application ObjectMapper, including the
+ * LOCAL_DATE_TIME_FORMAT date pattern and the nested cart object.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+	
+	@Param({ "1", "100", "10000" })
+	public int size;
+	
+	private ObjectMapper objectMapper;
+	private OrderDto orderDto;
+	private DtoCollectionResponse<OrderDto> collectionResponse;
+	private byte[] orderJson;
+	
+	@Setup
+	public void setUp() throws JsonProcessingException {
+		this.objectMapper = new MapperConfig().objectMapperBean();
+		final List<OrderDto> orderDtos = BenchmarkFixtures.orderDtos(this.size);
+		this.orderDto = orderDtos.get(0);
+		this.collectionResponse = new DtoCollectionResponse<>(orderDtos);
+		this.orderJson = this.objectMapper.writeValueAsBytes(this.orderDto);
+	}
+	
+	@Benchmark
+	public byte[] serializeOrder() throws JsonProcessingException {
+		return this.objectMapper.writeValueAsBytes(this.orderDto);
+	}
+	
+	@Benchmark
+	public OrderDto deserializeOrder() throws Exception {
+		return this.objectMapper.readValue(this.orderJson, OrderDto.class);
+	}
+	
+	@Benchmark
+	public byte[] serializeCollection() throws JsonProcessingException {
+		return this.objectMapper.writeValueAsBytes(this.collectionResponse);
+	}
+	
+}
@@ -0,0 +1,38 @@
+package com.selimhorri.app.cache;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import com.selimhorri.app.domain.Cart;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Hit ratio of the second-level cache regions, next to the raw hibernate.second.level.cache.requests
+ * counters Boot already exports from the Hibernate statistics.
+ */
+@Component
+public class HibernateCacheMetrics {
+	
+	public HibernateCacheMetrics(final EntityManagerFactory entityManagerFactory, final MeterRegistry meterRegistry) {
+		final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		Gauge.builder("hibernate_cache_region_hit_ratio", statistics, s -> hitRatio(s, Cart.CACHE_REGION))
+				.description("Share of second-level cache lookups answered by the region")
+				.tag("region", Cart.CACHE_REGION)
+				.register(meterRegistry);
+	}
+	
+	static double hitRatio(final Statistics statistics, final String region) {
+		final CacheRegionStatistics regionStatistics = statistics.getDomainDataRegionStatistics(region);
+		if (regionStatistics == null)
+			return 0.0;
+		final long lookups = regionStatistics.getHitCount() + regionStatistics.getMissCount();
+		return lookups == 0 ? 0.0 : (double) regionStatistics.getHitCount() / lookups;
+	}
+	
+}
@@ -0,0 +1,139 @@
+package com.selimhorri.app.cache;
+
+import java.util.Optional;
+
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.selimhorri.app.config.client.UserServiceClientProperties;
+import com.selimhorri.app.dto.UserDto;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Bounded local copy of USER-SERVICE answers. Entries are fresh for {@code ttl}, cached 404s
+ * for {@code negativeTtl}, and found users are kept up to {@code staleTtl} so they can still be
+ * served when the remote lookup fails.
+ */
+@Component
+public class UserDtoCache {
+
+	private final UserServiceClientProperties.UserCache settings;
+	private final Cache<Integer, CachedUser> cache;
+	private final MeterRegistry meterRegistry;
+	private final Counter hitCounter;
+	private final Counter missCounter;
+	private final Counter staleHitCounter;
+
+	public UserDtoCache(final UserServiceClientProperties properties, final MeterRegistry meterRegistry) {
+		this.settings = properties.getCache();
+		this.meterRegistry = meterRegistry;
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(this.settings.getMaximumSize())
+				.expireAfter(new Expiry<Integer, CachedUser>() {
+					@Override
+					public long expireAfterCreate(final Integer key, final CachedUser value, final long currentTime) {
+						return lifetimeNanos(value);
+					}
+					@Override
+					public long expireAfterUpdate(final Integer key, final CachedUser value, final long currentTime,
+							final long currentDuration) {
+						return lifetimeNanos(value);
+					}
+					@Override
+					public long expireAfterRead(final Integer key, final CachedUser value, final long currentTime,
+							final long currentDuration) {
+						return currentDuration;
+					}
+				})
+				.removalListener((Integer key, CachedUser value, RemovalCause cause) -> {
+					if (cause.wasEvicted())
+						Counter.builder("user_cache_evictions_total")
+								.description("User cache entries evicted by size or age")
+								.tag("cause", cause.name().toLowerCase())
+								.register(this.meterRegistry)
+								.increment();
+				})
+				.build();
+
+		this.hitCounter = Counter.builder("user_cache_hits_total")
+				.description("User lookups answered from a fresh cache entry")
+				.register(meterRegistry);
+		this.missCounter = Counter.builder("user_cache_misses_total")
+				.description("User lookups that had to go to USER-SERVICE")
+				.register(meterRegistry);
+		this.staleHitCounter = Counter.builder("user_cache_stale_hits_total")
+				.description("Expired user entries served because USER-SERVICE was unavailable")
+				.register(meterRegistry);
+		Gauge.builder("user_cache_size", this.cache, Cache::estimatedSize)
+				.description("Entries currently held in the user cache")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * A fresh entry for the user, whose {@link CachedUser#getUser()} is empty for a cached 404,
+	 * or empty when USER-SERVICE has to be asked.
+	 */
+	public Optional<CachedUser> getFresh(final Integer userId) {
+		final CachedUser cached = this.cache.getIfPresent(userId);
+		if (cached != null && this.isFresh(cached)) {
+			this.hitCounter.increment();
+			return Optional.of(cached);
+		}
+		this.missCounter.increment();
+		return Optional.empty();
+	}
+
+	public Optional<UserDto> getStale(final Integer userId) {
+		if (!this.settings.isServeStale())
+			return Optional.empty();
+		final CachedUser cached = this.cache.getIfPresent(userId);
+		if (cached == null || cached.user == null)
+			return Optional.empty();
+		this.staleHitCounter.increment();
+		return Optional.of(cached.user);
+	}
+
+	public void put(final Integer userId, final Optional<UserDto> user) {
+		this.cache.put(userId, new CachedUser(user.orElse(null), System.nanoTime()));
+	}
+
+	public void invalidateAll() {
+		this.cache.invalidateAll();
+	}
+
+	private boolean isFresh(final CachedUser cached) {
+		return cached.user == null
+				|| System.nanoTime() - cached.writtenAtNanos < this.settings.getTtl().toNanos();
+	}
+
+	private long lifetimeNanos(final CachedUser cached) {
+		if (cached.user == null)
+			return this.settings.getNegativeTtl().toNanos();
+		return this.settings.isServeStale()
+				? Math.max(this.settings.getTtl().toNanos(), this.settings.getStaleTtl().toNanos())
+				: this.settings.getTtl().toNanos();
+	}
+
+	public static final class CachedUser {
+
+		private final UserDto user;
+		private final long writtenAtNanos;
+
+		private CachedUser(final UserDto user, final long writtenAtNanos) {
+			this.user = user;
+			this.writtenAtNanos = writtenAtNanos;
+		}
+
+		public Optional<UserDto> getUser() {
+			return Optional.ofNullable(this.user);
+		}
+
+	}
+
+}
@@ -0,0 +1,122 @@
+package com.selimhorri.app.cache;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.stereotype.Component;
+
+import com.selimhorri.app.config.client.UserServiceClientProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Bloom filter over the ids of users USER-SERVICE has confirmed to exist. A miss means the user
+ * has to be checked remotely; a hit means the user was confirmed before, or is a false positive
+ * at the rate published as {@code user_existence_filter_false_positive_rate}. Ids are never
+ * removed, so a user deleted in USER-SERVICE keeps passing until the next restart.
+ */
+@Component
+public class UserExistenceFilter {
+
+	private final boolean enabled;
+	private final long bitCount;
+	private final int hashCount;
+	private final AtomicLongArray words;
+	private final LongAdder bitsSet = new LongAdder();
+	private final Counter avoidedCounter;
+	private final Counter missCounter;
+
+	public UserExistenceFilter(final UserServiceClientProperties properties, final MeterRegistry meterRegistry) {
+		final UserServiceClientProperties.ExistenceFilter settings = properties.getExistenceFilter();
+		this.enabled = settings.isEnabled();
+		final long expectedUsers = Math.max(1, settings.getExpectedUsers());
+		final double falsePositiveRate = Math.min(0.5, Math.max(1e-9, settings.getFalsePositiveRate()));
+		// Standard sizing: m = -n ln p / (ln 2)^2 bits and k = m / n ln 2 hash functions
+		final long bits = this.enabled
+				? (long) Math.ceil(-expectedUsers * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)))
+				: Long.SIZE;
+		final int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, (bits + Long.SIZE - 1) / Long.SIZE);
+		this.words = new AtomicLongArray(wordCount);
+		this.bitCount = (long) wordCount * Long.SIZE;
+		this.hashCount = Math.max(1, (int) Math.round((double) this.bitCount / expectedUsers * Math.log(2)));
+
+		this.avoidedCounter = Counter.builder("user_existence_remote_calls_avoided_total")
+				.description("User existence checks answered by the local filter instead of USER-SERVICE")
+				.register(meterRegistry);
+		this.missCounter = Counter.builder("user_existence_filter_misses_total")
+				.description("User existence checks the local filter could not answer")
+				.register(meterRegistry);
+		Gauge.builder("user_existence_filter_false_positive_rate", this, UserExistenceFilter::expectedFalsePositiveRate)
+				.description("Probability that an unconfirmed user id is taken as existing, from the current fill")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Whether the user may skip the remote existence check; always false while disabled.
+	 */
+	public boolean mightContain(final Integer userId) {
+		if (!this.enabled || userId == null)
+			return false;
+		final long hash = mix(userId);
+		final int h1 = (int) hash;
+		final int h2 = (int) (hash >>> 32) | 1;
+		for (int i = 1; i <= this.hashCount; i++)
+			if (!this.isSet(this.index(h1, h2, i))) {
+				this.missCounter.increment();
+				return false;
+			}
+		this.avoidedCounter.increment();
+		return true;
+	}
+
+	public void add(final Integer userId) {
+		if (!this.enabled || userId == null)
+			return;
+		final long hash = mix(userId);
+		final int h1 = (int) hash;
+		final int h2 = (int) (hash >>> 32) | 1;
+		for (int i = 1; i <= this.hashCount; i++)
+			this.set(this.index(h1, h2, i));
+	}
+
+	public void addAll(final Collection<Integer> userIds) {
+		userIds.forEach(this::add);
+	}
+
+	public double expectedFalsePositiveRate() {
+		return Math.pow((double) this.bitsSet.sum() / this.bitCount, this.hashCount);
+	}
+
+	// Kirsch-Mitzenmacher: the k indexes come from two halves of one 64-bit hash
+	private long index(final int h1, final int h2, final int i) {
+		return ((h1 + (long) i * h2) & Long.MAX_VALUE) % this.bitCount;
+	}
+
+	private boolean isSet(final long index) {
+		return (this.words.get((int) (index >>> 6)) & (1L << index)) != 0;
+	}
+
+	private void set(final long index) {
+		final int word = (int) (index >>> 6);
+		final long mask = 1L << index;
+		long current;
+		do {
+			current = this.words.get(word);
+			if ((current & mask) != 0)
+				return;
+		} while (!this.words.compareAndSet(word, current, current | mask));
+		this.bitsSet.increment();
+	}
+
+	// SplitMix64 finalizer, sequential ids land far apart
+	private static long mix(final int userId) {
+		long z = userId + 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+}
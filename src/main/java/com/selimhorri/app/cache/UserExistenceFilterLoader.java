@@ -0,0 +1,49 @@
+package com.selimhorri.app.cache;
+
+import java.util.List;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import com.selimhorri.app.config.client.UserServiceClientProperties;
+import com.selimhorri.app.repository.CartRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Seeds the {@link UserExistenceFilter} at startup with the users that own carts, so a restart
+ * does not send every cart creation back to USER-SERVICE. A failure only leaves the filter cold.
+ */
+@Component
+@Slf4j
+public class UserExistenceFilterLoader implements ApplicationRunner {
+	
+	private final UserExistenceFilter userExistenceFilter;
+	private final CartRepository cartRepository;
+	private final UserServiceClientProperties.ExistenceFilter settings;
+	
+	public UserExistenceFilterLoader(final UserExistenceFilter userExistenceFilter,
+			final CartRepository cartRepository,
+			final UserServiceClientProperties properties) {
+		this.userExistenceFilter = userExistenceFilter;
+		this.cartRepository = cartRepository;
+		this.settings = properties.getExistenceFilter();
+	}
+	
+	@Override
+	public void run(final ApplicationArguments args) {
+		if (!this.settings.isEnabled() || !this.settings.isWarmFromCarts())
+			return;
+		try {
+			final List<Integer> userIds = this.cartRepository.findDistinctUserIds();
+			this.userExistenceFilter.addAll(userIds);
+			log.info("User existence filter seeded with {} users, expected false positive rate {}",
+					userIds.size(), this.userExistenceFilter.expectedFalsePositiveRate());
+		}
+		catch (RuntimeException e) {
+			log.warn("Could not seed the user existence filter from carts: {}", e.getMessage());
+		}
+	}
+	
+}
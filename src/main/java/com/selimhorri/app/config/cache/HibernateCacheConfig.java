@@ -0,0 +1,62 @@
+package com.selimhorri.app.config.cache;
+
+import java.net.URI;
+import java.time.Duration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.selimhorri.app.domain.Cart;
+
+/**
+ * Hibernate second-level cache on JCache/Ehcache, configured here rather than in ehcache.xml so
+ * each region is bounded and expired from application properties. Regions that are not declared
+ * make startup fail instead of silently growing an unbounded default cache.
+ */
+@Configuration
+public class HibernateCacheConfig {
+	
+	@Bean(destroyMethod = "close")
+	public CacheManager hibernateCacheManager(
+			@Value("${app.hibernate-cache.cart.max-entries:10000}") final long cartMaxEntries,
+			@Value("${app.hibernate-cache.cart.ttl:10m}") final Duration cartTtl) {
+		final EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching
+				.getCachingProvider(EhcacheCachingProvider.class.getName());
+		// A URI per context so restarts and test contexts never share or collide on regions
+		return provider.getCacheManager(
+				URI.create("urn:order-service:hibernate-cache:" + System.identityHashCode(this)),
+				ConfigurationBuilder.newConfigurationBuilder()
+						.withCache(Cart.CACHE_REGION, CacheConfigurationBuilder
+								.newCacheConfigurationBuilder(Object.class, Object.class,
+										ResourcePoolsBuilder.heap(cartMaxEntries))
+								.withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(cartTtl)))
+						.build());
+	}
+	
+	@Bean
+	public HibernatePropertiesCustomizer hibernateCacheCustomizer(final CacheManager hibernateCacheManager) {
+		return properties -> {
+			properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+			properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+			properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+			properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+			// Feeds the hibernate.second.level.cache.* meters and the region hit ratio gauge
+			properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+		};
+	}
+	
+	
+	
+}
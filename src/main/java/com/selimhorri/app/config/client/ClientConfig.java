@@ -1,29 +1,150 @@
 package com.selimhorri.app.config.client;
 
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Scope;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import io.netty.channel.ChannelOption;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 @Configuration
+@EnableConfigurationProperties({ UserServiceClientProperties.class, HttpClientProperties.class })
 public class ClientConfig {
 	
+	private static final String POOL_NAME = "inter-service";
+	
+	@Bean
+	public PoolingHttpClientConnectionManager interServiceConnectionManager(final HttpClientProperties properties) {
+		final PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+		connectionManager.setMaxTotal(properties.getMaxConnections());
+		connectionManager.setDefaultMaxPerRoute(properties.getMaxConnectionsPerRoute());
+		// Re-check connections that sat idle, the peer may have closed them
+		connectionManager.setValidateAfterInactivity(2_000);
+		return connectionManager;
+	}
+	
+	@Bean
+	public CloseableHttpClient interServiceHttpClient(final PoolingHttpClientConnectionManager connectionManager,
+			final HttpClientProperties properties) {
+		return HttpClients.custom()
+				.setConnectionManager(connectionManager)
+				.setDefaultRequestConfig(RequestConfig.custom()
+						.setConnectTimeout((int) properties.getConnectTimeout().toMillis())
+						.setSocketTimeout((int) properties.getReadTimeout().toMillis())
+						.setConnectionRequestTimeout((int) properties.getPoolAcquireTimeout().toMillis())
+						.build())
+				.setKeepAliveStrategy((response, context) -> {
+					final long keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+					return keepAlive > 0 ? keepAlive : properties.getKeepAlive().toMillis();
+				})
+				.evictExpiredConnections()
+				.evictIdleConnections(properties.getIdleTimeout().toMillis(), TimeUnit.MILLISECONDS)
+				.build();
+	}
+	
+	@Bean
+	public MeterBinder interServiceConnectionPoolMetrics(final PoolingHttpClientConnectionManager connectionManager) {
+		return new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, POOL_NAME);
+	}
+	
+	@Bean
+	public OutboundRequestMetricsInterceptor outboundRequestMetricsInterceptor(final MeterRegistry meterRegistry,
+			@Value("${app.metrics.high-cardinality-tags:true}") final boolean highCardinalityTags) {
+		return new OutboundRequestMetricsInterceptor(meterRegistry, highCardinalityTags);
+	}
+	
+	// Built from the Boot builder so calls are timed as http.client.requests; Boot only provides
+	// the builder to servlet applications, the reactive profile starts from a plain one
+	@LoadBalanced
+	@Bean
+	public RestTemplate restTemplateBean(final ObjectProvider<RestTemplateBuilder> restTemplateBuilder,
+			final CloseableHttpClient interServiceHttpClient,
+			final OutboundRequestMetricsInterceptor outboundRequestMetricsInterceptor) {
+		return restTemplateBuilder.getIfAvailable(RestTemplateBuilder::new)
+				.requestFactory(() -> new HttpComponentsClientHttpRequestFactory(interServiceHttpClient))
+				.additionalInterceptors(outboundRequestMetricsInterceptor)
+				.build();
+	}
+	
+	@Bean(destroyMethod = "dispose")
+	public ConnectionProvider interServiceConnectionProvider(final HttpClientProperties properties) {
+		return ConnectionProvider.builder(POOL_NAME)
+				.maxConnections(properties.getMaxConnections())
+				.pendingAcquireTimeout(properties.getPoolAcquireTimeout())
+				.maxIdleTime(properties.getIdleTimeout())
+				.metrics(true)
+				.build();
+	}
+	
+	// Non-blocking client for composing calls; prototype like Boot's own builder since builders are mutable
 	@LoadBalanced
 	@Bean
-	public RestTemplate restTemplateBean() {
-		return new RestTemplate();
+	@Scope("prototype")
+	public WebClient.Builder loadBalancedWebClientBuilder(final ConnectionProvider interServiceConnectionProvider,
+			final HttpClientProperties properties, final ObjectProvider<WebClientCustomizer> customizers) {
+		final HttpClient httpClient = HttpClient.create(interServiceConnectionProvider)
+				.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+				.responseTimeout(properties.getReadTimeout())
+				.metrics(true, ClientConfig::uriTag);
+		final WebClient.Builder builder = WebClient.builder()
+				.clientConnector(new ReactorClientHttpConnector(httpClient));
+		customizers.orderedStream().forEach(customizer -> customizer.customize(builder));
+		return builder;
+	}
+	
+	// Replaced by a virtual thread executor in VirtualThreadConfig
+	@Bean(name = "userEnrichmentExecutor")
+	@ConditionalOnProperty(name = "app.threads.virtual.enabled", havingValue = "false", matchIfMissing = true)
+	public ThreadPoolTaskExecutor userEnrichmentExecutor(final UserServiceClientProperties properties) {
+		final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(properties.getEnrichmentPoolSize());
+		executor.setMaxPoolSize(properties.getEnrichmentPoolSize());
+		executor.setQueueCapacity(properties.getEnrichmentPoolSize() * 32);
+		// Saturation pushes lookups back onto the request thread instead of failing them
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+		executor.setThreadNamePrefix("user-enrichment-");
+		return executor;
+	}
+	
+	// Settings live under resilience4j.circuitbreaker.instances.userService; taken from the registry
+	// so the breaker gets its health indicator, metrics and events like the others
+	@Bean
+	public CircuitBreaker userServiceCircuitBreaker(final CircuitBreakerRegistry circuitBreakerRegistry) {
+		return circuitBreakerRegistry.circuitBreaker("userService");
+	}
+	
+	// Keeps reactor-netty's per-uri meters bounded: ids and query strings are collapsed
+	static String uriTag(final String uri) {
+		final int query = uri.indexOf('?');
+		return (query < 0 ? uri : uri.substring(0, query)).replaceAll("/\\d+(?=/|$)", "/{id}");
 	}
 	
 	
 	
 }
-
-
-
-
-
-
-
-
-
-
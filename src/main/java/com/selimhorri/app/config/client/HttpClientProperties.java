@@ -0,0 +1,26 @@
+package com.selimhorri.app.config.client;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "app.http-client")
+public class HttpClientProperties {
+	
+	// Shared by every discovered service, each service instance is one route
+	private int maxConnections = 200;
+	private int maxConnectionsPerRoute = 50;
+	
+	private Duration connectTimeout = Duration.ofSeconds(2);
+	private Duration readTimeout = Duration.ofSeconds(5);
+	// How long a call waits for a pooled connection before failing fast
+	private Duration poolAcquireTimeout = Duration.ofSeconds(1);
+	
+	// Idle connections are closed after idleTimeout; keepAlive applies when the server sends no Keep-Alive header
+	private Duration idleTimeout = Duration.ofSeconds(30);
+	private Duration keepAlive = Duration.ofSeconds(30);
+	
+}
@@ -0,0 +1,79 @@
+package com.selimhorri.app.config.client;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Times each RestTemplate exchange as {@code outbound_request}, tagged by the target service,
+ * outcome and status and, unless high-cardinality tags are off, by the exception type and the
+ * path with ids collapsed. Registered ahead of the load balancer so the client tag is the
+ * service id rather than an instance address.
+ */
+public class OutboundRequestMetricsInterceptor implements ClientHttpRequestInterceptor {
+	
+	private final MeterRegistry meterRegistry;
+	private final boolean highCardinalityTags;
+	
+	public OutboundRequestMetricsInterceptor(final MeterRegistry meterRegistry, final boolean highCardinalityTags) {
+		this.meterRegistry = meterRegistry;
+		this.highCardinalityTags = highCardinalityTags;
+	}
+	
+	@Override
+	public ClientHttpResponse intercept(final HttpRequest request, final byte[] body,
+			final ClientHttpRequestExecution execution) throws IOException {
+		final Timer.Sample sample = Timer.start(this.meterRegistry);
+		ClientHttpResponse response = null;
+		Throwable failure = null;
+		try {
+			response = execution.execute(request, body);
+			return response;
+		}
+		catch (IOException | RuntimeException e) {
+			failure = e;
+			throw e;
+		}
+		finally {
+			final int status = status(response);
+			final Timer.Builder timer = Timer.builder("outbound_request")
+					.tag("client", String.valueOf(request.getURI().getHost()))
+					.tag("method", request.getMethodValue())
+					.tag("status", failure != null || status < 0 ? "IO_ERROR" : String.valueOf(status))
+					.tag("outcome", outcome(failure, status))
+					.publishPercentileHistogram();
+			if (this.highCardinalityTags)
+				timer.tag("uri", ClientConfig.uriTag(request.getURI().getPath()))
+						.tag("exception", failure == null ? "none" : failure.getClass().getSimpleName());
+			sample.stop(timer.register(this.meterRegistry));
+		}
+	}
+	
+	private static int status(final ClientHttpResponse response) {
+		if (response == null)
+			return -1;
+		try {
+			return response.getRawStatusCode();
+		}
+		catch (IOException e) {
+			return -1;
+		}
+	}
+	
+	private static String outcome(final Throwable failure, final int status) {
+		if (failure != null || status < 0)
+			return "error";
+		if (status >= 500)
+			return "server_error";
+		if (status >= 400)
+			return "client_error";
+		return "success";
+	}
+	
+}
@@ -0,0 +1,56 @@
+package com.selimhorri.app.config.client;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import com.selimhorri.app.constant.AppConstant;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "app.user-service")
+public class UserServiceClientProperties {
+	
+	private String apiUrl = AppConstant.DiscoveredDomainsApi.USER_SERVICE_API_URL;
+	
+	// Relative to apiUrl, e.g. "/bulk"; left empty while USER-SERVICE offers no bulk lookup
+	private String bulkPath;
+	private int bulkBatchSize = 100;
+	
+	// Max in-flight lookups for a single enrichment, and the shared pool backing them
+	private int enrichmentParallelism = 8;
+	private int enrichmentPoolSize = 32;
+	private Duration enrichmentTimeout = Duration.ofSeconds(3);
+	
+	private final UserCache cache = new UserCache();
+	
+	private final ExistenceFilter existenceFilter = new ExistenceFilter();
+	
+	@Data
+	public static class UserCache {
+		
+		private long maximumSize = 10_000;
+		private Duration ttl = Duration.ofMinutes(5);
+		// 404s are remembered briefly so a user created meanwhile shows up soon
+		private Duration negativeTtl = Duration.ofSeconds(30);
+		// Expired entries are kept this long to answer while USER-SERVICE fails or its circuit is open
+		private boolean serveStale = true;
+		private Duration staleTtl = Duration.ofHours(1);
+		
+	}
+	
+	@Data
+	public static class ExistenceFilter {
+		
+		// Lets cart creation skip USER-SERVICE for users already confirmed to exist
+		private boolean enabled = true;
+		// Sizing: the filter holds expectedUsers at falsePositiveRate, more users raise the rate
+		private long expectedUsers = 1_000_000;
+		private double falsePositiveRate = 0.001;
+		// Seed with the users of existing carts at startup, each of them was confirmed when its cart was created
+		private boolean warmFromCarts = true;
+		
+	}
+	
+}
@@ -1,31 +1,53 @@
 package com.selimhorri.app.config.mapper;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 
 @Configuration
 public class MapperConfig {
 	
+	// Indented JSON only where a human reads it, see application-dev.yml
+	@Value("${app.json.pretty-print:false}")
+	private boolean prettyPrint;
+	
 	@Bean
 	public ObjectMapper objectMapperBean() {
 		return new JsonMapper()
-				.enable(SerializationFeature.INDENT_OUTPUT);
+				.configure(SerializationFeature.INDENT_OUTPUT, this.prettyPrint);
+	}
+	
+	/*
+	 * Binary encodings for service-to-service callers, negotiated with
+	 * Accept: application/x-jackson-smile or application/cbor. JSON stays the default.
+	 */
+	
+	@Bean
+	public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter() {
+		return new MappingJackson2SmileHttpMessageConverter(smileMapper());
+	}
+	
+	@Bean
+	public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter() {
+		return new MappingJackson2CborHttpMessageConverter(cborMapper());
+	}
+	
+	public static ObjectMapper smileMapper() {
+		return new SmileMapper();
+	}
+	
+	public static ObjectMapper cborMapper() {
+		return new CBORMapper();
 	}
 	
 	
 	
 }
-
-
-
-
-
-
-
-
-
-
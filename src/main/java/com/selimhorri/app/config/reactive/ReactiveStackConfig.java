@@ -0,0 +1,46 @@
+package com.selimhorri.app.config.reactive;
+
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.r2dbc.spi.ConnectionFactory;
+
+/**
+ * Wiring for the reactive profile. The JPA stack stays up next to it for Flyway and the outbox
+ * relay, so the R2DBC transaction manager is kept out of the context.
+ */
+@Configuration
+@Profile("reactive")
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class ReactiveStackConfig {
+	
+	// Tomcat is on the classpath for the servlet stack and would otherwise host WebFlux
+	@Bean
+	public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+		return new NettyReactiveWebServerFactory();
+	}
+	
+	// DataSourceAutoConfiguration backs off once R2DBC provides a ConnectionFactory, JPA still needs its pool
+	@Bean
+	@ConfigurationProperties("spring.datasource.hikari")
+	public HikariDataSource dataSource(final DataSourceProperties dataSourceProperties) {
+		return dataSourceProperties.initializeDataSourceBuilder()
+				.type(HikariDataSource.class)
+				.build();
+	}
+	
+	@Bean
+	public TransactionalOperator reactiveTransactionalOperator(final ConnectionFactory connectionFactory) {
+		return TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+	}
+	
+}
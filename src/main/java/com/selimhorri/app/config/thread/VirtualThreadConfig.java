@@ -0,0 +1,37 @@
+package com.selimhorri.app.config.thread;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Opt-in virtual thread mode ({@code app.threads.virtual.enabled=true}): each request and each
+ * USER-SERVICE lookup gets its own virtual thread, so blocking on JDBC or HTTP no longer ties up a
+ * pooled platform thread. Concurrency is then bounded by the Hikari and HTTP connection pools.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.threads.virtual.enabled", havingValue = "true")
+@Slf4j
+public class VirtualThreadConfig {
+	
+	@Bean
+	public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+		log.info("Handling requests on virtual threads");
+		return protocolHandler -> protocolHandler.setExecutor(
+				Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("http-virtual-", 0).factory()));
+	}
+	
+	@Bean(name = "userEnrichmentExecutor")
+	public ExecutorService userEnrichmentExecutor() {
+		return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("user-enrichment-", 0).factory());
+	}
+	
+	
+	
+}
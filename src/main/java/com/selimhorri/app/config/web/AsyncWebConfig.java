@@ -0,0 +1,34 @@
+package com.selimhorri.app.config.web;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class AsyncWebConfig implements WebMvcConfigurer {
+	
+	// Each export holds a thread and a database cursor for its whole duration
+	@Value("${app.export.max-concurrent:4}")
+	private int maxConcurrentExports;
+	
+	@Bean(name = "mvcAsyncExecutor")
+	public ThreadPoolTaskExecutor mvcAsyncExecutor() {
+		final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(this.maxConcurrentExports);
+		executor.setMaxPoolSize(this.maxConcurrentExports);
+		executor.setQueueCapacity(this.maxConcurrentExports * 2);
+		executor.setThreadNamePrefix("mvc-async-");
+		return executor;
+	}
+	
+	@Override
+	public void configureAsyncSupport(final AsyncSupportConfigurer configurer) {
+		configurer.setTaskExecutor(this.mvcAsyncExecutor());
+	}
+	
+	
+	
+}
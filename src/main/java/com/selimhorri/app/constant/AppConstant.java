@@ -11,6 +11,10 @@ public abstract class AppConstant {
 	public static final String ZONED_DATE_TIME_FORMAT = "dd-MM-yyyy__HH:mm:ss:SSSSSS";
 	public static final String INSTANT_FORMAT = "dd-MM-yyyy__HH:mm:ss:SSSSSS";
 	
+	public static final int PAGE_DEFAULT_SIZE = 50;
+	public static final int PAGE_MAX_SIZE = 500;
+	public static final int BULK_MAX_SIZE = 1000;
+	
 	@NoArgsConstructor(access = AccessLevel.PRIVATE)
 	public abstract class DiscoveredDomainsApi {
 		
@@ -3,6 +3,7 @@ package com.selimhorri.app.domain;
 import java.io.Serializable;
 import java.util.Set;
 
+import javax.persistence.Cacheable;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
@@ -13,6 +14,9 @@ import javax.persistence.Id;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import lombok.AllArgsConstructor;
@@ -24,6 +28,8 @@ import lombok.ToString;
 
 @Entity
 @Table(name = "carts")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Cart.CACHE_REGION)
 @NoArgsConstructor
 @AllArgsConstructor
 @ToString(exclude = "orders") // IMPORTANT: Exclude orders collection
@@ -34,6 +40,9 @@ public final class Cart extends AbstractMappedEntity implements Serializable {
 	
 	private static final long serialVersionUID = 1L;
 	
+	// Second-level cache region, sized and expired in HibernateCacheConfig
+	public static final String CACHE_REGION = "com.selimhorri.app.domain.Cart";
+	
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	@Column(name = "cart_id", unique = true, nullable = false, updatable = false)
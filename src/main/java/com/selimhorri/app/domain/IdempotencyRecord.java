@@ -0,0 +1,64 @@
+package com.selimhorri.app.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Lob;
+import javax.persistence.Table;
+
+import org.springframework.data.domain.Persistable;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response of a request sent with an {@code Idempotency-Key}, kept until it expires so retries of
+ * that request are answered with it instead of running again.
+ */
+@Entity
+@Table(name = "idempotency_keys")
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class IdempotencyRecord implements Persistable<String>, Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	// Scope and client key, e.g. "orders:3f2c..."
+	@Id
+	@Column(name = "idempotency_key", nullable = false, updatable = false)
+	private String idempotencyKey;
+
+	// SHA-256 of the request body, a key reused with another body is rejected
+	@Column(name = "request_hash", length = 64, nullable = false, updatable = false)
+	private String requestHash;
+
+	// Sized for the largest bulk response, a response the row cannot hold is rejected rather than kept in memory only
+	@Lob
+	@Column(name = "response_body", columnDefinition = "mediumtext", nullable = false, updatable = false)
+	private String responseBody;
+
+	@Column(name = "created_at", nullable = false, updatable = false)
+	private Instant createdAt;
+
+	@Column(name = "expires_at", nullable = false, updatable = false)
+	private Instant expiresAt;
+
+	@Override
+	public String getId() {
+		return this.idempotencyKey;
+	}
+
+	// Always inserted, so a key taken by a concurrent request fails on the primary key instead of being merged over
+	@Override
+	public boolean isNew() {
+		return true;
+	}
+
+}
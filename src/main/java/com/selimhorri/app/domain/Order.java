@@ -14,6 +14,8 @@ import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
+import javax.persistence.TableGenerator;
+import javax.persistence.Version;
 
 import org.springframework.format.annotation.DateTimeFormat;
 
@@ -45,8 +47,12 @@ public final class Order extends AbstractMappedEntity implements Serializable {
 
 	private static final long serialVersionUID = 1L;
 
+	// Table-backed pooled ids (IDENTITY disables Hibernate insert batching, MySQL has no sequences)
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.TABLE, generator = "order_id_generator")
+	@TableGenerator(name = "order_id_generator", table = "order_id_sequence",
+			pkColumnName = "sequence_name", valueColumnName = "next_val", pkColumnValue = "orders",
+			allocationSize = 50)
 	@Column(name = "order_id", unique = true, nullable = false, updatable = false)
 	private Integer orderId;
 
@@ -75,4 +81,8 @@ public final class Order extends AbstractMappedEntity implements Serializable {
 	@Builder.Default
 	private OrderStatus status = OrderStatus.CREATED;
 
+	@Version
+	@Column(name = "version", nullable = false)
+	private Long version;
+
 }
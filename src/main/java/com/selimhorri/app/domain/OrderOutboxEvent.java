@@ -0,0 +1,58 @@
+package com.selimhorri.app.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import com.selimhorri.app.domain.enums.OrderEventType;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Order change written in the same transaction as the change itself and removed once relayed.
+ * Event ids come from the database identity, so for a given order they grow with the order's
+ * changes on every instance, and the relay publishes in event id order.
+ */
+@Entity
+@Table(name = "order_outbox")
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class OrderOutboxEvent implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	// Not pooled: a block held by one instance would hand out ids lower than those already used by
+	// another, and the relay would publish a later change of an order before an earlier one
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@Column(name = "event_id", unique = true, nullable = false, updatable = false)
+	private Long eventId;
+
+	@Column(name = "order_id", nullable = false, updatable = false)
+	private Integer orderId;
+
+	@Enumerated(EnumType.STRING)
+	@Column(name = "event_type", nullable = false, updatable = false)
+	private OrderEventType eventType;
+
+	// OrderDto as JSON, as it was right after the change
+	@Column(name = "payload", length = 4000, nullable = false, updatable = false)
+	private String payload;
+
+	@Column(name = "created_at", nullable = false, updatable = false)
+	private Instant createdAt;
+
+}
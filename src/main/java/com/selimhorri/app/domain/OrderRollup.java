@@ -0,0 +1,46 @@
+package com.selimhorri.app.domain;
+
+import java.io.Serializable;
+
+import javax.persistence.Column;
+import javax.persistence.EmbeddedId;
+import javax.persistence.Entity;
+import javax.persistence.Table;
+
+import org.springframework.data.domain.Persistable;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Count and fee sum of the active orders dated within one hour or day bucket and in one status.
+ * Kept up to date in the transaction of every order change, so statistics never scan orders.
+ */
+@Entity
+@Table(name = "order_rollups")
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class OrderRollup implements Persistable<OrderRollupId>, Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	@EmbeddedId
+	private OrderRollupId id;
+
+	@Column(name = "order_count", nullable = false)
+	private Long orderCount;
+
+	@Column(name = "fee_sum", columnDefinition = "decimal", nullable = false)
+	private Double feeSum;
+
+	// Buckets are only ever inserted, a concurrent creation must fail on the key rather than be merged over
+	@Override
+	public boolean isNew() {
+		return true;
+	}
+
+}
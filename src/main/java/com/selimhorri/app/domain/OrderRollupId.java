@@ -0,0 +1,37 @@
+package com.selimhorri.app.domain;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+
+import com.selimhorri.app.domain.enums.OrderStatus;
+import com.selimhorri.app.domain.enums.RollupGranularity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Embeddable
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class OrderRollupId implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	@Enumerated(EnumType.STRING)
+	@Column(name = "granularity", nullable = false, updatable = false)
+	private RollupGranularity granularity;
+
+	@Column(name = "bucket_start", nullable = false, updatable = false)
+	private LocalDateTime bucketStart;
+
+	@Enumerated(EnumType.STRING)
+	@Column(name = "status", nullable = false, updatable = false)
+	private OrderStatus status;
+
+}
@@ -0,0 +1,27 @@
+package com.selimhorri.app.domain.enums;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+// Cart properties a sparse read can ask for, by their JSON name; user is the USER-SERVICE lookup
+public enum CartField {
+    CART_ID("cartId"),
+    USER_ID("userId"),
+    USER("user");
+
+    private final String jsonName;
+
+    CartField(final String jsonName) {
+        this.jsonName = jsonName;
+    }
+
+    public String getJsonName() {
+        return this.jsonName;
+    }
+
+    public static Optional<CartField> fromJsonName(final String jsonName) {
+        return Arrays.stream(values())
+                .filter(f -> f.jsonName.equals(jsonName))
+                .findFirst();
+    }
+}
@@ -0,0 +1,8 @@
+package com.selimhorri.app.domain.enums;
+
+public enum OrderEventType {
+    ORDER_CREATED,
+    ORDER_UPDATED,
+    ORDER_STATUS_CHANGED,
+    ORDER_DEACTIVATED
+}
@@ -0,0 +1,38 @@
+package com.selimhorri.app.domain.enums;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+// Order properties a sparse read can ask for, by their JSON name, with the column each one reads
+public enum OrderField {
+    ORDER_ID("orderId", "o.orderId"),
+    ORDER_DATE("orderDate", "o.orderDate"),
+    ORDER_DESC("orderDesc", "o.orderDesc"),
+    ORDER_FEE("orderFee", "o.orderFee"),
+    ORDER_STATUS("orderStatus", "o.status"),
+    VERSION("version", "o.version"),
+    CART("cart", "o.cart.cartId");
+
+    private final String jsonName;
+    private final String path;
+
+    OrderField(final String jsonName, final String path) {
+        this.jsonName = jsonName;
+        this.path = path;
+    }
+
+    public String getJsonName() {
+        return this.jsonName;
+    }
+
+    // JPQL path of the column, o being the order
+    public String getPath() {
+        return this.path;
+    }
+
+    public static Optional<OrderField> fromJsonName(final String jsonName) {
+        return Arrays.stream(values())
+                .filter(f -> f.jsonName.equals(jsonName))
+                .findFirst();
+    }
+}
@@ -3,5 +3,33 @@ package com.selimhorri.app.domain.enums;
 public enum OrderStatus {
     CREATED,
     ORDERED,
-    IN_PAYMENT
+    IN_PAYMENT;
+
+    public boolean isFinal() {
+        return this == IN_PAYMENT;
+    }
+
+    // Next state in the order lifecycle, IN_PAYMENT is final
+    public OrderStatus next() {
+        switch (this) {
+            case CREATED:
+                return ORDERED;
+            case ORDERED:
+                return IN_PAYMENT;
+            default:
+                throw new IllegalStateException("Order status " + this + " has no next status");
+        }
+    }
+
+    // Status an order was in before it reached this one, CREATED is the first
+    public OrderStatus previous() {
+        switch (this) {
+            case ORDERED:
+                return CREATED;
+            case IN_PAYMENT:
+                return ORDERED;
+            default:
+                throw new IllegalStateException("Order status " + this + " has no previous status");
+        }
+    }
 }
@@ -0,0 +1,31 @@
+package com.selimhorri.app.domain.enums;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+public enum RollupGranularity {
+    HOUR(ChronoUnit.HOURS, 48),
+    DAY(ChronoUnit.DAYS, 30);
+
+    private final ChronoUnit unit;
+    private final int defaultBuckets;
+
+    RollupGranularity(final ChronoUnit unit, final int defaultBuckets) {
+        this.unit = unit;
+        this.defaultBuckets = defaultBuckets;
+    }
+
+    // Start of the bucket the instant falls in
+    public LocalDateTime truncate(final LocalDateTime dateTime) {
+        return dateTime.truncatedTo(this.unit);
+    }
+
+    public LocalDateTime plus(final LocalDateTime bucketStart, final long buckets) {
+        return bucketStart.plus(buckets, this.unit);
+    }
+
+    // Buckets returned when a statistics request gives no start
+    public int getDefaultBuckets() {
+        return this.defaultBuckets;
+    }
+}
@@ -0,0 +1,21 @@
+package com.selimhorri.app.domain.projection;
+
+import java.io.Serializable;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * Read-only row of the carts table without the audit columns and without touching the cart
+ * second-level cache.
+ */
+@Value
+@AllArgsConstructor
+public class CartView implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	Integer cartId;
+	Integer userId;
+	
+}
@@ -0,0 +1,31 @@
+package com.selimhorri.app.domain.projection;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import com.selimhorri.app.domain.enums.OrderStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Read-only row of the orders table, with the cart reduced to its foreign key so reads never
+ * join or load carts.
+ */
+@Value
+@AllArgsConstructor
+@Builder
+public class OrderView implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	Integer orderId;
+	LocalDateTime orderDate;
+	String orderDesc;
+	Double orderFee;
+	OrderStatus status;
+	Integer cartId;
+	Long version;
+	
+}
@@ -0,0 +1,27 @@
+package com.selimhorri.app.domain.projection;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * Just enough of a row to tell whether it changed: its id, {@code updated_at} and, for entities
+ * that have one, the optimistic lock version. Backs the ETags of the single resource reads.
+ */
+@Value
+@AllArgsConstructor
+public class VersionView implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	Integer id;
+	Instant updatedAt;
+	Long version;
+	
+	public VersionView(final Integer id, final Instant updatedAt) {
+		this(id, updatedAt, null);
+	}
+	
+}
@@ -0,0 +1,40 @@
+package com.selimhorri.app.domain.reactive;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * R2DBC mapping of the carts table for the reactive profile.
+ */
+@Table("carts")
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class CartRecord {
+
+	@Id
+	@Column("cart_id")
+	private Integer cartId;
+
+	@Column("user_id")
+	private Integer userId;
+
+	@Column("is_active")
+	private boolean isActive;
+
+	@Column("created_at")
+	private LocalDateTime createdAt;
+
+	@Column("updated_at")
+	private LocalDateTime updatedAt;
+
+}
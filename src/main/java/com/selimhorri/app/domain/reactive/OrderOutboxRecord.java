@@ -0,0 +1,54 @@
+package com.selimhorri.app.domain.reactive;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.domain.Persistable;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import com.selimhorri.app.domain.enums.OrderEventType;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * R2DBC mapping of the order_outbox table. Event ids are left to the database identity and rows are
+ * never updated, so every save is an insert; the JPA relay deletes them once published.
+ */
+@Table("order_outbox")
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class OrderOutboxRecord implements Persistable<Long> {
+
+	@Id
+	@Column("event_id")
+	private Long eventId;
+
+	@Column("order_id")
+	private Integer orderId;
+
+	@Column("event_type")
+	private OrderEventType eventType;
+
+	@Column("payload")
+	private String payload;
+
+	@Column("created_at")
+	private LocalDateTime createdAt;
+
+	@Override
+	public Long getId() {
+		return this.eventId;
+	}
+
+	@Override
+	public boolean isNew() {
+		return true;
+	}
+
+}
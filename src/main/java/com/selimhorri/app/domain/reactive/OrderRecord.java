@@ -0,0 +1,61 @@
+package com.selimhorri.app.domain.reactive;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import com.selimhorri.app.domain.enums.OrderStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * R2DBC mapping of the orders table for the reactive profile. The cart is kept as its id,
+ * there is no association to load. A null version marks a row that still has to be inserted.
+ */
+@Table("orders")
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class OrderRecord {
+
+	@Id
+	@Column("order_id")
+	private Integer orderId;
+
+	@Column("order_date")
+	private LocalDateTime orderDate;
+
+	@Column("order_desc")
+	private String orderDesc;
+
+	@Column("order_fee")
+	private Double orderFee;
+
+	@Column("cart_id")
+	private Integer cartId;
+
+	@Column("is_active")
+	private boolean isActive;
+
+	@Column("status")
+	@Builder.Default
+	private OrderStatus status = OrderStatus.CREATED;
+
+	@Version
+	@Column("version")
+	private Long version;
+
+	@Column("created_at")
+	private LocalDateTime createdAt;
+
+	@Column("updated_at")
+	private LocalDateTime updatedAt;
+
+}
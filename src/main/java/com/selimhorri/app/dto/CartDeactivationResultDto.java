@@ -0,0 +1,23 @@
+package com.selimhorri.app.dto;
+
+import java.io.Serializable;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class CartDeactivationResultDto implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	private int cartsDeactivated;
+	
+	// Orders in a final status stay active, they are not counted here
+	private int ordersDeactivated;
+	
+}
@@ -0,0 +1,33 @@
+package com.selimhorri.app.dto;
+
+import java.io.Serializable;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class OrderCreationResultDto implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	// Position of the item in the request array
+	private int index;
+	private boolean created;
+	
+	@JsonProperty("order")
+	@JsonInclude(Include.NON_NULL)
+	private OrderDto orderDto;
+	
+	@JsonInclude(Include.NON_NULL)
+	private String error;
+	
+}
@@ -41,6 +41,9 @@ public class OrderDto implements Serializable {
 	private Double orderFee;
 	private OrderStatus orderStatus;
 	
+	// Optimistic lock version, send it back on update to reject stale writes
+	private Long version;
+	
 	@JsonProperty("cart")
 	@JsonInclude(Include.NON_NULL)
 	private CartDto cartDto;
@@ -0,0 +1,32 @@
+package com.selimhorri.app.dto;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import com.selimhorri.app.domain.enums.OrderStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Filters of an order search, every one optional. {@code from} is inclusive and {@code to}
+ * exclusive; both fee bounds are inclusive.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class OrderSearchDto implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	private OrderStatus status;
+	private LocalDateTime from;
+	private LocalDateTime to;
+	private Double minFee;
+	private Double maxFee;
+	private Integer cartId;
+	
+}
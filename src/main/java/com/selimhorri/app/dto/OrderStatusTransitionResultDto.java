@@ -0,0 +1,33 @@
+package com.selimhorri.app.dto;
+
+import java.io.Serializable;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class OrderStatusTransitionResultDto implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	private Integer orderId;
+	private boolean updated;
+	
+	@JsonProperty("order")
+	@JsonInclude(Include.NON_NULL)
+	private OrderDto orderDto;
+	
+	// Why the order was left as it was: not found, not in the expected status, or already final
+	@JsonInclude(Include.NON_NULL)
+	private String error;
+	
+}
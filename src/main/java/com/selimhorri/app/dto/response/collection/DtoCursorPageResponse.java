@@ -0,0 +1,26 @@
+package com.selimhorri.app.dto.response.collection;
+
+import java.util.Collection;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class DtoCursorPageResponse<T> {
+	
+	private Collection<T> collection;
+	private int size;
+	
+	// Opaque token to pass back as ?cursor= to fetch the next page, absent on the last page
+	@JsonInclude(Include.NON_NULL)
+	private String nextCursor;
+	
+}
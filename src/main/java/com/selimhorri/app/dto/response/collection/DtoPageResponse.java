@@ -0,0 +1,23 @@
+package com.selimhorri.app.dto.response.collection;
+
+import java.util.Collection;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class DtoPageResponse<T> {
+	
+	private Collection<T> collection;
+	private int page;
+	private int size;
+	
+	// Known from one extra row instead of a count query over every match
+	private boolean hasNext;
+	
+}
@@ -6,6 +6,7 @@ import java.time.ZonedDateTime;
 import javax.persistence.EntityNotFoundException;
 
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -15,8 +16,14 @@ import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
 import com.selimhorri.app.exception.payload.ExceptionMsg;
+import com.selimhorri.app.exception.wrapper.BatchSizeExceededException;
 import com.selimhorri.app.exception.wrapper.CartNotFoundException;
+import com.selimhorri.app.exception.wrapper.IdempotencyKeyConflictException;
+import com.selimhorri.app.exception.wrapper.InvalidCursorException;
+import com.selimhorri.app.exception.wrapper.InvalidFieldsException;
+import com.selimhorri.app.exception.wrapper.InvalidIdempotencyKeyException;
 import com.selimhorri.app.exception.wrapper.OrderNotFoundException;
+import com.selimhorri.app.exception.wrapper.OrderStatusConflictException;
 import com.selimhorri.app.exception.wrapper.UserNotFoundException;
 
 import lombok.RequiredArgsConstructor;
@@ -46,6 +53,48 @@ public class ApiExceptionHandler {
 				badRequest);
 	}
 
+	@ExceptionHandler(value = {
+			InvalidCursorException.class,
+			InvalidFieldsException.class,
+			BatchSizeExceededException.class,
+			InvalidIdempotencyKeyException.class
+	})
+	public <T extends RuntimeException> ResponseEntity<ExceptionMsg> handleBadRequestException(final T e) {
+
+		log.info("**ApiExceptionHandler controller, handle bad request*\n");
+		final var badRequest = HttpStatus.BAD_REQUEST;
+
+		return new ResponseEntity<>(
+				ExceptionMsg.builder()
+						.msg("#### " + e.getMessage() + "! ####")
+						.httpStatus(badRequest)
+						.timestamp(ZonedDateTime
+								.now(ZoneId.systemDefault()))
+						.build(),
+				badRequest);
+	}
+
+	@ExceptionHandler(value = {
+			OrderStatusConflictException.class,
+			IdempotencyKeyConflictException.class,
+			// JPA raises the ObjectOptimisticLockingFailureException subtype, R2DBC the base type
+			OptimisticLockingFailureException.class
+	})
+	public <T extends RuntimeException> ResponseEntity<ExceptionMsg> handleConflictException(final T e) {
+
+		log.info("**ApiExceptionHandler controller, handle conflict*\n");
+		final var conflict = HttpStatus.CONFLICT;
+
+		return new ResponseEntity<>(
+				ExceptionMsg.builder()
+						.msg("#### " + e.getMessage() + "! ####")
+						.httpStatus(conflict)
+						.timestamp(ZonedDateTime
+								.now(ZoneId.systemDefault()))
+						.build(),
+				conflict);
+	}
+
 	@ExceptionHandler(value = {
 			CartNotFoundException.class,
 			OrderNotFoundException.class,
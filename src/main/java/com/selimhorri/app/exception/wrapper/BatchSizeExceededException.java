@@ -0,0 +1,23 @@
+package com.selimhorri.app.exception.wrapper;
+
+public class BatchSizeExceededException extends RuntimeException {
+	
+	private static final long serialVersionUID = 1L;
+	
+	public BatchSizeExceededException() {
+		super();
+	}
+	
+	public BatchSizeExceededException(String message, Throwable cause) {
+		super(message, cause);
+	}
+	
+	public BatchSizeExceededException(String message) {
+		super(message);
+	}
+	
+	public BatchSizeExceededException(Throwable cause) {
+		super(cause);
+	}
+	
+}
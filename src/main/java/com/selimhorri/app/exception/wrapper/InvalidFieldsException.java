@@ -0,0 +1,23 @@
+package com.selimhorri.app.exception.wrapper;
+
+public class InvalidFieldsException extends RuntimeException {
+	
+	private static final long serialVersionUID = 1L;
+	
+	public InvalidFieldsException() {
+		super();
+	}
+	
+	public InvalidFieldsException(String message, Throwable cause) {
+		super(message, cause);
+	}
+	
+	public InvalidFieldsException(String message) {
+		super(message);
+	}
+	
+	public InvalidFieldsException(Throwable cause) {
+		super(cause);
+	}
+	
+}
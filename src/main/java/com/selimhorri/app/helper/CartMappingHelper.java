@@ -1,6 +1,10 @@
 package com.selimhorri.app.helper;
 
+import java.time.LocalDateTime;
+
 import com.selimhorri.app.domain.Cart;
+import com.selimhorri.app.domain.projection.CartView;
+import com.selimhorri.app.domain.reactive.CartRecord;
 import com.selimhorri.app.dto.CartDto;
 import com.selimhorri.app.dto.UserDto;
 
@@ -17,6 +21,13 @@ public interface CartMappingHelper {
 				.build();
 	}
 	
+	public static CartDto map(final CartView cartView) {
+		return CartDto.builder()
+				.cartId(cartView.getCartId())
+				.userId(cartView.getUserId())
+				.build();
+	}
+	
 	public static Cart map(final CartDto cartDto) {
 		return Cart.builder()
 				.cartId(cartDto.getCartId())
@@ -24,6 +35,26 @@ public interface CartMappingHelper {
 				.build();
 	}
 	
+	public static CartDto map(final CartRecord cartRecord) {
+		return CartDto.builder()
+				.cartId(cartRecord.getCartId())
+				.userId(cartRecord.getUserId())
+				.userDto(
+						UserDto.builder()
+							.userId(cartRecord.getUserId())
+							.build())
+				.build();
+	}
+	
+	public static CartRecord mapForCreationRecord(final CartDto cartDto, final LocalDateTime now) {
+		return CartRecord.builder()
+				.userId(cartDto.getUserId())
+				.isActive(true)
+				.createdAt(now)
+				.updatedAt(now)
+				.build();
+	}
+	
 	
 	
 }
@@ -0,0 +1,32 @@
+package com.selimhorri.app.helper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import com.selimhorri.app.exception.wrapper.InvalidCursorException;
+
+public interface CursorHelper {
+	
+	String CURSOR_PREFIX = "k1:";
+	
+	public static String encode(final Integer lastSeenId) {
+		return Base64.getUrlEncoder()
+				.withoutPadding()
+				.encodeToString((CURSOR_PREFIX + lastSeenId).getBytes(StandardCharsets.UTF_8));
+	}
+	
+	public static Integer decode(final String cursor) {
+		if (cursor == null || cursor.isBlank())
+			return 0;
+		try {
+			final String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+			if (!raw.startsWith(CURSOR_PREFIX))
+				throw new InvalidCursorException("Malformed page cursor");
+			return Integer.valueOf(raw.substring(CURSOR_PREFIX.length()));
+		}
+		catch (IllegalArgumentException e) {
+			throw new InvalidCursorException("Malformed page cursor", e);
+		}
+	}
+	
+}
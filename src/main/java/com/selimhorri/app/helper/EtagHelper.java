@@ -0,0 +1,16 @@
+package com.selimhorri.app.helper;
+
+import com.selimhorri.app.domain.projection.VersionView;
+
+public interface EtagHelper {
+	
+	// Strong validator; updated_at only has second precision in MySQL, the version tells apart
+	// orders changed twice within the same second. Rows never updated since the seed have no updated_at.
+	public static String of(final VersionView versionView) {
+		final long updatedAt = versionView.getUpdatedAt() == null ? 0L : versionView.getUpdatedAt().toEpochMilli();
+		return versionView.getVersion() == null
+				? String.format("\"%d-%d\"", versionView.getId(), updatedAt)
+				: String.format("\"%d-%d-%d\"", versionView.getId(), updatedAt, versionView.getVersion());
+	}
+	
+}
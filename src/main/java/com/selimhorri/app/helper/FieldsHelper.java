@@ -0,0 +1,37 @@
+package com.selimhorri.app.helper;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.selimhorri.app.exception.wrapper.InvalidFieldsException;
+
+public interface FieldsHelper {
+	
+	// Comma separated ?fields= value, e.g. "orderId,orderStatus"
+	public static <E extends Enum<E>> Set<E> parse(final String fields, final Class<E> type,
+			final Function<String, Optional<E>> lookup) {
+		final Set<E> parsed = EnumSet.noneOf(type);
+		for (final String field : fields.split(",")) {
+			if (field.isBlank())
+				continue;
+			parsed.add(lookup.apply(field.trim())
+					.orElseThrow(() -> new InvalidFieldsException("Unknown field: " + field.trim())));
+		}
+		if (parsed.isEmpty())
+			throw new InvalidFieldsException("At least one field must be requested");
+		return parsed;
+	}
+	
+	// Serialized with the DTO's own Jackson annotations, then cut down to the requested properties
+	public static ObjectNode select(final ObjectMapper objectMapper, final Object dto, final Collection<String> jsonNames) {
+		final ObjectNode node = objectMapper.valueToTree(dto);
+		node.retain(jsonNames);
+		return node;
+	}
+	
+}
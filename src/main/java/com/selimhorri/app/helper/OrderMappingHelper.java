@@ -5,6 +5,8 @@ import java.time.LocalDateTime;
 import com.selimhorri.app.domain.Cart;
 import com.selimhorri.app.domain.Order;
 import com.selimhorri.app.domain.enums.OrderStatus;
+import com.selimhorri.app.domain.projection.OrderView;
+import com.selimhorri.app.domain.reactive.OrderRecord;
 import com.selimhorri.app.dto.CartDto;
 import com.selimhorri.app.dto.OrderDto;
 
@@ -17,13 +19,49 @@ public interface OrderMappingHelper {
                                 .orderDesc(order.getOrderDesc())
                                 .orderFee(order.getOrderFee())
                                 .orderStatus(order.getStatus())
-                                .cartDto(
-                                                CartDto.builder()
+                                .version(order.getVersion())
+                                // The cart FK is nulled when a cart row is deleted
+                                .cartDto(order.getCart() == null
+                                                ? null
+                                                : CartDto.builder()
                                                                 .cartId(order.getCart().getCartId())
                                                                 .build())
                                 .build();
         }
 
+        public static OrderDto map(final OrderView orderView) {
+                return OrderDto.builder()
+                                .orderId(orderView.getOrderId())
+                                .orderDate(orderView.getOrderDate())
+                                .orderDesc(orderView.getOrderDesc())
+                                .orderFee(orderView.getOrderFee())
+                                .orderStatus(orderView.getStatus())
+                                .version(orderView.getVersion())
+                                // The cart FK is nulled when a cart row is deleted
+                                .cartDto(orderView.getCartId() == null
+                                                ? null
+                                                : CartDto.builder()
+                                                                .cartId(orderView.getCartId())
+                                                                .build())
+                                .build();
+        }
+
+        public static OrderDto map(final OrderRecord orderRecord) {
+                return OrderDto.builder()
+                                .orderId(orderRecord.getOrderId())
+                                .orderDate(orderRecord.getOrderDate())
+                                .orderDesc(orderRecord.getOrderDesc())
+                                .orderFee(orderRecord.getOrderFee())
+                                .orderStatus(orderRecord.getStatus())
+                                .version(orderRecord.getVersion())
+                                .cartDto(orderRecord.getCartId() == null
+                                                ? null
+                                                : CartDto.builder()
+                                                                .cartId(orderRecord.getCartId())
+                                                                .build())
+                                .build();
+        }
+
         public static Order map(final OrderDto orderDto) {
                 return Order.builder()
                                 .orderId(orderDto.getOrderId())
@@ -59,14 +97,36 @@ public interface OrderMappingHelper {
                                 .build();
         }
 
-        // New method for update operations that preserves cart association
-        public static Order mapForUpdate(final OrderDto orderDto, final Cart cart) {
-                return Order.builder()
-                                .orderId(orderDto.getOrderId())
-                                .orderDate(orderDto.getOrderDate())
+        // The id is reserved up front and the null version makes the save an insert
+        public static OrderRecord mapForCreationRecord(final OrderDto orderDto, final Integer orderId,
+                        final LocalDateTime now) {
+                return OrderRecord.builder()
+                                .orderId(orderId)
+                                .orderDate(now)
                                 .orderDesc(orderDto.getOrderDesc())
                                 .orderFee(orderDto.getOrderFee())
-                                .cart(cart) // Preserve the existing cart
+                                .cartId(orderDto.getCartDto().getCartId())
+                                .isActive(true)
+                                .status(
+                                                orderDto.getOrderStatus() != null
+                                                                ? orderDto.getOrderStatus()
+                                                                : OrderStatus.CREATED)
+                                .createdAt(now)
+                                .updatedAt(now)
                                 .build();
         }
+
+        // Copies the editable fields onto the managed order, so cart, status and version are preserved
+        public static Order mapForUpdate(final OrderDto orderDto, final Order existingOrder) {
+                existingOrder.setOrderDesc(orderDto.getOrderDesc());
+                existingOrder.setOrderFee(orderDto.getOrderFee());
+                return existingOrder;
+        }
+
+        public static OrderRecord mapForUpdate(final OrderDto orderDto, final OrderRecord existingOrder) {
+                existingOrder.setOrderDesc(orderDto.getOrderDesc());
+                existingOrder.setOrderFee(orderDto.getOrderFee());
+                existingOrder.setUpdatedAt(LocalDateTime.now());
+                return existingOrder;
+        }
 }
\ No newline at end of file
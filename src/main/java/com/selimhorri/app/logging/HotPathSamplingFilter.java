@@ -0,0 +1,104 @@
+package com.selimhorri.app.logging;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Marker;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+
+/**
+ * Thins out the per-request {@code "*** ... *"} INFO messages of the configured loggers before
+ * Logback builds an event for them: each logger keeps one message in {@code sampleRate} and at
+ * most {@code maxPerSecond} per second. WARN and above, and every other message, pass untouched.
+ */
+public class HotPathSamplingFilter extends TurboFilter {
+	
+	private static final String HOT_PATH_PREFIX = "*** ";
+	
+	private final LongSupplier nanoClock;
+	private final List<String> loggerPrefixes = new ArrayList<>();
+	private final ConcurrentMap<String, Budget> budgets = new ConcurrentHashMap<>();
+	private int sampleRate = 1;
+	private int maxPerSecond = 0;
+	
+	public HotPathSamplingFilter() {
+		this(System::nanoTime);
+	}
+	
+	HotPathSamplingFilter(final LongSupplier nanoClock) {
+		this.nanoClock = nanoClock;
+	}
+	
+	// Logger name prefix, repeatable as <loggerPrefix> in logback-spring.xml
+	public void addLoggerPrefix(final String loggerPrefix) {
+		this.loggerPrefixes.add(loggerPrefix.trim());
+	}
+	
+	// 1 keeps every message
+	public void setSampleRate(final int sampleRate) {
+		this.sampleRate = Math.max(1, sampleRate);
+	}
+	
+	// 0 or less means no limit
+	public void setMaxPerSecond(final int maxPerSecond) {
+		this.maxPerSecond = maxPerSecond;
+	}
+	
+	@Override
+	public FilterReply decide(final Marker marker, final Logger logger, final Level level, final String format,
+			final Object[] params, final Throwable t) {
+		// isXxxEnabled() calls come without a format and keep answering by level only; messages
+		// below the logger level are dropped by Logback anyway and are not counted here
+		if (format == null || !format.startsWith(HOT_PATH_PREFIX)
+				|| level.isGreaterOrEqual(Level.WARN)
+				|| !level.isGreaterOrEqual(logger.getEffectiveLevel())
+				|| !this.isHotPath(logger.getName()))
+			return FilterReply.NEUTRAL;
+		
+		final Budget budget = this.budgets.computeIfAbsent(logger.getName(), name -> new Budget());
+		if (this.sampleRate > 1 && budget.seen.getAndIncrement() % this.sampleRate != 0) {
+			LogDropReason.SAMPLED.record();
+			return FilterReply.DENY;
+		}
+		if (this.maxPerSecond > 0
+				&& !budget.tryAcquire(TimeUnit.NANOSECONDS.toSeconds(this.nanoClock.getAsLong()), this.maxPerSecond)) {
+			LogDropReason.RATE_LIMITED.record();
+			return FilterReply.DENY;
+		}
+		return FilterReply.NEUTRAL;
+	}
+	
+	private boolean isHotPath(final String loggerName) {
+		for (final String loggerPrefix : this.loggerPrefixes)
+			if (loggerName.startsWith(loggerPrefix))
+				return true;
+		return false;
+	}
+	
+	private static final class Budget {
+		
+		private final AtomicLong seen = new AtomicLong();
+		private final AtomicLong second = new AtomicLong(Long.MIN_VALUE);
+		private final AtomicInteger admitted = new AtomicInteger();
+		
+		// Fixed one-second window; the reset may let a few extra messages through at the boundary
+		private boolean tryAcquire(final long now, final int limit) {
+			final long current = this.second.get();
+			if (current != now && this.second.compareAndSet(current, now))
+				this.admitted.set(0);
+			return this.admitted.incrementAndGet() <= limit;
+		}
+		
+	}
+	
+}
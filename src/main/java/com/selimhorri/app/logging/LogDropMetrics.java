@@ -0,0 +1,25 @@
+package com.selimhorri.app.logging;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Publishes the {@link LogDropReason} counts as {@code logging_events_dropped_total}, so a
+ * saturated log pipeline or an over-eager sampling setting shows up next to the request metrics.
+ */
+@Component
+public class LogDropMetrics implements MeterBinder {
+	
+	@Override
+	public void bindTo(final MeterRegistry meterRegistry) {
+		for (final LogDropReason reason : LogDropReason.values())
+			FunctionCounter.builder("logging_events_dropped_total", reason, LogDropReason::count)
+					.description("Log events discarded before reaching an appender, by reason")
+					.tag("reason", reason.tag())
+					.register(meterRegistry);
+	}
+	
+}
@@ -0,0 +1,31 @@
+package com.selimhorri.app.logging;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Why a log event never reached an appender. The counts live here rather than in a MeterRegistry
+ * because Logback builds its filters and appenders before the Spring context exists.
+ */
+public enum LogDropReason {
+    // Async queue full, or past its discarding threshold for an INFO or lower event
+    QUEUE_FULL,
+    // Hot-path message skipped by per-logger sampling
+    SAMPLED,
+    // Hot-path message over the per-logger limit for the current second
+    RATE_LIMITED;
+
+    private final LongAdder count = new LongAdder();
+
+    public void record() {
+        this.count.increment();
+    }
+
+    public long count() {
+        return this.count.sum();
+    }
+
+    public String tag() {
+        return this.name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,26 @@
+package com.selimhorri.app.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+/**
+ * Logback's {@link AsyncAppender}, a bounded array-backed ring of events drained by one worker
+ * thread, with the events it throws away counted as {@link LogDropReason#QUEUE_FULL} instead of
+ * lost silently. With {@code neverBlock} set a request thread never waits on the disk.
+ */
+public class MeteredAsyncAppender extends AsyncAppender {
+	
+	@Override
+	protected void append(final ILoggingEvent event) {
+		final int remainingCapacity = this.getRemainingCapacity();
+		// The same two checks the base class makes before it offers the event; an offer that still
+		// loses a race for the last slot is not counted
+		if ((remainingCapacity < this.getDiscardingThreshold() && this.isDiscardable(event))
+				|| (this.isNeverBlock() && remainingCapacity == 0)) {
+			LogDropReason.QUEUE_FULL.record();
+			return;
+		}
+		super.append(event);
+	}
+	
+}
@@ -0,0 +1,97 @@
+package com.selimhorri.app.metrics;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Times every {@code OrderService} and {@code CartService} call as {@code service_method} and every
+ * blocking Spring Data repository call as {@code repository_method}, tagged by outcome and, unless
+ * high-cardinality tags are off, by method and exception type. Together with
+ * {@code http.server.requests} and {@code outbound_request} this splits a slow request into
+ * database, USER-SERVICE and the rest.
+ */
+@Aspect
+@Component
+// Outermost, so service timings include the transaction commit
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class LatencyMetricsAspect {
+	
+	private static final String REPOSITORY_PACKAGE = "com.selimhorri.app.repository";
+	
+	private final MeterRegistry meterRegistry;
+	private final boolean highCardinalityTags;
+	private final ConcurrentMap<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+	
+	public LatencyMetricsAspect(final MeterRegistry meterRegistry,
+			@Value("${app.metrics.high-cardinality-tags:true}") final boolean highCardinalityTags) {
+		this.meterRegistry = meterRegistry;
+		this.highCardinalityTags = highCardinalityTags;
+	}
+	
+	@Around("execution(* com.selimhorri.app.service.OrderService+.*(..))")
+	public Object timeOrderService(final ProceedingJoinPoint joinPoint) throws Throwable {
+		return this.time("service_method", "service", "OrderService", joinPoint);
+	}
+	
+	@Around("execution(* com.selimhorri.app.service.CartService+.*(..))")
+	public Object timeCartService(final ProceedingJoinPoint joinPoint) throws Throwable {
+		return this.time("service_method", "service", "CartService", joinPoint);
+	}
+	
+	@Around("target(org.springframework.data.repository.Repository)")
+	public Object timeRepository(final ProceedingJoinPoint joinPoint) throws Throwable {
+		// A reactive repository only assembles its query here, the work happens on subscription
+		if (Publisher.class.isAssignableFrom(((MethodSignature) joinPoint.getSignature()).getReturnType()))
+			return joinPoint.proceed();
+		return this.time("repository_method", "repository", this.repositoryName(joinPoint.getTarget()), joinPoint);
+	}
+	
+	private Object time(final String name, final String classTag, final String className,
+			final ProceedingJoinPoint joinPoint) throws Throwable {
+		final Timer.Sample sample = Timer.start(this.meterRegistry);
+		Throwable failure = null;
+		try {
+			return joinPoint.proceed();
+		}
+		catch (Throwable e) {
+			failure = e;
+			throw e;
+		}
+		finally {
+			final Timer.Builder timer = Timer.builder(name)
+					.tag(classTag, className)
+					.tag("outcome", failure == null ? "success" : "error")
+					.publishPercentileHistogram();
+			if (this.highCardinalityTags)
+				timer.tag("method", joinPoint.getSignature().getName())
+						.tag("exception", failure == null ? "none" : failure.getClass().getSimpleName());
+			sample.stop(timer.register(this.meterRegistry));
+		}
+	}
+	
+	// Spring Data proxies implement the application interface next to framework ones
+	private String repositoryName(final Object target) {
+		return this.repositoryNames.computeIfAbsent(target.getClass(), type -> {
+			for (final Class<?> candidate : ClassUtils.getAllInterfacesForClassAsSet(type))
+				if (Repository.class.isAssignableFrom(candidate) && candidate.getName().startsWith(REPOSITORY_PACKAGE))
+					return candidate.getSimpleName();
+			return type.getSimpleName();
+		});
+	}
+	
+}
@@ -0,0 +1,66 @@
+package com.selimhorri.app.outbox;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.selimhorri.app.domain.OrderOutboxEvent;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Appends every event as one NDJSON line, e.g. to feed a local consumer with {@code tail -f}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.sink", havingValue = "file")
+@Slf4j
+public class FileOrderEventSink implements OrderEventSink {
+	
+	private final ObjectMapper objectMapper;
+	private final ObjectWriter eventWriter;
+	private final OutputStream outputStream;
+	
+	public FileOrderEventSink(final ObjectMapper objectMapper,
+			@Value("${app.outbox.file.path:order-events.ndjson}") final String path) throws IOException {
+		this.objectMapper = objectMapper;
+		this.eventWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+		final Path file = Paths.get(path).toAbsolutePath();
+		if (file.getParent() != null)
+			Files.createDirectories(file.getParent());
+		this.outputStream = Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+		log.info("Relaying order events to {}", file);
+	}
+	
+	@Override
+	public synchronized void publish(final OrderOutboxEvent event) throws IOException {
+		final ObjectNode line = this.objectMapper.createObjectNode()
+				.put("eventId", event.getEventId())
+				.put("orderId", event.getOrderId())
+				.put("eventType", event.getEventType().name())
+				.put("createdAt", event.getCreatedAt().toString());
+		line.set("order", this.objectMapper.readTree(event.getPayload()));
+		this.outputStream.write(this.eventWriter.writeValueAsBytes(line));
+		this.outputStream.write("\n".getBytes(StandardCharsets.UTF_8));
+		this.outputStream.flush();
+	}
+	
+	@PreDestroy
+	public synchronized void close() throws IOException {
+		this.outputStream.close();
+	}
+	
+}
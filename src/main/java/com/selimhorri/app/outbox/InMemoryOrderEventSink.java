@@ -0,0 +1,37 @@
+package com.selimhorri.app.outbox;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.selimhorri.app.domain.OrderOutboxEvent;
+
+/**
+ * Keeps the most recent events in process, for local runs and tests that assert on what was relayed.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.sink", havingValue = "memory")
+public class InMemoryOrderEventSink implements OrderEventSink {
+	
+	private static final int CAPACITY = 10_000;
+	
+	private final List<OrderOutboxEvent> events = new ArrayList<>();
+	
+	@Override
+	public synchronized void publish(final OrderOutboxEvent event) {
+		if (this.events.size() == CAPACITY)
+			this.events.remove(0);
+		this.events.add(event);
+	}
+	
+	public synchronized List<OrderOutboxEvent> getEvents() {
+		return List.copyOf(this.events);
+	}
+	
+	public synchronized void clear() {
+		this.events.clear();
+	}
+	
+}
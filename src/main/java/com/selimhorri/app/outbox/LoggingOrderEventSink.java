@@ -0,0 +1,21 @@
+package com.selimhorri.app.outbox;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.selimhorri.app.domain.OrderOutboxEvent;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Component
+@ConditionalOnProperty(name = "app.outbox.sink", havingValue = "logging", matchIfMissing = true)
+@Slf4j
+public class LoggingOrderEventSink implements OrderEventSink {
+	
+	@Override
+	public void publish(final OrderOutboxEvent event) {
+		log.info("Order event {} {} for order {}: {}",
+				event.getEventId(), event.getEventType(), event.getOrderId(), event.getPayload());
+	}
+	
+}
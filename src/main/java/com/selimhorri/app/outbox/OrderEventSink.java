@@ -0,0 +1,13 @@
+package com.selimhorri.app.outbox;
+
+import com.selimhorri.app.domain.OrderOutboxEvent;
+
+/**
+ * Destination of relayed order events, selected with {@code app.outbox.sink}. Events arrive one
+ * at a time in outbox order; throwing stops the batch and the event is retried on the next run.
+ */
+public interface OrderEventSink {
+	
+	void publish(final OrderOutboxEvent event) throws Exception;
+	
+}
@@ -0,0 +1,103 @@
+package com.selimhorri.app.outbox;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.selimhorri.app.domain.OrderOutboxEvent;
+import com.selimhorri.app.repository.OrderOutboxRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Drains the outbox to the configured {@link OrderEventSink}. Each batch is locked, published in
+ * event id order and deleted in one transaction, so events of an order are never reordered and are
+ * delivered at least once.
+ */
+@Component
+@Slf4j
+public class OrderOutboxRelay {
+	
+	private final OrderOutboxRepository orderOutboxRepository;
+	private final OrderEventSink orderEventSink;
+	private final TransactionTemplate transactionTemplate;
+	private final int batchSize;
+	private final Counter publishedCounter;
+	private final Counter failureCounter;
+	private final DistributionSummary batchSizeSummary;
+	private final AtomicLong lagMillis = new AtomicLong();
+	
+	public OrderOutboxRelay(final OrderOutboxRepository orderOutboxRepository,
+			final OrderEventSink orderEventSink,
+			final PlatformTransactionManager transactionManager,
+			final MeterRegistry meterRegistry,
+			@Value("${app.outbox.batch-size:100}") final int batchSize) {
+		this.orderOutboxRepository = orderOutboxRepository;
+		this.orderEventSink = orderEventSink;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.batchSize = batchSize;
+		this.publishedCounter = Counter.builder("order_outbox_published_total")
+				.description("Order events relayed to the sink")
+				.register(meterRegistry);
+		this.failureCounter = Counter.builder("order_outbox_publish_failures_total")
+				.description("Sink failures, the event is retried on the next run")
+				.register(meterRegistry);
+		this.batchSizeSummary = DistributionSummary.builder("order_outbox_relay_batch_size")
+				.description("Events relayed per batch")
+				.register(meterRegistry);
+		Gauge.builder("order_outbox_lag_seconds", this.lagMillis, lag -> lag.get() / 1000.0)
+				.description("Age of the oldest event still waiting in the outbox")
+				.register(meterRegistry);
+	}
+	
+	@Scheduled(fixedDelayString = "${app.outbox.relay-interval:1000}")
+	public void relay() {
+		// Keep going while batches come back full, a failed or short batch ends the run
+		Integer relayed;
+		do {
+			relayed = this.transactionTemplate.execute(status -> this.relayBatch());
+		} while (relayed != null && relayed == this.batchSize);
+		this.orderOutboxRepository.findOldestCreatedAt()
+				.ifPresentOrElse(
+						oldest -> this.lagMillis.set(Math.max(0L, Duration.between(oldest, Instant.now()).toMillis())),
+						() -> this.lagMillis.set(0L));
+	}
+	
+	int relayBatch() {
+		final List<OrderOutboxEvent> batch = this.orderOutboxRepository.findNextBatch(PageRequest.of(0, this.batchSize));
+		if (batch.isEmpty())
+			return 0;
+		final List<OrderOutboxEvent> published = new ArrayList<>(batch.size());
+		for (final OrderOutboxEvent event : batch) {
+			try {
+				this.orderEventSink.publish(event);
+				published.add(event);
+			}
+			catch (Exception e) {
+				// Stop here: publishing later events first would reorder them for the same order
+				this.failureCounter.increment();
+				log.warn("Could not relay order event {}, retrying on the next run: {}", event.getEventId(), e.getMessage());
+				break;
+			}
+		}
+		if (!published.isEmpty())
+			this.orderOutboxRepository.deleteAllInBatch(published);
+		this.publishedCounter.increment(published.size());
+		this.batchSizeSummary.record(published.size());
+		return published.size();
+	}
+	
+}
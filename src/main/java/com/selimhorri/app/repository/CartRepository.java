@@ -1,16 +1,57 @@
 package com.selimhorri.app.repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+
+import javax.persistence.LockModeType;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.selimhorri.app.domain.Cart;
+import com.selimhorri.app.domain.projection.CartView;
+import com.selimhorri.app.domain.projection.VersionView;
 
 public interface CartRepository extends JpaRepository<Cart, Integer> {
 
     List<Cart> findAllByIsActiveTrue();
 
+    // Sparse reads: only the columns a ?fields= request needs
+    @Query("SELECT c.cartId FROM Cart c WHERE c.isActive = true")
+    List<Integer> findAllActiveIds();
+
+    @Query("SELECT new com.selimhorri.app.domain.projection.CartView(c.cartId, c.userId) "
+            + "FROM Cart c WHERE c.isActive = true")
+    List<CartView> findAllActiveViews();
+
     Optional<Cart> findByCartIdAndIsActiveTrue(Integer cartId);
 
+    // Conditional GET: answers If-None-Match before the cart is loaded and its user fetched
+    @Query("SELECT new com.selimhorri.app.domain.projection.VersionView(c.cartId, c.updatedAt) "
+            + "FROM Cart c WHERE c.cartId = :cartId AND c.isActive = true")
+    Optional<VersionView> findActiveVersionById(@Param("cartId") Integer cartId);
+
+    @Query("SELECT c.cartId FROM Cart c WHERE c.cartId IN :cartIds")
+    Set<Integer> findExistingCartIds(@Param("cartIds") Collection<Integer> cartIds);
+
+    @Query("SELECT DISTINCT c.userId FROM Cart c WHERE c.userId IS NOT NULL")
+    List<Integer> findDistinctUserIds();
+
+    // Single-cart soft delete: read from the database under a row lock, never from the second-level cache
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Cart c WHERE c.cartId = :cartId")
+    Optional<Cart> findByIdForUpdate(@Param("cartId") Integer cartId);
+
+    // Bulk HQL: Hibernate evicts the whole Cart second-level cache region when this runs
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Cart c SET c.isActive = false, c.updatedAt = :updatedAt "
+            + "WHERE c.cartId IN :cartIds AND c.isActive = true")
+    int deactivateAll(@Param("cartIds") Collection<Integer> cartIds, @Param("updatedAt") Instant updatedAt);
+
 }
\ No newline at end of file
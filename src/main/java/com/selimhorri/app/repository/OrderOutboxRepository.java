@@ -0,0 +1,26 @@
+package com.selimhorri.app.repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import javax.persistence.LockModeType;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+
+import com.selimhorri.app.domain.OrderOutboxEvent;
+
+public interface OrderOutboxRepository extends JpaRepository<OrderOutboxEvent, Long> {
+
+    // Oldest events first; the row locks keep a second relay instance from publishing them too
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM OrderOutboxEvent e ORDER BY e.eventId ASC")
+    List<OrderOutboxEvent> findNextBatch(Pageable pageable);
+
+    @Query("SELECT MIN(e.createdAt) FROM OrderOutboxEvent e")
+    Optional<Instant> findOldestCreatedAt();
+
+}
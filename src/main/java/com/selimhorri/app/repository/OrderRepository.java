@@ -1,17 +1,76 @@
 package com.selimhorri.app.repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.selimhorri.app.domain.Order;
+import com.selimhorri.app.domain.enums.OrderStatus;
+import com.selimhorri.app.domain.projection.OrderView;
+import com.selimhorri.app.domain.projection.VersionView;
 
-public interface OrderRepository extends JpaRepository<Order, Integer> {
+public interface OrderRepository extends JpaRepository<Order, Integer>, OrderRepositoryCustom {
 
     List<Order> findAllByIsActiveTrue();
 
+    // Read-path projections: o.cart.cartId resolves to the cart_id column, so carts are never joined
+    String ORDER_VIEW_SELECT = "SELECT new com.selimhorri.app.domain.projection.OrderView("
+            + "o.orderId, o.orderDate, o.orderDesc, o.orderFee, o.status, o.cart.cartId, o.version) "
+            + "FROM Order o ";
+
+    @Query(ORDER_VIEW_SELECT + "WHERE o.isActive = true")
+    List<OrderView> findAllActiveViews();
+
+    // Keyset page: active orders after the last seen id, the page size comes from the Pageable
+    @Query(ORDER_VIEW_SELECT + "WHERE o.isActive = true AND o.orderId > :orderId ORDER BY o.orderId ASC")
+    List<OrderView> findActiveViewsAfter(@Param("orderId") Integer orderId, Pageable pageable);
+
+    @Query(ORDER_VIEW_SELECT + "WHERE o.orderId = :orderId AND o.isActive = true")
+    Optional<OrderView> findActiveViewById(@Param("orderId") Integer orderId);
+
+    // Conditional GET: answers If-None-Match without reading the rest of the row
+    @Query("SELECT new com.selimhorri.app.domain.projection.VersionView(o.orderId, o.updatedAt, o.version) "
+            + "FROM Order o WHERE o.orderId = :orderId AND o.isActive = true")
+    Optional<VersionView> findActiveVersionById(@Param("orderId") Integer orderId);
+
+    @Query(ORDER_VIEW_SELECT + "WHERE o.orderId IN :orderIds AND o.isActive = true")
+    List<OrderView> findActiveViewsByIds(@Param("orderIds") Collection<Integer> orderIds);
+
+    // Row locks for a bulk transition, taken in id order so two overlapping batches cannot deadlock
+    @Query(value = "SELECT order_id FROM orders WHERE order_id IN (:orderIds) AND is_active = TRUE "
+            + "ORDER BY order_id FOR UPDATE", nativeQuery = true)
+    List<Integer> lockActiveIds(@Param("orderIds") Collection<Integer> orderIds);
+
+    // Same lock for every active order of the given carts, before they are deactivated with them
+    @Query(value = "SELECT order_id FROM orders WHERE cart_id IN (:cartIds) AND is_active = TRUE "
+            + "ORDER BY order_id FOR UPDATE", nativeQuery = true)
+    List<Integer> lockActiveIdsByCartIds(@Param("cartIds") Collection<Integer> cartIds);
+
     // Método para encontrar una orden por ID solo si está activa
     Optional<Order> findByOrderIdAndIsActiveTrue(Integer orderId);
 
+    // Set-based compare-and-set transition for orders that share the expected status
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :newStatus, o.version = o.version + 1, o.updatedAt = :updatedAt "
+            + "WHERE o.orderId IN :orderIds AND o.status = :expectedStatus AND o.isActive = true")
+    int transitionStatuses(@Param("orderIds") Collection<Integer> orderIds,
+            @Param("expectedStatus") OrderStatus expectedStatus,
+            @Param("newStatus") OrderStatus newStatus,
+            @Param("updatedAt") Instant updatedAt);
+
+    // Soft delete of the orders of the given carts that are still in one of the given statuses
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.isActive = false, o.version = o.version + 1, o.updatedAt = :updatedAt "
+            + "WHERE o.cart.cartId IN :cartIds AND o.status IN :statuses AND o.isActive = true")
+    int deactivateAllByCartIds(@Param("cartIds") Collection<Integer> cartIds,
+            @Param("statuses") Collection<OrderStatus> statuses,
+            @Param("updatedAt") Instant updatedAt);
+
 }
@@ -0,0 +1,45 @@
+package com.selimhorri.app.repository;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.springframework.data.domain.Sort;
+
+import com.selimhorri.app.domain.enums.OrderField;
+import com.selimhorri.app.domain.enums.OrderStatus;
+import com.selimhorri.app.domain.projection.OrderView;
+import com.selimhorri.app.dto.OrderSearchDto;
+
+public interface OrderRepositoryCustom {
+
+    /**
+     * Walks the active orders matching the optional filters in id order over a forward-only cursor,
+     * handing each row to {@code action} without keeping it. {@code from} is inclusive, {@code to}
+     * exclusive. Must run inside a transaction; returns the number of rows visited.
+     */
+    long scrollActiveViews(OrderStatus status, LocalDateTime from, LocalDateTime to, int fetchSize,
+            Consumer<OrderView> action);
+
+    /**
+     * Keyset page of active orders after {@code orderId} that selects only the columns of
+     * {@code fields}, plus the id the cursor needs; the other properties of the views stay null.
+     */
+    List<OrderView> findActiveFieldsAfter(Set<OrderField> fields, Integer orderId, int limit);
+
+    /**
+     * Active orders matching every filter set in {@code criteria}, in {@code sort} order with the id
+     * breaking ties, from {@code offset}. Sort properties are {@link OrderField} JSON names.
+     */
+    List<OrderView> searchActiveViews(OrderSearchDto criteria, Sort sort, int offset, int limit);
+
+    /**
+     * Moves the active order to the {@link OrderStatus#next() next} status in one conditional UPDATE,
+     * only from {@code expectedStatus} when it is set and from any non-final status otherwise.
+     * Returns 0 when the order is missing, inactive, final or not in the expected status.
+     */
+    int advanceStatus(Integer orderId, OrderStatus expectedStatus, Instant updatedAt);
+
+}
@@ -0,0 +1,204 @@
+package com.selimhorri.app.repository;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.query.Query;
+import org.springframework.data.domain.Sort;
+
+import com.selimhorri.app.domain.enums.OrderField;
+import com.selimhorri.app.domain.enums.OrderStatus;
+import com.selimhorri.app.domain.projection.OrderView;
+import com.selimhorri.app.dto.OrderSearchDto;
+
+public class OrderRepositoryCustomImpl implements OrderRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public long scrollActiveViews(final OrderStatus status, final LocalDateTime from, final LocalDateTime to,
+            final int fetchSize, final Consumer<OrderView> action) {
+        final StringBuilder jpql = new StringBuilder(OrderRepository.ORDER_VIEW_SELECT)
+                .append("WHERE o.isActive = true");
+        if (status != null)
+            jpql.append(" AND o.status = :status");
+        if (from != null)
+            jpql.append(" AND o.orderDate >= :from");
+        if (to != null)
+            jpql.append(" AND o.orderDate < :to");
+        jpql.append(" ORDER BY o.orderId ASC");
+
+        final Query<OrderView> query = this.entityManager.createQuery(jpql.toString(), OrderView.class)
+                .unwrap(Query.class);
+        if (status != null)
+            query.setParameter("status", status);
+        if (from != null)
+            query.setParameter("from", from);
+        if (to != null)
+            query.setParameter("to", to);
+        query.setFetchSize(fetchSize);
+        query.setReadOnly(true);
+
+        // Projections are never managed, clearing still drops anything else the session picked up
+        final Session session = this.entityManager.unwrap(Session.class);
+        final ScrollableResults results = query.scroll(ScrollMode.FORWARD_ONLY);
+        try {
+            long count = 0;
+            while (results.next()) {
+                action.accept((OrderView) results.get(0));
+                if (++count % fetchSize == 0)
+                    session.clear();
+            }
+            return count;
+        }
+        finally {
+            results.close();
+        }
+    }
+
+    @Override
+    public List<OrderView> findActiveFieldsAfter(final Set<OrderField> fields, final Integer orderId, final int limit) {
+        final List<OrderField> selected = new ArrayList<>();
+        selected.add(OrderField.ORDER_ID);
+        fields.stream()
+                .filter(f -> f != OrderField.ORDER_ID)
+                .forEach(selected::add);
+        final String jpql = selected.stream()
+                .map(OrderField::getPath)
+                .collect(Collectors.joining(", ", "SELECT ", " FROM Order o "))
+                + "WHERE o.isActive = true AND o.orderId > :orderId ORDER BY o.orderId ASC";
+
+        final List<?> rows = this.entityManager.createQuery(jpql)
+                .setParameter("orderId", orderId)
+                .setMaxResults(limit)
+                .getResultList();
+        final List<OrderView> views = new ArrayList<>(rows.size());
+        for (final Object row : rows) {
+            // A single selected column comes back as the value itself rather than a one-element array
+            final Object[] columns = row instanceof Object[] ? (Object[]) row : new Object[] { row };
+            final OrderView.OrderViewBuilder view = OrderView.builder();
+            for (int i = 0; i < selected.size(); i++) {
+                switch (selected.get(i)) {
+                    case ORDER_ID:
+                        view.orderId((Integer) columns[i]);
+                        break;
+                    case ORDER_DATE:
+                        view.orderDate((LocalDateTime) columns[i]);
+                        break;
+                    case ORDER_DESC:
+                        view.orderDesc((String) columns[i]);
+                        break;
+                    case ORDER_FEE:
+                        view.orderFee((Double) columns[i]);
+                        break;
+                    case ORDER_STATUS:
+                        view.status((OrderStatus) columns[i]);
+                        break;
+                    case VERSION:
+                        view.version((Long) columns[i]);
+                        break;
+                    case CART:
+                        view.cartId((Integer) columns[i]);
+                        break;
+                }
+            }
+            views.add(view.build());
+        }
+        return views;
+    }
+
+    @Override
+    public List<OrderView> searchActiveViews(final OrderSearchDto criteria, final Sort sort, final int offset,
+            final int limit) {
+        // Only the filters that are set reach the WHERE clause, so each shape can use its own index
+        final StringBuilder jpql = new StringBuilder(OrderRepository.ORDER_VIEW_SELECT)
+                .append("WHERE o.isActive = true");
+        if (criteria.getStatus() != null)
+            jpql.append(" AND o.status = :status");
+        if (criteria.getFrom() != null)
+            jpql.append(" AND o.orderDate >= :from");
+        if (criteria.getTo() != null)
+            jpql.append(" AND o.orderDate < :to");
+        if (criteria.getMinFee() != null)
+            jpql.append(" AND o.orderFee >= :minFee");
+        if (criteria.getMaxFee() != null)
+            jpql.append(" AND o.orderFee <= :maxFee");
+        if (criteria.getCartId() != null)
+            jpql.append(" AND o.cart.cartId = :cartId");
+
+        // The id breaks ties, otherwise rows with the same sort value could move between pages
+        final List<String> orderBy = new ArrayList<>();
+        boolean sortedById = false;
+        for (final Sort.Order order : sort) {
+            final OrderField field = OrderField.fromJsonName(order.getProperty())
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown sort property: " + order.getProperty()));
+            sortedById |= field == OrderField.ORDER_ID;
+            orderBy.add(field.getPath() + (order.isAscending() ? " ASC" : " DESC"));
+        }
+        if (!sortedById)
+            orderBy.add("o.orderId ASC");
+        jpql.append(" ORDER BY ").append(String.join(", ", orderBy));
+
+        final TypedQuery<OrderView> query = this.entityManager.createQuery(jpql.toString(), OrderView.class);
+        if (criteria.getStatus() != null)
+            query.setParameter("status", criteria.getStatus());
+        if (criteria.getFrom() != null)
+            query.setParameter("from", criteria.getFrom());
+        if (criteria.getTo() != null)
+            query.setParameter("to", criteria.getTo());
+        if (criteria.getMinFee() != null)
+            query.setParameter("minFee", criteria.getMinFee());
+        if (criteria.getMaxFee() != null)
+            query.setParameter("maxFee", criteria.getMaxFee());
+        if (criteria.getCartId() != null)
+            query.setParameter("cartId", criteria.getCartId());
+        return query.setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public int advanceStatus(final Integer orderId, final OrderStatus expectedStatus, final Instant updatedAt) {
+        final List<OrderStatus> fromStatuses = Arrays.stream(OrderStatus.values())
+                .filter(s -> !s.isFinal())
+                .filter(s -> expectedStatus == null || s == expectedStatus)
+                .collect(Collectors.toList());
+        if (fromStatuses.isEmpty())
+            return 0;
+
+        // One branch per status the row may be in, so the database picks the transition from the current row.
+        // Literals rather than parameters: Hibernate cannot infer the enum type of a CASE result.
+        final StringBuilder jpql = new StringBuilder("UPDATE Order o SET o.status = CASE o.status");
+        for (final OrderStatus status : fromStatuses)
+            jpql.append(" WHEN '").append(status.name()).append("' THEN '").append(status.next().name()).append('\'');
+        jpql.append(" END, o.version = o.version + 1, o.updatedAt = :updatedAt "
+                + "WHERE o.orderId = :orderId AND o.status IN :fromStatuses AND o.isActive = true");
+
+        final Query<?> query = this.entityManager.createQuery(jpql.toString()).unwrap(Query.class);
+        query.setParameter("updatedAt", updatedAt);
+        query.setParameter("orderId", orderId);
+        query.setParameter("fromStatuses", fromStatuses);
+
+        // Same as flushAutomatically and clearAutomatically on the @Modifying queries of OrderRepository
+        this.entityManager.flush();
+        final int updated = query.executeUpdate();
+        this.entityManager.clear();
+        return updated;
+    }
+
+}
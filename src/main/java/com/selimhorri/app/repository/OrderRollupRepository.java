@@ -0,0 +1,39 @@
+package com.selimhorri.app.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.selimhorri.app.domain.OrderRollup;
+import com.selimhorri.app.domain.OrderRollupId;
+import com.selimhorri.app.domain.enums.OrderStatus;
+import com.selimhorri.app.domain.enums.RollupGranularity;
+
+public interface OrderRollupRepository extends JpaRepository<OrderRollup, OrderRollupId> {
+
+    // Applied in the database so concurrent changes to the same bucket add up instead of overwriting each other
+    @Modifying
+    @Query("UPDATE OrderRollup r SET r.orderCount = r.orderCount + :count, r.feeSum = r.feeSum + :fee "
+            + "WHERE r.id.granularity = :granularity AND r.id.bucketStart = :bucketStart AND r.id.status = :status")
+    int increment(@Param("granularity") RollupGranularity granularity,
+            @Param("bucketStart") LocalDateTime bucketStart,
+            @Param("status") OrderStatus status,
+            @Param("count") long count,
+            @Param("fee") double fee);
+
+    @Query("SELECT r FROM OrderRollup r WHERE r.id.granularity = :granularity "
+            + "AND r.id.bucketStart >= :from AND r.id.bucketStart < :to "
+            + "ORDER BY r.id.bucketStart ASC, r.id.status ASC")
+    List<OrderRollup> findBuckets(@Param("granularity") RollupGranularity granularity,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    @Modifying
+    @Query("DELETE FROM OrderRollup r")
+    int deleteAllBuckets();
+
+}
@@ -0,0 +1,30 @@
+package com.selimhorri.app.repository.reactive;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+
+import com.selimhorri.app.domain.reactive.CartRecord;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveCartRepository extends R2dbcRepository<CartRecord, Integer> {
+
+    Flux<CartRecord> findAllByIsActiveTrue();
+
+    Mono<CartRecord> findByCartIdAndIsActiveTrue(Integer cartId);
+
+    @Query("SELECT cart_id FROM carts WHERE cart_id IN (:cartIds)")
+    Flux<Integer> findExistingCartIds(@Param("cartIds") Collection<Integer> cartIds);
+
+    // Set-based soft delete, the R2DBC twin of CartRepository#deactivateAll
+    @Modifying
+    @Query("UPDATE carts SET is_active = false, updated_at = :updatedAt WHERE cart_id IN (:cartIds) AND is_active = true")
+    Mono<Integer> deactivateAll(@Param("cartIds") Collection<Integer> cartIds, @Param("updatedAt") LocalDateTime updatedAt);
+
+}
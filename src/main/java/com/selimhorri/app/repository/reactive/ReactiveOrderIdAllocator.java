@@ -0,0 +1,79 @@
+package com.selimhorri.app.repository.reactive;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import io.r2dbc.spi.ConnectionFactory;
+import reactor.core.publisher.Mono;
+
+/**
+ * Order ids for the reactive stack, handed out from blocks reserved in order_id_sequence the way
+ * Hibernate's pooled-lo generator does for {@code Order}. A block is reserved in a short transaction
+ * of its own, so the caller's transaction never holds the sequence row and most creates never touch it.
+ */
+@Component
+@Profile("reactive")
+public class ReactiveOrderIdAllocator {
+
+    // Same allocation size as Order's table generator
+    static final int BLOCK_SIZE = 50;
+
+    private final ReactiveOrderRepository orderRepository;
+    private final TransactionalOperator reservationOperator;
+
+    // Next free id of the current block and the first id past it, guarded by this
+    private long nextId;
+    private long blockEnd;
+
+    @Autowired
+    public ReactiveOrderIdAllocator(final ReactiveOrderRepository orderRepository,
+            final ConnectionFactory connectionFactory) {
+        this(orderRepository, TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory),
+                new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_REQUIRES_NEW)));
+    }
+
+    ReactiveOrderIdAllocator(final ReactiveOrderRepository orderRepository,
+            final TransactionalOperator reservationOperator) {
+        this.orderRepository = orderRepository;
+        this.reservationOperator = reservationOperator;
+    }
+
+    /**
+     * Emits the first of {@code count} consecutive order ids. Ids of a rolled back create are not
+     * reused, like with the JPA generator.
+     */
+    public Mono<Long> allocate(final int count) {
+        return Mono.defer(() -> {
+            synchronized (this) {
+                if (this.blockEnd - this.nextId >= count) {
+                    final long firstId = this.nextId;
+                    this.nextId += count;
+                    return Mono.just(firstId);
+                }
+            }
+            // A bulk create of a block or more gets a range of its own and leaves the current block alone
+            if (count >= BLOCK_SIZE)
+                return this.reserve(count);
+            return this.reserve(BLOCK_SIZE)
+                    .map(firstId -> {
+                        synchronized (this) {
+                            // Callers that ran out together each reserve a block, the last one wins and the rest become gaps
+                            this.nextId = firstId + count;
+                            this.blockEnd = firstId + BLOCK_SIZE;
+                        }
+                        return firstId;
+                    });
+        });
+    }
+
+    private Mono<Long> reserve(final int count) {
+        return this.orderRepository.allocateIds(ReactiveOrderRepositoryCustom.ORDER_SEQUENCE, count)
+                .as(this.reservationOperator::transactional);
+    }
+
+}
@@ -0,0 +1,9 @@
+package com.selimhorri.app.repository.reactive;
+
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+
+import com.selimhorri.app.domain.reactive.OrderOutboxRecord;
+
+public interface ReactiveOrderOutboxRepository extends R2dbcRepository<OrderOutboxRecord, Long> {
+
+}
@@ -0,0 +1,46 @@
+package com.selimhorri.app.repository.reactive;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+
+import com.selimhorri.app.domain.reactive.OrderRecord;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveOrderRepository extends R2dbcRepository<OrderRecord, Integer>, ReactiveOrderRepositoryCustom {
+
+    Flux<OrderRecord> findAllByIsActiveTrue();
+
+    // Keyset page: active orders after the last seen id
+    @Query("SELECT * FROM orders WHERE is_active = true AND order_id > :orderId ORDER BY order_id ASC LIMIT :limit")
+    Flux<OrderRecord> findActiveAfter(@Param("orderId") Integer orderId, @Param("limit") int limit);
+
+    Mono<OrderRecord> findByOrderIdAndIsActiveTrue(Integer orderId);
+
+    // Compare-and-set transition: only moves the order if it is still active and in the expected status
+    @Modifying
+    @Query("UPDATE orders SET status = :newStatus, version = version + 1, updated_at = :updatedAt "
+            + "WHERE order_id = :orderId AND status = :expectedStatus AND is_active = true")
+    Mono<Integer> transitionStatus(@Param("orderId") Integer orderId,
+            @Param("expectedStatus") String expectedStatus,
+            @Param("newStatus") String newStatus,
+            @Param("updatedAt") LocalDateTime updatedAt);
+
+    // Locks and reads every active order of the given carts in id order, before they are deactivated with them
+    @Query("SELECT * FROM orders WHERE cart_id IN (:cartIds) AND is_active = true ORDER BY order_id FOR UPDATE")
+    Flux<OrderRecord> lockActiveByCartIds(@Param("cartIds") Collection<Integer> cartIds);
+
+    @Modifying
+    @Query("UPDATE orders SET is_active = false, version = version + 1, updated_at = :updatedAt "
+            + "WHERE cart_id IN (:cartIds) AND status IN (:statuses) AND is_active = true")
+    Mono<Integer> deactivateAllByCartIds(@Param("cartIds") Collection<Integer> cartIds,
+            @Param("statuses") Collection<String> statuses,
+            @Param("updatedAt") LocalDateTime updatedAt);
+
+}
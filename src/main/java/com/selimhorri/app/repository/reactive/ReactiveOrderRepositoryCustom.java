@@ -0,0 +1,39 @@
+package com.selimhorri.app.repository.reactive;
+
+import java.time.LocalDateTime;
+
+import com.selimhorri.app.domain.enums.OrderStatus;
+import com.selimhorri.app.domain.enums.RollupGranularity;
+import com.selimhorri.app.domain.reactive.OrderRecord;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveOrderRepositoryCustom {
+
+    String ORDER_SEQUENCE = "orders";
+
+    /**
+     * Active orders matching the optional filters in id order, emitted as the driver reads them.
+     * {@code from} is inclusive, {@code to} exclusive.
+     */
+    Flux<OrderRecord> findActive(OrderStatus status, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Reserves {@code count} consecutive ids from order_id_sequence and emits the first one. Claims
+     * the same ranges Hibernate's pooled-lo table generator does, so both stacks can insert side by
+     * side. Must run inside a transaction, the sequence row stays locked until it ends.
+     */
+    Mono<Long> allocateIds(String sequenceName, int count);
+
+    /**
+     * order_rollups counterparts of OrderRollupRepository for the reactive stack. {@code incrementRollup}
+     * adds in the database and emits the rows updated, 0 when the bucket does not exist.
+     */
+    Mono<Boolean> existsRollup(RollupGranularity granularity, LocalDateTime bucketStart, OrderStatus status);
+    Mono<Integer> incrementRollup(RollupGranularity granularity, LocalDateTime bucketStart, OrderStatus status,
+            long count, double fee);
+    Mono<Void> insertRollup(RollupGranularity granularity, LocalDateTime bucketStart, OrderStatus status,
+            long count, double fee);
+
+}
@@ -0,0 +1,99 @@
+package com.selimhorri.app.repository.reactive;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+
+import com.selimhorri.app.domain.enums.OrderStatus;
+import com.selimhorri.app.domain.enums.RollupGranularity;
+import com.selimhorri.app.domain.reactive.OrderRecord;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RequiredArgsConstructor
+public class ReactiveOrderRepositoryCustomImpl implements ReactiveOrderRepositoryCustom {
+
+    private final R2dbcEntityTemplate r2dbcEntityTemplate;
+
+    @Override
+    public Flux<OrderRecord> findActive(final OrderStatus status, final LocalDateTime from, final LocalDateTime to) {
+        Criteria criteria = Criteria.where("isActive").isTrue();
+        if (status != null)
+            criteria = criteria.and("status").is(status.name());
+        if (from != null)
+            criteria = criteria.and("orderDate").greaterThanOrEquals(from);
+        if (to != null)
+            criteria = criteria.and("orderDate").lessThan(to);
+        return this.r2dbcEntityTemplate.select(OrderRecord.class)
+                .matching(Query.query(criteria).sort(Sort.by("orderId")))
+                .all();
+    }
+
+    @Override
+    public Mono<Long> allocateIds(final String sequenceName, final int count) {
+        return this.r2dbcEntityTemplate.getDatabaseClient()
+                .sql("SELECT next_val FROM order_id_sequence WHERE sequence_name = :sequenceName FOR UPDATE")
+                .bind("sequenceName", sequenceName)
+                .map(row -> row.get("next_val", Long.class))
+                .one()
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException(
+                        "No row for " + sequenceName + " in order_id_sequence")))
+                .flatMap(first -> this.r2dbcEntityTemplate.getDatabaseClient()
+                        .sql("UPDATE order_id_sequence SET next_val = :nextVal WHERE sequence_name = :sequenceName")
+                        .bind("nextVal", first + count)
+                        .bind("sequenceName", sequenceName)
+                        .fetch()
+                        .rowsUpdated()
+                        .thenReturn(first));
+    }
+
+    @Override
+    public Mono<Boolean> existsRollup(final RollupGranularity granularity, final LocalDateTime bucketStart,
+            final OrderStatus status) {
+        // A plain read: a locking one would gap-lock the missing bucket against its own creation
+        return this.r2dbcEntityTemplate.getDatabaseClient()
+                .sql("SELECT 1 FROM order_rollups WHERE granularity = :granularity AND bucket_start = :bucketStart "
+                        + "AND status = :status")
+                .bind("granularity", granularity.name())
+                .bind("bucketStart", bucketStart)
+                .bind("status", status.name())
+                .map(row -> Boolean.TRUE)
+                .first()
+                .defaultIfEmpty(Boolean.FALSE);
+    }
+
+    @Override
+    public Mono<Integer> incrementRollup(final RollupGranularity granularity, final LocalDateTime bucketStart,
+            final OrderStatus status, final long count, final double fee) {
+        return this.r2dbcEntityTemplate.getDatabaseClient()
+                .sql("UPDATE order_rollups SET order_count = order_count + :count, fee_sum = fee_sum + :fee "
+                        + "WHERE granularity = :granularity AND bucket_start = :bucketStart AND status = :status")
+                .bind("count", count)
+                .bind("fee", fee)
+                .bind("granularity", granularity.name())
+                .bind("bucketStart", bucketStart)
+                .bind("status", status.name())
+                .fetch()
+                .rowsUpdated();
+    }
+
+    @Override
+    public Mono<Void> insertRollup(final RollupGranularity granularity, final LocalDateTime bucketStart,
+            final OrderStatus status, final long count, final double fee) {
+        return this.r2dbcEntityTemplate.getDatabaseClient()
+                .sql("INSERT INTO order_rollups (granularity, bucket_start, status, order_count, fee_sum) "
+                        + "VALUES (:granularity, :bucketStart, :status, :count, :fee)")
+                .bind("granularity", granularity.name())
+                .bind("bucketStart", bucketStart)
+                .bind("status", status.name())
+                .bind("count", count)
+                .bind("fee", fee)
+                .then();
+    }
+
+}
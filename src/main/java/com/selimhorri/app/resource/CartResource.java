@@ -1,9 +1,15 @@
 package com.selimhorri.app.resource;
 
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -11,23 +17,35 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.selimhorri.app.domain.enums.CartField;
+import com.selimhorri.app.dto.CartDeactivationResultDto;
 import com.selimhorri.app.dto.CartDto;
 import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.helper.FieldsHelper;
 import com.selimhorri.app.service.CartService;
+import com.selimhorri.app.service.IdempotencyService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 @RestController
 @RequestMapping("/api/carts")
+@Profile("!reactive")
 @Slf4j
 @RequiredArgsConstructor
 public class CartResource {
 	
 	private final CartService cartService;
+	private final IdempotencyService idempotencyService;
+	private final ObjectMapper objectMapper;
 	
 	@GetMapping
 	public ResponseEntity<DtoCollectionResponse<CartDto>> findAll() {
@@ -35,29 +53,62 @@ public class CartResource {
 		return ResponseEntity.ok(new DtoCollectionResponse<>(this.cartService.findAll()));
 	}
 	
+	// ?fields=cartId skips the USER-SERVICE lookups, which only run when user is requested
+	@GetMapping(params = "fields")
+	public ResponseEntity<DtoCollectionResponse<ObjectNode>> findAll(
+			@RequestParam(name = "fields") final String fields) {
+		log.info("*** CartDto List, controller; fetch carts with selected fields *");
+		final Set<CartField> cartFields = FieldsHelper.parse(fields, CartField.class, CartField::fromJsonName);
+		final Set<String> jsonNames = cartFields.stream()
+				.map(CartField::getJsonName)
+				.collect(Collectors.toSet());
+		return ResponseEntity.ok(new DtoCollectionResponse<>(this.cartService.findAll(cartFields)
+				.stream()
+				.map(c -> FieldsHelper.select(this.objectMapper, c, jsonNames))
+				.collect(Collectors.toList())));
+	}
+	
+	// A matching If-None-Match is answered before the cart is loaded and its user fetched
 	@GetMapping("/{cartId}")
 	public ResponseEntity<CartDto> findById(
 			@PathVariable("cartId") 
 			@NotBlank(message = "Input must not be blank") 
-			@Valid final String cartId) {
+			@Valid final String cartId, 
+			final WebRequest webRequest) {
 		log.info("*** CartDto, resource; fetch cart by id *");
-		return ResponseEntity.ok(this.cartService.findById(Integer.parseInt(cartId)));
+		final String etag = this.cartService.findEtag(Integer.parseInt(cartId));
+		if (webRequest.checkNotModified(etag))
+			return null; // 304 with the ETag, already written by checkNotModified
+		return ResponseEntity.ok()
+				.eTag(etag)
+				.cacheControl(CacheControl.noCache())
+				.body(this.cartService.findById(Integer.parseInt(cartId)));
 	}
 	
 	@PostMapping
 	public ResponseEntity<CartDto> save(
+			@RequestHeader(name = "Idempotency-Key", required = false) final String idempotencyKey,
 			@RequestBody 
 			@NotNull(message = "Input must not be NULL!") 
 			@Valid final CartDto cartDto) {
 		log.info("*** CartDto, resource; save cart *");
-		return ResponseEntity.ok(this.cartService.save(cartDto));
+		return ResponseEntity.ok(this.idempotencyService.execute(IdempotencyService.CARTS, idempotencyKey,
+				cartDto, CartDto.class, () -> this.cartService.save(cartDto)));
+	}
+	
+	// Soft deletes the listed carts and their orders, answering with the affected row counts
+	@PostMapping("/bulk/deactivate")
+	public ResponseEntity<CartDeactivationResultDto> deactivateAll(
+			@RequestBody @NotNull(message = "Input must not be NULL") final List<Integer> cartIds) {
+		log.info("*** CartDeactivationResultDto, resource; deactivate carts in bulk *");
+		return ResponseEntity.ok(this.cartService.deactivateAll(cartIds));
 	}
 	
+	// Same counts as the bulk endpoint, for a single cart
 	@DeleteMapping("/{cartId}")
-	public ResponseEntity<Boolean> deleteById(@PathVariable("cartId") final String cartId) {
-		log.info("*** Boolean, resource; delete cart by id *");
-		this.cartService.deleteById(Integer.parseInt(cartId));
-		return ResponseEntity.ok(true);
+	public ResponseEntity<CartDeactivationResultDto> deleteById(@PathVariable("cartId") final String cartId) {
+		log.info("*** CartDeactivationResultDto, resource; delete cart by id *");
+		return ResponseEntity.ok(this.cartService.deleteById(Integer.parseInt(cartId)));
 	}
 	
 	
@@ -1,9 +1,20 @@
 package com.selimhorri.app.resource;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,12 +23,31 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.domain.enums.OrderField;
 import com.selimhorri.app.domain.enums.OrderStatus;
+import com.selimhorri.app.domain.enums.RollupGranularity;
+import com.selimhorri.app.dto.OrderCreationResultDto;
 import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.OrderSearchDto;
+import com.selimhorri.app.dto.OrderStatisticsDto;
+import com.selimhorri.app.dto.OrderStatusTransitionResultDto;
 import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.dto.response.collection.DtoCursorPageResponse;
+import com.selimhorri.app.dto.response.collection.DtoPageResponse;
+import com.selimhorri.app.helper.FieldsHelper;
+import com.selimhorri.app.service.IdempotencyService;
+import com.selimhorri.app.service.OrderExportService;
+import com.selimhorri.app.service.OrderRollupService;
 import com.selimhorri.app.service.OrderService;
 
 import lombok.RequiredArgsConstructor;
@@ -25,37 +55,153 @@ import lombok.extern.slf4j.Slf4j;
 
 @RestController
 @RequestMapping("/api/orders")
+@Profile("!reactive")
 @Slf4j
 @RequiredArgsConstructor
 public class OrderResource {
 
 	private final OrderService orderService;
+	private final OrderExportService orderExportService;
+	private final IdempotencyService idempotencyService;
+	private final OrderRollupService orderRollupService;
+	private final ObjectMapper objectMapper;
 
 	@GetMapping
+	public ResponseEntity<DtoCursorPageResponse<OrderDto>> findPage(
+			@RequestParam(name = "cursor", required = false) final String cursor,
+			@RequestParam(name = "size", required = false) final Integer size) {
+		log.info("*** OrderDto Page, controller; fetch orders page *");
+		return ResponseEntity.ok(this.orderService.findPage(cursor, size));
+	}
+
+	// ?fields=orderId,orderStatus reads and returns only those properties of each order
+	@GetMapping(params = { "fields", "!unpaged" })
+	public ResponseEntity<DtoCursorPageResponse<ObjectNode>> findPage(
+			@RequestParam(name = "cursor", required = false) final String cursor,
+			@RequestParam(name = "size", required = false) final Integer size,
+			@RequestParam(name = "fields") final String fields) {
+		log.info("*** OrderDto Page, controller; fetch orders page with selected fields *");
+		final Set<OrderField> orderFields = FieldsHelper.parse(fields, OrderField.class, OrderField::fromJsonName);
+		final Set<String> jsonNames = orderFields.stream()
+				.map(OrderField::getJsonName)
+				.collect(Collectors.toSet());
+		final DtoCursorPageResponse<OrderDto> page = this.orderService.findPage(cursor, size, orderFields);
+		return ResponseEntity.ok(DtoCursorPageResponse.<ObjectNode>builder()
+				.collection(page.getCollection().stream()
+						.map(o -> FieldsHelper.select(this.objectMapper, o, jsonNames))
+						.collect(Collectors.toList()))
+				.size(page.getSize())
+				.nextCursor(page.getNextCursor())
+				.build());
+	}
+
+	// Legacy unpaged listing, only served when explicitly requested with ?unpaged=true
+	@GetMapping(params = "unpaged=true")
 	public ResponseEntity<DtoCollectionResponse<OrderDto>> findAll() {
 		log.info("*** OrderDto List, controller; fetch all orders *");
 		return ResponseEntity.ok(new DtoCollectionResponse<>(this.orderService.findAll()));
 	}
 
+	// Streams every matching active order as NDJSON, from is inclusive and to exclusive
+	@GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> export(
+			@RequestParam(name = "status", required = false) final OrderStatus status,
+			@RequestParam(name = "from", required = false)
+			@DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final LocalDateTime from,
+			@RequestParam(name = "to", required = false)
+			@DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final LocalDateTime to) {
+		log.info("*** OrderDto NDJSON, resource; export orders *");
+		final StreamingResponseBody body = outputStream ->
+				this.orderExportService.exportActiveOrders(status, from, to, outputStream);
+		return ResponseEntity.ok()
+				.contentType(MediaType.APPLICATION_NDJSON)
+				.body(body);
+	}
+
+	// Order count and fee sum per status and hour or day, read from the rollups instead of the orders
+	@GetMapping("/statistics")
+	public ResponseEntity<DtoCollectionResponse<OrderStatisticsDto>> findStatistics(
+			@RequestParam(name = "granularity", defaultValue = "DAY") final RollupGranularity granularity,
+			@RequestParam(name = "status", required = false) final OrderStatus status,
+			@RequestParam(name = "from", required = false)
+			@DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final LocalDateTime from,
+			@RequestParam(name = "to", required = false)
+			@DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final LocalDateTime to) {
+		log.info("*** OrderStatisticsDto List, resource; fetch order statistics *");
+		return ResponseEntity.ok(new DtoCollectionResponse<>(
+				this.orderRollupService.findStatistics(granularity, status, from, to)));
+	}
+
+	// Filters are all optional and combined with AND; ?sort=orderFee,desc&page=2&size=100
+	@GetMapping("/search")
+	public ResponseEntity<DtoPageResponse<OrderDto>> search(
+			@RequestParam(name = "status", required = false) final OrderStatus status,
+			@RequestParam(name = "from", required = false)
+			@DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final LocalDateTime from,
+			@RequestParam(name = "to", required = false)
+			@DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final LocalDateTime to,
+			@RequestParam(name = "minFee", required = false) final Double minFee,
+			@RequestParam(name = "maxFee", required = false) final Double maxFee,
+			@RequestParam(name = "cartId", required = false) final Integer cartId,
+			@PageableDefault(size = AppConstant.PAGE_DEFAULT_SIZE) final Pageable pageable) {
+		log.info("*** OrderDto Page, resource; search orders *");
+		return ResponseEntity.ok(this.orderService.search(OrderSearchDto.builder()
+				.status(status)
+				.from(from)
+				.to(to)
+				.minFee(minFee)
+				.maxFee(maxFee)
+				.cartId(cartId)
+				.build(), pageable));
+	}
+
+	// The ETag is read before the body, so the body sent is never older than the ETag it carries
 	@GetMapping("/{orderId}")
 	public ResponseEntity<OrderDto> findById(
-			@PathVariable("orderId") @NotBlank(message = "Input must not be blank") @Valid final String orderId) {
+			@PathVariable("orderId") @NotBlank(message = "Input must not be blank") @Valid final String orderId,
+			final WebRequest webRequest) {
 		log.info("*** OrderDto, resource; fetch order by id *");
-		return ResponseEntity.ok(this.orderService.findById(Integer.parseInt(orderId)));
+		final String etag = this.orderService.findEtag(Integer.parseInt(orderId));
+		if (webRequest.checkNotModified(etag))
+			return null; // 304 with the ETag, already written by checkNotModified
+		return ResponseEntity.ok()
+				.eTag(etag)
+				.cacheControl(CacheControl.noCache())
+				.body(this.orderService.findById(Integer.parseInt(orderId)));
 	}
 
+	// A retry with the same Idempotency-Key gets the first response back instead of a second order
 	@PostMapping
 	public ResponseEntity<OrderDto> save(
+			@RequestHeader(name = "Idempotency-Key", required = false) final String idempotencyKey,
 			@RequestBody @NotNull(message = "Input must not be NULL") @Valid final OrderDto orderDto) {
 		log.info("*** OrderDto, resource; save order *");
-		return ResponseEntity.ok(this.orderService.save(orderDto));
+		return ResponseEntity.ok(this.idempotencyService.execute(IdempotencyService.ORDERS, idempotencyKey,
+				orderDto, OrderDto.class, () -> this.orderService.save(orderDto)));
+	}
+
+	@PostMapping("/bulk")
+	public ResponseEntity<DtoCollectionResponse<OrderCreationResultDto>> saveAll(
+			@RequestBody @NotNull(message = "Input must not be NULL") final List<OrderDto> orderDtos) {
+		log.info("*** OrderCreationResultDto List, resource; save orders in bulk *");
+		return ResponseEntity.ok(new DtoCollectionResponse<>(this.orderService.saveAll(orderDtos)));
 	}
 
 	@PatchMapping("/{orderId}/status")
 	public ResponseEntity<OrderDto> updateStatus(
-			@PathVariable("orderId") @NotBlank(message = "Input must not be blank") @Valid final int orderId) {
+			@PathVariable("orderId") @NotBlank(message = "Input must not be blank") @Valid final int orderId,
+			@RequestParam(name = "expectedStatus", required = false) final OrderStatus expectedStatus) {
 		log.info("*** OrderDto, resource; update order *");
-		return ResponseEntity.ok(this.orderService.updateStatus(orderId));
+		return ResponseEntity.ok(this.orderService.updateStatus(orderId, expectedStatus));
+	}
+
+	// Moves every listed order one step, each one reported as updated or with the reason it was not
+	@PatchMapping("/bulk/status")
+	public ResponseEntity<DtoCollectionResponse<OrderStatusTransitionResultDto>> updateStatuses(
+			@RequestBody @NotNull(message = "Input must not be NULL") final List<Integer> orderIds,
+			@RequestParam(name = "expectedStatus", required = false) final OrderStatus expectedStatus) {
+		log.info("*** OrderStatusTransitionResultDto List, resource; update order statuses in bulk *");
+		return ResponseEntity.ok(new DtoCollectionResponse<>(this.orderService.updateStatuses(orderIds, expectedStatus)));
 	}
 
 	@PutMapping("/{orderId}")
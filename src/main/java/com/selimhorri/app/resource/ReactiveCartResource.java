@@ -0,0 +1,71 @@
+package com.selimhorri.app.resource;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.selimhorri.app.dto.CartDeactivationResultDto;
+import com.selimhorri.app.dto.CartDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.service.ReactiveCartService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * WebFlux twin of {@link CartResource} for the reactive profile.
+ */
+@RestController
+@RequestMapping("/api/carts")
+@Profile("reactive")
+@Slf4j
+@RequiredArgsConstructor
+public class ReactiveCartResource {
+	
+	private final ReactiveCartService cartService;
+	
+	@GetMapping
+	public Mono<ResponseEntity<DtoCollectionResponse<CartDto>>> findAll() {
+		log.info("*** CartDto List, controller; fetch all categories *");
+		return this.cartService.findAll()
+				.collectList()
+				.map(cartDtos -> ResponseEntity.ok(new DtoCollectionResponse<>(cartDtos)));
+	}
+	
+	@GetMapping("/{cartId}")
+	public Mono<ResponseEntity<CartDto>> findById(
+			@PathVariable("cartId") 
+			@NotBlank(message = "Input must not be blank") 
+			@Valid final String cartId) {
+		log.info("*** CartDto, resource; fetch cart by id *");
+		return this.cartService.findById(Integer.parseInt(cartId)).map(ResponseEntity::ok);
+	}
+	
+	@PostMapping
+	public Mono<ResponseEntity<CartDto>> save(
+			@RequestBody 
+			@NotNull(message = "Input must not be NULL!") 
+			@Valid final CartDto cartDto) {
+		log.info("*** CartDto, resource; save cart *");
+		return this.cartService.save(cartDto).map(ResponseEntity::ok);
+	}
+	
+	@DeleteMapping("/{cartId}")
+	public Mono<ResponseEntity<CartDeactivationResultDto>> deleteById(@PathVariable("cartId") final String cartId) {
+		log.info("*** CartDeactivationResultDto, resource; delete cart by id *");
+		return this.cartService.deleteById(Integer.parseInt(cartId))
+				.map(ResponseEntity::ok);
+	}
+	
+}
@@ -0,0 +1,123 @@
+package com.selimhorri.app.resource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.selimhorri.app.domain.enums.OrderStatus;
+import com.selimhorri.app.dto.OrderCreationResultDto;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.dto.response.collection.DtoCursorPageResponse;
+import com.selimhorri.app.service.ReactiveOrderService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * WebFlux twin of {@link OrderResource} for the reactive profile, same paths, payloads and errors.
+ */
+@RestController
+@RequestMapping("/api/orders")
+@Profile("reactive")
+@Slf4j
+@RequiredArgsConstructor
+public class ReactiveOrderResource {
+
+	private final ReactiveOrderService orderService;
+
+	@GetMapping
+	public Mono<ResponseEntity<DtoCursorPageResponse<OrderDto>>> findPage(
+			@RequestParam(name = "cursor", required = false) final String cursor,
+			@RequestParam(name = "size", required = false) final Integer size) {
+		log.info("*** OrderDto Page, controller; fetch orders page *");
+		return this.orderService.findPage(cursor, size).map(ResponseEntity::ok);
+	}
+
+	// Legacy unpaged listing, only served when explicitly requested with ?unpaged=true
+	@GetMapping(params = "unpaged=true")
+	public Mono<ResponseEntity<DtoCollectionResponse<OrderDto>>> findAll() {
+		log.info("*** OrderDto List, controller; fetch all orders *");
+		return this.orderService.findAll()
+				.collectList()
+				.map(orderDtos -> ResponseEntity.ok(new DtoCollectionResponse<>(orderDtos)));
+	}
+
+	// Streams every matching active order as NDJSON, from is inclusive and to exclusive
+	@GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public Flux<OrderDto> export(
+			@RequestParam(name = "status", required = false) final OrderStatus status,
+			@RequestParam(name = "from", required = false)
+			@DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final LocalDateTime from,
+			@RequestParam(name = "to", required = false)
+			@DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final LocalDateTime to) {
+		log.info("*** OrderDto NDJSON, resource; export orders *");
+		return this.orderService.export(status, from, to);
+	}
+
+	@GetMapping("/{orderId}")
+	public Mono<ResponseEntity<OrderDto>> findById(
+			@PathVariable("orderId") @NotBlank(message = "Input must not be blank") @Valid final String orderId) {
+		log.info("*** OrderDto, resource; fetch order by id *");
+		return this.orderService.findById(Integer.parseInt(orderId)).map(ResponseEntity::ok);
+	}
+
+	@PostMapping
+	public Mono<ResponseEntity<OrderDto>> save(
+			@RequestBody @NotNull(message = "Input must not be NULL") @Valid final OrderDto orderDto) {
+		log.info("*** OrderDto, resource; save order *");
+		return this.orderService.save(orderDto).map(ResponseEntity::ok);
+	}
+
+	@PostMapping("/bulk")
+	public Mono<ResponseEntity<DtoCollectionResponse<OrderCreationResultDto>>> saveAll(
+			@RequestBody @NotNull(message = "Input must not be NULL") final List<OrderDto> orderDtos) {
+		log.info("*** OrderCreationResultDto List, resource; save orders in bulk *");
+		return this.orderService.saveAll(orderDtos)
+				.map(results -> ResponseEntity.ok(new DtoCollectionResponse<>(results)));
+	}
+
+	@PatchMapping("/{orderId}/status")
+	public Mono<ResponseEntity<OrderDto>> updateStatus(
+			@PathVariable("orderId") @NotBlank(message = "Input must not be blank") @Valid final int orderId,
+			@RequestParam(name = "expectedStatus", required = false) final OrderStatus expectedStatus) {
+		log.info("*** OrderDto, resource; update order *");
+		return this.orderService.updateStatus(orderId, expectedStatus).map(ResponseEntity::ok);
+	}
+
+	@PutMapping("/{orderId}")
+	public Mono<ResponseEntity<OrderDto>> update(
+			@PathVariable("orderId") @NotBlank(message = "Input must not be blank") @Valid final String orderId,
+			@RequestBody @NotNull(message = "Input must not be NULL") @Valid final OrderDto orderDto) {
+		log.info("*** OrderDto, resource; update order with orderId *");
+		return this.orderService.update(Integer.parseInt(orderId), orderDto).map(ResponseEntity::ok);
+	}
+
+	@DeleteMapping("/{orderId}")
+	public Mono<ResponseEntity<Boolean>> deleteById(@PathVariable("orderId") final String orderId) {
+		log.info("*** Boolean, resource; delete order by id *");
+		return this.orderService.deleteById(Integer.parseInt(orderId))
+				.thenReturn(ResponseEntity.ok(true));
+	}
+
+}
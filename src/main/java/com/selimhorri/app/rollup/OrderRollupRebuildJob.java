@@ -0,0 +1,50 @@
+package com.selimhorri.app.rollup;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.selimhorri.app.repository.OrderRollupRepository;
+import com.selimhorri.app.service.OrderRollupService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Backfills the order rollups from the orders table, at startup when the table is still empty
+ * and on {@code app.rollups.rebuild-cron} when one is configured.
+ */
+@Component
+@Slf4j
+public class OrderRollupRebuildJob implements ApplicationRunner {
+	
+	private final OrderRollupService orderRollupService;
+	private final OrderRollupRepository orderRollupRepository;
+	private final String rebuildOnStartup;
+	
+	public OrderRollupRebuildJob(final OrderRollupService orderRollupService,
+			final OrderRollupRepository orderRollupRepository,
+			@Value("${app.rollups.rebuild-on-startup:if-empty}") final String rebuildOnStartup) {
+		this.orderRollupService = orderRollupService;
+		this.orderRollupRepository = orderRollupRepository;
+		this.rebuildOnStartup = rebuildOnStartup;
+	}
+	
+	@Override
+	public void run(final ApplicationArguments args) {
+		if ("never".equals(this.rebuildOnStartup))
+			return;
+		if ("if-empty".equals(this.rebuildOnStartup) && this.orderRollupRepository.count() > 0)
+			return;
+		this.rebuild();
+	}
+	
+	@Scheduled(cron = "${app.rollups.rebuild-cron:-}")
+	public void rebuild() {
+		final long started = System.nanoTime();
+		final long orders = this.orderRollupService.rebuild();
+		log.info("Order rollup rebuild counted {} orders in {} ms", orders, (System.nanoTime() - started) / 1_000_000);
+	}
+	
+}
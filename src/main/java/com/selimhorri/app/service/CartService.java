@@ -1,14 +1,35 @@
 package com.selimhorri.app.service;
 
 import java.util.List;
+import java.util.Set;
 
+import com.selimhorri.app.domain.enums.CartField;
+import com.selimhorri.app.dto.CartDeactivationResultDto;
 import com.selimhorri.app.dto.CartDto;
 
 public interface CartService {
 	
 	List<CartDto> findAll();
+	
+	/**
+	 * Active carts with only the given fields read and set; USER-SERVICE is only called when
+	 * {@link CartField#USER} is among them.
+	 */
+	List<CartDto> findAll(final Set<CartField> fields);
 	CartDto findById(final Integer cartId);
+	
+	/**
+	 * Strong ETag of the active cart, without loading it or calling USER-SERVICE; user data
+	 * changing in USER-SERVICE does not change it.
+	 */
+	String findEtag(final Integer cartId);
 	CartDto save(final CartDto cartDto);
-	void deleteById(final Integer cartId);
+	CartDeactivationResultDto deleteById(final Integer cartId);
+	
+	/**
+	 * Soft deletes the carts together with their orders that are not in a final status, with one
+	 * UPDATE per table; unknown and already inactive cart ids are not counted.
+	 */
+	CartDeactivationResultDto deactivateAll(final List<Integer> cartIds);
 	
 }
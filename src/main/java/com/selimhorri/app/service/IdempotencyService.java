@@ -0,0 +1,20 @@
+package com.selimhorri.app.service;
+
+import java.util.function.Supplier;
+
+public interface IdempotencyService {
+	
+	String ORDERS = "orders";
+	String CARTS = "carts";
+	
+	/**
+	 * Runs the action once per key within the scope and answers retries with its stored response.
+	 * Concurrent requests with the same key wait for the first one instead of running again, and a
+	 * key reused with another request body is rejected. Without a key the action simply runs.
+	 */
+	<T> T execute(final String scope, final String idempotencyKey, final Object request,
+			final Class<T> responseType, final Supplier<T> action);
+	
+	int purgeExpired();
+	
+}
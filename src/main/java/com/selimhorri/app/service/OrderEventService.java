@@ -0,0 +1,17 @@
+package com.selimhorri.app.service;
+
+import java.util.List;
+
+import com.selimhorri.app.domain.enums.OrderEventType;
+import com.selimhorri.app.dto.OrderDto;
+
+public interface OrderEventService {
+	
+	/**
+	 * Adds the event to the outbox within the caller's transaction, so it is relayed only if the
+	 * order change commits.
+	 */
+	void record(final OrderEventType eventType, final OrderDto orderDto);
+	void recordAll(final OrderEventType eventType, final List<OrderDto> orderDtos);
+	
+}
@@ -0,0 +1,17 @@
+package com.selimhorri.app.service;
+
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+import com.selimhorri.app.domain.enums.OrderStatus;
+
+public interface OrderExportService {
+	
+	/**
+	 * Writes the matching active orders to {@code outputStream} as newline-delimited JSON, one
+	 * order per line, and returns how many were written.
+	 */
+	long exportActiveOrders(final OrderStatus status, final LocalDateTime from, final LocalDateTime to,
+			final OutputStream outputStream);
+	
+}
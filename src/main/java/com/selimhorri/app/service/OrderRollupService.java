@@ -0,0 +1,35 @@
+package com.selimhorri.app.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.selimhorri.app.domain.enums.OrderStatus;
+import com.selimhorri.app.domain.enums.RollupGranularity;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.OrderStatisticsDto;
+
+public interface OrderRollupService {
+	
+	/**
+	 * Buckets starting within {@code from} inclusive and {@code to} exclusive, oldest first. Without
+	 * bounds the latest {@link RollupGranularity#getDefaultBuckets()} buckets are returned.
+	 */
+	List<OrderStatisticsDto> findStatistics(final RollupGranularity granularity, final OrderStatus status,
+			final LocalDateTime from, final LocalDateTime to);
+	
+	/**
+	 * Move the order counts and fee sums within the caller's transaction; call them last, the
+	 * bucket rows stay locked until it commits.
+	 */
+	void recordCreated(final List<OrderDto> orderDtos);
+	void recordChanged(final OrderDto before, final OrderDto after);
+	void recordChanged(final List<OrderDto> before, final List<OrderDto> after);
+	void recordDeactivated(final OrderDto orderDto);
+	void recordDeactivated(final List<OrderDto> orderDtos);
+	
+	/**
+	 * Recomputes every bucket from the active orders and returns how many orders were counted.
+	 */
+	long rebuild();
+	
+}
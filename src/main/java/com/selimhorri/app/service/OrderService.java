@@ -1,16 +1,55 @@
 package com.selimhorri.app.service;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
+import org.springframework.data.domain.Pageable;
+
+import com.selimhorri.app.domain.enums.OrderField;
+import com.selimhorri.app.domain.enums.OrderStatus;
+import com.selimhorri.app.dto.OrderCreationResultDto;
 import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.OrderSearchDto;
+import com.selimhorri.app.dto.OrderStatusTransitionResultDto;
+import com.selimhorri.app.dto.response.collection.DtoCursorPageResponse;
+import com.selimhorri.app.dto.response.collection.DtoPageResponse;
 
 public interface OrderService {
 	
 	List<OrderDto> findAll();
+	DtoCursorPageResponse<OrderDto> findPage(final String cursor, final Integer size);
+	
+	/**
+	 * Same keyset page reading only the columns of {@code fields}; the other properties of the
+	 * orders are left null.
+	 */
+	DtoCursorPageResponse<OrderDto> findPage(final String cursor, final Integer size, final Set<OrderField> fields);
 	OrderDto findById(final Integer orderId);
+	
+	/**
+	 * Page of the active orders matching {@code criteria}, sorted by orderId, orderDate or orderFee
+	 * (orderId when unsorted).
+	 */
+	DtoPageResponse<OrderDto> search(final OrderSearchDto criteria, final Pageable pageable);
+	
+	/**
+	 * Strong ETag of the active order, from a query that reads nothing but its id, update time and
+	 * version.
+	 */
+	String findEtag(final Integer orderId);
 	OrderDto save(final OrderDto orderDto);
+	List<OrderCreationResultDto> saveAll(final List<OrderDto> orderDtos);
 	OrderDto updateStatus(final int orderId);
+	OrderDto updateStatus(final int orderId, final OrderStatus expectedStatus);
+	List<OrderStatusTransitionResultDto> updateStatuses(final List<Integer> orderIds, final OrderStatus expectedStatus);
 	OrderDto update(final Integer orderId, final OrderDto orderDto);
 	void deleteById(final Integer orderId);
 	
+	/**
+	 * Deactivates the active orders of the given carts that are not in a final status and returns
+	 * how many were deactivated; meant to run in the transaction that deactivates the carts.
+	 */
+	int deactivateAllByCartIds(final Collection<Integer> cartIds);
+	
 }
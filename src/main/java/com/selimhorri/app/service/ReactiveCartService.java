@@ -0,0 +1,19 @@
+package com.selimhorri.app.service;
+
+import com.selimhorri.app.dto.CartDeactivationResultDto;
+import com.selimhorri.app.dto.CartDto;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking {@link CartService} for the reactive profile.
+ */
+public interface ReactiveCartService {
+	
+	Flux<CartDto> findAll();
+	Mono<CartDto> findById(final Integer cartId);
+	Mono<CartDto> save(final CartDto cartDto);
+	Mono<CartDeactivationResultDto> deleteById(final Integer cartId);
+	
+}
@@ -0,0 +1,19 @@
+package com.selimhorri.app.service;
+
+import java.util.List;
+
+import com.selimhorri.app.domain.enums.OrderEventType;
+import com.selimhorri.app.dto.OrderDto;
+
+import reactor.core.publisher.Mono;
+
+public interface ReactiveOrderEventService {
+	
+	/**
+	 * Reactive counterpart of {@link OrderEventService}: the returned Mono has to be part of the
+	 * caller's transactional pipeline for the event to commit with the order change.
+	 */
+	Mono<Void> record(final OrderEventType eventType, final OrderDto orderDto);
+	Mono<Void> recordAll(final OrderEventType eventType, final List<OrderDto> orderDtos);
+	
+}
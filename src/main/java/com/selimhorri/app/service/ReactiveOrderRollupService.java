@@ -0,0 +1,20 @@
+package com.selimhorri.app.service;
+
+import java.util.List;
+
+import com.selimhorri.app.dto.OrderDto;
+
+import reactor.core.publisher.Mono;
+
+public interface ReactiveOrderRollupService {
+	
+	/**
+	 * Reactive counterparts of the {@link OrderRollupService} deltas: the returned Mono has to run
+	 * last in the caller's transactional pipeline, the bucket rows stay locked until it commits.
+	 */
+	Mono<Void> recordCreated(final List<OrderDto> orderDtos);
+	Mono<Void> recordChanged(final OrderDto before, final OrderDto after);
+	Mono<Void> recordDeactivated(final OrderDto orderDto);
+	Mono<Void> recordDeactivated(final List<OrderDto> orderDtos);
+	
+}
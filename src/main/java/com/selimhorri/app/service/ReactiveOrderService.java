@@ -0,0 +1,38 @@
+package com.selimhorri.app.service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import com.selimhorri.app.domain.enums.OrderStatus;
+import com.selimhorri.app.dto.OrderCreationResultDto;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.response.collection.DtoCursorPageResponse;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking {@link OrderService} for the reactive profile, same rules and errors, signalled
+ * through the returned publishers.
+ */
+public interface ReactiveOrderService {
+	
+	Flux<OrderDto> findAll();
+	Mono<DtoCursorPageResponse<OrderDto>> findPage(final String cursor, final Integer size);
+	Flux<OrderDto> export(final OrderStatus status, final LocalDateTime from, final LocalDateTime to);
+	Mono<OrderDto> findById(final Integer orderId);
+	Mono<OrderDto> save(final OrderDto orderDto);
+	Mono<List<OrderCreationResultDto>> saveAll(final List<OrderDto> orderDtos);
+	Mono<OrderDto> updateStatus(final int orderId, final OrderStatus expectedStatus);
+	Mono<OrderDto> update(final Integer orderId, final OrderDto orderDto);
+	Mono<Void> deleteById(final Integer orderId);
+	
+	/**
+	 * Soft deletes the active orders of the given carts that are not in a final status and emits how
+	 * many were deactivated. Has to run in the caller's transactional pipeline, like
+	 * {@link OrderService#deactivateAllByCartIds}.
+	 */
+	Mono<Integer> deactivateAllByCartIds(final Collection<Integer> cartIds);
+	
+}
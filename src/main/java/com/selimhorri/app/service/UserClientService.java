@@ -0,0 +1,30 @@
+package com.selimhorri.app.service;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+import com.selimhorri.app.dto.UserDto;
+
+import reactor.core.publisher.Mono;
+
+public interface UserClientService {
+	
+	/**
+	 * Empty when USER-SERVICE does not know the user, remote failures are thrown.
+	 */
+	Optional<UserDto> findById(final Integer userId);
+	
+	/**
+	 * Non-blocking variant of {@link #findById(Integer)}: completes empty for an unknown user
+	 * and errors on remote failures with no stale entry to fall back on.
+	 */
+	Mono<UserDto> findByIdReactive(final Integer userId);
+	
+	/**
+	 * Resolves each distinct id once. Ids mapped to an empty Optional are unknown users,
+	 * ids missing from the map could not be resolved before the enrichment deadline.
+	 */
+	Map<Integer, Optional<UserDto>> findAllByIds(final Collection<Integer> userIds);
+	
+}
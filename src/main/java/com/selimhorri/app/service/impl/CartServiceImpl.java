@@ -1,26 +1,35 @@
 package com.selimhorri.app.service.impl;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 import javax.transaction.Transactional;
 
-import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClientException;
-import org.springframework.web.client.RestTemplate;
 
+import com.selimhorri.app.cache.UserExistenceFilter;
 import com.selimhorri.app.constant.AppConstant;
 import com.selimhorri.app.domain.Cart;
+import com.selimhorri.app.domain.enums.CartField;
+import com.selimhorri.app.dto.CartDeactivationResultDto;
 import com.selimhorri.app.dto.CartDto;
 import com.selimhorri.app.dto.UserDto;
+import com.selimhorri.app.exception.wrapper.BatchSizeExceededException;
 import com.selimhorri.app.exception.wrapper.CartNotFoundException;
 import com.selimhorri.app.exception.wrapper.UserNotFoundException;
 import com.selimhorri.app.helper.CartMappingHelper;
+import com.selimhorri.app.helper.EtagHelper;
 import com.selimhorri.app.repository.CartRepository;
 import com.selimhorri.app.service.CartService;
+import com.selimhorri.app.service.OrderService;
+import com.selimhorri.app.service.UserClientService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -32,31 +41,56 @@ import lombok.extern.slf4j.Slf4j;
 public class CartServiceImpl implements CartService {
 
 	private final CartRepository cartRepository;
-	@LoadBalanced
-	private final RestTemplate restTemplate;
+	private final UserClientService userClientService;
+	private final UserExistenceFilter userExistenceFilter;
+	private final OrderService orderService;
 
 	@Override
 	public List<CartDto> findAll() {
 		log.info("*** CartDto List, service; fetch all active carts *");
-		return this.cartRepository.findAllByIsActiveTrue()
+		return this.withUsers(this.cartRepository.findAllByIsActiveTrue()
 				.stream()
 				.map(CartMappingHelper::map)
+				.collect(Collectors.toList()));
+	}
+
+	@Override
+	public List<CartDto> findAll(final Set<CartField> fields) {
+		log.info("*** CartDto List, service; fetch selected fields of all active carts *");
+		if (!fields.contains(CartField.USER_ID) && !fields.contains(CartField.USER))
+			return this.cartRepository.findAllActiveIds()
+					.stream()
+					.map(cartId -> CartDto.builder().cartId(cartId).build())
+					.collect(Collectors.toUnmodifiableList());
+
+		final List<CartDto> carts = this.cartRepository.findAllActiveViews()
+				.stream()
+				.map(CartMappingHelper::map)
+				.collect(Collectors.toList());
+		return fields.contains(CartField.USER)
+				? this.withUsers(carts)
+				: List.copyOf(carts);
+	}
+
+	private List<CartDto> withUsers(final List<CartDto> carts) {
+		// One lookup per distinct user instead of one serial call per cart
+		final Map<Integer, Optional<UserDto>> users = this.userClientService.findAllByIds(
+				carts.stream()
+						.map(CartDto::getUserId)
+						.collect(Collectors.toSet()));
+
+		return carts.stream()
 				.map(c -> {
-					try {
-						c.setUserDto(this.restTemplate.getForObject(
-								AppConstant.DiscoveredDomainsApi.USER_SERVICE_API_URL + "/"
-										+ c.getUserDto().getUserId(),
-								UserDto.class));
+					if (c.getUserId() == null)
 						return c;
-					} catch (HttpClientErrorException.NotFound e) {
-						log.warn("User not found for userId: {} - {}", c.getUserDto().getUserId(), e.getMessage());
-						return c; // Devuelve el carrito sin datos de usuario
-					} catch (Exception e) {
-						log.error("Error fetching user data for userId: {}", c.getUserDto().getUserId(), e);
-						return null; // Filtra otros errores
-					}
+					final Optional<UserDto> user = users.get(c.getUserId());
+					if (user == null)
+						return null; // La consulta falló o superó el plazo, se filtra
+					user.ifPresent(u -> this.userExistenceFilter.add(c.getUserId()));
+					user.ifPresent(c::setUserDto); // Sin usuario se devuelve el carrito sin datos de usuario
+					return c;
 				})
-				.filter(Objects::nonNull) // Filtra nulos (solo si devuelves null en otros casos)
+				.filter(Objects::nonNull)
 				.distinct()
 				.collect(Collectors.toUnmodifiableList());
 	}
@@ -67,15 +101,25 @@ public class CartServiceImpl implements CartService {
 		return this.cartRepository.findByCartIdAndIsActiveTrue(cartId) // Cambiado para buscar solo activos
 				.map(CartMappingHelper::map)
 				.map(c -> {
-					c.setUserDto(this.restTemplate.getForObject(
-							AppConstant.DiscoveredDomainsApi.USER_SERVICE_API_URL + "/" + c.getUserDto().getUserId(),
-							UserDto.class));
+					this.userClientService.findById(c.getUserId()).ifPresent(u -> {
+						this.userExistenceFilter.add(c.getUserId());
+						c.setUserDto(u);
+					});
 					return c;
 				})
 				.orElseThrow(() -> new CartNotFoundException(
 						String.format("Active cart with id: %d not found", cartId)));
 	}
 
+	@Override
+	public String findEtag(final Integer cartId) {
+		log.info("*** String, service; fetch active cart ETag by id *");
+		return this.cartRepository.findActiveVersionById(cartId)
+				.map(EtagHelper::of)
+				.orElseThrow(() -> new CartNotFoundException(
+						String.format("Active cart with id: %d not found", cartId)));
+	}
+
 	@Override
 	public CartDto save(final CartDto cartDto) {
 		log.info("*** CartDto, service; save cart *");
@@ -84,19 +128,18 @@ public class CartServiceImpl implements CartService {
 			throw new IllegalArgumentException("UserId must not be null when saving a cart");
 		}
 
-		try {
-			final String url = AppConstant.DiscoveredDomainsApi.USER_SERVICE_API_URL + "/" + cartDto.getUserId();
-			UserDto userDto = this.restTemplate.getForObject(url, UserDto.class);
-
-			if (userDto == null) {
-				throw new UserNotFoundException(String.format("User with id %d not found", cartDto.getUserId()));
+		// Users confirmed before skip the remote check; the saved cart is mapped back with the userId only
+		if (!this.userExistenceFilter.mightContain(cartDto.getUserId())) {
+			try {
+				final UserDto userDto = this.userClientService.findById(cartDto.getUserId())
+						.orElseThrow(() -> new UserNotFoundException(
+								String.format("User with id %d not found", cartDto.getUserId())));
+
+				cartDto.setUserDto(userDto);
+				this.userExistenceFilter.add(cartDto.getUserId());
+			} catch (RestClientException ex) {
+				throw new RuntimeException("Error verifying user existence: " + ex.getMessage(), ex);
 			}
-
-			cartDto.setUserDto(userDto);
-		} catch (HttpClientErrorException.NotFound ex) {
-			throw new UserNotFoundException(String.format("User with id %d not found", cartDto.getUserId()));
-		} catch (RestClientException ex) {
-			throw new RuntimeException("Error verifying user existence: " + ex.getMessage(), ex);
 		}
 
 		cartDto.setCartId(null);
@@ -105,17 +148,52 @@ public class CartServiceImpl implements CartService {
 	}
 
 	@Override
-	public void deleteById(final Integer cartId) {
-		log.info("*** Void, service; soft delete cart by id (set isActive=false) *");
-
-		Cart cart = this.cartRepository.findById(cartId)
-				.orElseThrow(() -> new CartNotFoundException(
-						String.format("Cart with id: %d not found", cartId)));
+	public CartDeactivationResultDto deleteById(final Integer cartId) {
+		log.info("*** CartDeactivationResultDto, service; soft delete cart and its orders by id *");
+		// Locked first like the bulk path. Changing the managed cart updates its own second-level cache
+		// entry, where the bulk update would evict every cached cart.
+		final Cart cart = this.cartRepository.findByIdForUpdate(cartId)
+				.orElseThrow(() -> new CartNotFoundException(String.format("Cart with id: %d not found", cartId)));
+		final int carts = cart.isActive() ? 1 : 0;
+		cart.setActive(false);
+
+		// Dirty checking writes the cart at the latest on commit; leftover orders of an inactive cart go too
+		final CartDeactivationResultDto result = CartDeactivationResultDto.builder()
+				.cartsDeactivated(carts)
+				.ordersDeactivated(this.orderService.deactivateAllByCartIds(Set.of(cartId)))
+				.build();
+		log.debug("Cart with id: {} was soft deleted with {} orders", cartId, result.getOrdersDeactivated());
+		return result;
+	}
 
-		cart.setActive(false); // Realiza el soft delete
-		this.cartRepository.save(cart); // Guarda el cambio
+	@Override
+	public CartDeactivationResultDto deactivateAll(final List<Integer> cartIds) {
+		log.info("*** CartDeactivationResultDto, service; soft delete carts and their orders in bulk *");
+		if (cartIds.size() > AppConstant.BULK_MAX_SIZE)
+			throw new BatchSizeExceededException(String.format(
+					"At most %d carts can be deactivated per request", AppConstant.BULK_MAX_SIZE));
+
+		final Set<Integer> distinctIds = cartIds.stream()
+				.filter(Objects::nonNull)
+				.collect(Collectors.toCollection(TreeSet::new));
+		if (distinctIds.isEmpty())
+			return new CartDeactivationResultDto(0, 0);
+		final CartDeactivationResultDto result = this.deactivate(distinctIds);
+		log.info("Bulk cart deactivation: {} carts and {} orders deactivated",
+				result.getCartsDeactivated(), result.getOrdersDeactivated());
+		return result;
+	}
 
-		log.debug("Cart with id: {} was soft deleted (isActive set to false)", cartId);
+	private CartDeactivationResultDto deactivate(final Set<Integer> cartIds) {
+		// Carts first: their row locks hold back orders being inserted for them until this commits.
+		// The bulk HQL update evicts the READ_WRITE cache region, so no stale active cart is served.
+		// Orders go even when the cart was inactive already, picking up any left behind before.
+		final int carts = this.cartRepository.deactivateAll(cartIds, Instant.now());
+		final int orders = this.orderService.deactivateAllByCartIds(cartIds);
+		return CartDeactivationResultDto.builder()
+				.cartsDeactivated(carts)
+				.ordersDeactivated(orders)
+				.build();
 	}
 
 }
@@ -0,0 +1,260 @@
+package com.selimhorri.app.service.impl;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.selimhorri.app.domain.IdempotencyRecord;
+import com.selimhorri.app.exception.wrapper.IdempotencyKeyConflictException;
+import com.selimhorri.app.exception.wrapper.InvalidIdempotencyKeyException;
+import com.selimhorri.app.repository.IdempotencyRecordRepository;
+import com.selimhorri.app.service.IdempotencyService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Two tiers of stored responses: a bounded in-memory cache answers retries hitting the same
+ * instance, the idempotency_keys table answers the others. The table row is inserted in the
+ * same transaction as the action, so the action commits only for the request that claims the key.
+ */
+@Service
+@Slf4j
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+	static final int MAX_KEY_LENGTH = 128;
+	// MEDIUMTEXT holds 16 MB, at most 4 bytes a character
+	static final int MAX_RESPONSE_LENGTH = 4_000_000;
+
+	private final IdempotencyRecordRepository idempotencyRecordRepository;
+	private final ObjectMapper objectMapper;
+	private final ObjectWriter bodyWriter;
+	// Not @Transactional: the transaction has to end before waiting requests are released
+	private final TransactionTemplate transactionTemplate;
+	private final Duration ttl;
+	private final Duration inFlightTimeout;
+	private final Cache<String, StoredResponse> hotTier;
+	private final ConcurrentMap<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+	private final Counter executedCounter;
+	private final Counter hotReplayCounter;
+	private final Counter dbReplayCounter;
+	private final Counter collapsedCounter;
+
+	public IdempotencyServiceImpl(final IdempotencyRecordRepository idempotencyRecordRepository,
+			final ObjectMapper objectMapper,
+			final PlatformTransactionManager transactionManager,
+			final MeterRegistry meterRegistry,
+			@Value("${app.idempotency.ttl:24h}") final Duration ttl,
+			@Value("${app.idempotency.hot-ttl:10m}") final Duration hotTtl,
+			@Value("${app.idempotency.hot-max-entries:10000}") final long hotMaxEntries,
+			@Value("${app.idempotency.in-flight-timeout:10s}") final Duration inFlightTimeout) {
+		this.idempotencyRecordRepository = idempotencyRecordRepository;
+		this.objectMapper = objectMapper;
+		this.bodyWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.ttl = ttl;
+		this.inFlightTimeout = inFlightTimeout;
+		this.hotTier = Caffeine.newBuilder()
+				.maximumSize(hotMaxEntries)
+				.expireAfterWrite(hotTtl.compareTo(ttl) < 0 ? hotTtl : ttl)
+				.build();
+		this.executedCounter = this.requestCounter(meterRegistry, "executed");
+		this.hotReplayCounter = this.requestCounter(meterRegistry, "replayed_hot");
+		this.dbReplayCounter = this.requestCounter(meterRegistry, "replayed_db");
+		this.collapsedCounter = this.requestCounter(meterRegistry, "collapsed");
+	}
+
+	private Counter requestCounter(final MeterRegistry meterRegistry, final String outcome) {
+		return Counter.builder("idempotency_requests_total")
+				.description("Requests sent with an Idempotency-Key, by how they were answered")
+				.tag("outcome", outcome)
+				.register(meterRegistry);
+	}
+
+	@Override
+	public <T> T execute(final String scope, final String idempotencyKey, final Object request,
+			final Class<T> responseType, final Supplier<T> action) {
+		if (idempotencyKey == null)
+			return action.get();
+		if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH)
+			throw new InvalidIdempotencyKeyException(
+					String.format("Idempotency-Key must have between 1 and %d characters", MAX_KEY_LENGTH));
+
+		final String recordKey = scope + ":" + idempotencyKey;
+		// Hashed before the action runs, services reset ids on the request they are given
+		final String requestHash = this.hash(request);
+
+		final StoredResponse hot = this.hotTier.getIfPresent(recordKey);
+		if (hot != null) {
+			this.hotReplayCounter.increment();
+			return this.replay(idempotencyKey, hot, requestHash, responseType);
+		}
+
+		final CompletableFuture<StoredResponse> own = new CompletableFuture<>();
+		final CompletableFuture<StoredResponse> running = this.inFlight.putIfAbsent(recordKey, own);
+		if (running != null) {
+			this.collapsedCounter.increment();
+			return this.replay(idempotencyKey, this.await(idempotencyKey, running), requestHash, responseType);
+		}
+
+		try {
+			final Optional<IdempotencyRecord> existing = this.idempotencyRecordRepository.findById(recordKey);
+			final Instant now = Instant.now();
+			if (existing.isPresent() && existing.get().getExpiresAt().isAfter(now)) {
+				final StoredResponse stored = new StoredResponse(existing.get().getRequestHash(), existing.get().getResponseBody());
+				this.hotTier.put(recordKey, stored);
+				own.complete(stored);
+				this.dbReplayCounter.increment();
+				return this.replay(idempotencyKey, stored, requestHash, responseType);
+			}
+
+			final AtomicReference<T> response = new AtomicReference<>();
+			final String responseBody;
+			try {
+				responseBody = this.transactionTemplate.execute(status -> {
+					// An expired row nobody purged yet would otherwise keep the key taken
+					if (existing.isPresent())
+						this.idempotencyRecordRepository.deleteExpired(recordKey, now);
+					response.set(action.get());
+					final String body = this.write(response.get());
+					// Thrown inside the transaction, so the action is rolled back with it rather than left unreplayable
+					if (body.length() > MAX_RESPONSE_LENGTH)
+						throw new InvalidIdempotencyKeyException(String.format(
+								"Response for Idempotency-Key %s is too large to store, send the request without the key",
+								idempotencyKey));
+					this.idempotencyRecordRepository.saveAndFlush(IdempotencyRecord.builder()
+							.idempotencyKey(recordKey)
+							.requestHash(requestHash)
+							.responseBody(body)
+							.createdAt(now)
+							.expiresAt(now.plus(this.ttl))
+							.build());
+					return body;
+				});
+			}
+			catch (DataIntegrityViolationException e) {
+				// Another instance committed the key first, this run was rolled back together with the insert
+				final IdempotencyRecord winner = this.idempotencyRecordRepository.findById(recordKey)
+						.orElseThrow(() -> e);
+				final StoredResponse stored = new StoredResponse(winner.getRequestHash(), winner.getResponseBody());
+				this.hotTier.put(recordKey, stored);
+				own.complete(stored);
+				this.dbReplayCounter.increment();
+				return this.replay(idempotencyKey, stored, requestHash, responseType);
+			}
+
+			final StoredResponse stored = new StoredResponse(requestHash, responseBody);
+			this.hotTier.put(recordKey, stored);
+			own.complete(stored);
+			this.executedCounter.increment();
+			return response.get();
+		}
+		catch (RuntimeException e) {
+			// Nothing was stored, waiting requests fail the same way and a later retry runs again
+			own.completeExceptionally(e);
+			throw e;
+		}
+		finally {
+			this.inFlight.remove(recordKey, own);
+		}
+	}
+
+	@Override
+	@Scheduled(fixedDelayString = "${app.idempotency.purge-interval:600000}")
+	public int purgeExpired() {
+		final Integer purged = this.transactionTemplate.execute(status ->
+				this.idempotencyRecordRepository.deleteAllExpired(Instant.now()));
+		log.info("*** Integer, service; purged {} expired idempotency keys *", purged);
+		return purged == null ? 0 : purged;
+	}
+
+	private StoredResponse await(final String idempotencyKey, final CompletableFuture<StoredResponse> running) {
+		try {
+			return running.get(this.inFlightTimeout.toMillis(), TimeUnit.MILLISECONDS);
+		}
+		catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			throw new IllegalStateException(e.getCause());
+		}
+		catch (TimeoutException e) {
+			throw new IdempotencyKeyConflictException(
+					String.format("A request with Idempotency-Key %s is still in progress", idempotencyKey));
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IdempotencyKeyConflictException(
+					String.format("Interrupted waiting for the request with Idempotency-Key %s", idempotencyKey), e);
+		}
+	}
+
+	private <T> T replay(final String idempotencyKey, final StoredResponse stored, final String requestHash,
+			final Class<T> responseType) {
+		if (!stored.requestHash.equals(requestHash))
+			throw new IdempotencyKeyConflictException(
+					String.format("Idempotency-Key %s was already used with a different request", idempotencyKey));
+		try {
+			return this.objectMapper.readValue(stored.responseBody, responseType);
+		}
+		catch (JsonProcessingException e) {
+			throw new IllegalStateException("Could not read the stored response for Idempotency-Key " + idempotencyKey, e);
+		}
+	}
+
+	private String hash(final Object request) {
+		try {
+			return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+					.digest(this.bodyWriter.writeValueAsBytes(request)));
+		}
+		catch (JsonProcessingException | NoSuchAlgorithmException e) {
+			throw new IllegalStateException("Could not hash the request", e);
+		}
+	}
+
+	private String write(final Object response) {
+		try {
+			return this.bodyWriter.writeValueAsString(response);
+		}
+		catch (JsonProcessingException e) {
+			throw new IllegalStateException("Could not serialize the response", e);
+		}
+	}
+
+	private static final class StoredResponse {
+
+		private final String requestHash;
+		private final String responseBody;
+
+		private StoredResponse(final String requestHash, final String responseBody) {
+			this.requestHash = requestHash;
+			this.responseBody = responseBody;
+		}
+
+	}
+
+}
@@ -0,0 +1,66 @@
+package com.selimhorri.app.service.impl;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.transaction.Transactional;
+
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.selimhorri.app.domain.OrderOutboxEvent;
+import com.selimhorri.app.domain.enums.OrderEventType;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.repository.OrderOutboxRepository;
+import com.selimhorri.app.service.OrderEventService;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Transactional
+@Slf4j
+public class OrderEventServiceImpl implements OrderEventService {
+	
+	private final OrderOutboxRepository orderOutboxRepository;
+	private final ObjectWriter payloadWriter;
+	
+	public OrderEventServiceImpl(final OrderOutboxRepository orderOutboxRepository, final ObjectMapper objectMapper) {
+		this.orderOutboxRepository = orderOutboxRepository;
+		this.payloadWriter = objectMapper.writerFor(OrderDto.class).without(SerializationFeature.INDENT_OUTPUT);
+	}
+	
+	@Override
+	public void record(final OrderEventType eventType, final OrderDto orderDto) {
+		log.info("*** OrderOutboxEvent, service; record {} for order {} *", eventType, orderDto.getOrderId());
+		this.orderOutboxRepository.save(this.toEvent(eventType, orderDto, Instant.now()));
+	}
+	
+	@Override
+	public void recordAll(final OrderEventType eventType, final List<OrderDto> orderDtos) {
+		log.info("*** OrderOutboxEvent List, service; record {} {} events *", orderDtos.size(), eventType);
+		final Instant createdAt = Instant.now();
+		this.orderOutboxRepository.saveAll(orderDtos.stream()
+				.map(orderDto -> this.toEvent(eventType, orderDto, createdAt))
+				.collect(Collectors.toList()));
+	}
+	
+	private OrderOutboxEvent toEvent(final OrderEventType eventType, final OrderDto orderDto, final Instant createdAt) {
+		try {
+			return OrderOutboxEvent.builder()
+					.orderId(orderDto.getOrderId())
+					.eventType(eventType)
+					.payload(this.payloadWriter.writeValueAsString(orderDto))
+					.createdAt(createdAt)
+					.build();
+		}
+		catch (JsonProcessingException e) {
+			// Failing here rolls the order change back with it, an event is never silently dropped
+			throw new IllegalStateException("Could not serialize " + eventType + " for order " + orderDto.getOrderId(), e);
+		}
+	}
+	
+}
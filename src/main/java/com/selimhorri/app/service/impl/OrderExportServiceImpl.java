@@ -0,0 +1,67 @@
+package com.selimhorri.app.service.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+
+import javax.transaction.Transactional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.selimhorri.app.domain.enums.OrderStatus;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.helper.OrderMappingHelper;
+import com.selimhorri.app.repository.OrderRepository;
+import com.selimhorri.app.service.OrderExportService;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Transactional
+@Slf4j
+public class OrderExportServiceImpl implements OrderExportService {
+	
+	private static final int NEWLINE = '\n';
+	
+	private final OrderRepository orderRepository;
+	private final ObjectWriter orderWriter;
+	private final int fetchSize;
+	
+	public OrderExportServiceImpl(final OrderRepository orderRepository, final ObjectMapper objectMapper,
+			@Value("${app.export.fetch-size:500}") final int fetchSize) {
+		this.orderRepository = orderRepository;
+		// One document per line, whatever the pretty-print setting of the shared mapper
+		this.orderWriter = objectMapper.writerFor(OrderDto.class).without(SerializationFeature.INDENT_OUTPUT);
+		this.fetchSize = fetchSize;
+	}
+	
+	@Override
+	public long exportActiveOrders(final OrderStatus status, final LocalDateTime from, final LocalDateTime to,
+			final OutputStream outputStream) {
+		log.info("*** OrderDto NDJSON, service; export active orders *");
+		final long exported = this.orderRepository.scrollActiveViews(status, from, to, this.fetchSize, orderView -> {
+			try {
+				outputStream.write(this.orderWriter.writeValueAsBytes(OrderMappingHelper.map(orderView)));
+				outputStream.write(NEWLINE);
+			}
+			catch (IOException e) {
+				// Mostly a client that hung up, abort the scroll and release the cursor
+				throw new UncheckedIOException(e);
+			}
+		});
+		try {
+			outputStream.flush();
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		log.info("Exported {} orders", exported);
+		return exported;
+	}
+	
+}
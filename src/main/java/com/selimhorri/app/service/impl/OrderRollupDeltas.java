@@ -0,0 +1,61 @@
+package com.selimhorri.app.service.impl;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import com.selimhorri.app.domain.OrderRollupId;
+import com.selimhorri.app.domain.enums.RollupGranularity;
+import com.selimhorri.app.dto.OrderDto;
+
+/**
+ * Bucket changes of one order write, shared by the JPA and R2DBC rollup services so both move the
+ * same counts and fees and lock the buckets in the same order.
+ */
+final class OrderRollupDeltas {
+	
+	// Buckets are locked in this order so two transactions moving orders between the same buckets cannot deadlock
+	private static final Comparator<OrderRollupId> LOCK_ORDER = Comparator
+			.comparing(OrderRollupId::getGranularity)
+			.thenComparing(OrderRollupId::getBucketStart)
+			.thenComparing(OrderRollupId::getStatus);
+	
+	private final Map<OrderRollupId, Delta> deltas = new TreeMap<>(LOCK_ORDER);
+	
+	OrderRollupDeltas add(final OrderDto orderDto, final int sign) {
+		for (final RollupGranularity granularity : RollupGranularity.values())
+			this.deltas.computeIfAbsent(
+					new OrderRollupId(granularity, granularity.truncate(orderDto.getOrderDate()), orderDto.getOrderStatus()),
+					id -> new Delta())
+					.add(sign, orderDto.getOrderFee() == null ? null : sign * orderDto.getOrderFee());
+		return this;
+	}
+	
+	OrderRollupDeltas addAll(final List<OrderDto> orderDtos, final int sign) {
+		orderDtos.forEach(o -> this.add(o, sign));
+		return this;
+	}
+	
+	// An update that leaves date, status and fee alone cancels out and is left out
+	List<Map.Entry<OrderRollupId, Delta>> changes() {
+		return this.deltas.entrySet().stream()
+				.filter(e -> e.getValue().count != 0 || e.getValue().fee != 0.0)
+				.collect(Collectors.toList());
+	}
+	
+	static final class Delta {
+		
+		long count;
+		double fee;
+		
+		void add(final long count, final Double fee) {
+			this.count += count;
+			if (fee != null)
+				this.fee += fee;
+		}
+		
+	}
+	
+}
@@ -0,0 +1,143 @@
+package com.selimhorri.app.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import javax.transaction.Transactional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.selimhorri.app.domain.OrderRollup;
+import com.selimhorri.app.domain.OrderRollupId;
+import com.selimhorri.app.domain.enums.OrderStatus;
+import com.selimhorri.app.domain.enums.RollupGranularity;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.OrderStatisticsDto;
+import com.selimhorri.app.repository.OrderRepository;
+import com.selimhorri.app.repository.OrderRollupRepository;
+import com.selimhorri.app.service.OrderRollupService;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Transactional
+@Slf4j
+public class OrderRollupServiceImpl implements OrderRollupService {
+	
+	private final OrderRollupRepository orderRollupRepository;
+	private final OrderRepository orderRepository;
+	private final TransactionTemplate bucketCreationTemplate;
+	private final int fetchSize;
+	
+	public OrderRollupServiceImpl(final OrderRollupRepository orderRollupRepository,
+			final OrderRepository orderRepository,
+			final PlatformTransactionManager transactionManager,
+			@Value("${app.export.fetch-size:500}") final int fetchSize) {
+		this.orderRollupRepository = orderRollupRepository;
+		this.orderRepository = orderRepository;
+		this.bucketCreationTemplate = new TransactionTemplate(transactionManager);
+		this.bucketCreationTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		this.fetchSize = fetchSize;
+	}
+	
+	@Override
+	public List<OrderStatisticsDto> findStatistics(final RollupGranularity granularity, final OrderStatus status,
+			final LocalDateTime from, final LocalDateTime to) {
+		log.info("*** OrderStatisticsDto List, service; fetch {} order statistics *", granularity);
+		final LocalDateTime end = to != null
+				? to
+				: granularity.plus(granularity.truncate(LocalDateTime.now()), 1);
+		final LocalDateTime start = from != null
+				? from
+				: granularity.plus(granularity.truncate(end), -granularity.getDefaultBuckets());
+		return this.orderRollupRepository.findBuckets(granularity, start, end)
+				.stream()
+				.filter(r -> status == null || r.getId().getStatus() == status)
+				.map(r -> OrderStatisticsDto.builder()
+						.bucketStart(r.getId().getBucketStart())
+						.orderStatus(r.getId().getStatus())
+						.orderCount(r.getOrderCount())
+						.feeSum(r.getFeeSum())
+						.build())
+				.collect(Collectors.toUnmodifiableList());
+	}
+	
+	@Override
+	public void recordCreated(final List<OrderDto> orderDtos) {
+		this.apply(new OrderRollupDeltas().addAll(orderDtos, 1));
+	}
+	
+	@Override
+	public void recordChanged(final OrderDto before, final OrderDto after) {
+		this.apply(new OrderRollupDeltas().add(before, -1).add(after, 1));
+	}
+	
+	@Override
+	public void recordChanged(final List<OrderDto> before, final List<OrderDto> after) {
+		// One delta per bucket for the whole batch, however many orders moved through it
+		this.apply(new OrderRollupDeltas().addAll(before, -1).addAll(after, 1));
+	}
+	
+	@Override
+	public void recordDeactivated(final OrderDto orderDto) {
+		this.apply(new OrderRollupDeltas().add(orderDto, -1));
+	}
+	
+	@Override
+	public void recordDeactivated(final List<OrderDto> orderDtos) {
+		this.apply(new OrderRollupDeltas().addAll(orderDtos, -1));
+	}
+	
+	@Override
+	public long rebuild() {
+		log.info("*** Long, service; rebuild order rollups *");
+		// Deleting first locks the buckets, so order changes racing the scan are applied after it on top of the rebuilt rows
+		this.orderRollupRepository.deleteAllBuckets();
+		final Map<OrderRollupId, OrderRollupDeltas.Delta> totals = new HashMap<>();
+		final long orders = this.orderRepository.scrollActiveViews(null, null, null, this.fetchSize, view -> {
+			for (final RollupGranularity granularity : RollupGranularity.values())
+				totals.computeIfAbsent(
+						new OrderRollupId(granularity, granularity.truncate(view.getOrderDate()), view.getStatus()),
+						id -> new OrderRollupDeltas.Delta())
+						.add(1, view.getOrderFee());
+		});
+		this.orderRollupRepository.saveAll(totals.entrySet().stream()
+				.map(e -> new OrderRollup(e.getKey(), e.getValue().count, e.getValue().fee))
+				.collect(Collectors.toList()));
+		log.info("Order rollups rebuilt: {} orders in {} buckets", orders, totals.size());
+		return orders;
+	}
+	
+	private void apply(final OrderRollupDeltas deltas) {
+		deltas.changes().forEach(change -> {
+			final OrderRollupId id = change.getKey();
+			final OrderRollupDeltas.Delta delta = change.getValue();
+			if (!this.orderRollupRepository.existsById(id))
+				this.createBucket(id);
+			if (this.orderRollupRepository.increment(id.getGranularity(), id.getBucketStart(), id.getStatus(),
+					delta.count, delta.fee) == 0)
+				// Removed by a rebuild after the check, which could not have counted this uncommitted change
+				this.orderRollupRepository.saveAndFlush(new OrderRollup(id, delta.count, delta.fee));
+		});
+	}
+	
+	// Empty buckets are committed on their own so the first orders of an hour never collide on the insert
+	private void createBucket(final OrderRollupId id) {
+		try {
+			this.bucketCreationTemplate.executeWithoutResult(status ->
+					this.orderRollupRepository.saveAndFlush(new OrderRollup(id, 0L, 0.0)));
+		}
+		catch (DataIntegrityViolationException e) {
+			log.debug("Order rollup bucket {} was created concurrently", id);
+		}
+	}
+	
+}
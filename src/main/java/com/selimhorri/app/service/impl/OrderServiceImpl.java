@@ -1,6 +1,17 @@
 package com.selimhorri.app.service.impl;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 import javax.annotation.PostConstruct;
@@ -9,16 +20,37 @@ import javax.transaction.Transactional;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.DistributionSummary;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 
+import com.selimhorri.app.constant.AppConstant;
+
 import com.selimhorri.app.domain.Order;
+import com.selimhorri.app.domain.enums.OrderEventType;
+import com.selimhorri.app.domain.enums.OrderField;
 import com.selimhorri.app.domain.enums.OrderStatus;
+import com.selimhorri.app.domain.projection.OrderView;
+import com.selimhorri.app.dto.OrderCreationResultDto;
 import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.OrderSearchDto;
+import com.selimhorri.app.dto.OrderStatusTransitionResultDto;
+import com.selimhorri.app.dto.response.collection.DtoCursorPageResponse;
+import com.selimhorri.app.dto.response.collection.DtoPageResponse;
+import com.selimhorri.app.exception.wrapper.BatchSizeExceededException;
 import com.selimhorri.app.exception.wrapper.CartNotFoundException;
+import com.selimhorri.app.exception.wrapper.InvalidFieldsException;
 import com.selimhorri.app.exception.wrapper.OrderNotFoundException;
+import com.selimhorri.app.exception.wrapper.OrderStatusConflictException;
+import com.selimhorri.app.helper.CursorHelper;
+import com.selimhorri.app.helper.EtagHelper;
 import com.selimhorri.app.helper.OrderMappingHelper;
 import com.selimhorri.app.repository.CartRepository;
 import com.selimhorri.app.repository.OrderRepository;
+import com.selimhorri.app.service.OrderEventService;
+import com.selimhorri.app.service.OrderRollupService;
 import com.selimhorri.app.service.OrderService;
 
 import lombok.RequiredArgsConstructor;
@@ -30,8 +62,19 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class OrderServiceImpl implements OrderService {
 
+        // Each has an index that returns the rows already in order, see V12
+        private static final Set<OrderField> SORTABLE_FIELDS =
+                        EnumSet.of(OrderField.ORDER_ID, OrderField.ORDER_DATE, OrderField.ORDER_FEE);
+
+        // Statuses an order can still be deactivated from, the same rule deleteById applies
+        private static final List<OrderStatus> DEACTIVATABLE_STATUSES = Arrays.stream(OrderStatus.values())
+                        .filter(s -> !s.isFinal())
+                        .collect(Collectors.toUnmodifiableList());
+
         private final OrderRepository orderRepository;
         private final CartRepository cartRepository;
+        private final OrderEventService orderEventService;
+        private final OrderRollupService orderRollupService;
         private final MeterRegistry meterRegistry;
 
         private Counter ordersCreatedCounter;
@@ -56,22 +99,104 @@ public class OrderServiceImpl implements OrderService {
         @Override
         public List<OrderDto> findAll() {
                 log.info("*** OrderDto List, service; fetch all active orders *");
-                return this.orderRepository.findAllByIsActiveTrue() // Cambia esto
+                return this.orderRepository.findAllActiveViews()
                                 .stream()
                                 .map(OrderMappingHelper::map)
                                 .distinct()
                                 .collect(Collectors.toUnmodifiableList());
         }
 
+        @Override
+        public DtoCursorPageResponse<OrderDto> findPage(final String cursor, final Integer size) {
+                log.info("*** OrderDto Page, service; fetch active orders page *");
+                final int pageSize = pageSize(size);
+                final Integer afterOrderId = CursorHelper.decode(cursor);
+
+                // Fetch one extra row to know whether a next page exists without a count query
+                final List<OrderDto> rows = this.orderRepository
+                                .findActiveViewsAfter(afterOrderId, PageRequest.of(0, pageSize + 1))
+                                .stream()
+                                .map(OrderMappingHelper::map)
+                                .collect(Collectors.toList());
+                return toPage(rows, pageSize);
+        }
+
+        @Override
+        public DtoCursorPageResponse<OrderDto> findPage(final String cursor, final Integer size,
+                        final Set<OrderField> fields) {
+                log.info("*** OrderDto Page, service; fetch selected fields of active orders page *");
+                final int pageSize = pageSize(size);
+                final Integer afterOrderId = CursorHelper.decode(cursor);
+                final List<OrderDto> rows = this.orderRepository
+                                .findActiveFieldsAfter(fields, afterOrderId, pageSize + 1)
+                                .stream()
+                                .map(OrderMappingHelper::map)
+                                .collect(Collectors.toList());
+                return toPage(rows, pageSize);
+        }
+
+        private static int pageSize(final Integer size) {
+                return (size == null || size < 1)
+                                ? AppConstant.PAGE_DEFAULT_SIZE
+                                : Math.min(size, AppConstant.PAGE_MAX_SIZE);
+        }
+
+        private static DtoCursorPageResponse<OrderDto> toPage(final List<OrderDto> rows, final int pageSize) {
+                final boolean hasNext = rows.size() > pageSize;
+                final List<OrderDto> page = hasNext ? rows.subList(0, pageSize) : rows;
+                return DtoCursorPageResponse.<OrderDto>builder()
+                                .collection(List.copyOf(page))
+                                .size(page.size())
+                                .nextCursor(hasNext ? CursorHelper.encode(page.get(page.size() - 1).getOrderId()) : null)
+                                .build();
+        }
+
         @Override
         public OrderDto findById(final Integer orderId) {
                 log.info("*** OrderDto, service; fetch active order by id *");
-                return this.orderRepository.findByOrderIdAndIsActiveTrue(orderId) // Cambia esto
+                return this.orderRepository.findActiveViewById(orderId)
                                 .map(OrderMappingHelper::map)
                                 .orElseThrow(() -> new OrderNotFoundException(
                                                 String.format("Order with id: %d not found", orderId)));
         }
 
+        @Override
+        public DtoPageResponse<OrderDto> search(final OrderSearchDto criteria, final Pageable pageable) {
+                log.info("*** OrderDto Page, service; search active orders *");
+                for (final Sort.Order order : pageable.getSort())
+                        if (OrderField.fromJsonName(order.getProperty()).filter(SORTABLE_FIELDS::contains).isEmpty())
+                                throw new InvalidFieldsException(String.format(
+                                                "Orders cannot be sorted by %s, only by orderId, orderDate or orderFee",
+                                                order.getProperty()));
+
+                final int pageSize = pageSize(pageable.getPageSize());
+                final int offset = (int) Math.min((long) pageable.getPageNumber() * pageSize, Integer.MAX_VALUE);
+                // One extra row tells whether another page exists without counting every match
+                final List<OrderDto> rows = this.orderRepository
+                                .searchActiveViews(criteria, pageable.getSort(), offset, pageSize + 1)
+                                .stream()
+                                .map(OrderMappingHelper::map)
+                                .collect(Collectors.toList());
+
+                final boolean hasNext = rows.size() > pageSize;
+                final List<OrderDto> page = hasNext ? rows.subList(0, pageSize) : rows;
+                return DtoPageResponse.<OrderDto>builder()
+                                .collection(List.copyOf(page))
+                                .page(pageable.getPageNumber())
+                                .size(page.size())
+                                .hasNext(hasNext)
+                                .build();
+        }
+
+        @Override
+        public String findEtag(final Integer orderId) {
+                log.info("*** String, service; fetch active order ETag by id *");
+                return this.orderRepository.findActiveVersionById(orderId)
+                                .map(EtagHelper::of)
+                                .orElseThrow(() -> new OrderNotFoundException(
+                                                String.format("Order with id: %d not found", orderId)));
+        }
+
         @Override
         public OrderDto save(final OrderDto orderDto) {
                 log.info("*** OrderDto, service; save order *");
@@ -95,63 +220,223 @@ public class OrderServiceImpl implements OrderService {
                 Order order = this.orderRepository.save(OrderMappingHelper.mapForCreationOrder(orderDto));
                 ordersCreatedCounter.increment();
                 orderValueSummary.record(order.getOrderFee());
-                return OrderMappingHelper.map(order);
+                final OrderDto savedOrderDto = OrderMappingHelper.map(order);
+                this.orderEventService.record(OrderEventType.ORDER_CREATED, savedOrderDto);
+                this.orderRollupService.recordCreated(List.of(savedOrderDto));
+                return savedOrderDto;
+        }
+
+        @Override
+        public List<OrderCreationResultDto> saveAll(final List<OrderDto> orderDtos) {
+                log.info("*** OrderCreationResultDto List, service; save orders in bulk *");
+                if (orderDtos.size() > AppConstant.BULK_MAX_SIZE)
+                        throw new BatchSizeExceededException(String.format(
+                                        "At most %d orders can be created per request", AppConstant.BULK_MAX_SIZE));
+
+                // Validate every referenced cart with a single query instead of one lookup per order
+                final Set<Integer> requestedCartIds = orderDtos.stream()
+                                .filter(Objects::nonNull)
+                                .filter(o -> o.getCartDto() != null && o.getCartDto().getCartId() != null)
+                                .map(o -> o.getCartDto().getCartId())
+                                .collect(Collectors.toSet());
+                final Set<Integer> existingCartIds = requestedCartIds.isEmpty()
+                                ? Set.of()
+                                : this.cartRepository.findExistingCartIds(requestedCartIds);
+
+                final OrderCreationResultDto[] results = new OrderCreationResultDto[orderDtos.size()];
+                final List<Order> accepted = new ArrayList<>();
+                final List<Integer> acceptedIndexes = new ArrayList<>();
+                for (int i = 0; i < orderDtos.size(); i++) {
+                        final OrderDto orderDto = orderDtos.get(i);
+                        final String error = this.validateForBulk(orderDto, existingCartIds);
+                        if (error != null) {
+                                results[i] = OrderCreationResultDto.builder()
+                                                .index(i)
+                                                .created(false)
+                                                .error(error)
+                                                .build();
+                                continue;
+                        }
+                        orderDto.setOrderId(null);
+                        orderDto.setOrderStatus(null);
+                        accepted.add(OrderMappingHelper.mapForCreationOrder(orderDto));
+                        acceptedIndexes.add(i);
+                }
+
+                // Ids come from the pooled table generator, so Hibernate groups these inserts into JDBC batches
+                final List<Order> saved = this.orderRepository.saveAll(accepted);
+                final List<OrderDto> savedOrderDtos = new ArrayList<>(saved.size());
+                for (int j = 0; j < saved.size(); j++) {
+                        final Order order = saved.get(j);
+                        final OrderDto savedOrderDto = OrderMappingHelper.map(order);
+                        savedOrderDtos.add(savedOrderDto);
+                        results[acceptedIndexes.get(j)] = OrderCreationResultDto.builder()
+                                        .index(acceptedIndexes.get(j))
+                                        .created(true)
+                                        .orderDto(savedOrderDto)
+                                        .build();
+                        if (order.getOrderFee() != null)
+                                orderValueSummary.record(order.getOrderFee());
+                }
+                ordersCreatedCounter.increment(saved.size());
+                this.orderEventService.recordAll(OrderEventType.ORDER_CREATED, savedOrderDtos);
+                this.orderRollupService.recordCreated(savedOrderDtos);
+                log.info("Bulk order creation: {} created, {} rejected", saved.size(), orderDtos.size() - saved.size());
+                return Arrays.asList(results);
+        }
+
+        private String validateForBulk(final OrderDto orderDto, final Set<Integer> existingCartIds) {
+                if (orderDto == null)
+                        return "Order must not be null";
+                if (orderDto.getCartDto() == null || orderDto.getCartDto().getCartId() == null)
+                        return "Order must be associated with a cart";
+                if (!existingCartIds.contains(orderDto.getCartDto().getCartId()))
+                        return "Cart not found with ID: " + orderDto.getCartDto().getCartId();
+                return null;
         }
 
         @Override
         public OrderDto updateStatus(final int orderId) {
+                return this.updateStatus(orderId, null);
+        }
+
+        @Override
+        public OrderDto updateStatus(final int orderId, final OrderStatus expectedStatus) {
                 log.info("*** OrderDto, service; update order status *");
-                try {
-                        Order existingOrder = this.orderRepository
-                                        .findByOrderIdAndIsActiveTrue(orderId)
-                                        .orElseThrow(() -> new OrderNotFoundException(
-                                                        "Order not found with ID: " + orderId));
-
-                        // Actualizar al siguiente estado según la secuencia (Java 8+ compatible)
-                        OrderStatus newStatus;
-                        switch (existingOrder.getStatus()) {
-                                case CREATED:
-                                        newStatus = OrderStatus.ORDERED;
-                                        break;
-                                case ORDERED:
-                                        newStatus = OrderStatus.IN_PAYMENT;
-                                        break;
-                                case IN_PAYMENT:
-                                        throw new IllegalStateException(
-                                                        "Order with ID " + orderId
-                                                                        + " is already PAID and cannot be updated further");
-                                default:
-                                        throw new IllegalStateException(
-                                                        "Unknown order status: " + existingOrder.getStatus());
-                        }
+                // The state machine runs in the database: one conditional UPDATE, with no read before it to race
+                final int updated = this.orderRepository.advanceStatus(orderId, expectedStatus, Instant.now());
+                if (updated == 0)
+                        throw this.transitionFailure(orderId, expectedStatus);
+
+                // Read under the row lock the UPDATE holds: the response, the event and the rollup deltas need the row
+                final OrderView updatedOrder = this.orderRepository
+                                .findActiveViewById(orderId)
+                                .orElseThrow(() -> new OrderNotFoundException(
+                                                "Order not found with ID: " + orderId));
+                final OrderStatus newStatus = updatedOrder.getStatus();
+                log.info("Order status updated successfully from {} to {}", newStatus.previous(), newStatus);
+                final OrderDto updatedOrderDto = OrderMappingHelper.map(updatedOrder);
+                final OrderDto previousOrderDto = OrderMappingHelper.map(updatedOrder);
+                previousOrderDto.setOrderStatus(newStatus.previous());
+                previousOrderDto.setVersion(updatedOrder.getVersion() == null ? null : updatedOrder.getVersion() - 1);
+                this.orderEventService.record(OrderEventType.ORDER_STATUS_CHANGED, updatedOrderDto);
+                this.orderRollupService.recordChanged(previousOrderDto, updatedOrderDto);
+                return updatedOrderDto;
+        }
+
+        // Only a transition that matched no row reads the order, to tell the client why
+        private RuntimeException transitionFailure(final int orderId, final OrderStatus expectedStatus) {
+                final OrderStatus currentStatus = this.orderRepository
+                                .findActiveViewById(orderId)
+                                .map(OrderView::getStatus)
+                                .orElseThrow(() -> new OrderNotFoundException(
+                                                "Order not found with ID: " + orderId));
+                if (expectedStatus != null && expectedStatus != currentStatus)
+                        return new OrderStatusConflictException(String.format(
+                                        "Order with ID %d is %s, expected %s", orderId, currentStatus, expectedStatus));
+                if (currentStatus.isFinal())
+                        return new IllegalStateException(
+                                        "Order with ID " + orderId + " is already PAID and cannot be updated further");
+                return new OrderStatusConflictException(String.format(
+                                "Order with ID %d was modified concurrently, it is %s now", orderId, currentStatus));
+        }
 
-                        existingOrder.setStatus(newStatus);
-                        Order updatedOrder = this.orderRepository.save(existingOrder);
+        @Override
+        public List<OrderStatusTransitionResultDto> updateStatuses(final List<Integer> orderIds,
+                        final OrderStatus expectedStatus) {
+                log.info("*** OrderStatusTransitionResultDto List, service; update order statuses in bulk *");
+                if (orderIds.size() > AppConstant.BULK_MAX_SIZE)
+                        throw new BatchSizeExceededException(String.format(
+                                        "At most %d orders can be updated per request", AppConstant.BULK_MAX_SIZE));
 
-                        log.info("Order status updated successfully from {} to {}",
-                                        existingOrder.getStatus(), newStatus);
+                final Set<Integer> distinctIds = orderIds.stream()
+                                .filter(Objects::nonNull)
+                                .collect(Collectors.toCollection(TreeSet::new));
+                final Map<Integer, OrderView> views = new HashMap<>();
+                if (!distinctIds.isEmpty()) {
+                        // Locked before reading, so no status read here can change before the group updates below
+                        this.orderRepository.lockActiveIds(distinctIds);
+                        this.orderRepository.findActiveViewsByIds(distinctIds).forEach(v -> views.put(v.getOrderId(), v));
+                }
 
-                        return OrderMappingHelper.map(updatedOrder);
+                // Same checks as updateStatus, then one conditional UPDATE per current status
+                final Map<Integer, String> errors = new HashMap<>();
+                final Map<OrderStatus, List<OrderView>> groups = new EnumMap<>(OrderStatus.class);
+                for (final Integer orderId : distinctIds) {
+                        final OrderView view = views.get(orderId);
+                        if (view == null)
+                                errors.put(orderId, "Order not found with ID: " + orderId);
+                        else if (expectedStatus != null && expectedStatus != view.getStatus())
+                                errors.put(orderId, String.format(
+                                                "Order with ID %d is %s, expected %s", orderId, view.getStatus(), expectedStatus));
+                        else if (view.getStatus().isFinal())
+                                errors.put(orderId, String.format(
+                                                "Order with ID %d is already %s and cannot be updated further", orderId, view.getStatus()));
+                        else
+                                groups.computeIfAbsent(view.getStatus(), s -> new ArrayList<>()).add(view);
+                }
+
+                final Instant updatedAt = Instant.now();
+                final List<OrderDto> previousOrderDtos = new ArrayList<>();
+                final Map<Integer, OrderDto> updatedOrderDtos = new HashMap<>();
+                groups.forEach((currentStatus, group) -> {
+                        final OrderStatus newStatus = currentStatus.next();
+                        final int updated = this.orderRepository.transitionStatuses(
+                                        group.stream().map(OrderView::getOrderId).collect(Collectors.toList()),
+                                        currentStatus, newStatus, updatedAt);
+                        // Cannot happen while the rows are locked; if it does, nothing of the batch is kept
+                        if (updated != group.size())
+                                throw new OrderStatusConflictException(String.format(
+                                                "%d of %d %s orders were modified concurrently",
+                                                group.size() - updated, group.size(), currentStatus));
+                        for (final OrderView view : group) {
+                                previousOrderDtos.add(OrderMappingHelper.map(view));
+                                final OrderDto updatedOrderDto = OrderMappingHelper.map(view);
+                                updatedOrderDto.setOrderStatus(newStatus);
+                                updatedOrderDto.setVersion(view.getVersion() == null ? null : view.getVersion() + 1);
+                                updatedOrderDtos.put(view.getOrderId(), updatedOrderDto);
+                        }
+                });
 
-                } catch (Exception e) {
-                        log.error("Error during order status update: ", e);
-                        throw e;
+                if (!updatedOrderDtos.isEmpty()) {
+                        final List<OrderDto> changed = new ArrayList<>(updatedOrderDtos.values());
+                        this.orderEventService.recordAll(OrderEventType.ORDER_STATUS_CHANGED, changed);
+                        this.orderRollupService.recordChanged(previousOrderDtos, changed);
                 }
+                log.info("Bulk status transition: {} updated, {} rejected", updatedOrderDtos.size(), errors.size());
+
+                // One result per requested id, in request order
+                return orderIds.stream()
+                                .map(orderId -> orderId == null
+                                                ? OrderStatusTransitionResultDto.builder()
+                                                                .updated(false)
+                                                                .error("Order ID must not be null")
+                                                                .build()
+                                                : OrderStatusTransitionResultDto.builder()
+                                                                .orderId(orderId)
+                                                                .updated(updatedOrderDtos.containsKey(orderId))
+                                                                .orderDto(updatedOrderDtos.get(orderId))
+                                                                .error(errors.get(orderId))
+                                                                .build())
+                                .collect(Collectors.toList());
         }
 
         @Override
         public OrderDto update(final Integer orderId, final OrderDto orderDto) {
                 log.info("*** OrderDto, service; update order with orderId *");
-                orderDto.setOrderStatus(null);
-                // Get existing order to preserve cart association
-                Order existingOrder = this.orderRepository.findByOrderIdAndIsActiveTrue(orderId)
+                final Order existingOrder = this.orderRepository.findByOrderIdAndIsActiveTrue(orderId)
                                 .orElseThrow(() -> new OrderNotFoundException("Order not found with ID: " + orderId));
-                orderDto.setOrderId(orderId);
-                // Map the updates but preserve the cart from existing order
-                orderDto.setOrderStatus(existingOrder.getStatus());
-                Order updatedOrder = OrderMappingHelper.mapForUpdate(orderDto, existingOrder.getCart());
-                updatedOrder.setOrderDate(existingOrder.getOrderDate());
-                return OrderMappingHelper.map(this.orderRepository.save(updatedOrder));
+                // A client that read an older version must not overwrite changes made since
+                if (orderDto.getVersion() != null && !orderDto.getVersion().equals(existingOrder.getVersion()))
+                        throw new ObjectOptimisticLockingFailureException(Order.class, orderId);
+                final OrderDto previousOrderDto = OrderMappingHelper.map(existingOrder);
+
+                // Flush inside the repository call so a concurrent commit surfaces as an optimistic lock failure
+                final OrderDto updatedOrderDto = OrderMappingHelper.map(this.orderRepository.saveAndFlush(
+                                OrderMappingHelper.mapForUpdate(orderDto, existingOrder)));
+                this.orderEventService.record(OrderEventType.ORDER_UPDATED, updatedOrderDto);
+                this.orderRollupService.recordChanged(previousOrderDto, updatedOrderDto);
+                return updatedOrderDto;
         }
 
         @Override
@@ -167,6 +452,41 @@ public class OrderServiceImpl implements OrderService {
 
                 order.setActive(false);
                 orderRepository.save(order);
+                final OrderDto deactivatedOrderDto = OrderMappingHelper.map(order);
+                this.orderEventService.record(OrderEventType.ORDER_DEACTIVATED, deactivatedOrderDto);
+                this.orderRollupService.recordDeactivated(deactivatedOrderDto);
                 log.info("Order with id {} has been deactivated", orderId);
         }
+
+        @Override
+        public int deactivateAllByCartIds(final Collection<Integer> cartIds) {
+                log.info("*** Integer, service; deactivate orders of carts *");
+                if (cartIds.isEmpty())
+                        return 0;
+
+                // Locked before reading, so the events and rollup deltas below match the rows the UPDATE moves
+                final List<Integer> lockedIds = this.orderRepository.lockActiveIdsByCartIds(cartIds);
+                if (lockedIds.isEmpty())
+                        return 0;
+                final List<OrderDto> deactivatedOrderDtos = this.orderRepository.findActiveViewsByIds(lockedIds)
+                                .stream()
+                                .filter(v -> !v.getStatus().isFinal())
+                                .map(OrderMappingHelper::map)
+                                .collect(Collectors.toList());
+
+                final int updated = this.orderRepository.deactivateAllByCartIds(cartIds, DEACTIVATABLE_STATUSES, Instant.now());
+                // Cannot happen while the rows are locked; if it does, nothing of the batch is kept
+                if (updated != deactivatedOrderDtos.size())
+                        throw new OrderStatusConflictException(String.format(
+                                        "%d of %d orders were modified concurrently",
+                                        Math.abs(deactivatedOrderDtos.size() - updated), deactivatedOrderDtos.size()));
+
+                if (!deactivatedOrderDtos.isEmpty()) {
+                        this.orderEventService.recordAll(OrderEventType.ORDER_DEACTIVATED, deactivatedOrderDtos);
+                        this.orderRollupService.recordDeactivated(deactivatedOrderDtos);
+                }
+                log.info("Orders of {} carts deactivated: {}, kept in a final status: {}",
+                                cartIds.size(), updated, lockedIds.size() - updated);
+                return updated;
+        }
 }
@@ -0,0 +1,145 @@
+package com.selimhorri.app.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.reactive.function.client.WebClientException;
+
+import com.selimhorri.app.config.client.UserServiceClientProperties;
+import com.selimhorri.app.dto.CartDeactivationResultDto;
+import com.selimhorri.app.dto.CartDto;
+import com.selimhorri.app.dto.UserDto;
+import com.selimhorri.app.exception.wrapper.CartNotFoundException;
+import com.selimhorri.app.exception.wrapper.UserNotFoundException;
+import com.selimhorri.app.helper.CartMappingHelper;
+import com.selimhorri.app.repository.reactive.ReactiveCartRepository;
+import com.selimhorri.app.service.ReactiveCartService;
+import com.selimhorri.app.service.ReactiveOrderService;
+import com.selimhorri.app.service.UserClientService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+@Profile("reactive")
+@Slf4j
+@RequiredArgsConstructor
+public class ReactiveCartServiceImpl implements ReactiveCartService {
+
+	private final ReactiveCartRepository cartRepository;
+	private final UserClientService userClientService;
+	private final UserServiceClientProperties userServiceClientProperties;
+	private final ReactiveOrderService orderService;
+	private final TransactionalOperator transactionalOperator;
+
+	@Override
+	public Flux<CartDto> findAll() {
+		log.info("*** CartDto Flux, service; fetch all active carts *");
+		return this.cartRepository.findAllByIsActiveTrue()
+				.map(CartMappingHelper::map)
+				.collectList()
+				.flatMapMany(carts -> this.findUsers(carts.stream()
+								.map(CartDto::getUserId)
+								.filter(Objects::nonNull)
+								.collect(Collectors.toSet()))
+						.flatMapMany(users -> Flux.fromIterable(carts)
+								.filter(c -> {
+									if (c.getUserId() == null)
+										return true;
+									final Optional<UserDto> user = users.get(c.getUserId());
+									if (user == null)
+										return false; // La consulta falló o superó el plazo, se filtra
+									user.ifPresent(c::setUserDto); // Sin usuario se devuelve el carrito sin datos de usuario
+									return true;
+								})))
+				.distinct();
+	}
+
+	// One lookup per distinct user, at most enrichmentParallelism in flight; users not resolved
+	// before the enrichment deadline are left out of the map like in UserClientService#findAllByIds
+	private Mono<Map<Integer, Optional<UserDto>>> findUsers(final Set<Integer> userIds) {
+		return Flux.fromIterable(userIds)
+				.flatMap(userId -> this.userClientService.findByIdReactive(userId)
+								.map(Optional::of)
+								.defaultIfEmpty(Optional.empty())
+								.map(user -> new AbstractMap.SimpleImmutableEntry<>(userId, user))
+								.onErrorResume(e -> {
+									log.error("Error fetching user data for userId: {}", userId, e);
+									return Mono.empty();
+								}),
+						Math.max(1, this.userServiceClientProperties.getEnrichmentParallelism()))
+				.take(this.userServiceClientProperties.getEnrichmentTimeout())
+				.collectMap(Map.Entry::getKey, Map.Entry::getValue);
+	}
+
+	@Override
+	public Mono<CartDto> findById(final Integer cartId) {
+		log.info("*** CartDto, service; fetch active cart by id *");
+		return this.cartRepository.findByCartIdAndIsActiveTrue(cartId)
+				.map(CartMappingHelper::map)
+				.switchIfEmpty(Mono.error(() -> new CartNotFoundException(
+						String.format("Active cart with id: %d not found", cartId))))
+				.flatMap(c -> c.getUserId() == null
+						? Mono.just(c)
+						: this.userClientService.findByIdReactive(c.getUserId())
+								.doOnNext(c::setUserDto)
+								.thenReturn(c));
+	}
+
+	@Override
+	public Mono<CartDto> save(final CartDto cartDto) {
+		log.info("*** CartDto, service; save cart *");
+		if (cartDto.getUserId() == null)
+			return Mono.error(new IllegalArgumentException("UserId must not be null when saving a cart"));
+
+		return this.userClientService.findByIdReactive(cartDto.getUserId())
+				.onErrorMap(WebClientException.class,
+						ex -> new RuntimeException("Error verifying user existence: " + ex.getMessage(), ex))
+				.switchIfEmpty(Mono.error(() -> new UserNotFoundException(
+						String.format("User with id %d not found", cartDto.getUserId()))))
+				.flatMap(userDto -> {
+					cartDto.setUserDto(userDto);
+					cartDto.setCartId(null);
+					cartDto.setOrderDtos(null);
+					return this.cartRepository.save(CartMappingHelper.mapForCreationRecord(cartDto, LocalDateTime.now()));
+				})
+				.map(CartMappingHelper::map);
+	}
+
+	@Override
+	public Mono<CartDeactivationResultDto> deleteById(final Integer cartId) {
+		log.info("*** CartDeactivationResultDto, service; soft delete cart and its orders by id *");
+		final Set<Integer> cartIds = Set.of(cartId);
+		// Same steps as CartServiceImpl#deactivate: carts first, so the cart row lock holds back orders
+		// being inserted for it. Writes here bypass Hibernate's second-level cache; this profile serves
+		// carts from R2DBC only.
+		return this.cartRepository.deactivateAll(cartIds, LocalDateTime.now())
+				.flatMap(carts -> this.orderService.deactivateAllByCartIds(cartIds)
+						.map(orders -> CartDeactivationResultDto.builder()
+								.cartsDeactivated(carts)
+								.ordersDeactivated(orders)
+								.build()))
+				// Nothing flipped: the cart was inactive already, or it does not exist at all
+				.flatMap(result -> result.getCartsDeactivated() > 0
+						? Mono.just(result)
+						: this.cartRepository.existsById(cartId)
+								.flatMap(exists -> exists
+										? Mono.just(result)
+										: Mono.error(new CartNotFoundException(
+												String.format("Cart with id: %d not found", cartId)))))
+				.as(this.transactionalOperator::transactional)
+				.doOnSuccess(result -> log.debug("Cart with id: {} was soft deleted with {} orders",
+						cartId, result.getOrdersDeactivated()));
+	}
+
+}
@@ -0,0 +1,76 @@
+package com.selimhorri.app.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.selimhorri.app.domain.enums.OrderEventType;
+import com.selimhorri.app.domain.reactive.OrderOutboxRecord;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.repository.reactive.ReactiveOrderOutboxRepository;
+import com.selimhorri.app.service.ReactiveOrderEventService;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+@Service
+@Profile("reactive")
+@Slf4j
+public class ReactiveOrderEventServiceImpl implements ReactiveOrderEventService {
+	
+	private final ReactiveOrderOutboxRepository orderOutboxRepository;
+	private final ObjectWriter payloadWriter;
+	
+	public ReactiveOrderEventServiceImpl(final ReactiveOrderOutboxRepository orderOutboxRepository,
+			final ObjectMapper objectMapper) {
+		this.orderOutboxRepository = orderOutboxRepository;
+		this.payloadWriter = objectMapper.writerFor(OrderDto.class).without(SerializationFeature.INDENT_OUTPUT);
+	}
+	
+	@Override
+	public Mono<Void> record(final OrderEventType eventType, final OrderDto orderDto) {
+		return this.recordAll(eventType, List.of(orderDto));
+	}
+	
+	@Override
+	public Mono<Void> recordAll(final OrderEventType eventType, final List<OrderDto> orderDtos) {
+		if (orderDtos.isEmpty())
+			return Mono.empty();
+		log.info("*** OrderOutboxRecord List, service; record {} {} events *", orderDtos.size(), eventType);
+		// Serialized before anything is inserted, a payload that cannot be written fails the whole change
+		return Mono.fromCallable(() -> this.toPayloads(eventType, orderDtos))
+				.flatMap(payloads -> {
+					final LocalDateTime createdAt = LocalDateTime.now();
+					final List<OrderOutboxRecord> events = new ArrayList<>(orderDtos.size());
+					for (int i = 0; i < orderDtos.size(); i++)
+						events.add(OrderOutboxRecord.builder()
+								.orderId(orderDtos.get(i).getOrderId())
+								.eventType(eventType)
+								.payload(payloads.get(i))
+								.createdAt(createdAt)
+								.build());
+					return this.orderOutboxRepository.saveAll(events).then();
+				});
+	}
+	
+	private List<String> toPayloads(final OrderEventType eventType, final List<OrderDto> orderDtos) {
+		final List<String> payloads = new ArrayList<>(orderDtos.size());
+		for (final OrderDto orderDto : orderDtos) {
+			try {
+				payloads.add(this.payloadWriter.writeValueAsString(orderDto));
+			}
+			catch (JsonProcessingException e) {
+				throw new IllegalStateException("Could not serialize " + eventType + " for order " + orderDto.getOrderId(), e);
+			}
+		}
+		return payloads;
+	}
+	
+}
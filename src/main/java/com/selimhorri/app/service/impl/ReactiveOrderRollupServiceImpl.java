@@ -0,0 +1,94 @@
+package com.selimhorri.app.service.impl;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import com.selimhorri.app.domain.OrderRollupId;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.repository.reactive.ReactiveOrderRepository;
+import com.selimhorri.app.service.ReactiveOrderRollupService;
+
+import io.r2dbc.spi.ConnectionFactory;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+@Profile("reactive")
+@Slf4j
+public class ReactiveOrderRollupServiceImpl implements ReactiveOrderRollupService {
+	
+	private final ReactiveOrderRepository orderRepository;
+	private final TransactionalOperator bucketCreationOperator;
+	
+	@Autowired
+	public ReactiveOrderRollupServiceImpl(final ReactiveOrderRepository orderRepository,
+			final ConnectionFactory connectionFactory) {
+		this(orderRepository, TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory),
+				new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_REQUIRES_NEW)));
+	}
+	
+	ReactiveOrderRollupServiceImpl(final ReactiveOrderRepository orderRepository,
+			final TransactionalOperator bucketCreationOperator) {
+		this.orderRepository = orderRepository;
+		this.bucketCreationOperator = bucketCreationOperator;
+	}
+	
+	@Override
+	public Mono<Void> recordCreated(final List<OrderDto> orderDtos) {
+		return this.apply(new OrderRollupDeltas().addAll(orderDtos, 1));
+	}
+	
+	@Override
+	public Mono<Void> recordChanged(final OrderDto before, final OrderDto after) {
+		return this.apply(new OrderRollupDeltas().add(before, -1).add(after, 1));
+	}
+	
+	@Override
+	public Mono<Void> recordDeactivated(final OrderDto orderDto) {
+		return this.apply(new OrderRollupDeltas().add(orderDto, -1));
+	}
+	
+	@Override
+	public Mono<Void> recordDeactivated(final List<OrderDto> orderDtos) {
+		return this.apply(new OrderRollupDeltas().addAll(orderDtos, -1));
+	}
+	
+	// Same steps as OrderRollupServiceImpl, one bucket after the other in lock order
+	private Mono<Void> apply(final OrderRollupDeltas deltas) {
+		return Flux.defer(() -> Flux.fromIterable(deltas.changes()))
+				.concatMap(change -> {
+					final OrderRollupId id = change.getKey();
+					final OrderRollupDeltas.Delta delta = change.getValue();
+					return this.orderRepository.existsRollup(id.getGranularity(), id.getBucketStart(), id.getStatus())
+							.flatMap(exists -> exists ? Mono.<Void>empty() : this.createBucket(id))
+							.then(this.orderRepository.incrementRollup(id.getGranularity(), id.getBucketStart(),
+									id.getStatus(), delta.count, delta.fee))
+							.flatMap(updated -> updated > 0
+									? Mono.<Void>empty()
+									// Removed by a rebuild after the check, which could not have counted this uncommitted change
+									: this.orderRepository.insertRollup(id.getGranularity(), id.getBucketStart(),
+											id.getStatus(), delta.count, delta.fee));
+				})
+				.then();
+	}
+	
+	// Empty buckets are committed on their own so the first orders of an hour never collide on the insert
+	private Mono<Void> createBucket(final OrderRollupId id) {
+		return this.orderRepository.insertRollup(id.getGranularity(), id.getBucketStart(), id.getStatus(), 0L, 0.0)
+				.as(this.bucketCreationOperator::transactional)
+				.onErrorResume(DataIntegrityViolationException.class, e -> {
+					log.debug("Order rollup bucket {} was created concurrently", id);
+					return Mono.empty();
+				});
+	}
+	
+}
@@ -0,0 +1,369 @@
+package com.selimhorri.app.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.domain.enums.OrderEventType;
+import com.selimhorri.app.domain.enums.OrderStatus;
+import com.selimhorri.app.domain.reactive.OrderRecord;
+import com.selimhorri.app.dto.OrderCreationResultDto;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.response.collection.DtoCursorPageResponse;
+import com.selimhorri.app.exception.wrapper.BatchSizeExceededException;
+import com.selimhorri.app.exception.wrapper.CartNotFoundException;
+import com.selimhorri.app.exception.wrapper.OrderNotFoundException;
+import com.selimhorri.app.exception.wrapper.OrderStatusConflictException;
+import com.selimhorri.app.helper.CursorHelper;
+import com.selimhorri.app.helper.OrderMappingHelper;
+import com.selimhorri.app.repository.reactive.ReactiveCartRepository;
+import com.selimhorri.app.repository.reactive.ReactiveOrderIdAllocator;
+import com.selimhorri.app.repository.reactive.ReactiveOrderRepository;
+import com.selimhorri.app.service.ReactiveOrderEventService;
+import com.selimhorri.app.service.ReactiveOrderRollupService;
+import com.selimhorri.app.service.ReactiveOrderService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+@Profile("reactive")
+@Slf4j
+@RequiredArgsConstructor
+public class ReactiveOrderServiceImpl implements ReactiveOrderService {
+
+	private static final List<String> DEACTIVATABLE_STATUSES = Arrays.stream(OrderStatus.values())
+			.filter(s -> !s.isFinal())
+			.map(OrderStatus::name)
+			.collect(Collectors.toUnmodifiableList());
+
+	private final ReactiveOrderRepository orderRepository;
+	private final ReactiveCartRepository cartRepository;
+	private final ReactiveOrderIdAllocator orderIdAllocator;
+	private final ReactiveOrderEventService orderEventService;
+	private final ReactiveOrderRollupService orderRollupService;
+	private final TransactionalOperator transactionalOperator;
+	private final MeterRegistry meterRegistry;
+
+	private Counter ordersCreatedCounter;
+	private DistributionSummary orderValueSummary;
+
+	// Same meters as OrderServiceImpl, so dashboards do not depend on the active stack
+	@PostConstruct
+	public void initMetric() {
+		this.ordersCreatedCounter = Counter
+				.builder("orders_created_total")
+				.description("Órdenes creadas exitosamente")
+				.tag("service", "order")
+				.register(this.meterRegistry);
+
+		this.orderValueSummary = DistributionSummary
+				.builder("order_value_usd")
+				.description("Distribución del valor de las órdenes")
+				.baseUnit("usd")
+				.publishPercentileHistogram()
+				.register(this.meterRegistry);
+	}
+
+	@Override
+	public Flux<OrderDto> findAll() {
+		log.info("*** OrderDto Flux, service; fetch all active orders *");
+		return this.orderRepository.findAllByIsActiveTrue()
+				.map(OrderMappingHelper::map)
+				.distinct();
+	}
+
+	@Override
+	public Mono<DtoCursorPageResponse<OrderDto>> findPage(final String cursor, final Integer size) {
+		log.info("*** OrderDto Page, service; fetch active orders page *");
+		final int pageSize = (size == null || size < 1)
+				? AppConstant.PAGE_DEFAULT_SIZE
+				: Math.min(size, AppConstant.PAGE_MAX_SIZE);
+		return Mono.fromCallable(() -> CursorHelper.decode(cursor))
+				// Fetch one extra row to know whether a next page exists without a count query
+				.flatMap(afterOrderId -> this.orderRepository.findActiveAfter(afterOrderId, pageSize + 1)
+						.map(OrderMappingHelper::map)
+						.collectList())
+				.map(rows -> {
+					final boolean hasNext = rows.size() > pageSize;
+					final List<OrderDto> page = hasNext ? rows.subList(0, pageSize) : rows;
+					return DtoCursorPageResponse.<OrderDto>builder()
+							.collection(List.copyOf(page))
+							.size(page.size())
+							.nextCursor(hasNext ? CursorHelper.encode(page.get(page.size() - 1).getOrderId()) : null)
+							.build();
+				});
+	}
+
+	@Override
+	public Flux<OrderDto> export(final OrderStatus status, final LocalDateTime from, final LocalDateTime to) {
+		log.info("*** OrderDto Flux, service; export active orders *");
+		// Rows are read as the response asks for them, a slow client slows the query down instead of buffering
+		return this.orderRepository.findActive(status, from, to)
+				.map(OrderMappingHelper::map);
+	}
+
+	@Override
+	public Mono<OrderDto> findById(final Integer orderId) {
+		log.info("*** OrderDto, service; fetch active order by id *");
+		return this.orderRepository.findByOrderIdAndIsActiveTrue(orderId)
+				.map(OrderMappingHelper::map)
+				.switchIfEmpty(Mono.error(() -> new OrderNotFoundException(
+						String.format("Order with id: %d not found", orderId))));
+	}
+
+	@Override
+	public Mono<OrderDto> save(final OrderDto orderDto) {
+		log.info("*** OrderDto, service; save order *");
+		orderDto.setOrderId(null);
+		orderDto.setOrderStatus(null);
+		if (orderDto.getCartDto() == null || orderDto.getCartDto().getCartId() == null) {
+			log.error("Order must be associated with a cart");
+			return Mono.error(new IllegalArgumentException("Order must be associated with a cart"));
+		}
+
+		final Integer cartId = orderDto.getCartDto().getCartId();
+		return this.cartRepository.existsById(cartId)
+				.flatMap(exists -> {
+					if (!exists) {
+						log.error("Cart not found with ID: {}", cartId);
+						return Mono.error(new CartNotFoundException("Cart not found with ID: " + cartId));
+					}
+					return this.orderIdAllocator.allocate(1);
+				})
+				.flatMap(orderId -> this.orderRepository.save(OrderMappingHelper.mapForCreationRecord(
+						orderDto, orderId.intValue(), LocalDateTime.now())))
+				.map(OrderMappingHelper::map)
+				.flatMap(savedOrderDto -> this.orderEventService
+						.record(OrderEventType.ORDER_CREATED, savedOrderDto)
+						.then(this.orderRollupService.recordCreated(List.of(savedOrderDto)))
+						.thenReturn(savedOrderDto))
+				.as(this.transactionalOperator::transactional)
+				.doOnNext(savedOrderDto -> {
+					this.ordersCreatedCounter.increment();
+					if (savedOrderDto.getOrderFee() != null)
+						this.orderValueSummary.record(savedOrderDto.getOrderFee());
+				});
+	}
+
+	@Override
+	public Mono<List<OrderCreationResultDto>> saveAll(final List<OrderDto> orderDtos) {
+		log.info("*** OrderCreationResultDto List, service; save orders in bulk *");
+		if (orderDtos.size() > AppConstant.BULK_MAX_SIZE)
+			return Mono.error(new BatchSizeExceededException(String.format(
+					"At most %d orders can be created per request", AppConstant.BULK_MAX_SIZE)));
+
+		// Validate every referenced cart with a single query instead of one lookup per order
+		final Set<Integer> requestedCartIds = orderDtos.stream()
+				.filter(Objects::nonNull)
+				.filter(o -> o.getCartDto() != null && o.getCartDto().getCartId() != null)
+				.map(o -> o.getCartDto().getCartId())
+				.collect(Collectors.toSet());
+		final Mono<Set<Integer>> existingCartIds = requestedCartIds.isEmpty()
+				? Mono.just(Set.of())
+				: this.cartRepository.findExistingCartIds(requestedCartIds).collect(Collectors.toSet());
+
+		return existingCartIds
+				.flatMap(cartIds -> {
+					final OrderCreationResultDto[] results = new OrderCreationResultDto[orderDtos.size()];
+					final List<Integer> acceptedIndexes = new ArrayList<>();
+					for (int i = 0; i < orderDtos.size(); i++) {
+						final String error = this.validateForBulk(orderDtos.get(i), cartIds);
+						if (error != null) {
+							results[i] = OrderCreationResultDto.builder()
+									.index(i)
+									.created(false)
+									.error(error)
+									.build();
+							continue;
+						}
+						orderDtos.get(i).setOrderId(null);
+						orderDtos.get(i).setOrderStatus(null);
+						acceptedIndexes.add(i);
+					}
+					if (acceptedIndexes.isEmpty())
+						return Mono.just(Arrays.asList(results));
+
+					// One id range for the whole batch, then one insert per order on the same connection
+					return this.orderIdAllocator.allocate(acceptedIndexes.size())
+							.flatMapMany(firstOrderId -> {
+								final LocalDateTime now = LocalDateTime.now();
+								final List<OrderRecord> accepted = new ArrayList<>(acceptedIndexes.size());
+								for (int j = 0; j < acceptedIndexes.size(); j++)
+									accepted.add(OrderMappingHelper.mapForCreationRecord(
+											orderDtos.get(acceptedIndexes.get(j)), (int) (firstOrderId + j), now));
+								return this.orderRepository.saveAll(accepted);
+							})
+							.map(OrderMappingHelper::map)
+							.collectList()
+							.flatMap(savedOrderDtos -> {
+								for (int j = 0; j < savedOrderDtos.size(); j++)
+									results[acceptedIndexes.get(j)] = OrderCreationResultDto.builder()
+											.index(acceptedIndexes.get(j))
+											.created(true)
+											.orderDto(savedOrderDtos.get(j))
+											.build();
+								return this.orderEventService
+										.recordAll(OrderEventType.ORDER_CREATED, savedOrderDtos)
+										.then(this.orderRollupService.recordCreated(savedOrderDtos))
+										.thenReturn(savedOrderDtos);
+							})
+							.doOnNext(savedOrderDtos -> {
+								this.ordersCreatedCounter.increment(savedOrderDtos.size());
+								savedOrderDtos.stream()
+										.map(OrderDto::getOrderFee)
+										.filter(Objects::nonNull)
+										.forEach(this.orderValueSummary::record);
+								log.info("Bulk order creation: {} created, {} rejected",
+										savedOrderDtos.size(), orderDtos.size() - savedOrderDtos.size());
+							})
+							.thenReturn(Arrays.asList(results));
+				})
+				.as(this.transactionalOperator::transactional);
+	}
+
+	private String validateForBulk(final OrderDto orderDto, final Set<Integer> existingCartIds) {
+		if (orderDto == null)
+			return "Order must not be null";
+		if (orderDto.getCartDto() == null || orderDto.getCartDto().getCartId() == null)
+			return "Order must be associated with a cart";
+		if (!existingCartIds.contains(orderDto.getCartDto().getCartId()))
+			return "Cart not found with ID: " + orderDto.getCartDto().getCartId();
+		return null;
+	}
+
+	@Override
+	public Mono<OrderDto> updateStatus(final int orderId, final OrderStatus expectedStatus) {
+		log.info("*** OrderDto, service; update order status *");
+		return this.orderRepository.findByOrderIdAndIsActiveTrue(orderId)
+				.switchIfEmpty(Mono.error(() -> new OrderNotFoundException("Order not found with ID: " + orderId)))
+				.flatMap(existingOrder -> {
+					final OrderStatus currentStatus = existingOrder.getStatus();
+					if (expectedStatus != null && expectedStatus != currentStatus)
+						return Mono.error(new OrderStatusConflictException(String.format(
+								"Order with ID %d is %s, expected %s", orderId, currentStatus, expectedStatus)));
+					if (currentStatus.isFinal())
+						return Mono.error(new IllegalStateException(
+								"Order with ID " + orderId + " is already PAID and cannot be updated further"));
+
+					final OrderDto previousOrderDto = OrderMappingHelper.map(existingOrder);
+					// The state machine runs in the database: a concurrent transition makes this match no row
+					final OrderStatus newStatus = currentStatus.next();
+					final LocalDateTime updatedAt = LocalDateTime.now();
+					return this.orderRepository
+							.transitionStatus(orderId, currentStatus.name(), newStatus.name(), updatedAt)
+							.flatMap(updated -> {
+								if (updated == 0)
+									return Mono.error(new OrderStatusConflictException(String.format(
+											"Order with ID %d was modified concurrently, it is no longer %s",
+											orderId, currentStatus)));
+								log.info("Order status updated successfully from {} to {}", currentStatus, newStatus);
+								existingOrder.setStatus(newStatus);
+								existingOrder.setUpdatedAt(updatedAt);
+								existingOrder.setVersion(existingOrder.getVersion() == null
+										? null
+										: existingOrder.getVersion() + 1);
+								final OrderDto updatedOrderDto = OrderMappingHelper.map(existingOrder);
+								return this.orderEventService
+										.record(OrderEventType.ORDER_STATUS_CHANGED, updatedOrderDto)
+										.then(this.orderRollupService.recordChanged(previousOrderDto, updatedOrderDto))
+										.thenReturn(updatedOrderDto);
+							});
+				})
+				.as(this.transactionalOperator::transactional);
+	}
+
+	@Override
+	public Mono<OrderDto> update(final Integer orderId, final OrderDto orderDto) {
+		log.info("*** OrderDto, service; update order with orderId *");
+		return this.orderRepository.findByOrderIdAndIsActiveTrue(orderId)
+				.switchIfEmpty(Mono.error(() -> new OrderNotFoundException("Order not found with ID: " + orderId)))
+				.flatMap(existingOrder -> {
+					// A client that read an older version must not overwrite changes made since
+					if (orderDto.getVersion() != null && !orderDto.getVersion().equals(existingOrder.getVersion()))
+						return Mono.error(new ObjectOptimisticLockingFailureException(OrderRecord.class, orderId));
+					final OrderDto previousOrderDto = OrderMappingHelper.map(existingOrder);
+					// The versioned UPDATE fails with an optimistic lock error if another write got in between
+					return this.orderRepository.save(OrderMappingHelper.mapForUpdate(orderDto, existingOrder))
+							.map(OrderMappingHelper::map)
+							.flatMap(updatedOrderDto -> this.orderEventService
+									.record(OrderEventType.ORDER_UPDATED, updatedOrderDto)
+									.then(this.orderRollupService.recordChanged(previousOrderDto, updatedOrderDto))
+									.thenReturn(updatedOrderDto));
+				})
+				.as(this.transactionalOperator::transactional);
+	}
+
+	@Override
+	public Mono<Void> deleteById(final Integer orderId) {
+		return this.orderRepository.findByOrderIdAndIsActiveTrue(orderId)
+				.switchIfEmpty(Mono.error(() -> new OrderNotFoundException("Order not found with id: " + orderId)))
+				.flatMap(order -> {
+					if (order.getStatus() == OrderStatus.IN_PAYMENT)
+						return Mono.error(new IllegalStateException(
+								"Cannot delete order with ID " + orderId + " because it's already PAID"));
+					order.setActive(false);
+					order.setUpdatedAt(LocalDateTime.now());
+					return this.orderRepository.save(order);
+				})
+				.map(OrderMappingHelper::map)
+				.flatMap(deactivatedOrderDto -> this.orderEventService
+						.record(OrderEventType.ORDER_DEACTIVATED, deactivatedOrderDto)
+						.then(this.orderRollupService.recordDeactivated(deactivatedOrderDto)))
+				.as(this.transactionalOperator::transactional)
+				.doOnSuccess(v -> log.info("Order with id {} has been deactivated", orderId));
+	}
+
+	@Override
+	public Mono<Integer> deactivateAllByCartIds(final Collection<Integer> cartIds) {
+		log.info("*** Integer, service; deactivate orders of carts *");
+		if (cartIds.isEmpty())
+			return Mono.just(0);
+
+		// Locked and read in one query, so the events and rollup deltas below match the rows the UPDATE moves
+		return this.orderRepository.lockActiveByCartIds(cartIds)
+				.collectList()
+				.flatMap(lockedOrders -> {
+					if (lockedOrders.isEmpty())
+						return Mono.just(0);
+					final List<OrderDto> deactivatedOrderDtos = lockedOrders.stream()
+							.filter(o -> !o.getStatus().isFinal())
+							.map(OrderMappingHelper::map)
+							.collect(Collectors.toList());
+					return this.orderRepository
+							.deactivateAllByCartIds(cartIds, DEACTIVATABLE_STATUSES, LocalDateTime.now())
+							.flatMap(updated -> {
+								// Cannot happen while the rows are locked; if it does, nothing of the batch is kept
+								if (updated != deactivatedOrderDtos.size())
+									return Mono.error(new OrderStatusConflictException(String.format(
+											"%d of %d orders were modified concurrently",
+											Math.abs(deactivatedOrderDtos.size() - updated), deactivatedOrderDtos.size())));
+								log.info("Orders of {} carts deactivated: {}, kept in a final status: {}",
+										cartIds.size(), updated, lockedOrders.size() - updated);
+								return this.orderEventService
+										.recordAll(OrderEventType.ORDER_DEACTIVATED, deactivatedOrderDtos)
+										.then(this.orderRollupService.recordDeactivated(deactivatedOrderDtos))
+										.thenReturn(updated);
+							});
+				});
+	}
+
+}
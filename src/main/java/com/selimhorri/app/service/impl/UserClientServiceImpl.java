@@ -0,0 +1,250 @@
+package com.selimhorri.app.service.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.selimhorri.app.cache.UserDtoCache;
+import com.selimhorri.app.config.client.UserServiceClientProperties;
+import com.selimhorri.app.dto.UserDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.service.UserClientService;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+@Service
+@Slf4j
+public class UserClientServiceImpl implements UserClientService {
+
+	private static final ParameterizedTypeReference<DtoCollectionResponse<UserDto>> USER_COLLECTION_TYPE =
+			new ParameterizedTypeReference<DtoCollectionResponse<UserDto>>() {};
+
+	private final RestTemplate restTemplate;
+	private final WebClient webClient;
+	private final UserServiceClientProperties properties;
+	private final Executor executor;
+	private final UserDtoCache userDtoCache;
+	private final CircuitBreaker circuitBreaker;
+	private final AtomicBoolean bulkSupported;
+
+	public UserClientServiceImpl(final RestTemplate restTemplate,
+			@LoadBalanced final WebClient.Builder webClientBuilder,
+			final UserServiceClientProperties properties,
+			@Qualifier("userEnrichmentExecutor") final Executor executor,
+			final UserDtoCache userDtoCache,
+			@Qualifier("userServiceCircuitBreaker") final CircuitBreaker circuitBreaker) {
+		this.restTemplate = restTemplate;
+		this.webClient = webClientBuilder.build();
+		this.properties = properties;
+		this.executor = executor;
+		this.userDtoCache = userDtoCache;
+		this.circuitBreaker = circuitBreaker;
+		this.bulkSupported = new AtomicBoolean(
+				properties.getBulkPath() != null && !properties.getBulkPath().isBlank());
+	}
+
+	@Override
+	public Optional<UserDto> findById(final Integer userId) {
+		log.info("*** UserDto, service; fetch user from USER-SERVICE *");
+		final Optional<UserDtoCache.CachedUser> cached = this.userDtoCache.getFresh(userId);
+		if (cached.isPresent())
+			return cached.get().getUser();
+		try {
+			final Optional<UserDto> user = this.fetch(userId);
+			this.userDtoCache.put(userId, user);
+			return user;
+		}
+		catch (RuntimeException e) {
+			final Optional<UserDto> stale = this.userDtoCache.getStale(userId);
+			if (stale.isEmpty())
+				throw e;
+			log.warn("USER-SERVICE unavailable, serving cached user {}: {}", userId, e.getMessage());
+			return stale;
+		}
+	}
+
+	@Override
+	public Mono<UserDto> findByIdReactive(final Integer userId) {
+		log.info("*** UserDto, service; fetch user from USER-SERVICE without blocking *");
+		final Optional<UserDtoCache.CachedUser> cached = this.userDtoCache.getFresh(userId);
+		if (cached.isPresent())
+			return Mono.justOrEmpty(cached.get().getUser());
+		return this.webClient.get()
+				.uri(this.properties.getApiUrl() + "/{userId}", userId)
+				.retrieve()
+				.bodyToMono(UserDto.class)
+				.map(Optional::of)
+				.defaultIfEmpty(Optional.empty())
+				// Resolved before the breaker sees it, a 404 is an answer like in the blocking path
+				.onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.just(Optional.empty()))
+				.transformDeferred(CircuitBreakerOperator.of(this.circuitBreaker))
+				.doOnNext(user -> this.userDtoCache.put(userId, user))
+				.onErrorResume(e -> {
+					final Optional<UserDto> stale = this.userDtoCache.getStale(userId);
+					if (stale.isEmpty())
+						return Mono.error(e);
+					log.warn("USER-SERVICE unavailable, serving cached user {}: {}", userId, e.getMessage());
+					return Mono.just(stale);
+				})
+				.flatMap(Mono::justOrEmpty);
+	}
+
+	@Override
+	public Map<Integer, Optional<UserDto>> findAllByIds(final Collection<Integer> userIds) {
+		log.info("*** UserDto Map, service; enrich users from USER-SERVICE *");
+		final List<Integer> distinctIds = userIds.stream()
+				.filter(Objects::nonNull)
+				.distinct()
+				.collect(Collectors.toList());
+		final Map<Integer, Optional<UserDto>> cached = new HashMap<>();
+		final List<Integer> remoteIds = new ArrayList<>();
+		distinctIds.forEach(id -> this.userDtoCache.getFresh(id)
+				.ifPresentOrElse(c -> cached.put(id, c.getUser()), () -> remoteIds.add(id)));
+		if (remoteIds.isEmpty())
+			return Map.copyOf(cached);
+
+		final Map<Integer, Optional<UserDto>> resolved = new ConcurrentHashMap<>();
+		this.resolveRemote(remoteIds, resolved);
+		resolved.forEach(this.userDtoCache::put);
+
+		// Users that could not be fetched in time fall back to what was last known about them
+		remoteIds.stream()
+				.filter(id -> !resolved.containsKey(id))
+				.forEach(id -> this.userDtoCache.getStale(id).ifPresent(u -> resolved.put(id, Optional.of(u))));
+		resolved.putAll(cached);
+		return Map.copyOf(resolved);
+	}
+
+	private void resolveRemote(final List<Integer> distinctIds, final Map<Integer, Optional<UserDto>> resolved) {
+		final long deadline = System.nanoTime() + this.properties.getEnrichmentTimeout().toNanos();
+		final List<List<Integer>> units = this.bulkSupported.get()
+				? partition(distinctIds, this.properties.getBulkBatchSize())
+				: distinctIds.stream().map(List::of).collect(Collectors.toList());
+
+		// Each lane works through its share of units sequentially, so at most
+		// enrichmentParallelism calls are in flight for this request
+		final int laneCount = Math.max(1, Math.min(this.properties.getEnrichmentParallelism(), units.size()));
+		final List<List<List<Integer>>> lanes = new ArrayList<>(laneCount);
+		for (int i = 0; i < laneCount; i++)
+			lanes.add(new ArrayList<>());
+		for (int i = 0; i < units.size(); i++)
+			lanes.get(i % laneCount).add(units.get(i));
+
+		final CompletableFuture<?>[] futures = lanes.stream()
+				.map(lane -> CompletableFuture.runAsync(() -> this.resolveLane(lane, deadline, resolved), this.executor))
+				.toArray(CompletableFuture[]::new);
+		try {
+			CompletableFuture.allOf(futures)
+					.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+		}
+		catch (TimeoutException e) {
+			log.warn("User enrichment deadline of {} exceeded, {} of {} users resolved",
+					this.properties.getEnrichmentTimeout(), resolved.size(), distinctIds.size());
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		catch (ExecutionException e) {
+			log.error("User enrichment failed", e.getCause());
+		}
+	}
+
+	private void resolveLane(final List<List<Integer>> lane, final long deadline,
+			final Map<Integer, Optional<UserDto>> resolved) {
+		for (final List<Integer> unit : lane) {
+			if (System.nanoTime() >= deadline)
+				return;
+			if (unit.size() > 1 || this.bulkSupported.get())
+				this.resolveBulk(unit, deadline, resolved);
+			else
+				this.resolveOne(unit.get(0), resolved);
+		}
+	}
+
+	private void resolveBulk(final List<Integer> userIds, final long deadline,
+			final Map<Integer, Optional<UserDto>> resolved) {
+		if (this.bulkSupported.get()) {
+			try {
+				final String url = this.properties.getApiUrl() + this.properties.getBulkPath() + "?ids="
+						+ userIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+				final DtoCollectionResponse<UserDto> body = this.circuitBreaker.executeSupplier(() -> this.restTemplate
+						.exchange(url, HttpMethod.GET, null, USER_COLLECTION_TYPE)
+						.getBody());
+				if (body != null && body.getCollection() != null)
+					body.getCollection().stream()
+							.filter(u -> u != null && u.getUserId() != null)
+							.forEach(u -> resolved.put(u.getUserId(), Optional.of(u)));
+				// Anything the bulk endpoint did not return is unknown to USER-SERVICE
+				userIds.forEach(id -> resolved.putIfAbsent(id, Optional.empty()));
+				return;
+			}
+			catch (HttpClientErrorException.NotFound | HttpClientErrorException.MethodNotAllowed e) {
+				log.warn("USER-SERVICE offers no bulk lookup at {}, falling back to single lookups",
+						this.properties.getBulkPath());
+				this.bulkSupported.set(false);
+			}
+			catch (Exception e) {
+				log.error("Bulk user lookup failed for {} users, falling back to single lookups", userIds.size(), e);
+			}
+		}
+		for (final Integer userId : userIds) {
+			if (System.nanoTime() >= deadline)
+				return;
+			this.resolveOne(userId, resolved);
+		}
+	}
+
+	private void resolveOne(final Integer userId, final Map<Integer, Optional<UserDto>> resolved) {
+		try {
+			resolved.put(userId, this.fetch(userId));
+		}
+		catch (Exception e) {
+			log.error("Error fetching user data for userId: {}", userId, e);
+		}
+	}
+
+	private Optional<UserDto> fetch(final Integer userId) {
+		try {
+			return Optional.ofNullable(this.circuitBreaker.executeSupplier(() -> this.restTemplate.getForObject(
+					this.properties.getApiUrl() + "/" + userId, UserDto.class)));
+		}
+		catch (HttpClientErrorException.NotFound e) {
+			log.warn("User not found for userId: {} - {}", userId, e.getMessage());
+			return Optional.empty();
+		}
+	}
+
+	private static <T> List<List<T>> partition(final List<T> items, final int batchSize) {
+		final int size = Math.max(1, batchSize);
+		final List<List<T>> batches = new ArrayList<>((items.size() + size - 1) / size);
+		for (int i = 0; i < items.size(); i += size)
+			batches.add(List.copyOf(items.subList(i, Math.min(items.size(), i + size))));
+		return batches;
+	}
+
+}
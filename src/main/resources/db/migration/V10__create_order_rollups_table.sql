@@ -0,0 +1,8 @@
+CREATE TABLE order_rollups (
+  granularity VARCHAR(5) NOT NULL,
+  bucket_start DATETIME NOT NULL,
+  status VARCHAR(20) NOT NULL,
+  order_count BIGINT NOT NULL DEFAULT 0,
+  fee_sum DECIMAL(15, 2) NOT NULL DEFAULT 0,
+  PRIMARY KEY (granularity, bucket_start, status)
+);
@@ -0,0 +1,11 @@
+-- Active order listing and keyset pages: filter and order by id from the index, no sort
+CREATE INDEX idx_orders_active_id ON orders (is_active, order_id);
+
+-- Export by date range, with or without a status, reads only the matching slice
+CREATE INDEX idx_orders_active_date_status ON orders (is_active, order_date, status);
+
+-- Active cart listing
+CREATE INDEX idx_carts_active_id ON carts (is_active, cart_id);
+
+-- Outbox lag gauge reads MIN(created_at) from the index end
+CREATE INDEX idx_order_outbox_created_at ON order_outbox (created_at);
@@ -0,0 +1,8 @@
+-- Order search by status, with or without a date range, sorted by date without a filesort
+CREATE INDEX idx_orders_active_status_date ON orders (is_active, status, order_date);
+
+-- Order search by fee range, and any search sorted by fee
+CREATE INDEX idx_orders_active_fee ON orders (is_active, order_fee);
+
+-- Orders of a cart by date; also serves the foreign key, which only needs cart_id leading
+CREATE INDEX idx_orders_cart_active_date ON orders (cart_id, is_active, order_date);
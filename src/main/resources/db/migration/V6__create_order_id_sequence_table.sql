@@ -0,0 +1,8 @@
+CREATE TABLE order_id_sequence (
+  sequence_name VARCHAR(255) NOT NULL PRIMARY KEY,
+  next_val BIGINT
+);
+
+INSERT INTO order_id_sequence
+(sequence_name, next_val)
+SELECT 'orders', COALESCE(MAX(order_id), 0) + 1 FROM orders;
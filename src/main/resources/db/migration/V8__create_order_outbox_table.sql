@@ -0,0 +1,7 @@
+CREATE TABLE order_outbox (
+  event_id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+  order_id INT NOT NULL,
+  event_type VARCHAR(40) NOT NULL,
+  payload VARCHAR(4000) NOT NULL,
+  created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
@@ -0,0 +1,9 @@
+CREATE TABLE idempotency_keys (
+  idempotency_key VARCHAR(150) NOT NULL PRIMARY KEY,
+  request_hash VARCHAR(64) NOT NULL,
+  response_body MEDIUMTEXT NOT NULL,
+  created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys (expires_at);
@@ -0,0 +1,100 @@
+package com.selimhorri.app.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.selimhorri.app.config.client.UserServiceClientProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("UserExistenceFilter Tests")
+class UserExistenceFilterTest {
+
+	private static final int EXPECTED_USERS = 10_000;
+	private static final double FALSE_POSITIVE_RATE = 0.01;
+
+	private UserServiceClientProperties properties;
+	private SimpleMeterRegistry meterRegistry;
+
+	@BeforeEach
+	void setUp() {
+		properties = new UserServiceClientProperties();
+		properties.getExistenceFilter().setExpectedUsers(EXPECTED_USERS);
+		properties.getExistenceFilter().setFalsePositiveRate(FALSE_POSITIVE_RATE);
+		meterRegistry = new SimpleMeterRegistry();
+	}
+
+	@Test
+	@DisplayName("Should contain every added user")
+	void testNoFalseNegatives() {
+		// Given
+		UserExistenceFilter filter = new UserExistenceFilter(properties, meterRegistry);
+		List<Integer> userIds = IntStream.rangeClosed(1, EXPECTED_USERS).boxed().collect(Collectors.toList());
+
+		// When
+		filter.addAll(userIds);
+
+		// Then
+		assertTrue(userIds.stream().allMatch(filter::mightContain));
+		assertEquals(EXPECTED_USERS, meterRegistry.counter("user_existence_remote_calls_avoided_total").count());
+	}
+
+	@Test
+	@DisplayName("Should keep false positives near the configured rate at the expected number of users")
+	void testFalsePositiveRate() {
+		// Given
+		UserExistenceFilter filter = new UserExistenceFilter(properties, meterRegistry);
+		IntStream.rangeClosed(1, EXPECTED_USERS).forEach(filter::add);
+
+		// When
+		long falsePositives = IntStream.rangeClosed(1_000_001, 1_100_000)
+				.filter(filter::mightContain)
+				.count();
+
+		// Then
+		double measured = falsePositives / 100_000.0;
+		assertTrue(measured < FALSE_POSITIVE_RATE * 2, "measured false positive rate " + measured);
+		assertEquals(FALSE_POSITIVE_RATE, filter.expectedFalsePositiveRate(), FALSE_POSITIVE_RATE / 2);
+		assertEquals(filter.expectedFalsePositiveRate(),
+				meterRegistry.get("user_existence_filter_false_positive_rate").gauge().value());
+	}
+
+	@Test
+	@DisplayName("Should report an empty filter and count misses")
+	void testMiss() {
+		// Given
+		UserExistenceFilter filter = new UserExistenceFilter(properties, meterRegistry);
+
+		// When
+		boolean known = filter.mightContain(42);
+
+		// Then
+		assertFalse(known);
+		assertFalse(filter.mightContain(null));
+		assertEquals(0.0, filter.expectedFalsePositiveRate());
+		assertEquals(1.0, meterRegistry.counter("user_existence_filter_misses_total").count());
+	}
+
+	@Test
+	@DisplayName("Should never short-circuit while disabled")
+	void testDisabled() {
+		// Given
+		properties.getExistenceFilter().setEnabled(false);
+		UserExistenceFilter filter = new UserExistenceFilter(properties, meterRegistry);
+
+		// When
+		filter.add(42);
+
+		// Then
+		assertFalse(filter.mightContain(42));
+		assertEquals(0.0, meterRegistry.counter("user_existence_remote_calls_avoided_total").count());
+	}
+
+}
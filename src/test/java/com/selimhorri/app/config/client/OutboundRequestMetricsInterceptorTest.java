@@ -0,0 +1,79 @@
+package com.selimhorri.app.config.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OutboundRequestMetricsInterceptor Tests")
+class OutboundRequestMetricsInterceptorTest {
+
+	@Mock
+	private HttpRequest request;
+
+	@Mock
+	private ClientHttpRequestExecution execution;
+
+	@Mock
+	private ClientHttpResponse response;
+
+	private SimpleMeterRegistry meterRegistry;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		when(request.getURI()).thenReturn(URI.create("http://USER-SERVICE/user-service/api/users/42"));
+		when(request.getMethodValue()).thenReturn("GET");
+	}
+
+	@Test
+	@DisplayName("Should time a call by service, collapsed path and status")
+	void testIntercept_Success() throws IOException {
+		// Given
+		when(execution.execute(eq(request), any())).thenReturn(response);
+		when(response.getRawStatusCode()).thenReturn(404);
+
+		// When
+		new OutboundRequestMetricsInterceptor(meterRegistry, true).intercept(request, new byte[0], execution);
+
+		// Then
+		Timer timer = meterRegistry.find("outbound_request")
+				.tags("client", "USER-SERVICE", "uri", "/user-service/api/users/{id}",
+						"status", "404", "outcome", "client_error", "exception", "none")
+				.timer();
+		assertNotNull(timer);
+		assertEquals(1, timer.count());
+	}
+
+	@Test
+	@DisplayName("Should tag an I/O failure with the exception type and rethrow it")
+	void testIntercept_Failure() throws IOException {
+		// Given
+		when(execution.execute(eq(request), any())).thenThrow(new SocketTimeoutException("Read timed out"));
+		OutboundRequestMetricsInterceptor interceptor = new OutboundRequestMetricsInterceptor(meterRegistry, false);
+
+		// When & Then
+		assertThrows(SocketTimeoutException.class, () -> interceptor.intercept(request, new byte[0], execution));
+		Timer timer = meterRegistry.find("outbound_request").tags("status", "IO_ERROR", "outcome", "error").timer();
+		assertEquals(1, timer.count());
+		assertNull(timer.getId().getTag("uri"));
+	}
+
+}
@@ -0,0 +1,153 @@
+package com.selimhorri.app.load;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.ConfigurableWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.selimhorri.app.OrderServiceApplication;
+import com.selimhorri.app.stub.UserServiceStub;
+
+/**
+ * Boots the service against a USER-SERVICE stub and keeps a fixed number of closed-loop clients
+ * busy against one URI, recording each successful request's latency.
+ */
+final class LoadDriver {
+
+	static final Duration WARMUP = Duration.ofSeconds(3);
+	static final Duration MEASUREMENT = Duration.ofSeconds(10);
+
+	private LoadDriver() {
+	}
+
+	// In-memory database per run, no discovery or config server, every request pays the USER-SERVICE round trip.
+	// Passed as command-line arguments, since default properties would lose to application.yml and the active
+	// profile; a setting of the caller replaces the one below with the same key.
+	static ConfigurableApplicationContext start(final String name, final UserServiceStub userServiceStub,
+			final int clients, final String... settings) {
+		final Map<String, String> arguments = new LinkedHashMap<>();
+		Stream.concat(Stream.of(
+						"server.port=0",
+						"spring.datasource.url=jdbc:h2:mem:load_" + name + ";DB_CLOSE_ON_EXIT=FALSE",
+						"spring.r2dbc.url=r2dbc:h2:mem:///load_" + name + "?options=DB_CLOSE_ON_EXIT=FALSE",
+						"SPRING_CONFIG_IMPORT=",
+						"spring.cloud.config.enabled=false",
+						"eureka.client.enabled=false",
+						"spring.zipkin.enabled=false",
+						"spring.cloud.discovery.client.simple.instances[USER-SERVICE][0].uri=" + userServiceStub.baseUrl(),
+						"app.user-service.cache.ttl=0s",
+						"app.user-service.cache.serve-stale=false",
+						"app.http-client.max-connections=" + clients * 2,
+						"app.http-client.max-connections-per-route=" + clients * 2,
+						"spring.jpa.show-sql=false",
+						"logging.level.root=WARN",
+						"logging.level.org.hibernate.SQL=WARN",
+						"logging.level.org.springframework.web=WARN",
+						"logging.level.org.springframework.data=WARN",
+						"logging.level.com.selimhorri=WARN"),
+				Stream.of(settings))
+				.forEach(setting -> arguments.put(setting.substring(0, setting.indexOf('=')), setting));
+		return new SpringApplicationBuilder(OrderServiceApplication.class)
+				.run(arguments.values().stream()
+						.map(setting -> "--" + setting)
+						.toArray(String[]::new));
+	}
+
+	static int port(final ConfigurableApplicationContext context) {
+		return ((ConfigurableWebServerApplicationContext) context).getWebServer().getPort();
+	}
+
+	static LoadResult warmUpAndMeasure(final URI uri, final int clients) throws InterruptedException {
+		drive(uri, clients, WARMUP);
+		return drive(uri, clients, MEASUREMENT);
+	}
+
+	static LoadResult drive(final URI uri, final int clients, final Duration duration) throws InterruptedException {
+		// Closed after each run, so its connections and threads don't load the runs that follow
+		final ExecutorService clientExecutor = Executors.newFixedThreadPool(8);
+		try (HttpClient httpClient = HttpClient.newBuilder().executor(clientExecutor).build()) {
+			final HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).GET().build();
+			final List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+			final AtomicInteger errors = new AtomicInteger();
+			final long deadline = System.nanoTime() + duration.toNanos();
+
+			final ExecutorService workers = Executors.newFixedThreadPool(clients);
+			for (int i = 0; i < clients; i++)
+				workers.execute(() -> {
+					while (System.nanoTime() < deadline) {
+						final long start = System.nanoTime();
+						try {
+							final HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+							if (response.statusCode() == 200)
+								latencies.add(System.nanoTime() - start);
+							else
+								errors.incrementAndGet();
+						}
+						catch (Exception e) {
+							errors.incrementAndGet();
+						}
+					}
+				});
+			workers.shutdown();
+			assertTrue(workers.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS));
+			return new LoadResult(new ArrayList<>(latencies), errors.get(), duration);
+		}
+		finally {
+			clientExecutor.shutdownNow();
+		}
+	}
+
+	static final class LoadResult {
+
+		private final List<Long> latencies;
+		private final int errors;
+		private final Duration duration;
+
+		private LoadResult(final List<Long> latencies, final int errors, final Duration duration) {
+			Collections.sort(latencies);
+			this.latencies = latencies;
+			this.errors = errors;
+			this.duration = duration;
+		}
+
+		int errors() {
+			return this.errors;
+		}
+
+		double throughput() {
+			return this.latencies.size() / (double) this.duration.toSeconds();
+		}
+
+		double p99Millis() {
+			if (this.latencies.isEmpty())
+				return Double.NaN;
+			final int index = (int) Math.ceil(this.latencies.size() * 0.99) - 1;
+			return this.latencies.get(index) / 1_000_000.0;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%.1f req/s, p99 %.1f ms, %d requests, %d errors",
+					this.throughput(), this.p99Millis(), this.latencies.size(), this.errors);
+		}
+
+	}
+
+}
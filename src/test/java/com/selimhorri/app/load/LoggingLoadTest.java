@@ -0,0 +1,74 @@
+package com.selimhorri.app.load;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.URI;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.selimhorri.app.load.LoadDriver.LoadResult;
+import com.selimhorri.app.logging.LogDropReason;
+import com.selimhorri.app.stub.UserServiceStub;
+
+/**
+ * Drives GET /api/orders/{id} with the application's own INFO logging off, on for every message
+ * through the async pipeline, and on with the prod sampling and rate limit. Prints throughput,
+ * p99 and the events each run dropped. Run with {@code ./mvnw -Pload-test test}.
+ */
+@Tag("load")
+@DisplayName("Request logging load comparison")
+class LoggingLoadTest {
+
+	private static final int CLIENTS = 50;
+
+	private UserServiceStub userServiceStub;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		userServiceStub = new UserServiceStub(0);
+	}
+
+	@AfterEach
+	void tearDown() {
+		userServiceStub.close();
+	}
+
+	@Test
+	@DisplayName("Requests should succeed with logging off, on and sampled, the sampled run dropping hot-path messages")
+	void testLoggingOffVersusOn() throws Exception {
+		// Given: a discarded run, otherwise whichever configuration goes first measures a cold JVM
+		run("logging_warmup", "INFO", 1, 0);
+
+		// When
+		LoadResult off = run("logging_off", "WARN", 1, 0);
+		LoadResult on = run("logging_on", "INFO", 1, 0);
+		long sampledBefore = LogDropReason.SAMPLED.count() + LogDropReason.RATE_LIMITED.count();
+		LoadResult sampled = run("logging_sampled", "INFO", 10, 100);
+		long sampledDrops = LogDropReason.SAMPLED.count() + LogDropReason.RATE_LIMITED.count() - sampledBefore;
+
+		// Then
+		System.out.printf("%nlogging off:     %s%nlogging on:      %s%nlogging sampled: %s (%d sampled or rate limited, %d queue full in total)%n",
+				off, on, sampled, sampledDrops, LogDropReason.QUEUE_FULL.count());
+		assertEquals(0, off.errors());
+		assertEquals(0, on.errors());
+		assertEquals(0, sampled.errors());
+		assertTrue(sampledDrops > 0);
+	}
+
+	private LoadResult run(final String name, final String level, final int sampleRate, final int maxPerSecond)
+			throws Exception {
+		try (ConfigurableApplicationContext context = LoadDriver.start(name, userServiceStub, CLIENTS,
+				"logging.level.com.selimhorri=" + level,
+				"app.logging.hot-path.sample-rate=" + sampleRate,
+				"app.logging.hot-path.max-per-second=" + maxPerSecond)) {
+			return LoadDriver.warmUpAndMeasure(
+					URI.create("http://localhost:" + LoadDriver.port(context) + "/order-service/api/orders/1"), CLIENTS);
+		}
+	}
+
+}
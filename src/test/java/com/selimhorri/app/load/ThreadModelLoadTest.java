@@ -0,0 +1,70 @@
+package com.selimhorri.app.load;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.URI;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.selimhorri.app.load.LoadDriver.LoadResult;
+import com.selimhorri.app.stub.UserServiceStub;
+
+/**
+ * Boots the service twice against a USER-SERVICE stub that answers after {@link #USER_SERVICE_LATENCY_MILLIS},
+ * once per thread model with the same Tomcat thread cap, and drives GET /api/carts/{id} with
+ * {@link #CLIENTS} concurrent callers. Run with {@code ./mvnw -Pload-test test}.
+ */
+@Tag("load")
+@DisplayName("Thread model load comparison")
+class ThreadModelLoadTest {
+
+	private static final long USER_SERVICE_LATENCY_MILLIS = 50;
+	private static final int TOMCAT_MAX_THREADS = 50;
+	private static final int CLIENTS = 200;
+
+	private UserServiceStub userServiceStub;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		userServiceStub = new UserServiceStub(USER_SERVICE_LATENCY_MILLIS);
+	}
+
+	@AfterEach
+	void tearDown() {
+		userServiceStub.close();
+	}
+
+	@Test
+	@DisplayName("Virtual threads should sustain more throughput than the platform thread pool under USER-SERVICE latency")
+	void testVirtualVersusPlatformThreads() throws Exception {
+		// Given: a discarded run, otherwise whichever thread model goes first measures a cold JVM
+		run(false);
+
+		// When
+		LoadResult platform = run(false);
+		LoadResult virtual = run(true);
+
+		// Then
+		System.out.printf("%nplatform: %s%nvirtual:  %s%n", platform, virtual);
+		assertEquals(0, platform.errors());
+		assertEquals(0, virtual.errors());
+		assertTrue(virtual.throughput() > platform.throughput(),
+				"virtual " + virtual.throughput() + " req/s <= platform " + platform.throughput() + " req/s");
+	}
+
+	private LoadResult run(final boolean virtualThreads) throws Exception {
+		try (ConfigurableApplicationContext context = LoadDriver.start(
+				virtualThreads ? "virtual" : "platform", userServiceStub, CLIENTS,
+				"server.tomcat.threads.max=" + TOMCAT_MAX_THREADS,
+				"app.threads.virtual.enabled=" + virtualThreads)) {
+			return LoadDriver.warmUpAndMeasure(
+					URI.create("http://localhost:" + LoadDriver.port(context) + "/order-service/api/carts/1"), CLIENTS);
+		}
+	}
+
+}
@@ -0,0 +1,89 @@
+package com.selimhorri.app.load;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import com.selimhorri.app.cache.UserDtoCache;
+import com.selimhorri.app.config.client.UserServiceClientProperties;
+import com.selimhorri.app.service.impl.UserClientServiceImpl;
+import com.selimhorri.app.stub.UserServiceStub;
+
+/**
+ * Times the user enrichment of {@link #USERS} carts against a USER-SERVICE stub that answers after
+ * {@link #USER_SERVICE_LATENCY_MILLIS}, one lookup at a time and then {@link #PARALLELISM} at once.
+ * Wall-clock bound, so kept out of the default suite. Run with {@code ./mvnw -Pload-test test}.
+ */
+@Tag("load")
+@DisplayName("User enrichment concurrency comparison")
+class UserEnrichmentLoadTest {
+
+	private static final long USER_SERVICE_LATENCY_MILLIS = 25;
+	private static final int USERS = 40;
+	private static final int PARALLELISM = 8;
+
+	private UserServiceStub userServiceStub;
+	private ExecutorService executor;
+	private UserServiceClientProperties properties;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		userServiceStub = new UserServiceStub(USER_SERVICE_LATENCY_MILLIS);
+		executor = Executors.newFixedThreadPool(16);
+		properties = new UserServiceClientProperties();
+		properties.setApiUrl(userServiceStub.apiUrl());
+		properties.setEnrichmentTimeout(Duration.ofSeconds(10));
+	}
+
+	@AfterEach
+	void tearDown() {
+		userServiceStub.close();
+		executor.shutdownNow();
+	}
+
+	@Test
+	@DisplayName("Concurrent lookups should resolve users much faster than one after another")
+	void testConcurrentVersusSerialLookups() {
+		// Given
+		List<Integer> userIds = IntStream.rangeClosed(1, USERS).boxed().collect(Collectors.toList());
+
+		// When
+		properties.setEnrichmentParallelism(1);
+		long serialMillis = timeMillis(() -> assertEquals(USERS, newService().findAllByIds(userIds).size()));
+		properties.setEnrichmentParallelism(PARALLELISM);
+		long concurrentMillis = timeMillis(() -> assertEquals(USERS, newService().findAllByIds(userIds).size()));
+
+		// Then
+		System.out.printf("%nserial: %d ms%nconcurrent (%d): %d ms%n", serialMillis, PARALLELISM, concurrentMillis);
+		assertTrue(concurrentMillis * 2 < serialMillis,
+				"serial=" + serialMillis + " ms, concurrent=" + concurrentMillis + " ms");
+	}
+
+	private UserClientServiceImpl newService() {
+		return new UserClientServiceImpl(new RestTemplate(), WebClient.builder(), properties, executor,
+				new UserDtoCache(properties, new SimpleMeterRegistry()), CircuitBreaker.ofDefaults("userService"));
+	}
+
+	private static long timeMillis(final Runnable runnable) {
+		final long start = System.nanoTime();
+		runnable.run();
+		return Duration.ofNanos(System.nanoTime() - start).toMillis();
+	}
+
+}
@@ -0,0 +1,90 @@
+package com.selimhorri.app.load;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.URI;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.selimhorri.app.load.LoadDriver.LoadResult;
+import com.selimhorri.app.stub.UserServiceStub;
+
+/**
+ * Side-by-side run of the servlet stack (Tomcat, JPA, RestTemplate) and the reactive profile
+ * (Netty, R2DBC, WebClient) over the same endpoints, with USER-SERVICE answering after
+ * {@link #USER_SERVICE_LATENCY_MILLIS}. Prints throughput and p99 per endpoint and stack.
+ * Run with {@code ./mvnw -Pload-test test}.
+ */
+@Tag("load")
+@DisplayName("Servlet versus reactive stack load comparison")
+class WebStackLoadTest {
+
+	private static final long USER_SERVICE_LATENCY_MILLIS = 50;
+	private static final int TOMCAT_MAX_THREADS = 50;
+	private static final int CLIENTS = 200;
+
+	private UserServiceStub userServiceStub;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		userServiceStub = new UserServiceStub(USER_SERVICE_LATENCY_MILLIS);
+	}
+
+	@AfterEach
+	void tearDown() {
+		userServiceStub.close();
+	}
+
+	@Test
+	@DisplayName("Both stacks should serve carts and orders without errors, the reactive one not blocked by USER-SERVICE latency")
+	void testServletVersusReactive() throws Exception {
+		// Given: a discarded run of each stack, they share little code and either would otherwise measure a cold JVM
+		run(false);
+		run(true);
+
+		// When
+		StackResult servlet = run(false);
+		StackResult reactive = run(true);
+
+		// Then
+		System.out.printf("%nservlet  carts:  %s%nreactive carts:  %s%nservlet  orders: %s%nreactive orders: %s%n",
+				servlet.carts, reactive.carts, servlet.orders, reactive.orders);
+		assertEquals(0, servlet.carts.errors());
+		assertEquals(0, reactive.carts.errors());
+		assertEquals(0, servlet.orders.errors());
+		assertEquals(0, reactive.orders.errors());
+		// Cart reads wait on USER-SERVICE: Tomcat holds a thread per wait, the event loop does not
+		assertTrue(reactive.carts.throughput() > servlet.carts.throughput(),
+				"reactive " + reactive.carts.throughput() + " req/s <= servlet " + servlet.carts.throughput() + " req/s");
+	}
+
+	private StackResult run(final boolean reactive) throws Exception {
+		try (ConfigurableApplicationContext context = LoadDriver.start(
+				reactive ? "reactive" : "servlet", userServiceStub, CLIENTS,
+				"spring.profiles.active=" + (reactive ? "dev,reactive" : "dev"),
+				"server.tomcat.threads.max=" + TOMCAT_MAX_THREADS)) {
+			final String baseUrl = "http://localhost:" + LoadDriver.port(context) + "/order-service/api";
+			final LoadResult carts = LoadDriver.warmUpAndMeasure(URI.create(baseUrl + "/carts/1"), CLIENTS);
+			final LoadResult orders = LoadDriver.warmUpAndMeasure(URI.create(baseUrl + "/orders?size=50"), CLIENTS);
+			return new StackResult(carts, orders);
+		}
+	}
+
+	private static final class StackResult {
+
+		private final LoadResult carts;
+		private final LoadResult orders;
+
+		private StackResult(final LoadResult carts, final LoadResult orders) {
+			this.carts = carts;
+			this.orders = orders;
+		}
+
+	}
+
+}
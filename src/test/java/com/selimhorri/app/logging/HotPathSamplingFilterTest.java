@@ -0,0 +1,129 @@
+package com.selimhorri.app.logging;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+
+@DisplayName("HotPathSamplingFilter Tests")
+class HotPathSamplingFilterTest {
+
+	private static final String HOT_PATH_MESSAGE = "*** OrderDto, resource; fetch order by id *";
+
+	private LoggerContext loggerContext;
+	private AtomicLong nanoTime;
+	private HotPathSamplingFilter filter;
+	private Logger orderResourceLogger;
+
+	@BeforeEach
+	void setUp() {
+		loggerContext = new LoggerContext();
+		loggerContext.getLogger(Logger.ROOT_LOGGER_NAME).setLevel(Level.INFO);
+		orderResourceLogger = loggerContext.getLogger("com.selimhorri.app.resource.OrderResource");
+		nanoTime = new AtomicLong(TimeUnit.SECONDS.toNanos(100));
+		filter = new HotPathSamplingFilter(nanoTime::get);
+		filter.setContext(loggerContext);
+		filter.addLoggerPrefix("com.selimhorri.app.resource");
+		filter.addLoggerPrefix("com.selimhorri.app.service");
+		filter.start();
+	}
+
+	private int admitted(final Logger logger, final int messages) {
+		int admitted = 0;
+		for (int i = 0; i < messages; i++)
+			if (filter.decide(null, logger, Level.INFO, HOT_PATH_MESSAGE, null, null) == FilterReply.NEUTRAL)
+				admitted++;
+		return admitted;
+	}
+
+	@Test
+	@DisplayName("Should keep one hot-path message in sampleRate and count the rest as sampled")
+	void testSampling() {
+		// Given
+		filter.setSampleRate(4);
+		long sampledBefore = LogDropReason.SAMPLED.count();
+
+		// When
+		int admitted = admitted(orderResourceLogger, 8);
+
+		// Then
+		assertEquals(2, admitted);
+		assertEquals(6, LogDropReason.SAMPLED.count() - sampledBefore);
+	}
+
+	@Test
+	@DisplayName("Should admit at most maxPerSecond hot-path messages per logger and second")
+	void testRateLimit() {
+		// Given
+		filter.setMaxPerSecond(3);
+		long rateLimitedBefore = LogDropReason.RATE_LIMITED.count();
+
+		// When
+		int firstSecond = admitted(orderResourceLogger, 5);
+		nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(1));
+		int nextSecond = admitted(orderResourceLogger, 5);
+
+		// Then
+		assertEquals(3, firstSecond);
+		assertEquals(3, nextSecond);
+		assertEquals(4, LogDropReason.RATE_LIMITED.count() - rateLimitedBefore);
+	}
+
+	@Test
+	@DisplayName("Should keep a separate budget per logger")
+	void testPerLogger() {
+		// Given
+		filter.setMaxPerSecond(1);
+		Logger cartServiceLogger = loggerContext.getLogger("com.selimhorri.app.service.impl.CartServiceImpl");
+
+		// When
+		int orderResource = admitted(orderResourceLogger, 3);
+		int cartService = admitted(cartServiceLogger, 3);
+
+		// Then
+		assertEquals(1, orderResource);
+		assertEquals(1, cartService);
+	}
+
+	@Test
+	@DisplayName("Should leave warnings, other messages, other loggers and level checks alone")
+	void testNeutral() {
+		// Given
+		filter.setSampleRate(1000);
+		filter.setMaxPerSecond(1);
+		Logger outboxLogger = loggerContext.getLogger("com.selimhorri.app.outbox.OutboxRelay");
+		admitted(orderResourceLogger, 1);
+
+		// When & Then
+		assertEquals(FilterReply.NEUTRAL, filter.decide(null, orderResourceLogger, Level.WARN, HOT_PATH_MESSAGE, null, null));
+		assertEquals(FilterReply.NEUTRAL, filter.decide(null, orderResourceLogger, Level.INFO, "Order {} not found", null, null));
+		assertEquals(FilterReply.NEUTRAL, filter.decide(null, orderResourceLogger, Level.INFO, null, null, null));
+		assertEquals(FilterReply.NEUTRAL, filter.decide(null, outboxLogger, Level.INFO, HOT_PATH_MESSAGE, null, null));
+	}
+
+	@Test
+	@DisplayName("Should not count messages the logger level discards anyway")
+	void testDisabledLevel() {
+		// Given
+		filter.setSampleRate(2);
+		orderResourceLogger.setLevel(Level.WARN);
+		long sampledBefore = LogDropReason.SAMPLED.count();
+
+		// When
+		int admitted = admitted(orderResourceLogger, 4);
+
+		// Then
+		assertEquals(4, admitted);
+		assertEquals(0, LogDropReason.SAMPLED.count() - sampledBefore);
+	}
+
+}
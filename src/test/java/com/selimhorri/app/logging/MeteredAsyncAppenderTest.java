@@ -0,0 +1,114 @@
+package com.selimhorri.app.logging;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+
+@DisplayName("MeteredAsyncAppender Tests")
+class MeteredAsyncAppenderTest {
+
+	private static final int QUEUE_SIZE = 2;
+
+	private LoggerContext loggerContext;
+	private Logger logger;
+	private BlockingAppender delegate;
+	private MeteredAsyncAppender appender;
+
+	@BeforeEach
+	void setUp() {
+		loggerContext = new LoggerContext();
+		logger = loggerContext.getLogger("com.selimhorri.app.resource.OrderResource");
+		delegate = new BlockingAppender();
+		delegate.setContext(loggerContext);
+		delegate.start();
+		appender = new MeteredAsyncAppender();
+		appender.setContext(loggerContext);
+		appender.setQueueSize(QUEUE_SIZE);
+		appender.setNeverBlock(true);
+		appender.addAppender(delegate);
+	}
+
+	@AfterEach
+	void tearDown() {
+		delegate.release.countDown();
+		appender.stop();
+	}
+
+	private LoggingEvent event(final Level level) {
+		return new LoggingEvent(Logger.FQCN, logger, level, "*** OrderDto, resource; save order *", null, null);
+	}
+
+	@Test
+	@DisplayName("Should drop and count events instead of blocking when the queue is full")
+	void testQueueFull() throws InterruptedException {
+		// Given
+		appender.setDiscardingThreshold(0);
+		appender.start();
+		long droppedBefore = LogDropReason.QUEUE_FULL.count();
+		// The worker takes the first event and blocks in the delegate, the next ones fill the queue
+		appender.doAppend(event(Level.INFO));
+		assertTrue(delegate.entered.await(5, TimeUnit.SECONDS));
+		for (int i = 0; i < QUEUE_SIZE; i++)
+			appender.doAppend(event(Level.INFO));
+
+		// When
+		for (int i = 0; i < 3; i++)
+			appender.doAppend(event(Level.ERROR));
+
+		// Then
+		assertEquals(3, LogDropReason.QUEUE_FULL.count() - droppedBefore);
+		assertEquals(0, appender.getRemainingCapacity());
+	}
+
+	@Test
+	@DisplayName("Should drop and count INFO events past the discarding threshold but keep warnings")
+	void testDiscardingThreshold() throws InterruptedException {
+		// Given
+		appender.setDiscardingThreshold(QUEUE_SIZE);
+		appender.start();
+		long droppedBefore = LogDropReason.QUEUE_FULL.count();
+		appender.doAppend(event(Level.INFO));
+		assertTrue(delegate.entered.await(5, TimeUnit.SECONDS));
+		appender.doAppend(event(Level.WARN));
+
+		// When
+		appender.doAppend(event(Level.INFO));
+		appender.doAppend(event(Level.WARN));
+
+		// Then
+		assertEquals(1, LogDropReason.QUEUE_FULL.count() - droppedBefore);
+		assertEquals(0, appender.getRemainingCapacity());
+	}
+
+	private static final class BlockingAppender extends AppenderBase<ILoggingEvent> {
+
+		private final CountDownLatch entered = new CountDownLatch(1);
+		private final CountDownLatch release = new CountDownLatch(1);
+
+		@Override
+		protected void append(final ILoggingEvent event) {
+			entered.countDown();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+	}
+
+}
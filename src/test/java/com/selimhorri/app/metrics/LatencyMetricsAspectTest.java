@@ -0,0 +1,128 @@
+package com.selimhorri.app.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import com.selimhorri.app.domain.Cart;
+import com.selimhorri.app.exception.wrapper.CartNotFoundException;
+import com.selimhorri.app.repository.CartRepository;
+import com.selimhorri.app.repository.reactive.ReactiveCartRepository;
+import com.selimhorri.app.service.CartService;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LatencyMetricsAspect Tests")
+class LatencyMetricsAspectTest {
+
+	@Mock
+	private CartService cartService;
+
+	@Mock
+	private CartRepository cartRepository;
+
+	@Mock
+	private ReactiveCartRepository reactiveCartRepository;
+
+	private SimpleMeterRegistry meterRegistry;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+	}
+
+	private <T> T advised(final T target, final boolean highCardinalityTags) {
+		final AspectJProxyFactory factory = new AspectJProxyFactory(target);
+		factory.addAspect(new LatencyMetricsAspect(meterRegistry, highCardinalityTags));
+		return factory.getProxy();
+	}
+
+	@Test
+	@DisplayName("Should time a successful service call by service, method and outcome")
+	void testServiceSuccess() {
+		// Given
+		when(cartService.findAll()).thenReturn(List.of());
+
+		// When
+		advised(cartService, true).findAll();
+
+		// Then
+		Timer timer = meterRegistry.find("service_method")
+				.tags("service", "CartService", "method", "findAll", "outcome", "success", "exception", "none")
+				.timer();
+		assertNotNull(timer);
+		assertEquals(1, timer.count());
+	}
+
+	@Test
+	@DisplayName("Should tag a failed service call with the exception type and rethrow it")
+	void testServiceFailure() {
+		// Given
+		when(cartService.findById(9)).thenThrow(new CartNotFoundException("Cart not found"));
+		CartService advised = advised(cartService, true);
+
+		// When & Then
+		assertThrows(CartNotFoundException.class, () -> advised.findById(9));
+		assertEquals(1, meterRegistry.find("service_method")
+				.tags("method", "findById", "outcome", "error", "exception", "CartNotFoundException")
+				.timer()
+				.count());
+	}
+
+	@Test
+	@DisplayName("Should time repository calls under the application repository name")
+	void testRepository() {
+		// Given
+		when(cartRepository.findByCartIdAndIsActiveTrue(1)).thenReturn(Optional.of(new Cart()));
+
+		// When
+		advised(cartRepository, true).findByCartIdAndIsActiveTrue(1);
+
+		// Then
+		assertEquals(1, meterRegistry.find("repository_method")
+				.tags("repository", "CartRepository", "method", "findByCartIdAndIsActiveTrue", "outcome", "success")
+				.timer()
+				.count());
+	}
+
+	@Test
+	@DisplayName("Should leave reactive repository calls untimed")
+	void testReactiveRepository() {
+		// When
+		advised(reactiveCartRepository, true).findAllByIsActiveTrue();
+
+		// Then
+		assertNull(meterRegistry.find("repository_method").timer());
+	}
+
+	@Test
+	@DisplayName("Should drop method and exception tags when high-cardinality tags are off")
+	void testLowCardinality() {
+		// Given
+		when(cartService.findAll()).thenReturn(List.of());
+		CartService advised = advised(cartService, false);
+
+		// When
+		advised.findAll();
+		advised.findAll();
+
+		// Then
+		Timer timer = meterRegistry.find("service_method").tags("service", "CartService", "outcome", "success").timer();
+		assertEquals(2, timer.count());
+		assertNull(timer.getId().getTag("method"));
+		assertNull(timer.getId().getTag("exception"));
+	}
+
+}
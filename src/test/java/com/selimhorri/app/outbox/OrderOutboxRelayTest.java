@@ -0,0 +1,122 @@
+package com.selimhorri.app.outbox;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import com.selimhorri.app.domain.OrderOutboxEvent;
+import com.selimhorri.app.domain.enums.OrderEventType;
+import com.selimhorri.app.repository.OrderOutboxRepository;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OrderOutboxRelay Tests")
+class OrderOutboxRelayTest {
+
+	@Mock
+	private OrderOutboxRepository orderOutboxRepository;
+
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	private SimpleMeterRegistry meterRegistry;
+	private List<Long> publishedIds;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		publishedIds = new ArrayList<>();
+	}
+
+	@Test
+	@DisplayName("Should publish a batch in event id order and delete it")
+	void testRelay_PublishesInOrder() {
+		// Given
+		List<OrderOutboxEvent> batch = Arrays.asList(event(1L, 7), event(2L, 8), event(3L, 7));
+		when(orderOutboxRepository.findNextBatch(PageRequest.of(0, 10))).thenReturn(batch);
+		when(orderOutboxRepository.findOldestCreatedAt()).thenReturn(Optional.empty());
+
+		// When
+		relay(e -> publishedIds.add(e.getEventId())).relay();
+
+		// Then
+		assertEquals(Arrays.asList(1L, 2L, 3L), publishedIds);
+		verify(orderOutboxRepository, times(1)).deleteAllInBatch(batch);
+		assertEquals(3.0, meterRegistry.counter("order_outbox_published_total").count());
+	}
+
+	@Test
+	@DisplayName("Should stop at the first sink failure and keep the remaining events")
+	void testRelay_StopsAtFailure() {
+		// Given
+		OrderOutboxEvent first = event(1L, 7);
+		List<OrderOutboxEvent> batch = Arrays.asList(first, event(2L, 7), event(3L, 8));
+		when(orderOutboxRepository.findNextBatch(any(PageRequest.class))).thenReturn(batch);
+		when(orderOutboxRepository.findOldestCreatedAt()).thenReturn(Optional.of(Instant.now().minusSeconds(5)));
+
+		// When
+		relay(e -> {
+			if (e.getEventId() == 2L)
+				throw new IllegalStateException("sink down");
+			publishedIds.add(e.getEventId());
+		}).relay();
+
+		// Then
+		assertEquals(Arrays.asList(1L), publishedIds);
+		verify(orderOutboxRepository, times(1)).deleteAllInBatch(Arrays.asList(first));
+		assertEquals(1.0, meterRegistry.counter("order_outbox_publish_failures_total").count());
+		assertTrue(meterRegistry.get("order_outbox_lag_seconds").gauge().value() >= 5.0);
+	}
+
+	@Test
+	@DisplayName("Should keep draining while batches come back full")
+	void testRelay_DrainsFullBatches() {
+		// Given
+		List<OrderOutboxEvent> full = new ArrayList<>();
+		for (long id = 1; id <= 10; id++)
+			full.add(event(id, (int) id));
+		when(orderOutboxRepository.findNextBatch(any(PageRequest.class)))
+				.thenReturn(full)
+				.thenReturn(Arrays.asList(event(11L, 1)))
+				.thenReturn(List.of());
+		when(orderOutboxRepository.findOldestCreatedAt()).thenReturn(Optional.empty());
+
+		// When
+		relay(e -> publishedIds.add(e.getEventId())).relay();
+
+		// Then
+		assertEquals(11, publishedIds.size());
+		verify(orderOutboxRepository, times(2)).findNextBatch(any(PageRequest.class));
+	}
+
+	private OrderOutboxRelay relay(final OrderEventSink sink) {
+		return new OrderOutboxRelay(orderOutboxRepository, sink, transactionManager, meterRegistry, 10);
+	}
+
+	private static OrderOutboxEvent event(final Long eventId, final Integer orderId) {
+		return OrderOutboxEvent.builder()
+				.eventId(eventId)
+				.orderId(orderId)
+				.eventType(OrderEventType.ORDER_CREATED)
+				.payload("{}")
+				.createdAt(Instant.now())
+				.build();
+	}
+
+}
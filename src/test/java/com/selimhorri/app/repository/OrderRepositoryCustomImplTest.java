@@ -0,0 +1,89 @@
+package com.selimhorri.app.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.selimhorri.app.domain.enums.OrderStatus;
+
+/**
+ * Runs the conditional status UPDATE against the Flyway schema, since only the database evaluates
+ * its CASE.
+ */
+@DataJpaTest(properties = "spring.config.import=")
+@DisplayName("OrderRepositoryCustomImpl Tests")
+class OrderRepositoryCustomImplTest {
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	@DisplayName("Should move each non-final order to its next status and bump its version")
+	void testAdvanceStatus() {
+		// Given
+		final int created = insertOrder(OrderStatus.CREATED, true);
+		final int ordered = insertOrder(OrderStatus.ORDERED, true);
+
+		// When
+		final int updatedCreated = orderRepository.advanceStatus(created, null, Instant.now());
+		final int updatedOrdered = orderRepository.advanceStatus(ordered, null, Instant.now());
+
+		// Then
+		assertEquals(1, updatedCreated);
+		assertEquals(1, updatedOrdered);
+		assertEquals(OrderStatus.ORDERED.name(), statusOf(created));
+		assertEquals(OrderStatus.IN_PAYMENT.name(), statusOf(ordered));
+		assertEquals(1L, jdbcTemplate.queryForObject("SELECT version FROM orders WHERE order_id = ?", Long.class, created));
+	}
+
+	@Test
+	@DisplayName("Should only move the order from the expected status")
+	void testAdvanceStatus_ExpectedStatus() {
+		// Given
+		final int orderId = insertOrder(OrderStatus.ORDERED, true);
+
+		// When
+		final int mismatched = orderRepository.advanceStatus(orderId, OrderStatus.CREATED, Instant.now());
+		final int matched = orderRepository.advanceStatus(orderId, OrderStatus.ORDERED, Instant.now());
+
+		// Then
+		assertEquals(0, mismatched);
+		assertEquals(1, matched);
+		assertEquals(OrderStatus.IN_PAYMENT.name(), statusOf(orderId));
+	}
+
+	@Test
+	@DisplayName("Should leave final and inactive orders untouched")
+	void testAdvanceStatus_NoTransition() {
+		// Given
+		final int inPayment = insertOrder(OrderStatus.IN_PAYMENT, true);
+		final int inactive = insertOrder(OrderStatus.CREATED, false);
+
+		// When & Then
+		assertEquals(0, orderRepository.advanceStatus(inPayment, null, Instant.now()));
+		assertEquals(0, orderRepository.advanceStatus(inPayment, OrderStatus.IN_PAYMENT, Instant.now()));
+		assertEquals(0, orderRepository.advanceStatus(inactive, null, Instant.now()));
+		assertEquals(OrderStatus.IN_PAYMENT.name(), statusOf(inPayment));
+		assertEquals(OrderStatus.CREATED.name(), statusOf(inactive));
+	}
+
+	private int insertOrder(final OrderStatus status, final boolean active) {
+		jdbcTemplate.update("INSERT INTO orders (cart_id, order_desc, order_fee, is_active, status) VALUES (1, 'test', 10, ?, ?)",
+				active, status.name());
+		return jdbcTemplate.queryForObject("SELECT MAX(order_id) FROM orders", Integer.class);
+	}
+
+	private String statusOf(final int orderId) {
+		return jdbcTemplate.queryForObject("SELECT status FROM orders WHERE order_id = ?", String.class, orderId);
+	}
+
+}
@@ -0,0 +1,395 @@
+package com.selimhorri.app.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import com.selimhorri.app.domain.enums.OrderField;
+import com.selimhorri.app.domain.enums.OrderStatus;
+import com.selimhorri.app.domain.enums.RollupGranularity;
+import com.selimhorri.app.dto.OrderSearchDto;
+
+/**
+ * Calls each repository query against the Flyway schema on H2 in MySQL mode, records the SQL and
+ * bind values that reach JDBC, and fails when EXPLAIN of any recorded statement shows a full table
+ * scan.
+ */
+@DataJpaTest(properties = {
+		"spring.config.import=",
+		// Automatic ANALYZE is off so plans do not change with the amount of seed data
+		"spring.datasource.url=jdbc:h2:mem:query_plans;MODE=MySQL;DB_CLOSE_DELAY=-1;ANALYZE_AUTO=0" })
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@DisplayName("Repository query plan Tests")
+class QueryPlanTest {
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private CartRepository cartRepository;
+
+	@Autowired
+	private OrderOutboxRepository orderOutboxRepository;
+
+	@Autowired
+	private IdempotencyRecordRepository idempotencyRecordRepository;
+
+	@Autowired
+	private OrderRollupRepository orderRollupRepository;
+
+	@Autowired
+	private StatementRecorder statementRecorder;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private LocalDateTime now;
+
+	@BeforeAll
+	static void seed(@Autowired final JdbcTemplate jdbcTemplate) {
+		// Runs outside the test transactions, so the rows stay for every test
+		jdbcTemplate.execute("INSERT INTO carts (user_id, is_active) "
+				+ "SELECT MOD(X, 100), MOD(X, 10) <> 0 FROM SYSTEM_RANGE(1, 500)");
+		jdbcTemplate.execute("INSERT INTO orders (cart_id, order_date, order_desc, order_fee, is_active, status) "
+				+ "SELECT MOD(X, 500) + 1, DATEADD('MINUTE', -X, CURRENT_TIMESTAMP), 'seed', 10, "
+				+ "MOD(X, 10) <> 0, CASEWHEN(MOD(X, 3) = 0, 'ORDERED', 'CREATED') FROM SYSTEM_RANGE(1, 1500)");
+	}
+
+	@BeforeEach
+	void setUp() {
+		now = LocalDateTime.now();
+	}
+
+	@Test
+	@DisplayName("OrderRepository#findAllActiveViews")
+	void testFindAllActiveViews() {
+		assertNoFullScan(() -> orderRepository.findAllActiveViews());
+	}
+
+	@Test
+	@DisplayName("OrderRepository#findActiveViewsAfter")
+	void testFindActiveViewsAfter() {
+		assertNoFullScan(() -> orderRepository.findActiveViewsAfter(100, PageRequest.of(0, 51)));
+	}
+
+	@Test
+	@DisplayName("OrderRepository#findActiveFieldsAfter")
+	void testFindActiveFieldsAfter() {
+		assertNoFullScan(() -> orderRepository.findActiveFieldsAfter(EnumSet.of(OrderField.ORDER_STATUS), 100, 51));
+	}
+
+	@Test
+	@DisplayName("OrderRepository#findActiveViewById and #findByOrderIdAndIsActiveTrue")
+	void testFindActiveById() {
+		assertNoFullScan(() -> orderRepository.findActiveViewById(7));
+		assertNoFullScan(() -> orderRepository.findByOrderIdAndIsActiveTrue(7));
+	}
+
+	@Test
+	@DisplayName("OrderRepository#findActiveVersionById")
+	void testFindActiveOrderVersionById() {
+		assertNoFullScan(() -> orderRepository.findActiveVersionById(7));
+	}
+
+	@Test
+	@DisplayName("OrderRepository#findActiveViewsByIds")
+	void testFindActiveViewsByIds() {
+		assertNoFullScan(() -> orderRepository.findActiveViewsByIds(List.of(7, 8, 9)));
+	}
+
+	@Test
+	@DisplayName("OrderRepository#lockActiveIds")
+	void testLockActiveIds() {
+		assertNoFullScan(() -> orderRepository.lockActiveIds(List.of(7, 8, 9)));
+	}
+
+	@Test
+	@DisplayName("OrderRepository#lockActiveIdsByCartIds")
+	void testLockActiveIdsByCartIds() {
+		assertNoFullScan(() -> orderRepository.lockActiveIdsByCartIds(List.of(1, 2, 3)));
+	}
+
+	@Test
+	@DisplayName("OrderRepository#findAllByIsActiveTrue")
+	void testFindAllOrdersByIsActiveTrue() {
+		assertNoFullScan(() -> orderRepository.findAllByIsActiveTrue());
+	}
+
+	@Test
+	@DisplayName("OrderRepository#advanceStatus")
+	void testAdvanceStatus() {
+		assertNoFullScan(() -> orderRepository.advanceStatus(7, null, Instant.now()));
+		assertNoFullScan(() -> orderRepository.advanceStatus(8, OrderStatus.CREATED, Instant.now()));
+	}
+
+	@Test
+	@DisplayName("OrderRepository#transitionStatuses")
+	void testTransitionStatuses() {
+		assertNoFullScan(() -> orderRepository.transitionStatuses(List.of(7, 8, 9), OrderStatus.CREATED,
+				OrderStatus.ORDERED, Instant.now()));
+	}
+
+	@Test
+	@DisplayName("OrderRepository#deactivateAllByCartIds")
+	void testDeactivateAllByCartIds() {
+		assertNoFullScan(() -> orderRepository.deactivateAllByCartIds(List.of(1, 2, 3),
+				EnumSet.of(OrderStatus.CREATED, OrderStatus.ORDERED), Instant.now()));
+	}
+
+	@Test
+	@DisplayName("OrderRepository#scrollActiveViews by date range")
+	void testScrollActiveViews_DateRange() {
+		assertNoFullScan(() -> orderRepository.scrollActiveViews(null, now.minusHours(2), now, 500, view -> {}));
+	}
+
+	@Test
+	@DisplayName("OrderRepository#scrollActiveViews by status and date range")
+	void testScrollActiveViews_StatusAndDateRange() {
+		assertNoFullScan(() -> orderRepository.scrollActiveViews(OrderStatus.ORDERED, now.minusHours(2), now, 500,
+				view -> {}));
+	}
+
+	@Test
+	@DisplayName("OrderRepository#searchActiveViews by status and date range, sorted by date")
+	void testSearch_StatusAndDateRange() {
+		final OrderSearchDto criteria = OrderSearchDto.builder()
+				.status(OrderStatus.ORDERED)
+				.from(now.minusHours(2))
+				.to(now)
+				.build();
+		assertNoFullScan(() -> orderRepository.searchActiveViews(criteria, Sort.by(Sort.Direction.DESC, "orderDate"),
+				0, 51));
+	}
+
+	@Test
+	@DisplayName("OrderRepository#searchActiveViews by fee range, sorted by fee")
+	void testSearch_FeeRange() {
+		final OrderSearchDto criteria = OrderSearchDto.builder()
+				.minFee(5.0)
+				.maxFee(15.0)
+				.build();
+		assertNoFullScan(() -> orderRepository.searchActiveViews(criteria, Sort.by(Sort.Direction.ASC, "orderFee"),
+				0, 51));
+	}
+
+	@Test
+	@DisplayName("OrderRepository#searchActiveViews by cart, sorted by date")
+	void testSearch_Cart() {
+		final OrderSearchDto criteria = OrderSearchDto.builder()
+				.cartId(3)
+				.build();
+		assertNoFullScan(() -> orderRepository.searchActiveViews(criteria, Sort.by(Sort.Direction.DESC, "orderDate"),
+				0, 51));
+	}
+
+	@Test
+	@DisplayName("CartRepository#findAllByIsActiveTrue")
+	void testFindAllCartsByIsActiveTrue() {
+		assertNoFullScan(() -> cartRepository.findAllByIsActiveTrue());
+	}
+
+	@Test
+	@DisplayName("CartRepository#findAllActiveIds and #findAllActiveViews")
+	void testFindAllActiveCartColumns() {
+		assertNoFullScan(() -> cartRepository.findAllActiveIds());
+		assertNoFullScan(() -> cartRepository.findAllActiveViews());
+	}
+
+	@Test
+	@DisplayName("CartRepository#findByCartIdAndIsActiveTrue")
+	void testFindCartByIdAndIsActiveTrue() {
+		assertNoFullScan(() -> cartRepository.findByCartIdAndIsActiveTrue(3));
+	}
+
+	@Test
+	@DisplayName("CartRepository#findActiveVersionById")
+	void testFindActiveCartVersionById() {
+		assertNoFullScan(() -> cartRepository.findActiveVersionById(3));
+	}
+
+	@Test
+	@DisplayName("CartRepository#findExistingCartIds")
+	void testFindExistingCartIds() {
+		assertNoFullScan(() -> cartRepository.findExistingCartIds(List.of(1, 2, 3)));
+	}
+
+	@Test
+	@DisplayName("CartRepository#findByIdForUpdate")
+	void testFindCartByIdForUpdate() {
+		assertNoFullScan(() -> cartRepository.findByIdForUpdate(3));
+	}
+
+	@Test
+	@DisplayName("CartRepository#deactivateAll")
+	void testDeactivateAllCarts() {
+		assertNoFullScan(() -> cartRepository.deactivateAll(List.of(1, 2, 3), Instant.now()));
+	}
+
+	@Test
+	@DisplayName("OrderOutboxRepository#findOldestCreatedAt")
+	void testFindOldestCreatedAt() {
+		assertNoFullScan(() -> orderOutboxRepository.findOldestCreatedAt());
+	}
+
+	@Test
+	@DisplayName("IdempotencyRecordRepository#deleteAllExpired")
+	void testDeleteAllExpired() {
+		assertNoFullScan(() -> idempotencyRecordRepository.deleteAllExpired(Instant.now()));
+	}
+
+	@Test
+	@DisplayName("OrderRollupRepository#findBuckets")
+	void testFindBuckets() {
+		assertNoFullScan(() -> orderRollupRepository.findBuckets(RollupGranularity.DAY, now.minusDays(30), now));
+	}
+
+	@Test
+	@DisplayName("OrderRollupRepository#increment")
+	void testIncrement() {
+		assertNoFullScan(() -> orderRollupRepository.increment(RollupGranularity.HOUR, now.truncatedTo(ChronoUnit.HOURS),
+				OrderStatus.CREATED, 1L, 10.0));
+	}
+
+	private void assertNoFullScan(final Runnable query) {
+		statementRecorder.clear();
+		query.run();
+		final Map<String, Object[]> statements = statementRecorder.distinctStatements();
+		assertFalse(statements.isEmpty(), "The query did not reach the database");
+		statements.forEach((sql, parameters) -> {
+			final String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, parameters));
+			assertFalse(plan.contains(".tableScan"), () -> "Full table scan for " + sql + "\n" + plan);
+		});
+	}
+
+	@TestConfiguration
+	static class StatementRecorderConfig {
+
+		@Bean
+		StatementRecorder statementRecorder() {
+			return new StatementRecorder();
+		}
+
+		@Bean
+		static BeanPostProcessor recordingDataSourcePostProcessor(final StatementRecorder statementRecorder) {
+			return new BeanPostProcessor() {
+				@Override
+				public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+					return bean instanceof DataSource ? statementRecorder.wrap((DataSource) bean) : bean;
+				}
+			};
+		}
+
+	}
+
+	/**
+	 * Keeps every prepared statement executed through the wrapped data source with the values bound
+	 * to it, so the plan is explained for exactly what Hibernate sent.
+	 */
+	static class StatementRecorder {
+
+		private final List<Object[]> statements = Collections.synchronizedList(new ArrayList<>());
+
+		DataSource wrap(final DataSource dataSource) {
+			return new DelegatingDataSource(dataSource) {
+				@Override
+				public Connection getConnection() throws SQLException {
+					return recording(super.getConnection());
+				}
+				@Override
+				public Connection getConnection(final String username, final String password) throws SQLException {
+					return recording(super.getConnection(username, password));
+				}
+			};
+		}
+
+		void clear() {
+			statements.clear();
+		}
+
+		// Same SQL with other values has the same plan, e.g. the cart of each loaded order
+		Map<String, Object[]> distinctStatements() {
+			final Map<String, Object[]> distinct = new LinkedHashMap<>();
+			synchronized (statements) {
+				for (final Object[] statement : statements)
+					distinct.putIfAbsent((String) statement[0], (Object[]) statement[1]);
+			}
+			return distinct;
+		}
+
+		private Connection recording(final Connection connection) {
+			return proxy(Connection.class, connection, (target, method, args) -> {
+				final Object result = method.invoke(target, args);
+				return method.getName().equals("prepareStatement")
+						? recording((PreparedStatement) result, (String) args[0])
+						: result;
+			});
+		}
+
+		private PreparedStatement recording(final PreparedStatement statement, final String sql) {
+			final Map<Integer, Object> parameters = new TreeMap<>();
+			return proxy(PreparedStatement.class, statement, (target, method, args) -> {
+				final String name = method.getName();
+				if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer)
+					parameters.put((Integer) args[0], name.equals("setNull") ? null : args[1]);
+				else if (name.equals("clearParameters"))
+					parameters.clear();
+				else if (name.startsWith("execute") || name.equals("addBatch"))
+					statements.add(new Object[] { sql, parameters.values().toArray() });
+				return method.invoke(target, args);
+			});
+		}
+
+		@SuppressWarnings("unchecked")
+		private static <T> T proxy(final Class<T> type, final T target, final Handler handler) {
+			final InvocationHandler invocationHandler = (proxy, method, args) -> {
+				try {
+					return handler.invoke(target, method, args);
+				}
+				catch (final InvocationTargetException e) {
+					throw e.getCause();
+				}
+			};
+			return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, invocationHandler);
+		}
+
+		@FunctionalInterface
+		private interface Handler {
+			Object invoke(Object target, Method method, Object[] args) throws Throwable;
+		}
+
+	}
+
+}
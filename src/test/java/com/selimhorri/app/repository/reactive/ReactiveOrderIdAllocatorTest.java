@@ -0,0 +1,89 @@
+package com.selimhorri.app.repository.reactive;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import reactor.core.publisher.Mono;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReactiveOrderIdAllocator Tests")
+class ReactiveOrderIdAllocatorTest {
+
+	@Mock
+	private ReactiveOrderRepository orderRepository;
+
+	@Mock
+	private TransactionalOperator reservationOperator;
+
+	private ReactiveOrderIdAllocator orderIdAllocator;
+
+	@BeforeEach
+	void setUp() {
+		orderIdAllocator = new ReactiveOrderIdAllocator(orderRepository, reservationOperator);
+		when(reservationOperator.transactional(any(Mono.class))).thenAnswer(invocation -> invocation.getArgument(0));
+	}
+
+	@Test
+	@DisplayName("Should serve single ids from one reserved block")
+	void testAllocate_ServesFromBlock() {
+		// Given
+		when(orderRepository.allocateIds(ReactiveOrderRepositoryCustom.ORDER_SEQUENCE, ReactiveOrderIdAllocator.BLOCK_SIZE))
+				.thenReturn(Mono.just(100L));
+
+		// When
+		Long first = orderIdAllocator.allocate(1).block();
+		Long second = orderIdAllocator.allocate(1).block();
+		Long range = orderIdAllocator.allocate(3).block();
+
+		// Then
+		assertEquals(Long.valueOf(100L), first);
+		assertEquals(Long.valueOf(101L), second);
+		assertEquals(Long.valueOf(102L), range);
+		verify(orderRepository, times(1)).allocateIds(anyString(), anyInt());
+		verify(reservationOperator, times(1)).transactional(any(Mono.class));
+	}
+
+	@Test
+	@DisplayName("Should reserve a new block once the current one runs out")
+	void testAllocate_ReservesNextBlock() {
+		// Given
+		when(orderRepository.allocateIds(ReactiveOrderRepositoryCustom.ORDER_SEQUENCE, ReactiveOrderIdAllocator.BLOCK_SIZE))
+				.thenReturn(Mono.just(1L), Mono.just(51L));
+
+		// When
+		Long first = orderIdAllocator.allocate(ReactiveOrderIdAllocator.BLOCK_SIZE - 1).block();
+		Long next = orderIdAllocator.allocate(2).block();
+
+		// Then
+		assertEquals(Long.valueOf(1L), first);
+		assertEquals(Long.valueOf(51L), next);
+		verify(orderRepository, times(2)).allocateIds(anyString(), anyInt());
+	}
+
+	@Test
+	@DisplayName("Should reserve an exact range for a bulk create of a block or more")
+	void testAllocate_BulkRange() {
+		// Given
+		when(orderRepository.allocateIds(ReactiveOrderRepositoryCustom.ORDER_SEQUENCE, 120)).thenReturn(Mono.just(200L));
+		when(orderRepository.allocateIds(ReactiveOrderRepositoryCustom.ORDER_SEQUENCE, ReactiveOrderIdAllocator.BLOCK_SIZE))
+				.thenReturn(Mono.just(320L));
+
+		// When
+		Long bulk = orderIdAllocator.allocate(120).block();
+		Long single = orderIdAllocator.allocate(1).block();
+
+		// Then
+		assertEquals(Long.valueOf(200L), bulk);
+		assertEquals(Long.valueOf(320L), single);
+	}
+
+}
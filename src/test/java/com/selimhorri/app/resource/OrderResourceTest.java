@@ -0,0 +1,131 @@
+package com.selimhorri.app.resource;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.selimhorri.app.domain.enums.OrderStatus;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.OrderSearchDto;
+import com.selimhorri.app.dto.response.collection.DtoPageResponse;
+import com.selimhorri.app.service.IdempotencyService;
+import com.selimhorri.app.service.OrderExportService;
+import com.selimhorri.app.service.OrderRollupService;
+import com.selimhorri.app.service.OrderService;
+
+/**
+ * Request mappings of {@link OrderResource} over MockMvc, with the services mocked.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OrderResource Tests")
+class OrderResourceTest {
+
+	private static final String ETAG = "\"7-1700000000000-2\"";
+
+	@Mock
+	private OrderService orderService;
+
+	@Mock
+	private OrderExportService orderExportService;
+
+	@Mock
+	private IdempotencyService idempotencyService;
+
+	@Mock
+	private OrderRollupService orderRollupService;
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		mockMvc = MockMvcBuilders
+				.standaloneSetup(new OrderResource(orderService, orderExportService, idempotencyService,
+						orderRollupService, new ObjectMapper()))
+				.setCustomArgumentResolvers(new PageableHandlerMethodArgumentResolver())
+				.build();
+	}
+
+	@Test
+	@DisplayName("GET /api/orders/{orderId} should return the order with its ETag")
+	void testFindById() throws Exception {
+		// Given
+		when(orderService.findEtag(7)).thenReturn(ETAG);
+		when(orderService.findById(7)).thenReturn(OrderDto.builder().orderId(7).orderStatus(OrderStatus.ORDERED).build());
+
+		// When & Then
+		mockMvc.perform(get("/api/orders/7"))
+				.andExpect(status().isOk())
+				.andExpect(header().string("ETag", ETAG))
+				.andExpect(jsonPath("$.orderId").value(7));
+	}
+
+	@Test
+	@DisplayName("GET /api/orders/{orderId} should answer a matching If-None-Match with 304 without loading the order")
+	void testFindById_NotModified() throws Exception {
+		// Given
+		when(orderService.findEtag(7)).thenReturn(ETAG);
+
+		// When & Then
+		mockMvc.perform(get("/api/orders/7").header("If-None-Match", ETAG))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string("ETag", ETAG));
+		verify(orderService, never()).findById(anyInt());
+	}
+
+	@Test
+	@DisplayName("GET /api/orders/search should pass the filters, sort and page to the service")
+	void testSearch() throws Exception {
+		// Given
+		when(orderService.search(any(OrderSearchDto.class), any(Pageable.class)))
+				.thenReturn(DtoPageResponse.<OrderDto>builder()
+						.collection(List.of(OrderDto.builder().orderId(3).build()))
+						.page(1)
+						.size(1)
+						.hasNext(false)
+						.build());
+
+		// When & Then
+		mockMvc.perform(get("/api/orders/search")
+						.param("status", "ORDERED")
+						.param("minFee", "5")
+						.param("cartId", "4")
+						.param("sort", "orderFee,desc")
+						.param("page", "1")
+						.param("size", "20"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.collection[0].orderId").value(3))
+				.andExpect(jsonPath("$.hasNext").value(false));
+
+		ArgumentCaptor<OrderSearchDto> criteria = ArgumentCaptor.forClass(OrderSearchDto.class);
+		ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+		verify(orderService).search(criteria.capture(), pageable.capture());
+		assertEquals(OrderStatus.ORDERED, criteria.getValue().getStatus());
+		assertEquals(5.0, criteria.getValue().getMinFee());
+		assertEquals(Integer.valueOf(4), criteria.getValue().getCartId());
+		assertEquals(1, pageable.getValue().getPageNumber());
+		assertEquals(20, pageable.getValue().getPageSize());
+		assertEquals(Sort.Direction.DESC, pageable.getValue().getSort().getOrderFor("orderFee").getDirection());
+		verify(orderService, never()).findEtag(anyInt());
+	}
+
+}
@@ -4,29 +4,45 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
+import java.time.Instant;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
 
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import com.selimhorri.app.cache.UserDtoCache;
+import com.selimhorri.app.cache.UserExistenceFilter;
+import com.selimhorri.app.config.client.UserServiceClientProperties;
 import com.selimhorri.app.constant.AppConstant;
 import com.selimhorri.app.domain.Cart;
+import com.selimhorri.app.domain.enums.CartField;
+import com.selimhorri.app.domain.projection.CartView;
+import com.selimhorri.app.domain.projection.VersionView;
+import com.selimhorri.app.dto.CartDeactivationResultDto;
 import com.selimhorri.app.dto.CartDto;
 import com.selimhorri.app.dto.UserDto;
+import com.selimhorri.app.exception.wrapper.BatchSizeExceededException;
 import com.selimhorri.app.exception.wrapper.CartNotFoundException;
 import com.selimhorri.app.exception.wrapper.UserNotFoundException;
 import com.selimhorri.app.repository.CartRepository;
+import com.selimhorri.app.service.OrderService;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("CartServiceImpl Tests")
@@ -38,7 +54,11 @@ class CartServiceImplTest {
 	@Mock
 	private RestTemplate restTemplate;
 
-	@InjectMocks
+	@Mock
+	private OrderService orderService;
+
+	private SimpleMeterRegistry meterRegistry;
+
 	private CartServiceImpl cartService;
 
 	private Cart cart;
@@ -47,6 +67,16 @@ class CartServiceImplTest {
 
 	@BeforeEach
 	void setUp() {
+		// Real user client over the mocked RestTemplate, run on the calling thread
+		final UserServiceClientProperties properties = new UserServiceClientProperties();
+		meterRegistry = new SimpleMeterRegistry();
+		cartService = new CartServiceImpl(cartRepository,
+				new UserClientServiceImpl(restTemplate, WebClient.builder(), properties, Runnable::run,
+						new UserDtoCache(properties, meterRegistry),
+						CircuitBreaker.ofDefaults("userService")),
+				new UserExistenceFilter(properties, meterRegistry),
+				orderService);
+
 		userDto = UserDto.builder()
 				.userId(1)
 				.firstName("John")
@@ -85,6 +115,61 @@ class CartServiceImplTest {
 		verify(restTemplate, times(1)).getForObject(anyString(), eq(UserDto.class));
 	}
 
+	@Test
+	@DisplayName("Should read only cart ids and skip USER-SERVICE when the user is not requested")
+	void testFindAll_FieldsWithoutUser() {
+		// Given
+		when(cartRepository.findAllActiveIds()).thenReturn(List.of(1, 2));
+
+		// When
+		List<CartDto> result = cartService.findAll(EnumSet.of(CartField.CART_ID));
+
+		// Then
+		assertEquals(2, result.size());
+		assertNull(result.get(0).getUserId());
+		assertNull(result.get(0).getUserDto());
+		verify(cartRepository, never()).findAllByIsActiveTrue();
+		verifyNoInteractions(restTemplate);
+	}
+
+	@Test
+	@DisplayName("Should read cart views and fetch users only when the user is requested")
+	void testFindAll_FieldsWithUser() {
+		// Given
+		when(cartRepository.findAllActiveViews()).thenReturn(List.of(new CartView(1, 1)));
+		when(restTemplate.getForObject(anyString(), eq(UserDto.class))).thenReturn(userDto);
+
+		// When
+		List<CartDto> result = cartService.findAll(EnumSet.of(CartField.CART_ID, CartField.USER));
+
+		// Then
+		assertEquals(1, result.size());
+		assertEquals("John", result.get(0).getUserDto().getFirstName());
+		verify(cartRepository, never()).findAllByIsActiveTrue();
+		verify(restTemplate, times(1)).getForObject(anyString(), eq(UserDto.class));
+	}
+
+	@Test
+	@DisplayName("Should look up each distinct user only once in findAll")
+	void testFindAll_DedupesUserLookups() {
+		// Given
+		Cart sameUserCart = Cart.builder()
+				.cartId(2)
+				.userId(1)
+				.isActive(true)
+				.build();
+		when(cartRepository.findAllByIsActiveTrue()).thenReturn(Arrays.asList(cart, sameUserCart));
+		when(restTemplate.getForObject(anyString(), eq(UserDto.class))).thenReturn(userDto);
+
+		// When
+		List<CartDto> result = cartService.findAll();
+
+		// Then
+		assertEquals(2, result.size());
+		result.forEach(c -> assertEquals("John", c.getUserDto().getFirstName()));
+		verify(restTemplate, times(1)).getForObject(anyString(), eq(UserDto.class));
+	}
+
 	@Test
 	@DisplayName("Should filter out carts when user not found in findAll")
 	void testFindAll_UserNotFound() {
@@ -154,6 +239,42 @@ class CartServiceImplTest {
 		verify(restTemplate, never()).getForObject(anyString(), eq(UserDto.class));
 	}
 
+	@Test
+	@DisplayName("Should build the cart ETag without loading the cart or calling USER-SERVICE")
+	void testFindEtag_Success() {
+		// Given
+		when(cartRepository.findActiveVersionById(1))
+				.thenReturn(Optional.of(new VersionView(1, Instant.ofEpochMilli(1700000000000L))));
+
+		// When
+		String etag = cartService.findEtag(1);
+
+		// Then
+		assertEquals("\"1-1700000000000\"", etag);
+		verify(cartRepository, never()).findByCartIdAndIsActiveTrue(anyInt());
+		verifyNoInteractions(restTemplate);
+	}
+
+	@Test
+	@DisplayName("Should give a seeded cart without updated_at a stable ETag")
+	void testFindEtag_NeverUpdated() {
+		// Given
+		when(cartRepository.findActiveVersionById(2)).thenReturn(Optional.of(new VersionView(2, null)));
+
+		// When & Then
+		assertEquals("\"2-0\"", cartService.findEtag(2));
+	}
+
+	@Test
+	@DisplayName("Should throw CartNotFoundException for the ETag of a missing cart")
+	void testFindEtag_NotFound() {
+		// Given
+		when(cartRepository.findActiveVersionById(999)).thenReturn(Optional.empty());
+
+		// When & Then
+		assertThrows(CartNotFoundException.class, () -> cartService.findEtag(999));
+	}
+
 	@Test
 	@DisplayName("Should save cart successfully when user exists")
 	void testSave_Success() {
@@ -172,6 +293,43 @@ class CartServiceImplTest {
 		verify(cartRepository, times(1)).save(any(Cart.class));
 	}
 
+	@Test
+	@DisplayName("Should skip the USER-SERVICE check for a user confirmed by an earlier lookup")
+	void testSave_KnownUser() {
+		// Given
+		when(cartRepository.findByCartIdAndIsActiveTrue(1)).thenReturn(Optional.of(cart));
+		when(restTemplate.getForObject(anyString(), eq(UserDto.class))).thenReturn(userDto);
+		when(cartRepository.save(any(Cart.class))).thenReturn(cart);
+		cartService.findById(1);
+
+		// When
+		CartDto result = cartService.save(cartDto);
+
+		// Then
+		assertEquals(1, result.getUserId());
+		verify(cartRepository, times(1)).save(any(Cart.class));
+		assertEquals(1.0, meterRegistry.counter("user_existence_remote_calls_avoided_total").count());
+		assertEquals(0.0, meterRegistry.counter("user_existence_filter_misses_total").count());
+	}
+
+	@Test
+	@DisplayName("Should check USER-SERVICE for a user the filter has not seen")
+	void testSave_UnknownUser() {
+		// Given
+		cartDto.setUserId(2);
+		when(restTemplate.getForObject(anyString(), eq(UserDto.class))).thenReturn(userDto);
+		when(cartRepository.save(any(Cart.class))).thenReturn(cart);
+
+		// When
+		cartService.save(cartDto);
+		cartService.save(cartDto);
+
+		// Then
+		verify(restTemplate, times(1)).getForObject(anyString(), eq(UserDto.class));
+		assertEquals(1.0, meterRegistry.counter("user_existence_filter_misses_total").count());
+		assertEquals(1.0, meterRegistry.counter("user_existence_remote_calls_avoided_total").count());
+	}
+
 	@Test
 	@DisplayName("Should throw IllegalArgumentException when userId is null")
 	void testSave_UserIdNull() {
@@ -210,20 +368,41 @@ class CartServiceImplTest {
 	}
 
 	@Test
-	@DisplayName("Should delete cart successfully (soft delete)")
+	@DisplayName("Should soft delete the locked cart entity and its orders with a set-based update")
 	void testDeleteById_Success() {
 		// Given
 		Integer cartId = 1;
-		when(cartRepository.findById(cartId)).thenReturn(Optional.of(cart));
-		when(cartRepository.save(any(Cart.class))).thenReturn(cart);
+		Cart cart = Cart.builder().cartId(cartId).isActive(true).build();
+		when(cartRepository.findByIdForUpdate(cartId)).thenReturn(Optional.of(cart));
+		when(orderService.deactivateAllByCartIds(Set.of(cartId))).thenReturn(3);
 
 		// When
-		cartService.deleteById(cartId);
+		CartDeactivationResultDto result = cartService.deleteById(cartId);
 
 		// Then
-		verify(cartRepository, times(1)).findById(cartId);
-		verify(cartRepository, times(1)).save(any(Cart.class));
+		assertEquals(1, result.getCartsDeactivated());
+		assertEquals(3, result.getOrdersDeactivated());
 		assertFalse(cart.isActive());
+		// The bulk update would evict the whole Cart cache region
+		verify(cartRepository, never()).deactivateAll(anyCollection(), any(Instant.class));
+		verify(cartRepository, never()).existsById(anyInt());
+	}
+
+	@Test
+	@DisplayName("Should deactivate leftover orders of an already inactive cart")
+	void testDeleteById_AlreadyInactive() {
+		// Given
+		Integer cartId = 1;
+		when(cartRepository.findByIdForUpdate(cartId))
+				.thenReturn(Optional.of(Cart.builder().cartId(cartId).isActive(false).build()));
+		when(orderService.deactivateAllByCartIds(Set.of(cartId))).thenReturn(2);
+
+		// When
+		CartDeactivationResultDto result = cartService.deleteById(cartId);
+
+		// Then
+		assertEquals(0, result.getCartsDeactivated());
+		assertEquals(2, result.getOrdersDeactivated());
 	}
 
 	@Test
@@ -231,13 +410,52 @@ class CartServiceImplTest {
 	void testDeleteById_NotFound() {
 		// Given
 		Integer cartId = 999;
-		when(cartRepository.findById(cartId)).thenReturn(Optional.empty());
+		when(cartRepository.findByIdForUpdate(cartId)).thenReturn(Optional.empty());
 
 		// When & Then
 		assertThrows(CartNotFoundException.class, () -> cartService.deleteById(cartId));
-		verify(cartRepository, times(1)).findById(cartId);
-		verify(cartRepository, never()).save(any(Cart.class));
+		verify(orderService, never()).deactivateAllByCartIds(anyCollection());
 	}
 
-}
+	@Test
+	@DisplayName("Should deactivate distinct cart ids in one call per table")
+	void testDeactivateAll_Success() {
+		// Given
+		when(cartRepository.deactivateAll(eq(Set.of(1, 2, 3)), any(Instant.class))).thenReturn(2);
+		when(orderService.deactivateAllByCartIds(Set.of(1, 2, 3))).thenReturn(5);
+
+		// When
+		CartDeactivationResultDto result = cartService.deactivateAll(Arrays.asList(3, 1, null, 2, 1));
+
+		// Then
+		assertEquals(2, result.getCartsDeactivated());
+		assertEquals(5, result.getOrdersDeactivated());
+		verify(cartRepository, times(1)).deactivateAll(anyCollection(), any(Instant.class));
+		verify(orderService, times(1)).deactivateAllByCartIds(anyCollection());
+	}
+
+	@Test
+	@DisplayName("Should not query when no cart id is given")
+	void testDeactivateAll_Empty() {
+		// When
+		CartDeactivationResultDto result = cartService.deactivateAll(Arrays.asList((Integer) null));
+
+		// Then
+		assertEquals(0, result.getCartsDeactivated());
+		assertEquals(0, result.getOrdersDeactivated());
+		verifyNoInteractions(orderService);
+		verify(cartRepository, never()).deactivateAll(anyCollection(), any(Instant.class));
+	}
 
+	@Test
+	@DisplayName("Should reject more carts than the bulk limit")
+	void testDeactivateAll_TooMany() {
+		// Given
+		List<Integer> cartIds = Collections.nCopies(AppConstant.BULK_MAX_SIZE + 1, 1);
+
+		// When & Then
+		assertThrows(BatchSizeExceededException.class, () -> cartService.deactivateAll(cartIds));
+		verifyNoInteractions(orderService);
+	}
+
+}
@@ -0,0 +1,337 @@
+package com.selimhorri.app.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.selimhorri.app.domain.IdempotencyRecord;
+import com.selimhorri.app.domain.enums.OrderStatus;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.exception.wrapper.CartNotFoundException;
+import com.selimhorri.app.exception.wrapper.IdempotencyKeyConflictException;
+import com.selimhorri.app.exception.wrapper.InvalidIdempotencyKeyException;
+import com.selimhorri.app.repository.IdempotencyRecordRepository;
+import com.selimhorri.app.service.IdempotencyService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("IdempotencyServiceImpl Tests")
+class IdempotencyServiceImplTest {
+
+	@Mock
+	private IdempotencyRecordRepository idempotencyRecordRepository;
+
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private OrderDto request;
+	private OrderDto created;
+	private AtomicInteger executions;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		request = OrderDto.builder()
+				.orderDesc("Test Order")
+				.orderFee(100.0)
+				.build();
+		created = OrderDto.builder()
+				.orderId(42)
+				.orderDesc("Test Order")
+				.orderFee(100.0)
+				.orderStatus(OrderStatus.CREATED)
+				.build();
+		executions = new AtomicInteger();
+	}
+
+	private IdempotencyServiceImpl newService() {
+		return new IdempotencyServiceImpl(idempotencyRecordRepository, new ObjectMapper(), transactionManager,
+				meterRegistry, Duration.ofHours(24), Duration.ofMinutes(10), 100, Duration.ofSeconds(5));
+	}
+
+	private OrderDto save(final IdempotencyServiceImpl service, final String key, final OrderDto body) {
+		return service.execute(IdempotencyService.ORDERS, key, body, OrderDto.class, () -> {
+			executions.incrementAndGet();
+			return created;
+		});
+	}
+
+	private IdempotencyRecord storedRecord(final String key) {
+		final ArgumentCaptor<IdempotencyRecord> captor = ArgumentCaptor.forClass(IdempotencyRecord.class);
+		save(newService(), key, request);
+		verify(idempotencyRecordRepository, atLeastOnce()).saveAndFlush(captor.capture());
+		executions.set(0);
+		clearInvocations(idempotencyRecordRepository);
+		return captor.getValue();
+	}
+
+	@Test
+	@DisplayName("Should run the action without touching the store when no key is sent")
+	void testExecute_NoKey() {
+		// When
+		OrderDto result = save(newService(), null, request);
+
+		// Then
+		assertSame(created, result);
+		assertEquals(1, executions.get());
+		verifyNoInteractions(idempotencyRecordRepository);
+	}
+
+	@Test
+	@DisplayName("Should store the response of the first request with a key")
+	void testExecute_FirstRequest() {
+		// Given
+		when(idempotencyRecordRepository.findById("orders:key-1")).thenReturn(Optional.empty());
+
+		// When
+		OrderDto result = save(newService(), "key-1", request);
+
+		// Then
+		assertSame(created, result);
+		assertEquals(1, executions.get());
+		verify(idempotencyRecordRepository, times(1)).saveAndFlush(argThat((IdempotencyRecord r) ->
+				r.getIdempotencyKey().equals("orders:key-1")
+						&& r.getRequestHash().length() == 64
+						&& r.getResponseBody().contains("\"orderId\":42")
+						&& r.getExpiresAt().isAfter(r.getCreatedAt())));
+		assertEquals(1.0, meterRegistry.counter("idempotency_requests_total", "outcome", "executed").count());
+	}
+
+	@Test
+	@DisplayName("Should answer a retry on the same instance from memory")
+	void testExecute_HotReplay() {
+		// Given
+		when(idempotencyRecordRepository.findById("orders:key-1")).thenReturn(Optional.empty());
+		IdempotencyServiceImpl service = newService();
+		save(service, "key-1", request);
+
+		// When
+		OrderDto result = save(service, "key-1", request);
+
+		// Then
+		assertEquals(42, result.getOrderId());
+		assertEquals(1, executions.get());
+		verify(idempotencyRecordRepository, times(1)).findById("orders:key-1");
+		assertEquals(1.0, meterRegistry.counter("idempotency_requests_total", "outcome", "replayed_hot").count());
+	}
+
+	@Test
+	@DisplayName("Should answer a retry on another instance from the table")
+	void testExecute_DbReplay() {
+		// Given
+		when(idempotencyRecordRepository.findById("orders:key-1")).thenReturn(Optional.empty());
+		IdempotencyRecord stored = storedRecord("key-1");
+		when(idempotencyRecordRepository.findById("orders:key-1")).thenReturn(Optional.of(stored));
+
+		// When
+		OrderDto result = save(newService(), "key-1", request);
+
+		// Then
+		assertEquals(42, result.getOrderId());
+		assertEquals(OrderStatus.CREATED, result.getOrderStatus());
+		assertEquals(0, executions.get());
+		verify(idempotencyRecordRepository, never()).saveAndFlush(any(IdempotencyRecord.class));
+	}
+
+	@Test
+	@DisplayName("Should run again once the stored response has expired")
+	void testExecute_Expired() {
+		// Given
+		when(idempotencyRecordRepository.findById("orders:key-1")).thenReturn(Optional.empty());
+		IdempotencyRecord stored = storedRecord("key-1");
+		stored.setExpiresAt(Instant.now().minusSeconds(1));
+		when(idempotencyRecordRepository.findById("orders:key-1")).thenReturn(Optional.of(stored));
+
+		// When
+		save(newService(), "key-1", request);
+
+		// Then
+		assertEquals(1, executions.get());
+		verify(idempotencyRecordRepository, times(1)).deleteExpired(eq("orders:key-1"), any(Instant.class));
+		verify(idempotencyRecordRepository, times(1)).saveAndFlush(any(IdempotencyRecord.class));
+	}
+
+	@Test
+	@DisplayName("Should reject a key reused with a different request")
+	void testExecute_DifferentRequest() {
+		// Given
+		when(idempotencyRecordRepository.findById("orders:key-1")).thenReturn(Optional.empty());
+		IdempotencyServiceImpl service = newService();
+		save(service, "key-1", request);
+		OrderDto otherRequest = OrderDto.builder()
+				.orderDesc("Other Order")
+				.orderFee(5.0)
+				.build();
+
+		// When & Then
+		assertThrows(IdempotencyKeyConflictException.class, () -> save(service, "key-1", otherRequest));
+		assertEquals(1, executions.get());
+	}
+
+	@Test
+	@DisplayName("Should keep keys of different scopes apart")
+	void testExecute_Scopes() {
+		// Given
+		when(idempotencyRecordRepository.findById(anyString())).thenReturn(Optional.empty());
+		IdempotencyServiceImpl service = newService();
+		save(service, "key-1", request);
+
+		// When
+		service.execute(IdempotencyService.CARTS, "key-1", request, OrderDto.class, () -> {
+			executions.incrementAndGet();
+			return created;
+		});
+
+		// Then
+		assertEquals(2, executions.get());
+		verify(idempotencyRecordRepository, times(1)).findById("carts:key-1");
+	}
+
+	@Test
+	@DisplayName("Should collapse concurrent requests with the same key into one execution")
+	void testExecute_Concurrent() throws Exception {
+		// Given
+		when(idempotencyRecordRepository.findById("orders:key-1")).thenReturn(Optional.empty());
+		IdempotencyServiceImpl service = newService();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+
+		try {
+			// When
+			Future<OrderDto> first = executor.submit(() -> service.execute(IdempotencyService.ORDERS, "key-1", request,
+					OrderDto.class, () -> {
+						executions.incrementAndGet();
+						started.countDown();
+						await(release);
+						return created;
+					}));
+			assertTrue(started.await(5, TimeUnit.SECONDS));
+			Future<OrderDto> second = executor.submit(() -> save(service, "key-1", request));
+			Future<OrderDto> third = executor.submit(() -> save(service, "key-1", request));
+			Thread.sleep(100);
+			release.countDown();
+
+			// Then
+			assertEquals(42, first.get(5, TimeUnit.SECONDS).getOrderId());
+			assertEquals(42, second.get(5, TimeUnit.SECONDS).getOrderId());
+			assertEquals(42, third.get(5, TimeUnit.SECONDS).getOrderId());
+			assertEquals(1, executions.get());
+			verify(idempotencyRecordRepository, times(1)).saveAndFlush(any(IdempotencyRecord.class));
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	@DisplayName("Should replay the response of another instance that claimed the key first")
+	void testExecute_LostRace() {
+		// Given
+		when(idempotencyRecordRepository.findById("orders:key-1")).thenReturn(Optional.empty());
+		IdempotencyRecord winner = storedRecord("key-1");
+		when(idempotencyRecordRepository.findById("orders:key-1"))
+				.thenReturn(Optional.empty())
+				.thenReturn(Optional.of(winner));
+		when(idempotencyRecordRepository.saveAndFlush(any(IdempotencyRecord.class)))
+				.thenThrow(new DataIntegrityViolationException("Duplicate entry"));
+
+		// When
+		OrderDto result = save(newService(), "key-1", request);
+
+		// Then
+		assertEquals(42, result.getOrderId());
+		verify(transactionManager, times(1)).rollback(any());
+	}
+
+	@Test
+	@DisplayName("Should store nothing when the action fails")
+	void testExecute_ActionFails() {
+		// Given
+		when(idempotencyRecordRepository.findById("orders:key-1")).thenReturn(Optional.empty());
+		IdempotencyServiceImpl service = newService();
+
+		// When
+		assertThrows(CartNotFoundException.class, () -> service.execute(IdempotencyService.ORDERS, "key-1", request,
+				OrderDto.class, () -> {
+					throw new CartNotFoundException("Cart not found");
+				}));
+		OrderDto result = save(service, "key-1", request);
+
+		// Then
+		assertSame(created, result);
+		assertEquals(1, executions.get());
+		verify(idempotencyRecordRepository, times(1)).saveAndFlush(any(IdempotencyRecord.class));
+	}
+
+	@Test
+	@DisplayName("Should roll the action back when its response is too large to store")
+	void testExecute_ResponseTooLarge() {
+		// Given
+		when(idempotencyRecordRepository.findById("orders:key-1")).thenReturn(Optional.empty());
+		OrderDto large = OrderDto.builder()
+				.orderId(42)
+				.orderDesc("d".repeat(IdempotencyServiceImpl.MAX_RESPONSE_LENGTH))
+				.build();
+
+		// When
+		assertThrows(InvalidIdempotencyKeyException.class, () -> newService().execute(IdempotencyService.ORDERS,
+				"key-1", request, OrderDto.class, () -> {
+					executions.incrementAndGet();
+					return large;
+				}));
+
+		// Then
+		assertEquals(1, executions.get());
+		verify(idempotencyRecordRepository, never()).saveAndFlush(any(IdempotencyRecord.class));
+		verify(transactionManager, times(1)).rollback(any());
+	}
+
+	@Test
+	@DisplayName("Should reject blank or oversized keys")
+	void testExecute_InvalidKey() {
+		// Given
+		IdempotencyServiceImpl service = newService();
+
+		// When & Then
+		assertThrows(InvalidIdempotencyKeyException.class, () -> save(service, " ", request));
+		assertThrows(InvalidIdempotencyKeyException.class,
+				() -> save(service, "k".repeat(IdempotencyServiceImpl.MAX_KEY_LENGTH + 1), request));
+		assertEquals(0, executions.get());
+		verifyNoInteractions(idempotencyRecordRepository);
+	}
+
+	private static void await(final CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -0,0 +1,74 @@
+package com.selimhorri.app.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.selimhorri.app.domain.enums.OrderStatus;
+import com.selimhorri.app.domain.projection.OrderView;
+import com.selimhorri.app.repository.OrderRepository;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OrderExportServiceImpl Tests")
+class OrderExportServiceImplTest {
+
+	@Mock
+	private OrderRepository orderRepository;
+
+	private OrderExportServiceImpl orderExportService;
+
+	@BeforeEach
+	void setUp() {
+		// Pretty printing on, to check each order still lands on a single line
+		orderExportService = new OrderExportServiceImpl(orderRepository,
+				new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT), 2);
+	}
+
+	@Test
+	@DisplayName("Should write one JSON document per line with the configured fetch size")
+	@SuppressWarnings("unchecked")
+	void testExportActiveOrders() {
+		// Given
+		LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+		when(orderRepository.scrollActiveViews(eq(OrderStatus.ORDERED), eq(from), isNull(), eq(2), any()))
+				.thenAnswer(invocation -> {
+					Consumer<OrderView> action = invocation.getArgument(4);
+					for (int i = 1; i <= 3; i++)
+						action.accept(OrderView.builder()
+								.orderId(i)
+								.orderDate(from.plusDays(i))
+								.orderFee(10.0 * i)
+								.status(OrderStatus.ORDERED)
+								.cartId(i)
+								.version(0L)
+								.build());
+					return 3L;
+				});
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+		// When
+		long exported = orderExportService.exportActiveOrders(OrderStatus.ORDERED, from, null, outputStream);
+
+		// Then
+		String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+		assertEquals(3L, exported);
+		assertEquals(3, lines.length);
+		assertTrue(lines[0].startsWith("{\"orderId\":1,"));
+		assertTrue(lines[2].contains("\"cart\":{\"cartId\":3"));
+	}
+
+}
@@ -0,0 +1,348 @@
+package com.selimhorri.app.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.selimhorri.app.domain.OrderRollup;
+import com.selimhorri.app.domain.OrderRollupId;
+import com.selimhorri.app.domain.enums.OrderStatus;
+import com.selimhorri.app.domain.enums.RollupGranularity;
+import com.selimhorri.app.domain.projection.OrderView;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.OrderStatisticsDto;
+import com.selimhorri.app.repository.OrderRepository;
+import com.selimhorri.app.repository.OrderRollupRepository;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OrderRollupServiceImpl Tests")
+class OrderRollupServiceImplTest {
+
+	private static final LocalDateTime ORDER_DATE = LocalDateTime.of(2024, 3, 5, 14, 27, 10);
+	private static final LocalDateTime HOUR = LocalDateTime.of(2024, 3, 5, 14, 0);
+	private static final LocalDateTime DAY = LocalDateTime.of(2024, 3, 5, 0, 0);
+
+	@Mock
+	private OrderRollupRepository orderRollupRepository;
+
+	@Mock
+	private OrderRepository orderRepository;
+
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	private OrderRollupServiceImpl orderRollupService;
+
+	private OrderDto orderDto;
+
+	@BeforeEach
+	void setUp() {
+		orderRollupService = new OrderRollupServiceImpl(orderRollupRepository, orderRepository, transactionManager, 500);
+
+		orderDto = OrderDto.builder()
+				.orderId(1)
+				.orderDate(ORDER_DATE)
+				.orderFee(100.0)
+				.orderStatus(OrderStatus.CREATED)
+				.build();
+	}
+
+	@Test
+	@DisplayName("Should add created orders to their hour and day buckets in one increment each")
+	void testRecordCreated() {
+		// Given
+		OrderDto sameHour = OrderDto.builder()
+				.orderId(2)
+				.orderDate(ORDER_DATE.plusMinutes(10))
+				.orderFee(50.0)
+				.orderStatus(OrderStatus.CREATED)
+				.build();
+		when(orderRollupRepository.existsById(any(OrderRollupId.class))).thenReturn(true);
+		when(orderRollupRepository.increment(any(), any(), any(), anyLong(), anyDouble())).thenReturn(1);
+
+		// When
+		orderRollupService.recordCreated(List.of(orderDto, sameHour));
+
+		// Then
+		verify(orderRollupRepository, times(1)).increment(RollupGranularity.HOUR, HOUR, OrderStatus.CREATED, 2L, 150.0);
+		verify(orderRollupRepository, times(1)).increment(RollupGranularity.DAY, DAY, OrderStatus.CREATED, 2L, 150.0);
+		verify(orderRollupRepository, never()).saveAndFlush(any(OrderRollup.class));
+	}
+
+	@Test
+	@DisplayName("Should create a missing bucket in its own transaction before incrementing it")
+	void testRecordCreated_NewBucket() {
+		// Given
+		when(orderRollupRepository.existsById(any(OrderRollupId.class))).thenReturn(false);
+		when(orderRollupRepository.increment(any(), any(), any(), anyLong(), anyDouble())).thenReturn(1);
+
+		// When
+		orderRollupService.recordCreated(List.of(orderDto));
+
+		// Then
+		verify(orderRollupRepository, times(2)).saveAndFlush(argThat((OrderRollup r) ->
+				r.getOrderCount() == 0L && r.getFeeSum() == 0.0));
+		verify(transactionManager, times(2)).commit(any());
+		verify(orderRollupRepository, times(1)).increment(RollupGranularity.HOUR, HOUR, OrderStatus.CREATED, 1L, 100.0);
+	}
+
+	@Test
+	@DisplayName("Should increment a bucket another transaction created first")
+	void testRecordCreated_BucketCreatedConcurrently() {
+		// Given
+		when(orderRollupRepository.existsById(any(OrderRollupId.class))).thenReturn(false);
+		when(orderRollupRepository.saveAndFlush(any(OrderRollup.class)))
+				.thenThrow(new DataIntegrityViolationException("Duplicate entry"));
+		when(orderRollupRepository.increment(any(), any(), any(), anyLong(), anyDouble())).thenReturn(1);
+
+		// When
+		orderRollupService.recordCreated(List.of(orderDto));
+
+		// Then
+		verify(orderRollupRepository, times(1)).increment(RollupGranularity.HOUR, HOUR, OrderStatus.CREATED, 1L, 100.0);
+		verify(orderRollupRepository, times(1)).increment(RollupGranularity.DAY, DAY, OrderStatus.CREATED, 1L, 100.0);
+	}
+
+	@Test
+	@DisplayName("Should insert the change itself when a rebuild removed the bucket after the check")
+	void testRecordCreated_BucketRemovedByRebuild() {
+		// Given
+		when(orderRollupRepository.existsById(any(OrderRollupId.class))).thenReturn(true);
+		when(orderRollupRepository.increment(any(), any(), any(), anyLong(), anyDouble())).thenReturn(0);
+
+		// When
+		orderRollupService.recordCreated(List.of(orderDto));
+
+		// Then
+		verify(orderRollupRepository, times(2)).saveAndFlush(argThat((OrderRollup r) ->
+				r.getOrderCount() == 1L && r.getFeeSum() == 100.0));
+	}
+
+	@Test
+	@DisplayName("Should move a transitioned order between status buckets in lock order")
+	void testRecordChanged_Transition() {
+		// Given
+		OrderDto after = OrderDto.builder()
+				.orderId(1)
+				.orderDate(ORDER_DATE)
+				.orderFee(100.0)
+				.orderStatus(OrderStatus.ORDERED)
+				.build();
+		when(orderRollupRepository.existsById(any(OrderRollupId.class))).thenReturn(true);
+		when(orderRollupRepository.increment(any(), any(), any(), anyLong(), anyDouble())).thenReturn(1);
+
+		// When
+		orderRollupService.recordChanged(orderDto, after);
+
+		// Then
+		InOrder inOrder = inOrder(orderRollupRepository);
+		inOrder.verify(orderRollupRepository).increment(RollupGranularity.HOUR, HOUR, OrderStatus.CREATED, -1L, -100.0);
+		inOrder.verify(orderRollupRepository).increment(RollupGranularity.HOUR, HOUR, OrderStatus.ORDERED, 1L, 100.0);
+		inOrder.verify(orderRollupRepository).increment(RollupGranularity.DAY, DAY, OrderStatus.CREATED, -1L, -100.0);
+		inOrder.verify(orderRollupRepository).increment(RollupGranularity.DAY, DAY, OrderStatus.ORDERED, 1L, 100.0);
+	}
+
+	@Test
+	@DisplayName("Should only move the fee difference when an update changes the fee")
+	void testRecordChanged_FeeOnly() {
+		// Given
+		OrderDto after = OrderDto.builder()
+				.orderId(1)
+				.orderDate(ORDER_DATE)
+				.orderFee(130.0)
+				.orderStatus(OrderStatus.CREATED)
+				.build();
+		when(orderRollupRepository.existsById(any(OrderRollupId.class))).thenReturn(true);
+		when(orderRollupRepository.increment(any(), any(), any(), anyLong(), anyDouble())).thenReturn(1);
+
+		// When
+		orderRollupService.recordChanged(orderDto, after);
+
+		// Then
+		verify(orderRollupRepository, times(1)).increment(RollupGranularity.HOUR, HOUR, OrderStatus.CREATED, 0L, 30.0);
+		verify(orderRollupRepository, times(1)).increment(RollupGranularity.DAY, DAY, OrderStatus.CREATED, 0L, 30.0);
+	}
+
+	@Test
+	@DisplayName("Should move a whole batch of transitions with one increment per bucket")
+	void testRecordChanged_Batch() {
+		// Given
+		OrderDto other = OrderDto.builder()
+				.orderId(2)
+				.orderDate(ORDER_DATE)
+				.orderFee(50.0)
+				.orderStatus(OrderStatus.CREATED)
+				.build();
+		List<OrderDto> after = List.of(orderDto, other).stream()
+				.map(o -> OrderDto.builder()
+						.orderId(o.getOrderId())
+						.orderDate(o.getOrderDate())
+						.orderFee(o.getOrderFee())
+						.orderStatus(OrderStatus.ORDERED)
+						.build())
+				.collect(Collectors.toList());
+		when(orderRollupRepository.existsById(any(OrderRollupId.class))).thenReturn(true);
+		when(orderRollupRepository.increment(any(), any(), any(), anyLong(), anyDouble())).thenReturn(1);
+
+		// When
+		orderRollupService.recordChanged(List.of(orderDto, other), after);
+
+		// Then
+		verify(orderRollupRepository, times(4)).increment(any(), any(), any(), anyLong(), anyDouble());
+		verify(orderRollupRepository, times(1)).increment(RollupGranularity.HOUR, HOUR, OrderStatus.CREATED, -2L, -150.0);
+		verify(orderRollupRepository, times(1)).increment(RollupGranularity.HOUR, HOUR, OrderStatus.ORDERED, 2L, 150.0);
+		verify(orderRollupRepository, times(1)).increment(RollupGranularity.DAY, DAY, OrderStatus.CREATED, -2L, -150.0);
+		verify(orderRollupRepository, times(1)).increment(RollupGranularity.DAY, DAY, OrderStatus.ORDERED, 2L, 150.0);
+	}
+
+	@Test
+	@DisplayName("Should not touch the buckets when an update leaves date, status and fee alone")
+	void testRecordChanged_NoChange() {
+		// Given
+		OrderDto after = OrderDto.builder()
+				.orderId(1)
+				.orderDate(ORDER_DATE)
+				.orderDesc("Renamed")
+				.orderFee(100.0)
+				.orderStatus(OrderStatus.CREATED)
+				.build();
+
+		// When
+		orderRollupService.recordChanged(orderDto, after);
+
+		// Then
+		verifyNoInteractions(orderRollupRepository);
+	}
+
+	@Test
+	@DisplayName("Should remove a deactivated order from its buckets")
+	void testRecordDeactivated() {
+		// Given
+		when(orderRollupRepository.existsById(any(OrderRollupId.class))).thenReturn(true);
+		when(orderRollupRepository.increment(any(), any(), any(), anyLong(), anyDouble())).thenReturn(1);
+
+		// When
+		orderRollupService.recordDeactivated(orderDto);
+
+		// Then
+		verify(orderRollupRepository, times(1)).increment(RollupGranularity.HOUR, HOUR, OrderStatus.CREATED, -1L, -100.0);
+		verify(orderRollupRepository, times(1)).increment(RollupGranularity.DAY, DAY, OrderStatus.CREATED, -1L, -100.0);
+	}
+
+	@Test
+	@DisplayName("Should remove a batch of deactivated orders with one delta per bucket")
+	void testRecordDeactivated_Batch() {
+		// Given
+		OrderDto other = OrderDto.builder()
+				.orderId(2)
+				.orderDate(ORDER_DATE)
+				.orderFee(50.0)
+				.orderStatus(OrderStatus.CREATED)
+				.build();
+		when(orderRollupRepository.existsById(any(OrderRollupId.class))).thenReturn(true);
+		when(orderRollupRepository.increment(any(), any(), any(), anyLong(), anyDouble())).thenReturn(1);
+
+		// When
+		orderRollupService.recordDeactivated(List.of(orderDto, other));
+
+		// Then
+		verify(orderRollupRepository, times(2)).increment(any(), any(), any(), anyLong(), anyDouble());
+		verify(orderRollupRepository, times(1)).increment(RollupGranularity.HOUR, HOUR, OrderStatus.CREATED, -2L, -150.0);
+		verify(orderRollupRepository, times(1)).increment(RollupGranularity.DAY, DAY, OrderStatus.CREATED, -2L, -150.0);
+	}
+
+	@Test
+	@DisplayName("Should rebuild every bucket from the active orders")
+	@SuppressWarnings("unchecked")
+	void testRebuild() {
+		// Given
+		List<OrderView> views = List.of(
+				new OrderView(1, ORDER_DATE, "A", 100.0, OrderStatus.CREATED, 1, 0L),
+				new OrderView(2, ORDER_DATE.plusHours(1), "B", 20.0, OrderStatus.CREATED, 1, 0L),
+				new OrderView(3, ORDER_DATE, "C", null, OrderStatus.ORDERED, 1, 0L));
+		when(orderRepository.scrollActiveViews(isNull(), isNull(), isNull(), eq(500), any())).thenAnswer(invocation -> {
+			Consumer<OrderView> action = invocation.getArgument(4);
+			views.forEach(action);
+			return (long) views.size();
+		});
+
+		// When
+		long result = orderRollupService.rebuild();
+
+		// Then
+		assertEquals(3L, result);
+		InOrder inOrder = inOrder(orderRollupRepository, orderRepository);
+		inOrder.verify(orderRollupRepository).deleteAllBuckets();
+		inOrder.verify(orderRepository).scrollActiveViews(isNull(), isNull(), isNull(), eq(500), any());
+		ArgumentCaptor<Collection<OrderRollup>> captor = ArgumentCaptor.forClass(Collection.class);
+		inOrder.verify(orderRollupRepository).saveAll(captor.capture());
+		Collection<OrderRollup> rollups = captor.getValue();
+		// Two hour buckets plus one day bucket for CREATED, one of each for ORDERED
+		assertEquals(5, rollups.size());
+		OrderRollup createdDay = rollups.stream()
+				.filter(r -> r.getId().equals(new OrderRollupId(RollupGranularity.DAY, DAY, OrderStatus.CREATED)))
+				.findFirst()
+				.orElseThrow();
+		assertEquals(2L, createdDay.getOrderCount());
+		assertEquals(120.0, createdDay.getFeeSum());
+	}
+
+	@Test
+	@DisplayName("Should read the buckets of the requested window and status")
+	void testFindStatistics() {
+		// Given
+		LocalDateTime from = DAY.minusDays(7);
+		LocalDateTime to = DAY.plusDays(1);
+		when(orderRollupRepository.findBuckets(RollupGranularity.DAY, from, to)).thenReturn(List.of(
+				new OrderRollup(new OrderRollupId(RollupGranularity.DAY, DAY, OrderStatus.CREATED), 4L, 400.0),
+				new OrderRollup(new OrderRollupId(RollupGranularity.DAY, DAY, OrderStatus.ORDERED), 1L, 10.0)));
+
+		// When
+		List<OrderStatisticsDto> result = orderRollupService.findStatistics(RollupGranularity.DAY,
+				OrderStatus.CREATED, from, to);
+
+		// Then
+		assertEquals(1, result.size());
+		assertEquals(DAY, result.get(0).getBucketStart());
+		assertEquals(4L, result.get(0).getOrderCount());
+		assertEquals(400.0, result.get(0).getFeeSum());
+		verifyNoInteractions(orderRepository);
+	}
+
+	@Test
+	@DisplayName("Should default to the latest buckets when no window is given")
+	void testFindStatistics_DefaultWindow() {
+		// Given
+		LocalDateTime now = LocalDateTime.now();
+		when(orderRollupRepository.findBuckets(any(), any(), any())).thenReturn(List.of());
+
+		// When
+		orderRollupService.findStatistics(RollupGranularity.HOUR, null, null, null);
+
+		// Then
+		ArgumentCaptor<LocalDateTime> from = ArgumentCaptor.forClass(LocalDateTime.class);
+		ArgumentCaptor<LocalDateTime> to = ArgumentCaptor.forClass(LocalDateTime.class);
+		verify(orderRollupRepository, times(1)).findBuckets(eq(RollupGranularity.HOUR), from.capture(), to.capture());
+		assertTrue(to.getValue().isAfter(now));
+		assertEquals(0, to.getValue().getMinute());
+		assertEquals(to.getValue().minusHours(RollupGranularity.HOUR.getDefaultBuckets()), from.getValue());
+	}
+
+}
@@ -4,29 +4,56 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
+import com.selimhorri.app.constant.AppConstant;
 import com.selimhorri.app.domain.Cart;
 import com.selimhorri.app.domain.Order;
+import com.selimhorri.app.domain.enums.OrderEventType;
+import com.selimhorri.app.domain.enums.OrderField;
 import com.selimhorri.app.domain.enums.OrderStatus;
+import com.selimhorri.app.domain.projection.OrderView;
+import com.selimhorri.app.domain.projection.VersionView;
 import com.selimhorri.app.dto.CartDto;
+import com.selimhorri.app.dto.OrderCreationResultDto;
 import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.OrderSearchDto;
+import com.selimhorri.app.dto.OrderStatusTransitionResultDto;
+import com.selimhorri.app.dto.response.collection.DtoCursorPageResponse;
+import com.selimhorri.app.dto.response.collection.DtoPageResponse;
+import com.selimhorri.app.exception.wrapper.BatchSizeExceededException;
 import com.selimhorri.app.exception.wrapper.CartNotFoundException;
+import com.selimhorri.app.exception.wrapper.InvalidCursorException;
+import com.selimhorri.app.exception.wrapper.InvalidFieldsException;
 import com.selimhorri.app.exception.wrapper.OrderNotFoundException;
+import com.selimhorri.app.exception.wrapper.OrderStatusConflictException;
 import com.selimhorri.app.repository.CartRepository;
+import com.selimhorri.app.helper.CursorHelper;
 import com.selimhorri.app.repository.OrderRepository;
+import com.selimhorri.app.service.OrderEventService;
+import com.selimhorri.app.service.OrderRollupService;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("OrderServiceImpl Tests")
@@ -38,6 +65,12 @@ class OrderServiceImplTest {
 	@Mock
 	private CartRepository cartRepository;
 
+	@Mock
+	private OrderEventService orderEventService;
+
+	@Mock
+	private OrderRollupService orderRollupService;
+
 	private SimpleMeterRegistry meterRegistry;
 
 	private OrderServiceImpl orderService;
@@ -53,7 +86,7 @@ class OrderServiceImplTest {
 		meterRegistry = new SimpleMeterRegistry();
 		
 		// Create the service manually to inject the meterRegistry
-		orderService = new OrderServiceImpl(orderRepository, cartRepository, meterRegistry);
+		orderService = new OrderServiceImpl(orderRepository, cartRepository, orderEventService, orderRollupService, meterRegistry);
 		
 		// Trigger @PostConstruct manually
 		orderService.initMetric();
@@ -93,8 +126,7 @@ class OrderServiceImplTest {
 	@DisplayName("Should find all active orders")
 	void testFindAll() {
 		// Given
-		List<Order> orders = Arrays.asList(order);
-		when(orderRepository.findAllByIsActiveTrue()).thenReturn(orders);
+		when(orderRepository.findAllActiveViews()).thenReturn(Arrays.asList(orderView(1)));
 
 		// When
 		List<OrderDto> result = orderService.findAll();
@@ -102,7 +134,68 @@ class OrderServiceImplTest {
 		// Then
 		assertNotNull(result);
 		assertFalse(result.isEmpty());
-		verify(orderRepository, times(1)).findAllByIsActiveTrue();
+		assertEquals(Integer.valueOf(1), result.get(0).getCartDto().getCartId());
+		verify(orderRepository, times(1)).findAllActiveViews();
+		verify(orderRepository, never()).findAllByIsActiveTrue();
+	}
+
+	@Test
+	@DisplayName("Should return a keyset page with a next cursor when more orders exist")
+	void testFindPage_HasNext() {
+		// Given
+		when(orderRepository.findActiveViewsAfter(0, PageRequest.of(0, 2)))
+				.thenReturn(Arrays.asList(orderView(1), orderView(2)));
+
+		// When
+		DtoCursorPageResponse<OrderDto> result = orderService.findPage(null, 1);
+
+		// Then
+		assertEquals(1, result.getSize());
+		assertEquals(Integer.valueOf(1), result.getCollection().iterator().next().getOrderId());
+		assertEquals(Integer.valueOf(1), CursorHelper.decode(result.getNextCursor()));
+	}
+
+	@Test
+	@DisplayName("Should resume after the cursor and omit the next cursor on the last page")
+	void testFindPage_LastPage() {
+		// Given
+		when(orderRepository.findActiveViewsAfter(eq(1), any(PageRequest.class)))
+				.thenReturn(Arrays.asList());
+
+		// When
+		DtoCursorPageResponse<OrderDto> result = orderService.findPage(CursorHelper.encode(1), null);
+
+		// Then
+		assertTrue(result.getCollection().isEmpty());
+		assertNull(result.getNextCursor());
+	}
+
+	@Test
+	@DisplayName("Should page orders reading only the requested fields")
+	void testFindPage_Fields() {
+		// Given
+		Set<OrderField> fields = EnumSet.of(OrderField.ORDER_ID, OrderField.ORDER_STATUS);
+		when(orderRepository.findActiveFieldsAfter(fields, 0, 2)).thenReturn(List.of(
+				OrderView.builder().orderId(1).status(OrderStatus.CREATED).build(),
+				OrderView.builder().orderId(2).status(OrderStatus.ORDERED).build()));
+
+		// When
+		DtoCursorPageResponse<OrderDto> result = orderService.findPage(null, 1, fields);
+
+		// Then
+		OrderDto first = result.getCollection().iterator().next();
+		assertEquals(1, result.getSize());
+		assertEquals(OrderStatus.CREATED, first.getOrderStatus());
+		assertNull(first.getOrderDesc());
+		assertEquals(Integer.valueOf(1), CursorHelper.decode(result.getNextCursor()));
+		verify(orderRepository, never()).findActiveViewsAfter(anyInt(), any(PageRequest.class));
+	}
+
+	@Test
+	@DisplayName("Should reject a malformed cursor")
+	void testFindPage_InvalidCursor() {
+		assertThrows(InvalidCursorException.class, () -> orderService.findPage("not-a-cursor", 10));
+		verify(orderRepository, never()).findActiveViewsAfter(anyInt(), any(PageRequest.class));
 	}
 
 	@Test
@@ -110,7 +203,7 @@ class OrderServiceImplTest {
 	void testFindById_Success() {
 		// Given
 		Integer orderId = 1;
-		when(orderRepository.findByOrderIdAndIsActiveTrue(orderId)).thenReturn(Optional.of(order));
+		when(orderRepository.findActiveViewById(orderId)).thenReturn(Optional.of(orderView(orderId)));
 
 		// When
 		OrderDto result = orderService.findById(orderId);
@@ -118,7 +211,29 @@ class OrderServiceImplTest {
 		// Then
 		assertNotNull(result);
 		assertEquals(orderId, result.getOrderId());
-		verify(orderRepository, times(1)).findByOrderIdAndIsActiveTrue(orderId);
+		verify(orderRepository, times(1)).findActiveViewById(orderId);
+		verify(orderRepository, never()).findByOrderIdAndIsActiveTrue(anyInt());
+	}
+
+	@Test
+	@DisplayName("Should leave the cart out of an order whose cart was deleted")
+	void testFindById_WithoutCart() {
+		// Given
+		Integer orderId = 1;
+		when(orderRepository.findActiveViewById(orderId)).thenReturn(Optional.of(OrderView.builder()
+				.orderId(orderId)
+				.orderDate(LocalDateTime.now())
+				.orderFee(100.0)
+				.status(OrderStatus.CREATED)
+				.version(0L)
+				.build()));
+
+		// When
+		OrderDto result = orderService.findById(orderId);
+
+		// Then
+		assertEquals(orderId, result.getOrderId());
+		assertNull(result.getCartDto());
 	}
 
 	@Test
@@ -126,11 +241,84 @@ class OrderServiceImplTest {
 	void testFindById_NotFound() {
 		// Given
 		Integer orderId = 999;
-		when(orderRepository.findByOrderIdAndIsActiveTrue(orderId)).thenReturn(Optional.empty());
+		when(orderRepository.findActiveViewById(orderId)).thenReturn(Optional.empty());
 
 		// When & Then
 		assertThrows(OrderNotFoundException.class, () -> orderService.findById(orderId));
-		verify(orderRepository, times(1)).findByOrderIdAndIsActiveTrue(orderId);
+		verify(orderRepository, times(1)).findActiveViewById(orderId);
+	}
+
+	@Test
+	@DisplayName("Should search one page past the requested offset to know whether another exists")
+	void testSearch_HasNext() {
+		// Given
+		OrderSearchDto criteria = OrderSearchDto.builder()
+				.status(OrderStatus.CREATED)
+				.minFee(50.0)
+				.build();
+		Sort sort = Sort.by(Sort.Direction.DESC, "orderFee");
+		when(orderRepository.searchActiveViews(criteria, sort, 4, 3))
+				.thenReturn(Arrays.asList(orderView(5), orderView(6), orderView(7)));
+
+		// When
+		DtoPageResponse<OrderDto> result = orderService.search(criteria, PageRequest.of(2, 2, sort));
+
+		// Then
+		assertEquals(2, result.getSize());
+		assertEquals(2, result.getPage());
+		assertTrue(result.isHasNext());
+		assertEquals(Integer.valueOf(5), result.getCollection().iterator().next().getOrderId());
+	}
+
+	@Test
+	@DisplayName("Should cap the search page size")
+	void testSearch_PageSizeCapped() {
+		// Given
+		when(orderRepository.searchActiveViews(any(OrderSearchDto.class), any(Sort.class), eq(0),
+				eq(AppConstant.PAGE_MAX_SIZE + 1))).thenReturn(List.of());
+
+		// When
+		DtoPageResponse<OrderDto> result = orderService.search(new OrderSearchDto(),
+				PageRequest.of(0, AppConstant.PAGE_MAX_SIZE * 2));
+
+		// Then
+		assertEquals(0, result.getSize());
+		assertFalse(result.isHasNext());
+	}
+
+	@Test
+	@DisplayName("Should reject sorting the search by a property without an index")
+	void testSearch_UnsortableProperty() {
+		// When & Then
+		assertThrows(InvalidFieldsException.class, () -> orderService.search(new OrderSearchDto(),
+				PageRequest.of(0, 10, Sort.by("orderDesc"))));
+		verifyNoInteractions(orderRepository);
+	}
+
+	@Test
+	@DisplayName("Should build the order ETag from id, update time and version only")
+	void testFindEtag_Success() {
+		// Given
+		when(orderRepository.findActiveVersionById(1))
+				.thenReturn(Optional.of(new VersionView(1, Instant.ofEpochMilli(1700000000000L), 3L)));
+
+		// When
+		String etag = orderService.findEtag(1);
+
+		// Then
+		assertEquals("\"1-1700000000000-3\"", etag);
+		verify(orderRepository, never()).findActiveViewById(anyInt());
+		verify(orderRepository, never()).findByOrderIdAndIsActiveTrue(anyInt());
+	}
+
+	@Test
+	@DisplayName("Should throw OrderNotFoundException for the ETag of a missing order")
+	void testFindEtag_NotFound() {
+		// Given
+		when(orderRepository.findActiveVersionById(999)).thenReturn(Optional.empty());
+
+		// When & Then
+		assertThrows(OrderNotFoundException.class, () -> orderService.findEtag(999));
 	}
 
 	@Test
@@ -154,6 +342,8 @@ class OrderServiceImplTest {
 		assertNotNull(result);
 		verify(cartRepository, times(1)).findById(cartDto.getCartId());
 		verify(orderRepository, times(1)).save(any(Order.class));
+		verify(orderEventService, times(1)).record(eq(OrderEventType.ORDER_CREATED), any(OrderDto.class));
+		verify(orderRollupService, times(1)).recordCreated(List.of(result));
 	}
 
 	@Test
@@ -180,26 +370,75 @@ class OrderServiceImplTest {
 		verify(orderRepository, never()).save(any(Order.class));
 	}
 
+	@Test
+	@DisplayName("Should create valid orders in one batch and report rejected ones by index")
+	void testSaveAll_MixedResults() {
+		// Given
+		OrderDto missingCart = OrderDto.builder()
+				.orderFee(10.0)
+				.cartDto(CartDto.builder().cartId(99).build())
+				.build();
+		OrderDto noCart = OrderDto.builder().orderFee(20.0).build();
+		when(cartRepository.findExistingCartIds(Set.of(1, 99))).thenReturn(Set.of(1));
+		when(orderRepository.saveAll(anyList())).thenAnswer(invocation -> {
+			List<Order> orders = invocation.getArgument(0);
+			orders.forEach(o -> o.setOrderId(10));
+			return orders;
+		});
+
+		// When
+		List<OrderCreationResultDto> result = orderService.saveAll(Arrays.asList(missingCart, orderDto, noCart));
+
+		// Then
+		assertEquals(3, result.size());
+		assertFalse(result.get(0).isCreated());
+		assertEquals("Cart not found with ID: 99", result.get(0).getError());
+		assertTrue(result.get(1).isCreated());
+		assertEquals(1, result.get(1).getIndex());
+		assertEquals(Integer.valueOf(10), result.get(1).getOrderDto().getOrderId());
+		assertFalse(result.get(2).isCreated());
+		verify(cartRepository, times(1)).findExistingCartIds(anyCollection());
+		verify(orderRepository, times(1)).saveAll(anyList());
+		verify(orderEventService, times(1)).recordAll(eq(OrderEventType.ORDER_CREATED),
+				argThat(orderDtos -> orderDtos.size() == 1));
+		assertEquals(1.0, meterRegistry.counter("orders_created_total", "service", "order").count());
+	}
+
+	@Test
+	@DisplayName("Should reject a bulk request above the maximum batch size")
+	void testSaveAll_TooLarge() {
+		// Given
+		List<OrderDto> orderDtos = new ArrayList<>(Collections.nCopies(AppConstant.BULK_MAX_SIZE + 1, orderDto));
+
+		// When & Then
+		assertThrows(BatchSizeExceededException.class, () -> orderService.saveAll(orderDtos));
+		verify(orderRepository, never()).saveAll(anyList());
+	}
+
 	@Test
 	@DisplayName("Should update order status from CREATED to ORDERED")
 	void testUpdateStatus_CreatedToOrdered() {
 		// Given
 		Integer orderId = 1;
-		order.setStatus(OrderStatus.CREATED);
-		when(orderRepository.findByOrderIdAndIsActiveTrue(orderId)).thenReturn(Optional.of(order));
-		when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
-			Order savedOrder = invocation.getArgument(0);
-			savedOrder.setStatus(OrderStatus.ORDERED);
-			return savedOrder;
-		});
+		when(orderRepository.advanceStatus(eq(orderId), isNull(), any(Instant.class))).thenReturn(1);
+		when(orderRepository.findActiveViewById(orderId)).thenReturn(Optional.of(view(orderId, OrderStatus.ORDERED, 1L)));
 
 		// When
 		OrderDto result = orderService.updateStatus(orderId);
 
 		// Then
 		assertNotNull(result);
-		verify(orderRepository, times(1)).findByOrderIdAndIsActiveTrue(orderId);
-		verify(orderRepository, times(1)).save(any(Order.class));
+		assertEquals(OrderStatus.ORDERED, result.getOrderStatus());
+		assertEquals(Long.valueOf(1), result.getVersion());
+		InOrder inOrder = inOrder(orderRepository);
+		inOrder.verify(orderRepository).advanceStatus(eq(orderId), isNull(), any(Instant.class));
+		inOrder.verify(orderRepository).findActiveViewById(orderId);
+		verify(orderRepository, never()).findByOrderIdAndIsActiveTrue(anyInt());
+		verify(orderRepository, never()).save(any(Order.class));
+		verify(orderEventService, times(1)).record(OrderEventType.ORDER_STATUS_CHANGED, result);
+		verify(orderRollupService, times(1)).recordChanged(
+				argThat(before -> before.getOrderStatus() == OrderStatus.CREATED && before.getVersion() == 0L),
+				eq(result));
 	}
 
 	@Test
@@ -207,21 +446,47 @@ class OrderServiceImplTest {
 	void testUpdateStatus_OrderedToInPayment() {
 		// Given
 		Integer orderId = 1;
-		order.setStatus(OrderStatus.ORDERED);
-		when(orderRepository.findByOrderIdAndIsActiveTrue(orderId)).thenReturn(Optional.of(order));
-		when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
-			Order savedOrder = invocation.getArgument(0);
-			savedOrder.setStatus(OrderStatus.IN_PAYMENT);
-			return savedOrder;
-		});
+		when(orderRepository.advanceStatus(eq(orderId), eq(OrderStatus.ORDERED), any(Instant.class))).thenReturn(1);
+		when(orderRepository.findActiveViewById(orderId)).thenReturn(Optional.of(view(orderId, OrderStatus.IN_PAYMENT, 1L)));
 
 		// When
-		OrderDto result = orderService.updateStatus(orderId);
+		OrderDto result = orderService.updateStatus(orderId, OrderStatus.ORDERED);
 
 		// Then
 		assertNotNull(result);
-		verify(orderRepository, times(1)).findByOrderIdAndIsActiveTrue(orderId);
-		verify(orderRepository, times(1)).save(any(Order.class));
+		assertEquals(OrderStatus.IN_PAYMENT, result.getOrderStatus());
+		verify(orderRepository, times(1)).findActiveViewById(orderId);
+		verify(orderRepository, never()).save(any(Order.class));
+		verify(orderRollupService, times(1)).recordChanged(
+				argThat(before -> before.getOrderStatus() == OrderStatus.ORDERED), eq(result));
+	}
+
+	@Test
+	@DisplayName("Should report a conflict when a concurrent transition already moved the order")
+	void testUpdateStatus_ConcurrentConflict() {
+		// Given
+		Integer orderId = 1;
+		when(orderRepository.advanceStatus(eq(orderId), isNull(), any(Instant.class))).thenReturn(0);
+		when(orderRepository.findActiveViewById(orderId)).thenReturn(Optional.of(view(orderId, OrderStatus.ORDERED, 1L)));
+
+		// When & Then
+		assertThrows(OrderStatusConflictException.class, () -> orderService.updateStatus(orderId));
+		verify(orderEventService, never()).record(any(), any());
+		verify(orderRollupService, never()).recordChanged(any(OrderDto.class), any(OrderDto.class));
+	}
+
+	@Test
+	@DisplayName("Should report a conflict when the order is not in the status the client expects")
+	void testUpdateStatus_UnexpectedStatus() {
+		// Given
+		Integer orderId = 1;
+		when(orderRepository.advanceStatus(eq(orderId), eq(OrderStatus.CREATED), any(Instant.class))).thenReturn(0);
+		when(orderRepository.findActiveViewById(orderId)).thenReturn(Optional.of(view(orderId, OrderStatus.ORDERED, 0L)));
+
+		// When & Then
+		assertThrows(OrderStatusConflictException.class,
+				() -> orderService.updateStatus(orderId, OrderStatus.CREATED));
+		verify(orderEventService, never()).record(any(), any());
 	}
 
 	@Test
@@ -229,13 +494,13 @@ class OrderServiceImplTest {
 	void testUpdateStatus_AlreadyInPayment() {
 		// Given
 		Integer orderId = 1;
-		order.setStatus(OrderStatus.IN_PAYMENT);
-		when(orderRepository.findByOrderIdAndIsActiveTrue(orderId)).thenReturn(Optional.of(order));
+		when(orderRepository.advanceStatus(eq(orderId), isNull(), any(Instant.class))).thenReturn(0);
+		when(orderRepository.findActiveViewById(orderId)).thenReturn(Optional.of(view(orderId, OrderStatus.IN_PAYMENT, 0L)));
 
 		// When & Then
 		assertThrows(IllegalStateException.class, () -> orderService.updateStatus(orderId));
-		verify(orderRepository, times(1)).findByOrderIdAndIsActiveTrue(orderId);
-		verify(orderRepository, never()).save(any(Order.class));
+		verify(orderRepository, times(1)).findActiveViewById(orderId);
+		verify(orderEventService, never()).record(any(), any());
 	}
 
 	@Test
@@ -243,14 +508,127 @@ class OrderServiceImplTest {
 	void testUpdateStatus_OrderNotFound() {
 		// Given
 		Integer orderId = 999;
-		when(orderRepository.findByOrderIdAndIsActiveTrue(orderId)).thenReturn(Optional.empty());
+		when(orderRepository.advanceStatus(eq(orderId), isNull(), any(Instant.class))).thenReturn(0);
+		when(orderRepository.findActiveViewById(orderId)).thenReturn(Optional.empty());
 
 		// When & Then
 		assertThrows(OrderNotFoundException.class, () -> orderService.updateStatus(orderId));
-		verify(orderRepository, times(1)).findByOrderIdAndIsActiveTrue(orderId);
+		verify(orderRepository, times(1)).findActiveViewById(orderId);
 		verify(orderRepository, never()).save(any(Order.class));
 	}
 
+	private OrderView view(final Integer orderId, final OrderStatus status, final Long version) {
+		return OrderView.builder()
+				.orderId(orderId)
+				.orderDate(LocalDateTime.now())
+				.orderDesc("Order " + orderId)
+				.orderFee(10.0 * orderId)
+				.status(status)
+				.cartId(1)
+				.version(version)
+				.build();
+	}
+
+	@Test
+	@DisplayName("Should move orders in bulk with one conditional UPDATE per current status")
+	void testUpdateStatuses_GroupedByStatus() {
+		// Given
+		List<Integer> orderIds = List.of(3, 1, 2);
+		when(orderRepository.findActiveViewsByIds(Set.of(1, 2, 3))).thenReturn(List.of(
+				view(1, OrderStatus.CREATED, 0L), view(2, OrderStatus.ORDERED, 3L), view(3, OrderStatus.CREATED, 1L)));
+		when(orderRepository.transitionStatuses(eq(List.of(1, 3)), eq(OrderStatus.CREATED), eq(OrderStatus.ORDERED),
+				any(Instant.class))).thenReturn(2);
+		when(orderRepository.transitionStatuses(eq(List.of(2)), eq(OrderStatus.ORDERED), eq(OrderStatus.IN_PAYMENT),
+				any(Instant.class))).thenReturn(1);
+
+		// When
+		List<OrderStatusTransitionResultDto> results = orderService.updateStatuses(orderIds, null);
+
+		// Then
+		assertEquals(List.of(3, 1, 2), results.stream().map(OrderStatusTransitionResultDto::getOrderId).collect(Collectors.toList()));
+		assertTrue(results.stream().allMatch(OrderStatusTransitionResultDto::isUpdated));
+		assertEquals(OrderStatus.ORDERED, results.get(0).getOrderDto().getOrderStatus());
+		assertEquals(OrderStatus.IN_PAYMENT, results.get(2).getOrderDto().getOrderStatus());
+		assertEquals(Long.valueOf(4), results.get(2).getOrderDto().getVersion());
+		verify(orderRepository, times(1)).lockActiveIds(Set.of(1, 2, 3));
+		verify(orderRepository, times(2)).transitionStatuses(anyCollection(), any(), any(), any());
+		verify(orderRepository, never()).findByOrderIdAndIsActiveTrue(anyInt());
+		verify(orderEventService, times(1)).recordAll(eq(OrderEventType.ORDER_STATUS_CHANGED),
+				argThat(events -> events.size() == 3));
+		verify(orderRollupService, times(1)).recordChanged(
+				argThat((List<OrderDto> before) -> before.stream().noneMatch(o -> o.getOrderStatus() == OrderStatus.IN_PAYMENT)),
+				argThat((List<OrderDto> after) -> after.stream().noneMatch(o -> o.getOrderStatus() == OrderStatus.CREATED)));
+	}
+
+	@Test
+	@DisplayName("Should report missing, final and null ids in bulk without failing the others")
+	void testUpdateStatuses_Rejected() {
+		// Given
+		List<Integer> orderIds = Arrays.asList(1, 3, 9, null);
+		when(orderRepository.findActiveViewsByIds(Set.of(1, 3, 9))).thenReturn(List.of(
+				view(1, OrderStatus.CREATED, 0L), view(3, OrderStatus.IN_PAYMENT, 2L)));
+		when(orderRepository.transitionStatuses(eq(List.of(1)), eq(OrderStatus.CREATED), eq(OrderStatus.ORDERED),
+				any(Instant.class))).thenReturn(1);
+
+		// When
+		List<OrderStatusTransitionResultDto> results = orderService.updateStatuses(orderIds, null);
+
+		// Then
+		assertEquals(4, results.size());
+		assertTrue(results.get(0).isUpdated());
+		assertFalse(results.get(1).isUpdated());
+		assertTrue(results.get(1).getError().contains("already IN_PAYMENT"));
+		assertNull(results.get(1).getOrderDto());
+		assertFalse(results.get(2).isUpdated());
+		assertTrue(results.get(2).getError().contains("not found"));
+		assertFalse(results.get(3).isUpdated());
+		assertNull(results.get(3).getOrderId());
+		verify(orderRepository, times(1)).transitionStatuses(anyCollection(), any(), any(), any());
+		verify(orderEventService, times(1)).recordAll(eq(OrderEventType.ORDER_STATUS_CHANGED),
+				argThat(events -> events.size() == 1));
+	}
+
+	@Test
+	@DisplayName("Should report a conflict per id when an order is not in the status the client expects")
+	void testUpdateStatuses_UnexpectedStatus() {
+		// Given
+		when(orderRepository.findActiveViewsByIds(Set.of(2))).thenReturn(List.of(view(2, OrderStatus.ORDERED, 0L)));
+
+		// When
+		List<OrderStatusTransitionResultDto> results = orderService.updateStatuses(List.of(2), OrderStatus.CREATED);
+
+		// Then
+		assertFalse(results.get(0).isUpdated());
+		assertEquals("Order with ID 2 is ORDERED, expected CREATED", results.get(0).getError());
+		verify(orderRepository, never()).transitionStatuses(anyCollection(), any(), any(), any());
+		verifyNoInteractions(orderEventService, orderRollupService);
+	}
+
+	@Test
+	@DisplayName("Should fail the whole batch when a status group update misses rows")
+	void testUpdateStatuses_ConcurrentConflict() {
+		// Given
+		when(orderRepository.findActiveViewsByIds(Set.of(1, 2))).thenReturn(List.of(
+				view(1, OrderStatus.CREATED, 0L), view(2, OrderStatus.CREATED, 0L)));
+		when(orderRepository.transitionStatuses(anyCollection(), eq(OrderStatus.CREATED), eq(OrderStatus.ORDERED),
+				any(Instant.class))).thenReturn(1);
+
+		// When & Then
+		assertThrows(OrderStatusConflictException.class, () -> orderService.updateStatuses(List.of(1, 2), null));
+		verifyNoInteractions(orderEventService, orderRollupService);
+	}
+
+	@Test
+	@DisplayName("Should reject a bulk status update over the batch limit")
+	void testUpdateStatuses_BatchTooLarge() {
+		// Given
+		List<Integer> orderIds = Collections.nCopies(AppConstant.BULK_MAX_SIZE + 1, 1);
+
+		// When & Then
+		assertThrows(BatchSizeExceededException.class, () -> orderService.updateStatuses(orderIds, null));
+		verifyNoInteractions(orderRepository);
+	}
+
 	@Test
 	@DisplayName("Should update order successfully")
 	void testUpdate_Success() {
@@ -259,15 +637,34 @@ class OrderServiceImplTest {
 		orderDto.setOrderDesc("Updated Order Description");
 		orderDto.setOrderFee(200.0);
 		when(orderRepository.findByOrderIdAndIsActiveTrue(orderId)).thenReturn(Optional.of(order));
-		when(orderRepository.save(any(Order.class))).thenReturn(order);
+		when(orderRepository.saveAndFlush(any(Order.class))).thenReturn(order);
 
 		// When
 		OrderDto result = orderService.update(orderId, orderDto);
 
 		// Then
 		assertNotNull(result);
+		assertEquals("Updated Order Description", result.getOrderDesc());
+		assertEquals(OrderStatus.CREATED, result.getOrderStatus());
 		verify(orderRepository, times(1)).findByOrderIdAndIsActiveTrue(orderId);
-		verify(orderRepository, times(1)).save(any(Order.class));
+		verify(orderRepository, times(1)).saveAndFlush(order);
+		verify(orderRollupService, times(1)).recordChanged(
+				argThat((OrderDto before) -> before.getOrderFee() == 100.0),
+				argThat((OrderDto after) -> after.getOrderFee() == 200.0));
+	}
+
+	@Test
+	@DisplayName("Should reject an update made against a stale version")
+	void testUpdate_StaleVersion() {
+		// Given
+		Integer orderId = 1;
+		order.setVersion(3L);
+		orderDto.setVersion(2L);
+		when(orderRepository.findByOrderIdAndIsActiveTrue(orderId)).thenReturn(Optional.of(order));
+
+		// When & Then
+		assertThrows(ObjectOptimisticLockingFailureException.class, () -> orderService.update(orderId, orderDto));
+		verify(orderRepository, never()).saveAndFlush(any(Order.class));
 	}
 
 	@Test
@@ -298,6 +695,8 @@ class OrderServiceImplTest {
 		// Then
 		verify(orderRepository, times(1)).findByOrderIdAndIsActiveTrue(orderId);
 		verify(orderRepository, times(1)).save(any(Order.class));
+		verify(orderEventService, times(1)).record(eq(OrderEventType.ORDER_DEACTIVATED), any(OrderDto.class));
+		verify(orderRollupService, times(1)).recordDeactivated(any(OrderDto.class));
 		assertFalse(order.isActive());
 	}
 
@@ -316,6 +715,7 @@ class OrderServiceImplTest {
 		// Then
 		verify(orderRepository, times(1)).findByOrderIdAndIsActiveTrue(orderId);
 		verify(orderRepository, times(1)).save(any(Order.class));
+		verify(orderEventService, times(1)).record(eq(OrderEventType.ORDER_DEACTIVATED), any(OrderDto.class));
 		assertFalse(order.isActive());
 	}
 
@@ -346,4 +746,68 @@ class OrderServiceImplTest {
 		verify(orderRepository, never()).save(any(Order.class));
 	}
 
+	@Test
+	@DisplayName("Should deactivate the orders of carts with one UPDATE, keeping IN_PAYMENT ones")
+	void testDeactivateAllByCartIds_SkipsInPayment() {
+		// Given
+		Set<Integer> cartIds = Set.of(1, 2);
+		when(orderRepository.lockActiveIdsByCartIds(cartIds)).thenReturn(List.of(1, 2, 3));
+		when(orderRepository.findActiveViewsByIds(List.of(1, 2, 3))).thenReturn(List.of(
+				view(1, OrderStatus.CREATED, 0L), view(2, OrderStatus.IN_PAYMENT, 2L), view(3, OrderStatus.ORDERED, 1L)));
+		when(orderRepository.deactivateAllByCartIds(eq(cartIds), eq(List.of(OrderStatus.CREATED, OrderStatus.ORDERED)),
+				any(Instant.class))).thenReturn(2);
+
+		// When
+		int deactivated = orderService.deactivateAllByCartIds(cartIds);
+
+		// Then
+		assertEquals(2, deactivated);
+		verify(orderRepository, never()).save(any(Order.class));
+		verify(orderEventService, times(1)).recordAll(eq(OrderEventType.ORDER_DEACTIVATED),
+				argThat(events -> events.size() == 2
+						&& events.stream().noneMatch(o -> o.getOrderStatus() == OrderStatus.IN_PAYMENT)));
+		verify(orderRollupService, times(1)).recordDeactivated(argThat((List<OrderDto> orders) -> orders.size() == 2));
+	}
+
+	@Test
+	@DisplayName("Should not update when the carts have no active orders")
+	void testDeactivateAllByCartIds_NoOrders() {
+		// Given
+		when(orderRepository.lockActiveIdsByCartIds(Set.of(4))).thenReturn(List.of());
+
+		// When
+		int deactivated = orderService.deactivateAllByCartIds(Set.of(4));
+
+		// Then
+		assertEquals(0, deactivated);
+		verify(orderRepository, never()).deactivateAllByCartIds(anyCollection(), anyCollection(), any());
+		verifyNoInteractions(orderEventService, orderRollupService);
+	}
+
+	@Test
+	@DisplayName("Should fail the cart deactivation when the UPDATE misses locked orders")
+	void testDeactivateAllByCartIds_ConcurrentConflict() {
+		// Given
+		when(orderRepository.lockActiveIdsByCartIds(Set.of(1))).thenReturn(List.of(1, 2));
+		when(orderRepository.findActiveViewsByIds(List.of(1, 2))).thenReturn(List.of(
+				view(1, OrderStatus.CREATED, 0L), view(2, OrderStatus.CREATED, 0L)));
+		when(orderRepository.deactivateAllByCartIds(anyCollection(), anyCollection(), any(Instant.class))).thenReturn(1);
+
+		// When & Then
+		assertThrows(OrderStatusConflictException.class, () -> orderService.deactivateAllByCartIds(Set.of(1)));
+		verifyNoInteractions(orderEventService, orderRollupService);
+	}
+
+	private OrderView orderView(final Integer orderId) {
+		return OrderView.builder()
+				.orderId(orderId)
+				.orderDate(LocalDateTime.now())
+				.orderDesc("Test Order")
+				.orderFee(100.0)
+				.status(OrderStatus.CREATED)
+				.cartId(cart.getCartId())
+				.version(0L)
+				.build();
+	}
+
 }
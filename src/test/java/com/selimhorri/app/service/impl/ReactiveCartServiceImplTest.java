@@ -0,0 +1,319 @@
+package com.selimhorri.app.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.selimhorri.app.config.client.UserServiceClientProperties;
+import com.selimhorri.app.domain.reactive.CartRecord;
+import com.selimhorri.app.dto.CartDeactivationResultDto;
+import com.selimhorri.app.dto.CartDto;
+import com.selimhorri.app.dto.UserDto;
+import com.selimhorri.app.exception.wrapper.CartNotFoundException;
+import com.selimhorri.app.exception.wrapper.UserNotFoundException;
+import com.selimhorri.app.repository.reactive.ReactiveCartRepository;
+import com.selimhorri.app.service.ReactiveOrderService;
+import com.selimhorri.app.service.UserClientService;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReactiveCartServiceImpl Tests")
+class ReactiveCartServiceImplTest {
+
+	@Mock
+	private ReactiveCartRepository cartRepository;
+
+	@Mock
+	private UserClientService userClientService;
+
+	@Mock
+	private ReactiveOrderService orderService;
+
+	@Mock
+	private TransactionalOperator transactionalOperator;
+
+	private UserServiceClientProperties properties;
+
+	private ReactiveCartServiceImpl cartService;
+
+	private CartRecord cart;
+	private CartDto cartDto;
+	private UserDto userDto;
+
+	@BeforeEach
+	void setUp() {
+		properties = new UserServiceClientProperties();
+		cartService = new ReactiveCartServiceImpl(cartRepository, userClientService, properties, orderService,
+				transactionalOperator);
+		lenient().when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+		userDto = UserDto.builder()
+				.userId(1)
+				.firstName("John")
+				.lastName("Doe")
+				.email("john.doe@example.com")
+				.build();
+
+		cart = CartRecord.builder()
+				.cartId(1)
+				.userId(1)
+				.isActive(true)
+				.build();
+
+		cartDto = CartDto.builder()
+				.cartId(1)
+				.userId(1)
+				.userDto(userDto)
+				.build();
+	}
+
+	@Test
+	@DisplayName("Should find all active carts with user data")
+	void testFindAll_Success() {
+		// Given
+		when(cartRepository.findAllByIsActiveTrue()).thenReturn(Flux.just(cart));
+		when(userClientService.findByIdReactive(1)).thenReturn(Mono.just(userDto));
+
+		// When
+		List<CartDto> result = cartService.findAll().collectList().block();
+
+		// Then
+		assertNotNull(result);
+		assertFalse(result.isEmpty());
+		assertEquals("John", result.get(0).getUserDto().getFirstName());
+		verify(cartRepository, times(1)).findAllByIsActiveTrue();
+		verify(userClientService, times(1)).findByIdReactive(1);
+	}
+
+	@Test
+	@DisplayName("Should look up each distinct user only once in findAll")
+	void testFindAll_DedupesUserLookups() {
+		// Given
+		CartRecord sameUserCart = CartRecord.builder()
+				.cartId(2)
+				.userId(1)
+				.isActive(true)
+				.build();
+		when(cartRepository.findAllByIsActiveTrue()).thenReturn(Flux.just(cart, sameUserCart));
+		when(userClientService.findByIdReactive(1)).thenReturn(Mono.just(userDto));
+
+		// When
+		List<CartDto> result = cartService.findAll().collectList().block();
+
+		// Then
+		assertEquals(2, result.size());
+		result.forEach(c -> assertEquals("John", c.getUserDto().getFirstName()));
+		verify(userClientService, times(1)).findByIdReactive(1);
+	}
+
+	@Test
+	@DisplayName("Should keep carts without user data when the user is unknown in findAll")
+	void testFindAll_UserNotFound() {
+		// Given
+		when(cartRepository.findAllByIsActiveTrue()).thenReturn(Flux.just(cart));
+		when(userClientService.findByIdReactive(1)).thenReturn(Mono.empty());
+
+		// When
+		List<CartDto> result = cartService.findAll().collectList().block();
+
+		// Then
+		assertEquals(1, result.size());
+		assertNull(result.get(0).getUserDto().getFirstName());
+		verify(userClientService, times(1)).findByIdReactive(1);
+	}
+
+	@Test
+	@DisplayName("Should filter out carts when the user lookup fails in findAll")
+	void testFindAll_RemoteError() {
+		// Given
+		when(cartRepository.findAllByIsActiveTrue()).thenReturn(Flux.just(cart));
+		when(userClientService.findByIdReactive(1)).thenReturn(Mono.error(new IllegalStateException("Connection error")));
+
+		// When
+		List<CartDto> result = cartService.findAll().collectList().block();
+
+		// Then
+		assertTrue(result.isEmpty());
+		verify(userClientService, times(1)).findByIdReactive(1);
+	}
+
+	@Test
+	@DisplayName("Should filter out carts whose user is not resolved before the enrichment deadline")
+	void testFindAll_Deadline() {
+		// Given
+		properties.setEnrichmentTimeout(Duration.ofMillis(100));
+		when(cartRepository.findAllByIsActiveTrue()).thenReturn(Flux.just(cart));
+		when(userClientService.findByIdReactive(1)).thenReturn(Mono.just(userDto).delayElement(Duration.ofSeconds(5)));
+
+		// When
+		List<CartDto> result = cartService.findAll().collectList().block(Duration.ofSeconds(2));
+
+		// Then
+		assertTrue(result.isEmpty());
+	}
+
+	@Test
+	@DisplayName("Should find cart by id when cart exists")
+	void testFindById_Success() {
+		// Given
+		Integer cartId = 1;
+		when(cartRepository.findByCartIdAndIsActiveTrue(cartId)).thenReturn(Mono.just(cart));
+		when(userClientService.findByIdReactive(1)).thenReturn(Mono.just(userDto));
+
+		// When
+		CartDto result = cartService.findById(cartId).block();
+
+		// Then
+		assertNotNull(result);
+		assertEquals(cartId, result.getCartId());
+		assertEquals("John", result.getUserDto().getFirstName());
+		verify(cartRepository, times(1)).findByCartIdAndIsActiveTrue(cartId);
+		verify(userClientService, times(1)).findByIdReactive(1);
+	}
+
+	@Test
+	@DisplayName("Should throw CartNotFoundException when cart not found")
+	void testFindById_NotFound() {
+		// Given
+		Integer cartId = 999;
+		when(cartRepository.findByCartIdAndIsActiveTrue(cartId)).thenReturn(Mono.empty());
+
+		// When & Then
+		StepVerifier.create(cartService.findById(cartId))
+				.expectError(CartNotFoundException.class)
+				.verify();
+		verify(cartRepository, times(1)).findByCartIdAndIsActiveTrue(cartId);
+		verify(userClientService, never()).findByIdReactive(anyInt());
+	}
+
+	@Test
+	@DisplayName("Should save cart successfully when user exists")
+	void testSave_Success() {
+		// Given
+		cartDto.setCartId(null);
+		cartDto.setOrderDtos(null);
+		when(userClientService.findByIdReactive(1)).thenReturn(Mono.just(userDto));
+		when(cartRepository.save(any(CartRecord.class))).thenReturn(Mono.just(cart));
+
+		// When
+		CartDto result = cartService.save(cartDto).block();
+
+		// Then
+		assertNotNull(result);
+		verify(userClientService, times(1)).findByIdReactive(1);
+		verify(cartRepository, times(1)).save(argThat((CartRecord c) -> c.getCartId() == null && c.isActive()));
+	}
+
+	@Test
+	@DisplayName("Should throw IllegalArgumentException when userId is null")
+	void testSave_UserIdNull() {
+		// Given
+		cartDto.setUserId(null);
+
+		// When & Then
+		StepVerifier.create(cartService.save(cartDto))
+				.expectError(IllegalArgumentException.class)
+				.verify();
+		verify(userClientService, never()).findByIdReactive(any());
+		verify(cartRepository, never()).save(any(CartRecord.class));
+	}
+
+	@Test
+	@DisplayName("Should throw UserNotFoundException when the user is unknown")
+	void testSave_UserDtoNull() {
+		// Given
+		when(userClientService.findByIdReactive(1)).thenReturn(Mono.empty());
+
+		// When & Then
+		StepVerifier.create(cartService.save(cartDto))
+				.expectError(UserNotFoundException.class)
+				.verify();
+		verify(userClientService, times(1)).findByIdReactive(1);
+		verify(cartRepository, never()).save(any(CartRecord.class));
+	}
+
+	@Test
+	@DisplayName("Should throw RuntimeException when the user lookup fails")
+	void testSave_RemoteError() {
+		// Given
+		when(userClientService.findByIdReactive(1))
+				.thenReturn(Mono.error(WebClientResponseException.create(503, "Service Unavailable", null, null, null)));
+
+		// When & Then
+		StepVerifier.create(cartService.save(cartDto))
+				.expectErrorMatches(e -> e.getClass() == RuntimeException.class
+						&& e.getCause() instanceof WebClientResponseException)
+				.verify();
+		verify(userClientService, times(1)).findByIdReactive(1);
+		verify(cartRepository, never()).save(any(CartRecord.class));
+	}
+
+	@Test
+	@DisplayName("Should deactivate the cart and its orders with set-based updates")
+	void testDeleteById_Success() {
+		// Given
+		Integer cartId = 1;
+		when(cartRepository.deactivateAll(eq(Set.of(cartId)), any(LocalDateTime.class))).thenReturn(Mono.just(1));
+		when(orderService.deactivateAllByCartIds(Set.of(cartId))).thenReturn(Mono.just(3));
+
+		// When
+		CartDeactivationResultDto result = cartService.deleteById(cartId).block();
+
+		// Then
+		assertEquals(1, result.getCartsDeactivated());
+		assertEquals(3, result.getOrdersDeactivated());
+		verify(cartRepository, never()).existsById(anyInt());
+		verify(cartRepository, never()).save(any(CartRecord.class));
+	}
+
+	@Test
+	@DisplayName("Should still deactivate left-behind orders of a cart that was inactive already")
+	void testDeleteById_AlreadyInactive() {
+		// Given
+		Integer cartId = 1;
+		when(cartRepository.deactivateAll(eq(Set.of(cartId)), any(LocalDateTime.class))).thenReturn(Mono.just(0));
+		when(orderService.deactivateAllByCartIds(Set.of(cartId))).thenReturn(Mono.just(2));
+		when(cartRepository.existsById(cartId)).thenReturn(Mono.just(true));
+
+		// When
+		CartDeactivationResultDto result = cartService.deleteById(cartId).block();
+
+		// Then
+		assertEquals(0, result.getCartsDeactivated());
+		assertEquals(2, result.getOrdersDeactivated());
+	}
+
+	@Test
+	@DisplayName("Should throw CartNotFoundException when cart not found for delete")
+	void testDeleteById_NotFound() {
+		// Given
+		Integer cartId = 999;
+		when(cartRepository.deactivateAll(eq(Set.of(cartId)), any(LocalDateTime.class))).thenReturn(Mono.just(0));
+		when(orderService.deactivateAllByCartIds(Set.of(cartId))).thenReturn(Mono.just(0));
+		when(cartRepository.existsById(cartId)).thenReturn(Mono.just(false));
+
+		// When & Then
+		StepVerifier.create(cartService.deleteById(cartId))
+				.expectError(CartNotFoundException.class)
+				.verify();
+		verify(cartRepository, times(1)).existsById(cartId);
+	}
+
+}
@@ -0,0 +1,156 @@
+package com.selimhorri.app.service.impl;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.selimhorri.app.domain.enums.OrderStatus;
+import com.selimhorri.app.domain.enums.RollupGranularity;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.repository.reactive.ReactiveOrderRepository;
+
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReactiveOrderRollupServiceImpl Tests")
+class ReactiveOrderRollupServiceImplTest {
+
+	private static final LocalDateTime ORDER_DATE = LocalDateTime.of(2024, 3, 5, 14, 27, 10);
+	private static final LocalDateTime HOUR = LocalDateTime.of(2024, 3, 5, 14, 0);
+	private static final LocalDateTime DAY = LocalDateTime.of(2024, 3, 5, 0, 0);
+
+	@Mock
+	private ReactiveOrderRepository orderRepository;
+
+	@Mock
+	private TransactionalOperator bucketCreationOperator;
+
+	private ReactiveOrderRollupServiceImpl orderRollupService;
+
+	private OrderDto orderDto;
+
+	@BeforeEach
+	void setUp() {
+		orderRollupService = new ReactiveOrderRollupServiceImpl(orderRepository, bucketCreationOperator);
+		lenient().when(bucketCreationOperator.transactional(ArgumentMatchers.<Mono<Void>>any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+		orderDto = OrderDto.builder()
+				.orderId(1)
+				.orderDate(ORDER_DATE)
+				.orderFee(100.0)
+				.orderStatus(OrderStatus.CREATED)
+				.build();
+	}
+
+	@Test
+	@DisplayName("Should add created orders to their hour and day buckets in one increment each")
+	void testRecordCreated() {
+		// Given
+		OrderDto sameHour = OrderDto.builder()
+				.orderId(2)
+				.orderDate(ORDER_DATE.plusMinutes(10))
+				.orderFee(50.0)
+				.orderStatus(OrderStatus.CREATED)
+				.build();
+		when(orderRepository.existsRollup(any(), any(), any())).thenReturn(Mono.just(true));
+		when(orderRepository.incrementRollup(any(), any(), any(), anyLong(), anyDouble())).thenReturn(Mono.just(1));
+
+		// When
+		StepVerifier.create(orderRollupService.recordCreated(List.of(orderDto, sameHour))).verifyComplete();
+
+		// Then
+		verify(orderRepository, times(1)).incrementRollup(RollupGranularity.HOUR, HOUR, OrderStatus.CREATED, 2L, 150.0);
+		verify(orderRepository, times(1)).incrementRollup(RollupGranularity.DAY, DAY, OrderStatus.CREATED, 2L, 150.0);
+		verify(orderRepository, never()).insertRollup(any(), any(), any(), anyLong(), anyDouble());
+	}
+
+	@Test
+	@DisplayName("Should create a missing bucket in its own transaction, tolerating a concurrent creation")
+	void testRecordCreated_NewBucket() {
+		// Given
+		when(orderRepository.existsRollup(any(), any(), any())).thenReturn(Mono.just(false));
+		when(orderRepository.insertRollup(RollupGranularity.HOUR, HOUR, OrderStatus.CREATED, 0L, 0.0))
+				.thenReturn(Mono.empty());
+		when(orderRepository.insertRollup(RollupGranularity.DAY, DAY, OrderStatus.CREATED, 0L, 0.0))
+				.thenReturn(Mono.error(new DataIntegrityViolationException("Duplicate entry")));
+		when(orderRepository.incrementRollup(any(), any(), any(), anyLong(), anyDouble())).thenReturn(Mono.just(1));
+
+		// When
+		StepVerifier.create(orderRollupService.recordCreated(List.of(orderDto))).verifyComplete();
+
+		// Then
+		verify(bucketCreationOperator, times(2)).transactional(ArgumentMatchers.<Mono<Void>>any());
+		verify(orderRepository, times(1)).incrementRollup(RollupGranularity.HOUR, HOUR, OrderStatus.CREATED, 1L, 100.0);
+		verify(orderRepository, times(1)).incrementRollup(RollupGranularity.DAY, DAY, OrderStatus.CREATED, 1L, 100.0);
+	}
+
+	@Test
+	@DisplayName("Should insert the change itself when a rebuild removed the bucket after the check")
+	void testRecordCreated_BucketRemovedByRebuild() {
+		// Given
+		when(orderRepository.existsRollup(any(), any(), any())).thenReturn(Mono.just(true));
+		when(orderRepository.incrementRollup(any(), any(), any(), anyLong(), anyDouble())).thenReturn(Mono.just(0));
+		when(orderRepository.insertRollup(any(), any(), any(), eq(1L), eq(100.0))).thenReturn(Mono.empty());
+
+		// When
+		StepVerifier.create(orderRollupService.recordCreated(List.of(orderDto))).verifyComplete();
+
+		// Then
+		verify(orderRepository, times(2)).insertRollup(any(), any(), any(), eq(1L), eq(100.0));
+		verify(bucketCreationOperator, never()).transactional(ArgumentMatchers.<Mono<Void>>any());
+	}
+
+	@Test
+	@DisplayName("Should move a transitioned order between status buckets in lock order")
+	void testRecordChanged_Transition() {
+		// Given
+		OrderDto ordered = OrderDto.builder()
+				.orderId(1)
+				.orderDate(ORDER_DATE)
+				.orderFee(100.0)
+				.orderStatus(OrderStatus.ORDERED)
+				.build();
+		when(orderRepository.existsRollup(any(), any(), any())).thenReturn(Mono.just(true));
+		when(orderRepository.incrementRollup(any(), any(), any(), anyLong(), anyDouble())).thenReturn(Mono.just(1));
+
+		// When
+		StepVerifier.create(orderRollupService.recordChanged(orderDto, ordered)).verifyComplete();
+
+		// Then
+		InOrder inOrder = inOrder(orderRepository);
+		inOrder.verify(orderRepository).incrementRollup(RollupGranularity.HOUR, HOUR, OrderStatus.CREATED, -1L, -100.0);
+		inOrder.verify(orderRepository).incrementRollup(RollupGranularity.HOUR, HOUR, OrderStatus.ORDERED, 1L, 100.0);
+		inOrder.verify(orderRepository).incrementRollup(RollupGranularity.DAY, DAY, OrderStatus.CREATED, -1L, -100.0);
+		inOrder.verify(orderRepository).incrementRollup(RollupGranularity.DAY, DAY, OrderStatus.ORDERED, 1L, 100.0);
+	}
+
+	@Test
+	@DisplayName("Should remove a deactivated order from its buckets")
+	void testRecordDeactivated() {
+		// Given
+		when(orderRepository.existsRollup(any(), any(), any())).thenReturn(Mono.just(true));
+		when(orderRepository.incrementRollup(any(), any(), any(), anyLong(), anyDouble())).thenReturn(Mono.just(1));
+
+		// When
+		StepVerifier.create(orderRollupService.recordDeactivated(orderDto)).verifyComplete();
+
+		// Then
+		verify(orderRepository, times(1)).incrementRollup(RollupGranularity.HOUR, HOUR, OrderStatus.CREATED, -1L, -100.0);
+		verify(orderRepository, times(1)).incrementRollup(RollupGranularity.DAY, DAY, OrderStatus.CREATED, -1L, -100.0);
+	}
+
+}
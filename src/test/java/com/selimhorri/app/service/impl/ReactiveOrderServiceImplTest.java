@@ -0,0 +1,613 @@
+package com.selimhorri.app.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.domain.enums.OrderEventType;
+import com.selimhorri.app.domain.enums.OrderStatus;
+import com.selimhorri.app.domain.reactive.OrderRecord;
+import com.selimhorri.app.dto.CartDto;
+import com.selimhorri.app.dto.OrderCreationResultDto;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.response.collection.DtoCursorPageResponse;
+import com.selimhorri.app.exception.wrapper.BatchSizeExceededException;
+import com.selimhorri.app.exception.wrapper.CartNotFoundException;
+import com.selimhorri.app.exception.wrapper.InvalidCursorException;
+import com.selimhorri.app.exception.wrapper.OrderNotFoundException;
+import com.selimhorri.app.exception.wrapper.OrderStatusConflictException;
+import com.selimhorri.app.helper.CursorHelper;
+import com.selimhorri.app.repository.reactive.ReactiveCartRepository;
+import com.selimhorri.app.repository.reactive.ReactiveOrderIdAllocator;
+import com.selimhorri.app.repository.reactive.ReactiveOrderRepository;
+import com.selimhorri.app.service.ReactiveOrderEventService;
+import com.selimhorri.app.service.ReactiveOrderRollupService;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReactiveOrderServiceImpl Tests")
+class ReactiveOrderServiceImplTest {
+
+	@Mock
+	private ReactiveOrderRepository orderRepository;
+
+	@Mock
+	private ReactiveCartRepository cartRepository;
+
+	@Mock
+	private ReactiveOrderIdAllocator orderIdAllocator;
+
+	@Mock
+	private ReactiveOrderEventService orderEventService;
+
+	@Mock
+	private ReactiveOrderRollupService orderRollupService;
+
+	@Mock
+	private TransactionalOperator transactionalOperator;
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private ReactiveOrderServiceImpl orderService;
+
+	private OrderRecord order;
+	private OrderDto orderDto;
+	private CartDto cartDto;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		orderService = new ReactiveOrderServiceImpl(orderRepository, cartRepository, orderIdAllocator,
+				orderEventService, orderRollupService, transactionalOperator, meterRegistry);
+		orderService.initMetric();
+
+		// Transactions are the operator's concern, here the pipeline just runs as is
+		lenient().when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(invocation -> invocation.getArgument(0));
+		lenient().when(orderEventService.record(any(), any())).thenReturn(Mono.empty());
+		lenient().when(orderEventService.recordAll(any(), anyList())).thenReturn(Mono.empty());
+		lenient().when(orderRollupService.recordCreated(anyList())).thenReturn(Mono.empty());
+		lenient().when(orderRollupService.recordChanged(any(OrderDto.class), any(OrderDto.class))).thenReturn(Mono.empty());
+		lenient().when(orderRollupService.recordDeactivated(any(OrderDto.class))).thenReturn(Mono.empty());
+		lenient().when(orderRollupService.recordDeactivated(anyList())).thenReturn(Mono.empty());
+
+		cartDto = CartDto.builder()
+				.cartId(1)
+				.userId(1)
+				.build();
+
+		order = OrderRecord.builder()
+				.orderId(1)
+				.orderDate(LocalDateTime.now())
+				.orderDesc("Test Order")
+				.orderFee(100.0)
+				.status(OrderStatus.CREATED)
+				.cartId(1)
+				.isActive(true)
+				.build();
+
+		orderDto = OrderDto.builder()
+				.orderId(1)
+				.orderDate(LocalDateTime.now())
+				.orderDesc("Test Order")
+				.orderFee(100.0)
+				.orderStatus(OrderStatus.CREATED)
+				.cartDto(cartDto)
+				.build();
+	}
+
+	@Test
+	@DisplayName("Should find all active orders")
+	void testFindAll() {
+		// Given
+		when(orderRepository.findAllByIsActiveTrue()).thenReturn(Flux.just(orderRecord(1)));
+
+		// When
+		List<OrderDto> result = orderService.findAll().collectList().block();
+
+		// Then
+		assertNotNull(result);
+		assertFalse(result.isEmpty());
+		assertEquals(Integer.valueOf(1), result.get(0).getCartDto().getCartId());
+		verify(orderRepository, times(1)).findAllByIsActiveTrue();
+	}
+
+	@Test
+	@DisplayName("Should return a keyset page with a next cursor when more orders exist")
+	void testFindPage_HasNext() {
+		// Given
+		when(orderRepository.findActiveAfter(0, 2)).thenReturn(Flux.just(orderRecord(1), orderRecord(2)));
+
+		// When
+		DtoCursorPageResponse<OrderDto> result = orderService.findPage(null, 1).block();
+
+		// Then
+		assertEquals(1, result.getSize());
+		assertEquals(Integer.valueOf(1), result.getCollection().iterator().next().getOrderId());
+		assertEquals(Integer.valueOf(1), CursorHelper.decode(result.getNextCursor()));
+	}
+
+	@Test
+	@DisplayName("Should resume after the cursor and omit the next cursor on the last page")
+	void testFindPage_LastPage() {
+		// Given
+		when(orderRepository.findActiveAfter(eq(1), anyInt())).thenReturn(Flux.empty());
+
+		// When
+		DtoCursorPageResponse<OrderDto> result = orderService.findPage(CursorHelper.encode(1), null).block();
+
+		// Then
+		assertTrue(result.getCollection().isEmpty());
+		assertNull(result.getNextCursor());
+	}
+
+	@Test
+	@DisplayName("Should reject a malformed cursor")
+	void testFindPage_InvalidCursor() {
+		StepVerifier.create(orderService.findPage("not-a-cursor", 10))
+				.expectError(InvalidCursorException.class)
+				.verify();
+		verify(orderRepository, never()).findActiveAfter(anyInt(), anyInt());
+	}
+
+	@Test
+	@DisplayName("Should stream the export from the repository without collecting it")
+	void testExport() {
+		// Given
+		LocalDateTime from = LocalDateTime.now().minusDays(1);
+		when(orderRepository.findActive(OrderStatus.CREATED, from, null))
+				.thenReturn(Flux.just(orderRecord(1), orderRecord(2), orderRecord(3)));
+
+		// When & Then
+		StepVerifier.create(orderService.export(OrderStatus.CREATED, from, null), 1)
+				.expectNextMatches(o -> o.getOrderId() == 1)
+				.thenRequest(2)
+				.expectNextCount(2)
+				.verifyComplete();
+	}
+
+	@Test
+	@DisplayName("Should find order by id when order exists")
+	void testFindById_Success() {
+		// Given
+		Integer orderId = 1;
+		when(orderRepository.findByOrderIdAndIsActiveTrue(orderId)).thenReturn(Mono.just(orderRecord(orderId)));
+
+		// When
+		OrderDto result = orderService.findById(orderId).block();
+
+		// Then
+		assertNotNull(result);
+		assertEquals(orderId, result.getOrderId());
+		verify(orderRepository, times(1)).findByOrderIdAndIsActiveTrue(orderId);
+	}
+
+	@Test
+	@DisplayName("Should throw OrderNotFoundException when order not found")
+	void testFindById_NotFound() {
+		// Given
+		Integer orderId = 999;
+		when(orderRepository.findByOrderIdAndIsActiveTrue(orderId)).thenReturn(Mono.empty());
+
+		// When & Then
+		StepVerifier.create(orderService.findById(orderId))
+				.expectError(OrderNotFoundException.class)
+				.verify();
+		verify(orderRepository, times(1)).findByOrderIdAndIsActiveTrue(orderId);
+	}
+
+	@Test
+	@DisplayName("Should save order successfully")
+	void testSave_Success() {
+		// Given
+		orderDto.setOrderId(null);
+		orderDto.setOrderStatus(null);
+		when(cartRepository.existsById(cartDto.getCartId())).thenReturn(Mono.just(true));
+		when(orderIdAllocator.allocate(1)).thenReturn(Mono.just(7L));
+		when(orderRepository.save(any(OrderRecord.class))).thenAnswer(invocation -> {
+			OrderRecord savedOrder = invocation.getArgument(0);
+			savedOrder.setVersion(0L);
+			return Mono.just(savedOrder);
+		});
+
+		// When
+		OrderDto result = orderService.save(orderDto).block();
+
+		// Then
+		assertNotNull(result);
+		assertEquals(Integer.valueOf(7), result.getOrderId());
+		assertEquals(OrderStatus.CREATED, result.getOrderStatus());
+		verify(cartRepository, times(1)).existsById(cartDto.getCartId());
+		verify(orderRepository, times(1)).save(any(OrderRecord.class));
+		verify(orderEventService, times(1)).record(eq(OrderEventType.ORDER_CREATED), any(OrderDto.class));
+		verify(orderRollupService, times(1)).recordCreated(argThat(orderDtos -> orderDtos.size() == 1));
+		assertEquals(1.0, meterRegistry.counter("orders_created_total", "service", "order").count());
+	}
+
+	@Test
+	@DisplayName("Should throw IllegalArgumentException when cart is null")
+	void testSave_CartNull() {
+		// Given
+		orderDto.setCartDto(null);
+
+		// When & Then
+		StepVerifier.create(orderService.save(orderDto))
+				.expectError(IllegalArgumentException.class)
+				.verify();
+		verify(cartRepository, never()).existsById(anyInt());
+		verify(orderRepository, never()).save(any(OrderRecord.class));
+	}
+
+	@Test
+	@DisplayName("Should throw CartNotFoundException when cart does not exist")
+	void testSave_CartNotFound() {
+		// Given
+		when(cartRepository.existsById(cartDto.getCartId())).thenReturn(Mono.just(false));
+
+		// When & Then
+		StepVerifier.create(orderService.save(orderDto))
+				.expectError(CartNotFoundException.class)
+				.verify();
+		verify(cartRepository, times(1)).existsById(cartDto.getCartId());
+		verify(orderIdAllocator, never()).allocate(anyInt());
+		verify(orderRepository, never()).save(any(OrderRecord.class));
+	}
+
+	@Test
+	@DisplayName("Should create valid orders in one batch and report rejected ones by index")
+	void testSaveAll_MixedResults() {
+		// Given
+		OrderDto missingCart = OrderDto.builder()
+				.orderFee(10.0)
+				.cartDto(CartDto.builder().cartId(99).build())
+				.build();
+		OrderDto noCart = OrderDto.builder().orderFee(20.0).build();
+		when(cartRepository.findExistingCartIds(Set.of(1, 99))).thenReturn(Flux.just(1));
+		when(orderIdAllocator.allocate(1)).thenReturn(Mono.just(10L));
+		when(orderRepository.saveAll(anyList())).thenAnswer(invocation -> {
+			List<OrderRecord> orders = invocation.getArgument(0);
+			return Flux.fromIterable(orders);
+		});
+
+		// When
+		List<OrderCreationResultDto> result = orderService.saveAll(Arrays.asList(missingCart, orderDto, noCart)).block();
+
+		// Then
+		assertEquals(3, result.size());
+		assertFalse(result.get(0).isCreated());
+		assertEquals("Cart not found with ID: 99", result.get(0).getError());
+		assertTrue(result.get(1).isCreated());
+		assertEquals(1, result.get(1).getIndex());
+		assertEquals(Integer.valueOf(10), result.get(1).getOrderDto().getOrderId());
+		assertFalse(result.get(2).isCreated());
+		verify(cartRepository, times(1)).findExistingCartIds(anyCollection());
+		verify(orderRepository, times(1)).saveAll(anyList());
+		verify(orderEventService, times(1)).recordAll(eq(OrderEventType.ORDER_CREATED),
+				argThat(orderDtos -> orderDtos.size() == 1));
+		verify(orderRollupService, times(1)).recordCreated(argThat(orderDtos -> orderDtos.size() == 1));
+		assertEquals(1.0, meterRegistry.counter("orders_created_total", "service", "order").count());
+	}
+
+	@Test
+	@DisplayName("Should reject a bulk request above the maximum batch size")
+	void testSaveAll_TooLarge() {
+		// Given
+		List<OrderDto> orderDtos = new ArrayList<>(Collections.nCopies(AppConstant.BULK_MAX_SIZE + 1, orderDto));
+
+		// When & Then
+		StepVerifier.create(orderService.saveAll(orderDtos))
+				.expectError(BatchSizeExceededException.class)
+				.verify();
+		verify(orderRepository, never()).saveAll(anyList());
+	}
+
+	@Test
+	@DisplayName("Should update order status from CREATED to ORDERED")
+	void testUpdateStatus_CreatedToOrdered() {
+		// Given
+		Integer orderId = 1;
+		order.setStatus(OrderStatus.CREATED);
+		order.setVersion(0L);
+		when(orderRepository.findByOrderIdAndIsActiveTrue(orderId)).thenReturn(Mono.just(order));
+		when(orderRepository.transitionStatus(eq(orderId), eq("CREATED"), eq("ORDERED"), any(LocalDateTime.class)))
+				.thenReturn(Mono.just(1));
+
+		// When
+		OrderDto result = orderService.updateStatus(orderId, null).block();
+
+		// Then
+		assertNotNull(result);
+		assertEquals(OrderStatus.ORDERED, result.getOrderStatus());
+		assertEquals(Long.valueOf(1), result.getVersion());
+		verify(orderRepository, times(1)).findByOrderIdAndIsActiveTrue(orderId);
+		verify(orderRepository, never()).save(any(OrderRecord.class));
+		verify(orderEventService, times(1)).record(OrderEventType.ORDER_STATUS_CHANGED, result);
+		verify(orderRollupService, times(1)).recordChanged(
+				argThat(before -> before.getOrderStatus() == OrderStatus.CREATED), eq(result));
+	}
+
+	@Test
+	@DisplayName("Should update order status from ORDERED to IN_PAYMENT")
+	void testUpdateStatus_OrderedToInPayment() {
+		// Given
+		Integer orderId = 1;
+		order.setStatus(OrderStatus.ORDERED);
+		when(orderRepository.findByOrderIdAndIsActiveTrue(orderId)).thenReturn(Mono.just(order));
+		when(orderRepository.transitionStatus(eq(orderId), eq("ORDERED"), eq("IN_PAYMENT"), any(LocalDateTime.class)))
+				.thenReturn(Mono.just(1));
+
+		// When
+		OrderDto result = orderService.updateStatus(orderId, null).block();
+
+		// Then
+		assertNotNull(result);
+		assertEquals(OrderStatus.IN_PAYMENT, result.getOrderStatus());
+		verify(orderRepository, times(1)).findByOrderIdAndIsActiveTrue(orderId);
+		verify(orderRepository, never()).save(any(OrderRecord.class));
+	}
+
+	@Test
+	@DisplayName("Should report a conflict when a concurrent transition already moved the order")
+	void testUpdateStatus_ConcurrentConflict() {
+		// Given
+		Integer orderId = 1;
+		order.setStatus(OrderStatus.CREATED);
+		when(orderRepository.findByOrderIdAndIsActiveTrue(orderId)).thenReturn(Mono.just(order));
+		when(orderRepository.transitionStatus(eq(orderId), eq("CREATED"), eq("ORDERED"), any(LocalDateTime.class)))
+				.thenReturn(Mono.just(0));
+
+		// When & Then
+		StepVerifier.create(orderService.updateStatus(orderId, null))
+				.expectError(OrderStatusConflictException.class)
+				.verify();
+		verify(orderEventService, never()).record(any(), any());
+	}
+
+	@Test
+	@DisplayName("Should report a conflict when the order is not in the status the client expects")
+	void testUpdateStatus_UnexpectedStatus() {
+		// Given
+		Integer orderId = 1;
+		order.setStatus(OrderStatus.ORDERED);
+		when(orderRepository.findByOrderIdAndIsActiveTrue(orderId)).thenReturn(Mono.just(order));
+
+		// When & Then
+		StepVerifier.create(orderService.updateStatus(orderId, OrderStatus.CREATED))
+				.expectError(OrderStatusConflictException.class)
+				.verify();
+		verify(orderRepository, never()).transitionStatus(anyInt(), any(), any(), any());
+	}
+
+	@Test
+	@DisplayName("Should throw IllegalStateException when order is already IN_PAYMENT")
+	void testUpdateStatus_AlreadyInPayment() {
+		// Given
+		Integer orderId = 1;
+		order.setStatus(OrderStatus.IN_PAYMENT);
+		when(orderRepository.findByOrderIdAndIsActiveTrue(orderId)).thenReturn(Mono.just(order));
+
+		// When & Then
+		StepVerifier.create(orderService.updateStatus(orderId, null))
+				.expectError(IllegalStateException.class)
+				.verify();
+		verify(orderRepository, times(1)).findByOrderIdAndIsActiveTrue(orderId);
+		verify(orderRepository, never()).transitionStatus(anyInt(), any(), any(), any());
+	}
+
+	@Test
+	@DisplayName("Should throw OrderNotFoundException when order not found for update status")
+	void testUpdateStatus_OrderNotFound() {
+		// Given
+		Integer orderId = 999;
+		when(orderRepository.findByOrderIdAndIsActiveTrue(orderId)).thenReturn(Mono.empty());
+
+		// When & Then
+		StepVerifier.create(orderService.updateStatus(orderId, null))
+				.expectError(OrderNotFoundException.class)
+				.verify();
+		verify(orderRepository, times(1)).findByOrderIdAndIsActiveTrue(orderId);
+		verify(orderRepository, never()).save(any(OrderRecord.class));
+	}
+
+	@Test
+	@DisplayName("Should update order successfully")
+	void testUpdate_Success() {
+		// Given
+		Integer orderId = 1;
+		orderDto.setOrderDesc("Updated Order Description");
+		orderDto.setOrderFee(200.0);
+		when(orderRepository.findByOrderIdAndIsActiveTrue(orderId)).thenReturn(Mono.just(order));
+		when(orderRepository.save(any(OrderRecord.class))).thenReturn(Mono.just(order));
+
+		// When
+		OrderDto result = orderService.update(orderId, orderDto).block();
+
+		// Then
+		assertNotNull(result);
+		assertEquals("Updated Order Description", result.getOrderDesc());
+		assertEquals(OrderStatus.CREATED, result.getOrderStatus());
+		verify(orderRepository, times(1)).findByOrderIdAndIsActiveTrue(orderId);
+		verify(orderRepository, times(1)).save(order);
+		verify(orderEventService, times(1)).record(OrderEventType.ORDER_UPDATED, result);
+		verify(orderRollupService, times(1)).recordChanged(any(OrderDto.class), eq(result));
+	}
+
+	@Test
+	@DisplayName("Should reject an update made against a stale version")
+	void testUpdate_StaleVersion() {
+		// Given
+		Integer orderId = 1;
+		order.setVersion(3L);
+		orderDto.setVersion(2L);
+		when(orderRepository.findByOrderIdAndIsActiveTrue(orderId)).thenReturn(Mono.just(order));
+
+		// When & Then
+		StepVerifier.create(orderService.update(orderId, orderDto))
+				.expectError(ObjectOptimisticLockingFailureException.class)
+				.verify();
+		verify(orderRepository, never()).save(any(OrderRecord.class));
+	}
+
+	@Test
+	@DisplayName("Should throw OrderNotFoundException when order not found for update")
+	void testUpdate_OrderNotFound() {
+		// Given
+		Integer orderId = 999;
+		when(orderRepository.findByOrderIdAndIsActiveTrue(orderId)).thenReturn(Mono.empty());
+
+		// When & Then
+		StepVerifier.create(orderService.update(orderId, orderDto))
+				.expectError(OrderNotFoundException.class)
+				.verify();
+		verify(orderRepository, times(1)).findByOrderIdAndIsActiveTrue(orderId);
+		verify(orderRepository, never()).save(any(OrderRecord.class));
+	}
+
+	@Test
+	@DisplayName("Should delete order successfully when status is CREATED")
+	void testDeleteById_Success_Created() {
+		// Given
+		Integer orderId = 1;
+		order.setStatus(OrderStatus.CREATED);
+		when(orderRepository.findByOrderIdAndIsActiveTrue(orderId)).thenReturn(Mono.just(order));
+		when(orderRepository.save(any(OrderRecord.class))).thenReturn(Mono.just(order));
+
+		// When
+		orderService.deleteById(orderId).block();
+
+		// Then
+		verify(orderRepository, times(1)).findByOrderIdAndIsActiveTrue(orderId);
+		verify(orderRepository, times(1)).save(any(OrderRecord.class));
+		verify(orderEventService, times(1)).record(eq(OrderEventType.ORDER_DEACTIVATED), any(OrderDto.class));
+		verify(orderRollupService, times(1)).recordDeactivated(any(OrderDto.class));
+		assertFalse(order.isActive());
+	}
+
+	@Test
+	@DisplayName("Should delete order successfully when status is ORDERED")
+	void testDeleteById_Success_Ordered() {
+		// Given
+		Integer orderId = 1;
+		order.setStatus(OrderStatus.ORDERED);
+		when(orderRepository.findByOrderIdAndIsActiveTrue(orderId)).thenReturn(Mono.just(order));
+		when(orderRepository.save(any(OrderRecord.class))).thenReturn(Mono.just(order));
+
+		// When
+		orderService.deleteById(orderId).block();
+
+		// Then
+		verify(orderRepository, times(1)).findByOrderIdAndIsActiveTrue(orderId);
+		verify(orderRepository, times(1)).save(any(OrderRecord.class));
+		verify(orderEventService, times(1)).record(eq(OrderEventType.ORDER_DEACTIVATED), any(OrderDto.class));
+		verify(orderRollupService, times(1)).recordDeactivated(any(OrderDto.class));
+		assertFalse(order.isActive());
+	}
+
+	@Test
+	@DisplayName("Should throw IllegalStateException when trying to delete order with IN_PAYMENT status")
+	void testDeleteById_InPayment() {
+		// Given
+		Integer orderId = 1;
+		order.setStatus(OrderStatus.IN_PAYMENT);
+		when(orderRepository.findByOrderIdAndIsActiveTrue(orderId)).thenReturn(Mono.just(order));
+
+		// When & Then
+		StepVerifier.create(orderService.deleteById(orderId))
+				.expectError(IllegalStateException.class)
+				.verify();
+		verify(orderRepository, times(1)).findByOrderIdAndIsActiveTrue(orderId);
+		verify(orderRepository, never()).save(any(OrderRecord.class));
+	}
+
+	@Test
+	@DisplayName("Should throw OrderNotFoundException when order not found for delete")
+	void testDeleteById_OrderNotFound() {
+		// Given
+		Integer orderId = 999;
+		when(orderRepository.findByOrderIdAndIsActiveTrue(orderId)).thenReturn(Mono.empty());
+
+		// When & Then
+		StepVerifier.create(orderService.deleteById(orderId))
+				.expectError(OrderNotFoundException.class)
+				.verify();
+		verify(orderRepository, times(1)).findByOrderIdAndIsActiveTrue(orderId);
+		verify(orderRepository, never()).save(any(OrderRecord.class));
+	}
+
+	private OrderRecord orderRecord(final Integer orderId) {
+		return OrderRecord.builder()
+				.orderId(orderId)
+				.orderDate(LocalDateTime.now())
+				.orderDesc("Test Order")
+				.orderFee(100.0)
+				.status(OrderStatus.CREATED)
+				.cartId(cartDto.getCartId())
+				.isActive(true)
+				.version(0L)
+				.build();
+	}
+
+	@Test
+	@DisplayName("Should deactivate the non-final orders of the carts with one UPDATE and record them in bulk")
+	void testDeactivateAllByCartIds() {
+		// Given
+		OrderRecord inPayment = OrderRecord.builder()
+				.orderId(2)
+				.orderDate(LocalDateTime.now())
+				.orderFee(5.0)
+				.status(OrderStatus.IN_PAYMENT)
+				.cartId(1)
+				.isActive(true)
+				.build();
+		when(orderRepository.lockActiveByCartIds(Set.of(1))).thenReturn(Flux.just(order, inPayment));
+		when(orderRepository.deactivateAllByCartIds(eq(Set.of(1)), anyCollection(), any(LocalDateTime.class)))
+				.thenReturn(Mono.just(1));
+
+		// When
+		Integer result = orderService.deactivateAllByCartIds(Set.of(1)).block();
+
+		// Then
+		assertEquals(Integer.valueOf(1), result);
+		verify(orderRepository, never()).save(any(OrderRecord.class));
+		verify(orderEventService, times(1)).recordAll(eq(OrderEventType.ORDER_DEACTIVATED),
+				argThat(orderDtos -> orderDtos.size() == 1 && orderDtos.get(0).getOrderId().equals(order.getOrderId())));
+		verify(orderRollupService, times(1)).recordDeactivated(argThat((List<OrderDto> orderDtos) -> orderDtos.size() == 1));
+	}
+
+	@Test
+	@DisplayName("Should fail the cart deactivation when the UPDATE moves a different number of orders than were locked")
+	void testDeactivateAllByCartIds_Conflict() {
+		// Given
+		when(orderRepository.lockActiveByCartIds(Set.of(1))).thenReturn(Flux.just(order));
+		when(orderRepository.deactivateAllByCartIds(eq(Set.of(1)), anyCollection(), any(LocalDateTime.class)))
+				.thenReturn(Mono.just(0));
+
+		// When & Then
+		StepVerifier.create(orderService.deactivateAllByCartIds(Set.of(1)))
+				.expectError(OrderStatusConflictException.class)
+				.verify();
+		verify(orderEventService, never()).recordAll(any(), anyList());
+	}
+
+}
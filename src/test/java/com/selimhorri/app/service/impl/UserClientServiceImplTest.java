@@ -0,0 +1,270 @@
+package com.selimhorri.app.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import com.selimhorri.app.cache.UserDtoCache;
+import com.selimhorri.app.config.client.UserServiceClientProperties;
+import com.selimhorri.app.dto.UserDto;
+import com.selimhorri.app.stub.UserServiceStub;
+
+@DisplayName("UserClientServiceImpl Tests")
+class UserClientServiceImplTest {
+
+	private UserServiceStub userServiceStub;
+	private ExecutorService executor;
+	private UserServiceClientProperties properties;
+	private SimpleMeterRegistry meterRegistry;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		userServiceStub = new UserServiceStub(0);
+		executor = Executors.newFixedThreadPool(16);
+		properties = new UserServiceClientProperties();
+		properties.setApiUrl(userServiceStub.apiUrl());
+		meterRegistry = new SimpleMeterRegistry();
+	}
+
+	@AfterEach
+	void tearDown() {
+		userServiceStub.close();
+		executor.shutdownNow();
+	}
+
+	private UserClientServiceImpl newService() {
+		return new UserClientServiceImpl(new RestTemplate(), WebClient.builder(), properties, executor,
+				new UserDtoCache(properties, meterRegistry), CircuitBreaker.ofDefaults("userService"));
+	}
+
+	@Test
+	@DisplayName("Should fetch each distinct user once")
+	void testFindAllByIds_Dedupes() {
+		// When
+		Map<Integer, Optional<UserDto>> result = newService().findAllByIds(Arrays.asList(1, 2, 2, 1, 3, null));
+
+		// Then
+		assertEquals(3, result.size());
+		assertEquals("User2", result.get(2).orElseThrow().getFirstName());
+		assertEquals(3, userServiceStub.singleLookups());
+	}
+
+	@Test
+	@DisplayName("Should map unknown users to an empty result")
+	void testFindAllByIds_UnknownUser() {
+		// Given
+		userServiceStub.withUnknownUsers(2);
+
+		// When
+		Map<Integer, Optional<UserDto>> result = newService().findAllByIds(Arrays.asList(1, 2));
+
+		// Then
+		assertTrue(result.get(1).isPresent());
+		assertTrue(result.containsKey(2));
+		assertTrue(result.get(2).isEmpty());
+	}
+
+	@Test
+	@DisplayName("Should use the bulk lookup when USER-SERVICE offers one")
+	void testFindAllByIds_BulkLookup() {
+		// Given
+		userServiceStub.withBulkEndpoint().withUnknownUsers(5);
+		properties.setBulkPath("/bulk");
+		properties.setBulkBatchSize(4);
+
+		// When
+		Map<Integer, Optional<UserDto>> result = newService().findAllByIds(ids(10));
+
+		// Then
+		assertEquals(10, result.size());
+		assertTrue(result.get(5).isEmpty());
+		assertEquals(3, userServiceStub.bulkLookups());
+		assertEquals(0, userServiceStub.singleLookups());
+	}
+
+	@Test
+	@DisplayName("Should fall back to single lookups when the bulk endpoint is missing")
+	void testFindAllByIds_BulkFallback() {
+		// Given
+		properties.setBulkPath("/bulk");
+
+		// When
+		Map<Integer, Optional<UserDto>> result = newService().findAllByIds(ids(5));
+
+		// Then
+		assertEquals(5, result.size());
+		result.values().forEach(u -> assertTrue(u.isPresent()));
+		assertEquals(5, userServiceStub.singleLookups());
+	}
+
+	@Test
+	@DisplayName("Should give up on unresolved users once the enrichment deadline passes")
+	void testFindAllByIds_Deadline() {
+		// Given
+		userServiceStub.withLatency(1_000);
+		properties.setEnrichmentTimeout(Duration.ofMillis(100));
+
+		// When
+		Map<Integer, Optional<UserDto>> result = newService().findAllByIds(ids(4));
+
+		// Then: returned before the first answer, so nothing was resolved
+		assertTrue(result.isEmpty());
+	}
+
+	@Test
+	@DisplayName("Should resolve users concurrently, never more at once than the enrichment parallelism")
+	void testFindAllByIds_Concurrent() {
+		// Given
+		userServiceStub.withLatency(100);
+		properties.setEnrichmentTimeout(Duration.ofSeconds(10));
+		properties.setEnrichmentParallelism(4);
+
+		// When
+		Map<Integer, Optional<UserDto>> result = newService().findAllByIds(ids(16));
+
+		// Then
+		assertEquals(16, result.size());
+		assertTrue(userServiceStub.maxConcurrentLookups() > 1, "Lookups ran one after another");
+		assertTrue(userServiceStub.maxConcurrentLookups() <= 4,
+				userServiceStub.maxConcurrentLookups() + " lookups in flight");
+	}
+
+	@Test
+	@DisplayName("Should resolve users one at a time with a parallelism of one")
+	void testFindAllByIds_Serial() {
+		// Given
+		properties.setEnrichmentParallelism(1);
+
+		// When
+		Map<Integer, Optional<UserDto>> result = newService().findAllByIds(ids(8));
+
+		// Then
+		assertEquals(8, result.size());
+		assertEquals(1, userServiceStub.maxConcurrentLookups());
+	}
+
+	@Test
+	@DisplayName("Should answer repeated lookups from the cache")
+	void testFindById_CacheHit() {
+		// Given
+		UserClientServiceImpl service = newService();
+
+		// When
+		service.findById(1);
+		Optional<UserDto> result = service.findById(1);
+		service.findAllByIds(Arrays.asList(1));
+
+		// Then
+		assertTrue(result.isPresent());
+		assertEquals(1, userServiceStub.singleLookups());
+		assertEquals(2.0, meterRegistry.counter("user_cache_hits_total").count());
+		assertEquals(1.0, meterRegistry.counter("user_cache_misses_total").count());
+	}
+
+	@Test
+	@DisplayName("Should remember unknown users for the negative TTL")
+	void testFindById_NegativeCache() {
+		// Given
+		userServiceStub.withUnknownUsers(7);
+		UserClientServiceImpl service = newService();
+
+		// When
+		Optional<UserDto> first = service.findById(7);
+		Optional<UserDto> second = service.findById(7);
+
+		// Then
+		assertTrue(first.isEmpty());
+		assertTrue(second.isEmpty());
+		assertEquals(1, userServiceStub.singleLookups());
+	}
+
+	@Test
+	@DisplayName("Should serve an expired entry while USER-SERVICE is down")
+	void testFindById_StaleOnError() {
+		// Given
+		properties.getCache().setTtl(Duration.ZERO);
+		UserClientServiceImpl service = newService();
+		service.findById(1);
+		userServiceStub.close();
+
+		// When
+		Optional<UserDto> result = service.findById(1);
+
+		// Then
+		assertEquals("User1", result.orElseThrow().getFirstName());
+		assertEquals(1.0, meterRegistry.counter("user_cache_stale_hits_total").count());
+	}
+
+	@Test
+	@DisplayName("Should fail when USER-SERVICE is down and stale entries are disabled")
+	void testFindById_NoStaleOnError() {
+		// Given
+		properties.getCache().setTtl(Duration.ZERO);
+		properties.getCache().setServeStale(false);
+		UserClientServiceImpl service = newService();
+		service.findById(1);
+		userServiceStub.close();
+
+		// When & Then
+		assertThrows(ResourceAccessException.class, () -> service.findById(1));
+	}
+
+	@Test
+	@DisplayName("Should resolve a user through the non-blocking client and cache it")
+	void testFindByIdReactive() {
+		// Given
+		userServiceStub.withUnknownUsers(2);
+		UserClientServiceImpl service = newService();
+
+		// When
+		UserDto found = service.findByIdReactive(1).block(Duration.ofSeconds(5));
+		UserDto unknown = service.findByIdReactive(2).block(Duration.ofSeconds(5));
+		Optional<UserDto> cached = service.findById(1);
+
+		// Then
+		assertEquals("User1", found.getFirstName());
+		assertNull(unknown);
+		assertTrue(cached.isPresent());
+		assertEquals(2, userServiceStub.singleLookups());
+	}
+
+	@Test
+	@DisplayName("Should serve an expired entry to the non-blocking client while USER-SERVICE is down")
+	void testFindByIdReactive_StaleOnError() {
+		// Given
+		properties.getCache().setTtl(Duration.ZERO);
+		UserClientServiceImpl service = newService();
+		service.findById(1);
+		userServiceStub.close();
+
+		// When
+		UserDto result = service.findByIdReactive(1).block(Duration.ofSeconds(5));
+
+		// Then
+		assertEquals("User1", result.getFirstName());
+	}
+
+	private static List<Integer> ids(final int count) {
+		return IntStream.rangeClosed(1, count).boxed().collect(Collectors.toList());
+	}
+
+}
@@ -0,0 +1,153 @@
+package com.selimhorri.app.stub;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * In-process stand-in for USER-SERVICE with injectable latency. Serves
+ * {@code GET /user-service/api/users/{id}} and, when enabled,
+ * {@code GET /user-service/api/users/bulk?ids=1,2,3}.
+ */
+public final class UserServiceStub implements AutoCloseable {
+	
+	public static final String API_PATH = "/user-service/api/users";
+	
+	private final HttpServer server;
+	private final ExecutorService executor;
+	private final Set<Integer> unknownUserIds = ConcurrentHashMap.newKeySet();
+	private final AtomicInteger singleLookups = new AtomicInteger();
+	private final AtomicInteger bulkLookups = new AtomicInteger();
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final AtomicInteger maxInFlight = new AtomicInteger();
+	private final AtomicBoolean closed = new AtomicBoolean();
+	private volatile long latencyMillis;
+	private volatile boolean bulkEnabled;
+	
+	public UserServiceStub(final long latencyMillis) throws IOException {
+		this.latencyMillis = latencyMillis;
+		this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		this.executor = Executors.newCachedThreadPool();
+		this.server.setExecutor(this.executor);
+		this.server.createContext(API_PATH, this::handle);
+		this.server.start();
+	}
+	
+	public String baseUrl() {
+		return "http://localhost:" + this.server.getAddress().getPort();
+	}
+	
+	public String apiUrl() {
+		return this.baseUrl() + API_PATH;
+	}
+	
+	public UserServiceStub withLatency(final long latencyMillis) {
+		this.latencyMillis = latencyMillis;
+		return this;
+	}
+	
+	public UserServiceStub withBulkEndpoint() {
+		this.bulkEnabled = true;
+		return this;
+	}
+	
+	public UserServiceStub withUnknownUsers(final Integer... userIds) {
+		this.unknownUserIds.addAll(Arrays.asList(userIds));
+		return this;
+	}
+	
+	public int singleLookups() {
+		return this.singleLookups.get();
+	}
+	
+	public int bulkLookups() {
+		return this.bulkLookups.get();
+	}
+	
+	// Most requests that were being served at the same time
+	public int maxConcurrentLookups() {
+		return this.maxInFlight.get();
+	}
+	
+	private void handle(final HttpExchange exchange) throws IOException {
+		this.maxInFlight.accumulateAndGet(this.inFlight.incrementAndGet(), Math::max);
+		try {
+			this.sleep();
+			final String path = exchange.getRequestURI().getPath().substring(API_PATH.length());
+			if (this.bulkEnabled && path.equals("/bulk")) {
+				this.bulkLookups.incrementAndGet();
+				final String query = exchange.getRequestURI().getQuery();
+				final String users = Arrays.stream(query.substring(query.indexOf('=') + 1).split(","))
+						.map(Integer::valueOf)
+						.filter(id -> !this.unknownUserIds.contains(id))
+						.map(UserServiceStub::userJson)
+						.collect(Collectors.joining(","));
+				respond(exchange, 200, "{\"collection\":[" + users + "]}");
+				return;
+			}
+			final Integer userId;
+			try {
+				userId = Integer.valueOf(path.substring(1));
+			}
+			catch (RuntimeException e) {
+				respond(exchange, 404, "{}");
+				return;
+			}
+			this.singleLookups.incrementAndGet();
+			if (this.unknownUserIds.contains(userId))
+				respond(exchange, 404, "{}");
+			else
+				respond(exchange, 200, userJson(userId));
+		}
+		finally {
+			this.inFlight.decrementAndGet();
+			exchange.close();
+		}
+	}
+	
+	private void sleep() {
+		if (this.latencyMillis <= 0)
+			return;
+		try {
+			Thread.sleep(this.latencyMillis);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	private static String userJson(final Integer userId) {
+		return String.format("{\"userId\":%d,\"firstName\":\"User%d\",\"lastName\":\"Stub\",\"email\":\"user%d@example.com\"}",
+				userId, userId, userId);
+	}
+	
+	private static void respond(final HttpExchange exchange, final int status, final String body) throws IOException {
+		final byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+	
+	@Override
+	public void close() {
+		if (!this.closed.compareAndSet(false, true))
+			return;
+		this.server.stop(0);
+		this.executor.shutdownNow();
+	}
+	
+}